@@ -17,6 +17,7 @@ dependencies {
     jmh(project(":rewrite-java-21"))
     jmh(project(":rewrite-javascript"))
     jmh(project(":rewrite-maven"))
+    jmh(project(":rewrite-yaml"))
     jmh("org.antlr:antlr4-runtime:4.13.2")
     jmh("org.rocksdb:rocksdbjni:10.2.1")
     jmh("org.openjdk.jmh:jmh-core:latest.release")
@@ -24,6 +25,11 @@ dependencies {
     jmh("io.github.fastfilter:fastfilter:latest.release")
     jmh("org.xerial.snappy:snappy-java:1.1.10.7")
 
+    // Type graphs of a typical Spring application for the type hierarchy benchmarks
+    jmh("org.springframework:spring-webmvc:6.2.8")
+    jmh("org.springframework:spring-jdbc:6.2.8")
+    jmh("jakarta.servlet:jakarta.servlet-api:6.1.0")
+
     // Nebula doesn't like having jmhAnnotationProcessor without jmh so we just add it twice.
     jmh("org.openjdk.jmh:jmh-generator-annprocess:latest.release")
     jmhAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:latest.release")
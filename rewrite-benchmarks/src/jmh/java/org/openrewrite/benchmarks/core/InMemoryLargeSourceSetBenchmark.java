@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.benchmarks.core;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.Changeset;
+import org.openrewrite.LargeSourceSet;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.marker.RecipesThatMadeChanges;
+import org.openrewrite.text.PlainText;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Measures {@link InMemoryLargeSourceSet#getBefore(Path)} and {@link InMemoryLargeSourceSet#getChangeset()}
+ * on large source sets where only a small fraction of source files change, which is the common shape of
+ * a recipe run on a large repository.
+ * <ul>
+ *   <li><b>getBeforeSample</b> — 1,000 {@code getBefore} lookups, as made by recipes that consult the
+ *       original state of each file they visit.</li>
+ *   <li><b>getChangeset</b> — builds the changeset after 0.1% of the source files were edited.</li>
+ * </ul>
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InMemoryLargeSourceSetBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"10000", "100000"})
+        int sourceFiles;
+
+        List<Path> lookups;
+        LargeSourceSet edited;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            List<SourceFile> sources = new ArrayList<>(sourceFiles);
+            for (int i = 0; i < sourceFiles; i++) {
+                sources.add(PlainText.builder()
+                        .sourcePath(Paths.get("src/main/resources/file" + i + ".txt"))
+                        .text("file" + i)
+                        .build());
+            }
+
+            lookups = new ArrayList<>(1_000);
+            for (int i = 0; i < 1_000; i++) {
+                lookups.add(sources.get((int) ((long) i * sourceFiles / 1_000)).getSourcePath());
+            }
+
+            edited = new InMemoryLargeSourceSet(sources).edit(s -> {
+                PlainText text = (PlainText) s;
+                if (text.getSourcePath().hashCode() % 1_000 != 0) {
+                    return text;
+                }
+                return text.withText(text.getText() + "!")
+                        .withMarkers(text.getMarkers().add(new RecipesThatMadeChanges(Tree.randomId(), emptyList())));
+            });
+            // build the lazily initialized index outside the measurement
+            edited.getBefore(lookups.get(0));
+        }
+    }
+
+    @Benchmark
+    public void getBeforeSample(Data data, Blackhole bh) {
+        for (Path lookup : data.lookups) {
+            bh.consume(data.edited.getBefore(lookup));
+        }
+    }
+
+    @Benchmark
+    public int getChangeset(Data data) {
+        Changeset changeset = data.edited.getChangeset();
+        return changeset.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(InMemoryLargeSourceSetBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
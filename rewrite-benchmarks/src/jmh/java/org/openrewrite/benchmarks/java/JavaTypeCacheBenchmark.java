@@ -22,6 +22,7 @@
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.java.internal.ConcurrentJavaTypeCache;
 import org.openrewrite.java.internal.JavaTypeCache;
 
 import java.net.URISyntaxException;
@@ -98,6 +99,83 @@ public void readAdaptiveRadixAddOpens(JavaCompilationUnitState state, Blackhole
         }
     }
 
+    /**
+     * A cache shared by every benchmark thread, recreated for each iteration so that the first pass
+     * over the signatures populates it while later passes are read-mostly, as when many parsers share
+     * one cache.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedTypeCache {
+        ConcurrentJavaTypeCache concurrent;
+        JavaTypeCache synchronizedCache;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            concurrent = new ConcurrentJavaTypeCache();
+            synchronizedCache = new JavaTypeCache();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void sharedConcurrent01(JavaCompilationUnitState state, SharedTypeCache shared, Blackhole bh) {
+        getOrPutConcurrent(state, shared, bh);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void sharedConcurrent08(JavaCompilationUnitState state, SharedTypeCache shared, Blackhole bh) {
+        getOrPutConcurrent(state, shared, bh);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void sharedConcurrent32(JavaCompilationUnitState state, SharedTypeCache shared, Blackhole bh) {
+        getOrPutConcurrent(state, shared, bh);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void sharedSynchronized01(JavaCompilationUnitState state, SharedTypeCache shared, Blackhole bh) {
+        getOrPutSynchronized(state, shared, bh);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void sharedSynchronized08(JavaCompilationUnitState state, SharedTypeCache shared, Blackhole bh) {
+        getOrPutSynchronized(state, shared, bh);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void sharedSynchronized32(JavaCompilationUnitState state, SharedTypeCache shared, Blackhole bh) {
+        getOrPutSynchronized(state, shared, bh);
+    }
+
+    private static void getOrPutConcurrent(JavaCompilationUnitState state, SharedTypeCache shared, Blackhole bh) {
+        for (Map.Entry<String, Object> entry : state.typeCache.map().entrySet()) {
+            Object type = shared.concurrent.get(entry.getKey());
+            if (type == null) {
+                shared.concurrent.put(entry.getKey(), entry.getValue());
+            }
+            bh.consume(type);
+        }
+    }
+
+    private static void getOrPutSynchronized(JavaCompilationUnitState state, SharedTypeCache shared, Blackhole bh) {
+        JavaTypeCache cache = shared.synchronizedCache;
+        for (Map.Entry<String, Object> entry : state.typeCache.map().entrySet()) {
+            Object type;
+            synchronized (cache) {
+                type = cache.get(entry.getKey());
+                if (type == null) {
+                    cache.put(entry.getKey(), entry.getValue());
+                }
+            }
+            bh.consume(type);
+        }
+    }
+
     public static void main(String[] args) throws RunnerException, URISyntaxException {
         Options opt = new OptionsBuilder()
                 .include(JavaTypeCacheBenchmark.class.getSimpleName())
@@ -22,8 +22,10 @@
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.MethodMatcherSet;
 import org.openrewrite.java.tree.JavaType;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
@@ -239,6 +241,60 @@ public void deepSubpackagePatternMatch(SubpackagePattern state, Blackhole bh) {
         }
     }
 
+    // Many patterns, as in large declarative migrations
+    @State(Scope.Benchmark)
+    public static class ManyPatterns {
+        @Param({"1", "100", "5000"})
+        int patternCount;
+
+        List<MethodMatcher> matchers;
+        MethodMatcherSet matcherSet;
+
+        JavaType.Method[] methods = new JavaType.Method[] {
+            newMethodType("com.example.pkg0.Type0", "method0", "java.lang.String"),
+            newMethodType("com.example.pkg7.Type7", "method3", "java.lang.String"),
+            newMethodType("com.example.pkg9.sub.Type9", "find", "long"),
+            newMethodType("java.util.List", "add", "java.lang.Object")
+        };
+
+        @Setup
+        public void setup() {
+            matchers = new ArrayList<>(patternCount);
+            for (int i = 0; i < patternCount; i++) {
+                switch (i % 4) {
+                    case 0:
+                        matchers.add(new MethodMatcher("com.example.pkg" + i + ".Type" + i + " method" + i + "(java.lang.String)"));
+                        break;
+                    case 1:
+                        matchers.add(new MethodMatcher("com.example.pkg" + i + ".* method" + i + "(..)"));
+                        break;
+                    case 2:
+                        matchers.add(new MethodMatcher("com.example.pkg" + i + "..* find*(long)"));
+                        break;
+                    default:
+                        matchers.add(new MethodMatcher("com.example.pkg" + i + ".Type" + i + " method" + i + "(..)", true));
+                }
+            }
+            matcherSet = new MethodMatcherSet(matchers);
+        }
+    }
+
+    @Benchmark
+    public void manyPatternsIndividually(ManyPatterns state, Blackhole bh) {
+        for (JavaType.Method method : state.methods) {
+            for (MethodMatcher matcher : state.matchers) {
+                bh.consume(matcher.matches(method));
+            }
+        }
+    }
+
+    @Benchmark
+    public void manyPatternsMatcherSet(ManyPatterns state, Blackhole bh) {
+        for (JavaType.Method method : state.methods) {
+            bh.consume(state.matcherSet.matching(method));
+        }
+    }
+
     // Helper method to create JavaType.Method instances
     private static JavaType.Method newMethodType(String type, String method, String... parameterTypes) {
         List<JavaType> parameterTypeList = Stream.of(parameterTypes)
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.benchmarks.java;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.ConstructorDetector;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.rpc.RpcBinaryEncoding;
+import org.openrewrite.rpc.RpcBinaryFrames;
+import org.openrewrite.rpc.RpcObjectData;
+import org.openrewrite.rpc.RpcSendQueue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding the {@link RpcObjectData} batches of a {@code GetObject} exchange as JSON, which is what
+ * the JSON-RPC transport does by default, with the {@link RpcBinaryEncoding} negotiated by peers that support it.
+ * Both are measured as the messages on the wire, which for the binary encoding are the frame that carries the batch
+ * and the JSON-RPC response that carries the frame's id.
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RpcEncodingBenchmark {
+    private static final TypeReference<Response<List<RpcObjectData>>> JSON_RESPONSE =
+            new TypeReference<Response<List<RpcObjectData>>>() {
+            };
+
+    private static final TypeReference<Response<Long>> FRAME_RESPONSE =
+            new TypeReference<Response<Long>>() {
+            };
+
+    ObjectMapper json = JsonMapper.builder()
+            .constructorDetector(ConstructorDetector.USE_PROPERTIES_BASED)
+            .build()
+            .registerModules(new ParameterNamesModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    List<List<RpcObjectData>> batches;
+    List<byte[]> jsonMessages;
+    List<byte[]> binaryMessages;
+
+    /**
+     * The JSON-RPC response a {@code GetObject} batch is returned in.
+     */
+    record Response<T>(String jsonrpc, String id, T result) {
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws URISyntaxException, IOException {
+        JavaCompilationUnitState state = new JavaCompilationUnitState();
+        state.setup();
+
+        batches = new ArrayList<>();
+        IdentityHashMap<Object, Integer> refs = new IdentityHashMap<>();
+        for (SourceFile sourceFile : state.sourceFiles) {
+            RpcSendQueue q = new RpcSendQueue(1000, batches::add, refs, J.CompilationUnit.class.getName(), false);
+            q.send(sourceFile, null, null);
+            q.flush();
+        }
+
+        jsonMessages = new ArrayList<>(batches.size());
+        binaryMessages = new ArrayList<>(batches.size());
+        for (List<RpcObjectData> batch : batches) {
+            jsonMessages.add(encodeJson(batch));
+            binaryMessages.add(encodeBinary(batch));
+        }
+    }
+
+    @Benchmark
+    public void encodeJson(Blackhole bh) throws IOException {
+        for (List<RpcObjectData> batch : batches) {
+            bh.consume(encodeJson(batch));
+        }
+    }
+
+    @Benchmark
+    public void encodeBinary(Blackhole bh) throws IOException {
+        for (List<RpcObjectData> batch : batches) {
+            bh.consume(encodeBinary(batch));
+        }
+    }
+
+    @Benchmark
+    public void decodeJson(Blackhole bh) throws IOException {
+        for (byte[] message : jsonMessages) {
+            bh.consume(json.readValue(body(message), JSON_RESPONSE).result());
+        }
+    }
+
+    @Benchmark
+    public void decodeBinary(Blackhole bh) throws IOException {
+        for (byte[] messages : binaryMessages) {
+            RpcBinaryFrames frames = new RpcBinaryFrames();
+            byte[] response = frames.in(new ByteArrayInputStream(messages)).readAllBytes();
+            long frame = json.readValue(body(response), FRAME_RESPONSE).result();
+            bh.consume(RpcBinaryEncoding.decode(frames.take(frame)));
+        }
+    }
+
+    private byte[] encodeJson(List<RpcObjectData> batch) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeMessage(out, json.writeValueAsBytes(new Response<>("2.0", "1", batch)));
+        return out.toByteArray();
+    }
+
+    private byte[] encodeBinary(List<RpcObjectData> batch) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RpcBinaryFrames frames = new RpcBinaryFrames();
+        OutputStream transport = frames.out(out);
+        long frame = frames.write(RpcBinaryEncoding.encode(batch));
+        writeMessage(transport, json.writeValueAsBytes(new Response<>("2.0", "1", frame)));
+        return out.toByteArray();
+    }
+
+    private static void writeMessage(OutputStream out, byte[] body) throws IOException {
+        out.write(("Content-Length: " + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(body);
+    }
+
+    private static byte[] body(byte[] message) {
+        for (int i = 0; ; i++) {
+            if (message[i] == '\r' && message[i + 1] == '\n' && message[i + 2] == '\r' && message[i + 3] == '\n') {
+                return Arrays.copyOfRange(message, i + 4, message.length);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RpcEncodingBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
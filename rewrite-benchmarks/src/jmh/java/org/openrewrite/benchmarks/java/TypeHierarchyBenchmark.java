@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.benchmarks.java;
+
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeHierarchy;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link TypeHierarchy} against {@link TypeUtils} on the type graph of a Spring MVC controller: every
+ * type in use, and all of their supertypes, asked whether it is assignable to every one of them.
+ * Most of these types are deep in Spring's hierarchies, where {@link TypeUtils} walks the most supertypes.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class TypeHierarchyBenchmark {
+    List<JavaType.FullyQualified> types;
+    List<String> names;
+    TypeHierarchy hierarchy;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        @org.intellij.lang.annotations.Language("java")
+        String source = """
+                package org.openrewrite.benchmarks.sample;
+
+                import java.util.List;
+                import java.util.Map;
+                import org.springframework.beans.factory.annotation.Autowired;
+                import org.springframework.context.ApplicationListener;
+                import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+                import org.springframework.context.event.ContextRefreshedEvent;
+                import org.springframework.context.support.GenericApplicationContext;
+                import org.springframework.core.env.StandardEnvironment;
+                import org.springframework.http.HttpStatus;
+                import org.springframework.http.ResponseEntity;
+                import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+                import org.springframework.transaction.annotation.Transactional;
+                import org.springframework.transaction.support.TransactionTemplate;
+                import org.springframework.web.bind.annotation.*;
+                import org.springframework.web.servlet.DispatcherServlet;
+                import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+                import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+                import org.springframework.web.servlet.view.InternalResourceViewResolver;
+
+                @RestController
+                @RequestMapping("/owners")
+                public class OwnerController implements ApplicationListener<ContextRefreshedEvent> {
+                    @Autowired
+                    private TransactionTemplate transactions;
+
+                    private final Map<Long, List<String>> owners = new java.util.HashMap<>();
+
+                    @GetMapping("/{id}")
+                    public ResponseEntity<List<String>> find(@PathVariable Long id) {
+                        return ResponseEntity.ok(owners.get(id));
+                    }
+
+                    @PostMapping
+                    @Transactional
+                    public ResponseEntity<Void> create(@RequestBody List<String> pets) {
+                        owners.put((long) owners.size(), pets);
+                        return new ResponseEntity<>(HttpStatus.CREATED);
+                    }
+
+                    @Override
+                    public void onApplicationEvent(ContextRefreshedEvent event) {
+                    }
+
+                    static GenericApplicationContext context() {
+                        AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+                        ctx.setEnvironment(new StandardEnvironment());
+                        ctx.registerBean(DispatcherServlet.class);
+                        ctx.registerBean(RequestMappingHandlerMapping.class);
+                        ctx.registerBean(RequestMappingHandlerAdapter.class);
+                        ctx.registerBean(InternalResourceViewResolver.class);
+                        ctx.registerBean(DataSourceTransactionManager.class);
+                        return ctx;
+                    }
+                }
+                """;
+
+        List<SourceFile> parsed = JavaParser.fromJavaVersion()
+                .classpath("spring-context", "spring-beans", "spring-core", "spring-web", "spring-webmvc",
+                        "spring-tx", "spring-jdbc", "spring-aop", "spring-expression", "jakarta.servlet-api")
+                .build()
+                .parse(new InMemoryExecutionContext(), source)
+                .toList();
+        JavaSourceFile sample = (JavaSourceFile) parsed.getFirst();
+
+        Set<JavaType.FullyQualified> reachable = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (JavaType type : sample.getTypesInUse().getTypesInUse()) {
+            addWithSupertypes(TypeUtils.asFullyQualified(type), reachable);
+        }
+        types = new ArrayList<>(reachable);
+        names = new ArrayList<>(types.size());
+        for (JavaType.FullyQualified type : types) {
+            names.add(type.getFullyQualifiedName());
+        }
+
+        hierarchy = new TypeHierarchy();
+        for (JavaType.FullyQualified from : types) {
+            hierarchy.isAssignableTo("java.lang.Object", from);
+        }
+    }
+
+    private static void addWithSupertypes(JavaType.@Nullable FullyQualified type,
+                                          Set<JavaType.FullyQualified> reachable) {
+        if (type == null || type instanceof JavaType.Unknown || !reachable.add(type)) {
+            return;
+        }
+        if (type instanceof JavaType.Parameterized) {
+            addWithSupertypes(((JavaType.Parameterized) type).getType(), reachable);
+        }
+        addWithSupertypes(type.getSupertype(), reachable);
+        for (JavaType.FullyQualified anInterface : type.getInterfaces()) {
+            addWithSupertypes(anInterface, reachable);
+        }
+    }
+
+    @Benchmark
+    public void typeUtilsByName(Blackhole bh) {
+        for (JavaType.FullyQualified from : types) {
+            for (String to : names) {
+                bh.consume(TypeUtils.isAssignableTo(to, from));
+            }
+        }
+    }
+
+    /**
+     * The supertypes of every type are already computed, as they are for all but the first questions of a run.
+     */
+    @Benchmark
+    public void typeHierarchyByName(Blackhole bh) {
+        for (JavaType.FullyQualified from : types) {
+            for (String to : names) {
+                bh.consume(hierarchy.isAssignableTo(to, from));
+            }
+        }
+    }
+
+    /**
+     * Includes computing the supertypes of every type, as the first questions of a run do.
+     */
+    @Benchmark
+    public void typeHierarchyByNameCold(Blackhole bh) {
+        TypeHierarchy cold = new TypeHierarchy();
+        for (JavaType.FullyQualified from : types) {
+            for (String to : names) {
+                bh.consume(cold.isAssignableTo(to, from));
+            }
+        }
+    }
+
+    @Benchmark
+    public void typeUtilsByType(Blackhole bh) {
+        for (JavaType.FullyQualified from : types) {
+            for (JavaType.FullyQualified to : types) {
+                bh.consume(TypeUtils.isAssignableTo(to, from));
+            }
+        }
+    }
+
+    @Benchmark
+    public void typeHierarchyByType(Blackhole bh) {
+        for (JavaType.FullyQualified from : types) {
+            for (JavaType.FullyQualified to : types) {
+                bh.consume(hierarchy.isAssignableTo(to, from));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(TypeHierarchyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.benchmarks.yaml;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openrewrite.yaml.JsonPathMatcher;
+import org.openrewrite.yaml.YamlIsoVisitor;
+import org.openrewrite.yaml.YamlParser;
+import org.openrewrite.yaml.tree.Yaml;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches every entry of a Helm-style document of several thousand lines against a JsonPath,
+ * the way recipes like {@code ChangePropertyValue} and {@code MergeYaml} do.
+ */
+@Fork(1)
+@Measurement(iterations = 2)
+@Warmup(iterations = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class JsonPathMatcherBenchmark {
+
+    @Param({"$.spec.template.spec.replicas", "$.spec.template.spec.containers[*].image", "$..limits.cpu"})
+    String jsonPath;
+
+    Yaml.Documents documents;
+
+    @Setup
+    public void setup() {
+        StringBuilder yaml = new StringBuilder()
+                .append("defaults: &defaults\n")
+                .append("  cpu: 500m\n")
+                .append("  memory: 128Mi\n")
+                .append("spec:\n")
+                .append("  template:\n")
+                .append("    spec:\n")
+                .append("      replicas: 3\n")
+                .append("      containers:\n");
+        for (int i = 0; i < 400; i++) {
+            yaml.append("        - name: container-").append(i).append('\n')
+                    .append("          image: registry.example.com/app-").append(i).append(":1.0.").append(i).append('\n')
+                    .append("          env:\n")
+                    .append("            - name: INDEX\n")
+                    .append("              value: \"").append(i).append("\"\n")
+                    .append("          resources:\n")
+                    .append("            limits: *defaults\n")
+                    .append("            requests:\n")
+                    .append("              cpu: 100m\n");
+        }
+        documents = (Yaml.Documents) YamlParser.builder().build()
+                .parse(yaml.toString())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Expected a YAML document"));
+    }
+
+    @Benchmark
+    public void matchEveryEntry(Blackhole blackhole) {
+        JsonPathMatcher matcher = new JsonPathMatcher(jsonPath);
+        new YamlIsoVisitor<Blackhole>() {
+            @Override
+            public Yaml.Mapping.Entry visitMappingEntry(Yaml.Mapping.Entry entry, Blackhole bh) {
+                bh.consume(matcher.matches(getCursor()));
+                return super.visitMappingEntry(entry, bh);
+            }
+        }.visit(documents, blackhole);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(JsonPathMatcherBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.binary.Binary;
+import org.openrewrite.quark.Quark;
+
+/**
+ * Compares what is printed to it with an expected text as it is printed, instead of capturing it, and stops the
+ * printer at the first character that differs by throwing, which {@link #printEquals} expects. Checking that a
+ * source file prints back to its input this way takes no memory for the printed text and, when they differ, only
+ * prints up to the difference.
+ * <p>
+ * Only what printers {@link #append} is compared. As long as the printed text matches, {@link #getOut()} returns
+ * what was printed so far, for printers that look back at it.
+ */
+@Incubating(since = "8.85.0")
+public class ComparingPrintOutputCapture<P> extends PrintOutputCapture<P> {
+    private static final Mismatch MISMATCH = new Mismatch();
+
+    private final CharSequence expected;
+    private final boolean ignoreLeadingBom;
+
+    private int pos;
+    private boolean printedAny;
+    private boolean mismatched;
+
+    /**
+     * @param p                The printer context.
+     * @param expected         The text the printer is expected to print.
+     * @param ignoreLeadingBom Whether a byte order mark at the start of either the printed or the expected text
+     *                         is ignored, for source files whose charset has one.
+     */
+    public ComparingPrintOutputCapture(P p, CharSequence expected, boolean ignoreLeadingBom) {
+        super(p);
+        this.ignoreLeadingBom = ignoreLeadingBom;
+        this.expected = ignoreLeadingBom && expected.length() > 0 && expected.charAt(0) == '\uFEFF' ?
+                expected.subSequence(1, expected.length()) :
+                expected;
+    }
+
+    /**
+     * Print the source file and compare it with its input as {@link SourceFile#printEqualsInput} does, including
+     * how a byte order mark at the start of either is treated.
+     *
+     * @return Whether the source file prints exactly as the input text.
+     */
+    public static boolean printEquals(SourceFile sourceFile, String input) {
+        boolean bomMarked = false;
+        try {
+            bomMarked = !(sourceFile instanceof Quark) &&
+                        !(sourceFile instanceof Binary) &&
+                        sourceFile.isCharsetBomMarked();
+        } catch (UnsupportedOperationException e) {
+            // Defensive fallback for any other SourceFile implementations that don't support charset operations
+        }
+
+        ComparingPrintOutputCapture<Integer> out = new ComparingPrintOutputCapture<>(0, input, bomMarked);
+        Cursor cursor = new Cursor(null, "root");
+        try {
+            sourceFile.<Integer>printer(cursor).visit(sourceFile, out, cursor);
+        } catch (RuntimeException e) {
+            if (!isMismatch(e)) {
+                throw e;
+            }
+        }
+        // a byte order mark is only ever added to a non-empty text, so with it ignored an empty text still only
+        // equals another empty text
+        return out.matches() && out.printedAny == !input.isEmpty();
+    }
+
+    /**
+     * @return Whether everything printed so far matches the expected text, and all of it was printed.
+     */
+    public boolean matches() {
+        return !mismatched && pos == expected.length();
+    }
+
+    /**
+     * @return The index into the expected text of the first character that differs from what was printed,
+     * or -1 when nothing differs so far.
+     */
+    public int getMismatchIndex() {
+        return mismatched ? pos : -1;
+    }
+
+    @Override
+    public String getOut() {
+        return expected.subSequence(0, pos).toString();
+    }
+
+    @Override
+    public PrintOutputCapture<P> append(@Nullable String text) {
+        if (text == null || text.isEmpty()) {
+            return this;
+        }
+        int from = 0;
+        if (!printedAny) {
+            printedAny = true;
+            if (ignoreLeadingBom && text.charAt(0) == '\uFEFF') {
+                from = 1;
+            }
+        }
+        if (mismatched) {
+            throw MISMATCH;
+        }
+        int length = text.length() - from;
+        int comparable = Math.min(length, expected.length() - pos);
+        for (int i = 0; i < comparable; i++) {
+            if (text.charAt(from + i) != expected.charAt(pos + i)) {
+                return mismatch(pos + i);
+            }
+        }
+        if (length > comparable) {
+            return mismatch(pos + comparable);
+        }
+        pos += length;
+        return this;
+    }
+
+    @Override
+    public PrintOutputCapture<P> append(char c) {
+        if (!printedAny) {
+            printedAny = true;
+            if (ignoreLeadingBom && c == '\uFEFF') {
+                return this;
+            }
+        }
+        if (mismatched) {
+            throw MISMATCH;
+        }
+        if (pos == expected.length() || expected.charAt(pos) != c) {
+            return mismatch(pos);
+        }
+        pos++;
+        return this;
+    }
+
+    private PrintOutputCapture<P> mismatch(int at) {
+        mismatched = true;
+        pos = at;
+        throw MISMATCH;
+    }
+
+    private static boolean isMismatch(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause == MISMATCH) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Thrown to stop the printer at the first difference. It is shared and has no stack trace, since it only
+     * ever unwinds to {@link #printEquals}.
+     */
+    private static class Mismatch extends RuntimeException {
+        Mismatch() {
+            super(null, null, false, false);
+        }
+    }
+}
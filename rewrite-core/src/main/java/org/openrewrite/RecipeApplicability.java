@@ -0,0 +1,33 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite;
+
+/**
+ * Implemented by recipes that can rule out a source file without building a visitor for it, usually by
+ * consulting an index built once for the run. The recipe scheduler doesn't run such a recipe on the source
+ * files it rules out, and a declarative recipe skips its recipe list for a source file when one of its
+ * preconditions rules the source file out.
+ */
+@Incubating(since = "8.85.0")
+public interface RecipeApplicability {
+
+    /**
+     * @param sourceFile The source file the recipe is about to run on.
+     * @param ctx        The execution context of the run.
+     * @return {@code false} only when the recipe's visitor certainly makes no change to the source file.
+     */
+    boolean mayApply(SourceFile sourceFile, ExecutionContext ctx);
+}
@@ -121,7 +121,7 @@ private LargeSourceSet runRecipeCycles(Recipe recipe, LargeSourceSet sourceSet,
                     }
 
                     after.afterCycle(i == maxCycles);
-                    ctxWithWatch.resetHasNewMessages();
+                    ctxWithWatch.resetHasNewMessagesOnAllThreads();
                 } finally {
                     // Clear any messages that were added to the root cursor during the cycle. This is important
                     // to avoid leaking memory in the case when a recipe defines a static TreeVisitor. That
@@ -16,9 +16,7 @@
 package org.openrewrite;
 
 import org.jspecify.annotations.Nullable;
-import org.openrewrite.binary.Binary;
 import org.openrewrite.internal.StringUtils;
-import org.openrewrite.quark.Quark;
 import org.openrewrite.style.Style;
 
 import java.nio.charset.Charset;
@@ -38,7 +36,6 @@ public interface SourceFile extends Tree {
      * @return <code>true</code> if the parse-to-print loop is idempotent, <code>false</code> otherwise.
      */
     default boolean printEqualsInput(Parser.Input input, ExecutionContext ctx) {
-        String printed = printAll();
         Charset charset = getCharset();
         String readFromInput;
         if (charset != null) {
@@ -46,23 +43,7 @@ default boolean printEqualsInput(Parser.Input input, ExecutionContext ctx) {
         } else {
             readFromInput = StringUtils.readFully(input.getSource(ctx));
         }
-
-        // Restore BOM if the source file originally had one
-        // should be in sync with the BOM restore logic in Tree.print()
-        try {
-            if (!(this instanceof Quark) &&
-                !(this instanceof Binary) &&
-                isCharsetBomMarked() &&
-                !readFromInput.isEmpty() &&
-                readFromInput.charAt(0) != '\uFEFF'
-            ) {
-                readFromInput = '\uFEFF' + readFromInput;
-            }
-        } catch (UnsupportedOperationException e) {
-            // Defensive fallback for any other SourceFile implementations that don't support charset operations
-        }
-
-        return printed.equals(readFromInput);
+        return ComparingPrintOutputCapture.printEquals(this, readFromInput);
     }
 
     /**
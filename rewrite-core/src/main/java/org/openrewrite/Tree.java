@@ -86,7 +86,7 @@ default <P> String print(Cursor cursor, PrintOutputCapture<P> out) {
         this.<P>printer(cursor).visit(this, out, cursor);
 
         // Restore BOM if the source file originally had one
-        // should be in sync with the BOM restore logic in SourceFile.printEqualsInput()
+        // should be in sync with the BOM restore logic in ComparingPrintOutputCapture.printEquals()
         if (this instanceof SourceFile &&
             !(this instanceof Quark) &&
             !(this instanceof Binary)) {
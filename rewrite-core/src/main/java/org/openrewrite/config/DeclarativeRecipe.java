@@ -239,6 +239,10 @@ public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
 
                 @Override
                 public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                    if (tree instanceof SourceFile && declarativeRecipe.preconditionsRuleOut((SourceFile) tree, ctx)) {
+                        preconditionApplicable = false;
+                        return tree;
+                    }
                     Tree t = resolve(ctx).visit(tree, ctx);
                     preconditionApplicable = t != tree;
                     return tree;
@@ -262,7 +266,7 @@ private TreeVisitor<?, ExecutionContext> resolve(ExecutionContext ctx) {
 
     @EqualsAndHashCode(callSuper = false)
     @Value
-    static class BellwetherDecoratedRecipe extends Recipe implements DelegatingRecipe, RecipePreconditions {
+    static class BellwetherDecoratedRecipe extends Recipe implements DelegatingRecipe, RecipePreconditions, RecipeApplicability {
 
         DeclarativeRecipe.PreconditionBellwether bellwether;
         Recipe delegate;
@@ -294,7 +298,13 @@ public String getInstanceNameSuffix() {
 
         @Override
         public TreeVisitor<?, ExecutionContext> getVisitor() {
-            return Preconditions.check(bellwether.isPreconditionApplicable(), delegate.getVisitor());
+            // the delegate's visitor isn't built for source files the preconditions rule out
+            return bellwether.isPreconditionApplicable() ? delegate.getVisitor() : TreeVisitor.noop();
+        }
+
+        @Override
+        public boolean mayApply(SourceFile sourceFile, ExecutionContext ctx) {
+            return !(delegate instanceof RecipeApplicability) || ((RecipeApplicability) delegate).mayApply(sourceFile, ctx);
         }
 
         @Override
@@ -373,7 +383,7 @@ public List<Recipe> getPreconditions() {
 
     @Value
     @EqualsAndHashCode(callSuper = false)
-    static class BellwetherDecoratedScanningRecipe<T> extends ScanningRecipe<T> implements DelegatingRecipe, RecipePreconditions {
+    static class BellwetherDecoratedScanningRecipe<T> extends ScanningRecipe<T> implements DelegatingRecipe, RecipePreconditions, RecipeApplicability {
 
         DeclarativeRecipe.PreconditionBellwether bellwether;
         ScanningRecipe<T> delegate;
@@ -395,7 +405,13 @@ public TreeVisitor<?, ExecutionContext> getScanner(T acc) {
 
         @Override
         public TreeVisitor<?, ExecutionContext> getVisitor(T acc) {
-            return Preconditions.check(bellwether.isPreconditionApplicable(), delegate.getVisitor(acc));
+            // the delegate's visitor isn't built for source files the preconditions rule out
+            return bellwether.isPreconditionApplicable() ? delegate.getVisitor(acc) : TreeVisitor.noop();
+        }
+
+        @Override
+        public boolean mayApply(SourceFile sourceFile, ExecutionContext ctx) {
+            return !(delegate instanceof RecipeApplicability) || ((RecipeApplicability) delegate).mayApply(sourceFile, ctx);
         }
 
         @Override
@@ -585,6 +601,19 @@ private static boolean hasSingletonPrecondition(DeclarativeRecipe recipe) {
         return false;
     }
 
+    /**
+     * Whether a precondition rules out the source file without any precondition visitor being built.
+     */
+    private boolean preconditionsRuleOut(SourceFile sourceFile, ExecutionContext ctx) {
+        for (Recipe precondition : preconditions) {
+            if (precondition instanceof RecipeApplicability && precondition.getRecipeList().isEmpty() &&
+                !((RecipeApplicability) precondition).mayApply(sourceFile, ctx)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @SuppressWarnings({"rawtypes", "unchecked"})
     private TreeVisitor<?, ExecutionContext> orVisitors(Recipe recipe, Cursor rootCursor, ExecutionContext ctx) {
         List<TreeVisitor<?, ExecutionContext>> conditions = new ArrayList<>();
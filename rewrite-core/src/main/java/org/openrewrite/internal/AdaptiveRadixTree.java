@@ -22,6 +22,7 @@
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Deque;
+import java.util.function.BiConsumer;
 
 @Incubating(since = "8.38.0")
 public class AdaptiveRadixTree<V> {
@@ -867,6 +868,53 @@ private static <V> Node<V> deepCopy(Node<V> root) {
         return rootClone;
     }
 
+    /**
+     * Visit every key and its value, in no particular order.
+     */
+    public void forEach(BiConsumer<byte[], V> action) {
+        if (root == null) {
+            return;
+        }
+
+        // Iterative like deepCopy, so the work is bounded by heap rather than the JVM stack.
+        Deque<Node<V>> work = new ArrayDeque<>();
+        Deque<byte[]> prefixes = new ArrayDeque<>();
+        work.push(root);
+        prefixes.push(new byte[0]);
+        while (!work.isEmpty()) {
+            Node<V> node = work.pop();
+            byte[] key = prefixes.pop();
+            if (node.keyLength > 0) {
+                int prefixLength = key.length;
+                key = Arrays.copyOf(key, prefixLength + node.keyLength);
+                for (int i = 0; i < node.keyLength; i++) {
+                    key[prefixLength + i] = keyTable.get(node.keyOffset + i);
+                }
+            }
+
+            if (node instanceof LeafNode) {
+                V value = ((LeafNode<V>) node).value;
+                if (value != null) {
+                    action.accept(key, value);
+                }
+            } else {
+                InternalNode<V> internal = (InternalNode<V>) node;
+                if (internal.value != null) {
+                    action.accept(key, internal.value);
+                }
+                for (int b = 0; b < 256; b++) {
+                    Node<V> child = internal.getChild((byte) b);
+                    if (child != null) {
+                        byte[] childKey = Arrays.copyOf(key, key.length + 1);
+                        childKey[key.length] = (byte) b;
+                        work.push(child);
+                        prefixes.push(childKey);
+                    }
+                }
+            }
+        }
+    }
+
     public void clear() {
         root = null;
         keyTable.clear();
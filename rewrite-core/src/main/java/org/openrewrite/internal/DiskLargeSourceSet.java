@@ -0,0 +1,398 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.marker.DeserializationError;
+import org.openrewrite.marker.Generated;
+import org.openrewrite.marker.RecipesThatMadeChanges;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
+
+/**
+ * A {@link LargeSourceSet} that keeps serialized source files in an append-only file on local disk
+ * and only holds lightweight per-file metadata in memory.
+ * <p>
+ * Source files are deserialized in windows of a bounded size while editing, so heap usage is
+ * proportional to the window size rather than to the size of the repository. Edits and generated
+ * files are appended to the same file, and the changeset is materialized page by page from the
+ * entries that differ from the initial state.
+ * <p>
+ * All source sets derived from one another share the same backing file, which is deleted when
+ * any of them is {@link #close() closed}, or when the JVM exits if none of them ever is.
+ */
+public class DiskLargeSourceSet implements LargeSourceSet, Closeable {
+
+    /**
+     * Converts source files to and from the bytes stored on disk.
+     */
+    public interface Codec {
+        void write(SourceFile sourceFile, OutputStream out) throws IOException;
+
+        SourceFile read(InputStream in) throws IOException;
+
+        /**
+         * A codec for source files whose LST types can be round-tripped by the given Jackson mapper.
+         */
+        static Codec jackson(ObjectMapper mapper) {
+            return new Codec() {
+                @Override
+                public void write(SourceFile sourceFile, OutputStream out) throws IOException {
+                    mapper.writeValue(out, sourceFile);
+                }
+
+                @Override
+                public SourceFile read(InputStream in) throws IOException {
+                    return mapper.readValue(in, SourceFile.class);
+                }
+            };
+        }
+    }
+
+    /**
+     * If null, then the initial state is this instance.
+     */
+    @Nullable
+    private final DiskLargeSourceSet initialState;
+
+    private final Store store;
+    private final int windowSize;
+    private final List<Entry> entries;
+
+    @Nullable
+    private Map<Entry, List<Recipe>> deletions;
+
+    private List<Recipe> currentRecipeStack;
+
+    @Nullable
+    private final ClassLoader recipeClassLoader;
+
+    /**
+     * Only built on the initial state, and only when first needed.
+     */
+    @Nullable
+    private Map<Path, Entry> initialByPath;
+
+    @Nullable
+    private Map<UUID, Entry> initialById;
+
+    /**
+     * @param directory   The directory in which the backing file is created.
+     * @param sourceFiles The source files, which are consumed and spilled to disk one at a time.
+     * @param codec       Serializes source files to and from disk.
+     * @param windowSize  The maximum number of source files deserialized at once while editing.
+     * @param classLoader The recipe classloader to use as the thread context classloader while editing.
+     */
+    public DiskLargeSourceSet(Path directory, Iterator<? extends SourceFile> sourceFiles, Codec codec,
+                              int windowSize, @Nullable ClassLoader classLoader) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be at least 1, but was " + windowSize);
+        }
+        this.initialState = null;
+        this.store = new Store(directory, codec);
+        this.windowSize = windowSize;
+        this.recipeClassLoader = classLoader;
+        List<Entry> spilled = new ArrayList<>();
+        while (sourceFiles.hasNext()) {
+            spilled.add(store.append(sourceFiles.next()));
+        }
+        this.entries = spilled;
+    }
+
+    private DiskLargeSourceSet(DiskLargeSourceSet from, @Nullable Map<Entry, List<Recipe>> deletions, List<Entry> entries) {
+        this.initialState = from.getInitialState();
+        this.store = from.store;
+        this.windowSize = from.windowSize;
+        this.recipeClassLoader = from.recipeClassLoader;
+        this.deletions = deletions;
+        this.entries = entries;
+    }
+
+    @Override
+    public void setRecipe(List<Recipe> recipeStack) {
+        this.currentRecipeStack = recipeStack;
+    }
+
+    @Override
+    public LargeSourceSet edit(UnaryOperator<@Nullable SourceFile> map) {
+        ClassLoader originalTCCL = null;
+        try {
+            if (recipeClassLoader != null) {
+                // set TCCL to the recipe's classloader and store the original value, needed by SPI to load providers from recipe artifacts
+                originalTCCL = Thread.currentThread().getContextClassLoader();
+                Thread.currentThread().setContextClassLoader(recipeClassLoader);
+            }
+
+            List<Entry> mapped = null;
+            List<SourceFile> window = new ArrayList<>(Math.min(windowSize, entries.size()));
+            for (int start = 0; start < entries.size(); start += windowSize) {
+                int end = Math.min(entries.size(), start + windowSize);
+                window.clear();
+                for (int i = start; i < end; i++) {
+                    window.add(store.read(entries.get(i)));
+                }
+
+                for (int i = start; i < end; i++) {
+                    Entry entry = entries.get(i);
+                    SourceFile before = window.get(i - start);
+                    SourceFile after = map.apply(before);
+                    @Nullable Entry afterEntry = entry;
+                    if (after == null) {
+                        if (deletions == null) {
+                            deletions = new LinkedHashMap<>();
+                        }
+                        deletions.put(entry, currentRecipeStack);
+                        afterEntry = null;
+                    } else if (after != before) {
+                        afterEntry = store.append(after);
+                    }
+
+                    if (mapped == null && afterEntry != entry) {
+                        mapped = new ArrayList<>(entries.size());
+                        mapped.addAll(entries.subList(0, i));
+                    }
+                    if (mapped != null && afterEntry != null) {
+                        mapped.add(afterEntry);
+                    }
+                }
+            }
+            window.clear();
+            return mapped != null ? new DiskLargeSourceSet(this, deletions, mapped) : this;
+        } finally {
+            if (originalTCCL != null) {
+                // reset TCCL value to the original one to no infer with other tooling
+                Thread.currentThread().setContextClassLoader(originalTCCL);
+            }
+        }
+    }
+
+    @Override
+    public LargeSourceSet generate(@Nullable Collection<? extends SourceFile> t) {
+        if (t == null || t.isEmpty()) {
+            return this;
+        }
+
+        List<Entry> newEntries = new ArrayList<>(entries.size() + t.size());
+        newEntries.addAll(entries);
+        for (SourceFile sourceFile : t) {
+            newEntries.add(store.append(sourceFile));
+        }
+        return new DiskLargeSourceSet(this, deletions, newEntries);
+    }
+
+    private DiskLargeSourceSet getInitialState() {
+        return initialState == null ? this : initialState;
+    }
+
+    @Override
+    public Changeset getChangeset() {
+        Map<UUID, Entry> originals = getInitialState().getInitialById();
+
+        List<Change> changes = new ArrayList<>();
+
+        // added or changed files
+        for (Entry entry : entries) {
+            Entry original = originals.get(entry.id);
+            if (original != entry) {
+                if (original != null) {
+                    if (original.generated || entry.deserializationError) {
+                        continue;
+                    }
+                }
+                changes.add(new Change(original, entry, null));
+            }
+        }
+
+        if (deletions != null) {
+            for (Map.Entry<Entry, List<Recipe>> deletion : deletions.entrySet()) {
+                changes.add(new Change(deletion.getKey(), null, deletion.getValue()));
+            }
+        }
+
+        return new DiskChangeset(changes);
+    }
+
+    @Override
+    public @Nullable SourceFile getBefore(Path sourcePath) {
+        Entry entry = getInitialState().getInitialByPath().get(sourcePath);
+        return entry == null ? null : store.read(entry);
+    }
+
+    /**
+     * Delete the backing file shared by this source set and all source sets derived from it.
+     */
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    private Map<Path, Entry> getInitialByPath() {
+        if (initialByPath == null) {
+            Map<Path, Entry> byPath = new HashMap<>((int) (entries.size() / 0.75f) + 1);
+            for (Entry entry : entries) {
+                byPath.putIfAbsent(entry.sourcePath, entry);
+            }
+            initialByPath = byPath;
+        }
+        return initialByPath;
+    }
+
+    private Map<UUID, Entry> getInitialById() {
+        if (initialById == null) {
+            Map<UUID, Entry> byId = new HashMap<>((int) (entries.size() / 0.75f) + 1);
+            for (Entry entry : entries) {
+                byId.put(entry.id, entry);
+            }
+            initialById = byId;
+        }
+        return initialById;
+    }
+
+    /**
+     * The in-memory metadata of one serialized source file.
+     */
+    @RequiredArgsConstructor
+    private static class Entry {
+        final UUID id;
+        final Path sourcePath;
+        final long offset;
+        final int length;
+        final boolean generated;
+        final boolean deserializationError;
+    }
+
+    @RequiredArgsConstructor
+    private static class Change {
+        @Nullable
+        final Entry before;
+
+        @Nullable
+        final Entry after;
+
+        @Nullable
+        final List<Recipe> deletedBy;
+    }
+
+    private static class Store implements Closeable {
+        private final Path file;
+        private final Codec codec;
+        private final FileChannel channel;
+        private long size;
+
+        Store(Path directory, Codec codec) {
+            this.codec = codec;
+            try {
+                this.file = Files.createTempFile(directory, "lst", ".bin");
+                // callers that never close the source set must not leak the file past the JVM
+                file.toFile().deleteOnExit();
+                this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        synchronized Entry append(SourceFile sourceFile) {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                codec.write(sourceFile, bytes);
+                ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                long offset = size;
+                while (buffer.hasRemaining()) {
+                    size += channel.write(buffer, size);
+                }
+                return new Entry(
+                        sourceFile.getId(),
+                        sourceFile.getSourcePath(),
+                        offset,
+                        (int) (size - offset),
+                        sourceFile.getMarkers().findFirst(Generated.class).isPresent(),
+                        sourceFile.getMarkers().findFirst(DeserializationError.class).isPresent()
+                );
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        SourceFile read(Entry entry) {
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+                long position = entry.offset;
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new EOFException("Unexpected end of LST store reading " + entry.sourcePath);
+                    }
+                    position += read;
+                }
+                return codec.read(new ByteArrayInputStream(buffer.array()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private class DiskChangeset implements Changeset {
+        final List<Change> changes;
+
+        @Override
+        public int size() {
+            return changes.size();
+        }
+
+        @Override
+        public List<Result> getPage(int start, int count) {
+            List<Change> page = changes.subList(start, Math.min(changes.size(), start + count));
+            List<Result> results = new ArrayList<>(page.size());
+            for (Change change : page) {
+                if (change.after == null) {
+                    assert change.before != null && change.deletedBy != null;
+                    results.add(new Result(store.read(change.before), null, singleton(change.deletedBy)));
+                } else if (change.before == null) {
+                    SourceFile after = store.read(change.after);
+                    Collection<List<Recipe>> recipes = after.getMarkers().findFirst(RecipesThatMadeChanges.class).map(RecipesThatMadeChanges::getRecipes).orElse(emptyList());
+                    results.add(new Result(null, after, recipes));
+                } else {
+                    results.add(new Result(store.read(change.before), store.read(change.after)));
+                }
+            }
+            return results;
+        }
+    }
+}
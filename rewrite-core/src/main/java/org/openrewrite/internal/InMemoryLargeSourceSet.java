@@ -24,9 +24,13 @@
 
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.UnaryOperator;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.singleton;
 
 public class InMemoryLargeSourceSet implements LargeSourceSet {
@@ -41,11 +45,37 @@ public class InMemoryLargeSourceSet implements LargeSourceSet {
     @Nullable
     private Map<SourceFile, List<Recipe>> deletions;
 
-    private List<Recipe> currentRecipeStack;
+    /**
+     * Tracked per thread so that concurrent edits attribute deletions to the recipe
+     * that was running on the thread that deleted the file.
+     */
+    private final ThreadLocal<List<Recipe>> currentRecipeStack = new ThreadLocal<>();
 
     @Nullable
     private ClassLoader recipeClassLoader;
 
+    /**
+     * Source files that were added or changed relative to the initial state, by ID, so that
+     * {@link #getChangeset()} is proportional to the number of changes rather than to the size of
+     * the source set. The changeset still lists them in the order of the source set. The map is
+     * handed over to the next state on every edit instead of being copied. Null when a subclass
+     * constructed this state without going through {@link #edit(UnaryOperator)} or
+     * {@link #generate(Collection)}, or once this state has handed its changes over, in which case
+     * all source files are compared.
+     */
+    @Nullable
+    private Map<UUID, SourceFile> changed;
+
+    /**
+     * Lazily built indexes of the initial state, shared by all source sets derived from it. Positions
+     * in the initial state order the changeset.
+     */
+    @Nullable
+    private volatile Map<Path, SourceFile> initialByPath;
+
+    @Nullable
+    private volatile Map<UUID, Integer> initialIndexById;
+
     public InMemoryLargeSourceSet(List<SourceFile> ls) {
         this(null, null, ls, null);
     }
@@ -62,15 +92,24 @@ protected InMemoryLargeSourceSet(@Nullable InMemoryLargeSourceSet initialState,
         this.ls = ls;
         this.deletions = deletions;
         this.recipeClassLoader = classLoader;
+        this.changed = initialState == null ? emptyMap() : null;
     }
 
     protected InMemoryLargeSourceSet withChanges(@Nullable Map<SourceFile, List<Recipe>> deletions, List<SourceFile> mapped) {
         return new InMemoryLargeSourceSet(getInitialState(), deletions, mapped, recipeClassLoader);
     }
 
+    private InMemoryLargeSourceSet withChanges(@Nullable Map<SourceFile, List<Recipe>> deletions,
+                                               List<SourceFile> mapped,
+                                               @Nullable Map<UUID, SourceFile> changed) {
+        InMemoryLargeSourceSet next = withChanges(deletions, mapped);
+        next.changed = changed;
+        return next;
+    }
+
     @Override
     public void setRecipe(List<Recipe> recipeStack) {
-        this.currentRecipeStack = recipeStack;
+        this.currentRecipeStack.set(recipeStack);
     }
 
     @Override
@@ -82,17 +121,30 @@ public LargeSourceSet edit(UnaryOperator<SourceFile> map) {
                 originalTCCL = Thread.currentThread().getContextClassLoader();
                 Thread.currentThread().setContextClassLoader(recipeClassLoader);
             }
+            List<SourceFile> befores = new ArrayList<>();
+            List<@Nullable SourceFile> afters = new ArrayList<>();
             List<SourceFile> mapped = ListUtils.map(ls, before -> {
                 SourceFile after = map.apply(before);
                 if (after == null) {
                     if (deletions == null) {
                         deletions = new LinkedHashMap<>();
                     }
-                    deletions.put(before, currentRecipeStack);
+                    deletions.put(before, currentRecipeStack.get());
+                }
+                if (after != before) {
+                    befores.add(before);
+                    afters.add(after);
                 }
                 return after;
             });
-            return mapped != ls ? withChanges(deletions, mapped) : this;
+            if (mapped == ls) {
+                return this;
+            }
+            Map<UUID, SourceFile> changes = handOverChanges();
+            for (int i = 0; i < befores.size(); i++) {
+                recordChange(changes, befores.get(i), afters.get(i));
+            }
+            return withChanges(deletions, mapped, changes);
         } finally {
             if (originalTCCL != null) {
                 // reset TCCL value to the original one to no infer with other tooling
@@ -102,19 +154,142 @@ public LargeSourceSet edit(UnaryOperator<SourceFile> map) {
 
     }
 
+    /**
+     * Execute a transformation on all items, partitioning the source set into contiguous ranges
+     * that are mapped concurrently on the supplied executor. The resulting source set, including
+     * the order of any deletions, is the same as if {@link #edit(UnaryOperator)} had been called,
+     * regardless of the number of partitions.
+     *
+     * @param map         A transformation on T. Must be safe to call concurrently.
+     * @param executor    The executor that runs each partition.
+     * @param parallelism The maximum number of partitions to map concurrently.
+     * @return A new source set if the map function results in any changes, otherwise this source set is returned.
+     */
+    public LargeSourceSet edit(UnaryOperator<@Nullable SourceFile> map, ExecutorService executor, int parallelism) {
+        int size = ls.size();
+        int partitions = Math.min(parallelism, size);
+        if (partitions <= 1) {
+            return edit(map);
+        }
+
+        SourceFile[] mapped = new SourceFile[size];
+        //noinspection unchecked
+        List<Recipe>[] deletedBy = new List[size];
+        int partitionSize = (size + partitions - 1) / partitions;
+        List<Future<?>> futures = new ArrayList<>(partitions);
+        for (int start = 0; start < size; start += partitionSize) {
+            int from = start;
+            int to = Math.min(size, start + partitionSize);
+            futures.add(executor.submit(() -> {
+                ClassLoader originalTCCL = null;
+                try {
+                    if (recipeClassLoader != null) {
+                        originalTCCL = Thread.currentThread().getContextClassLoader();
+                        Thread.currentThread().setContextClassLoader(recipeClassLoader);
+                    }
+                    for (int i = from; i < to; i++) {
+                        SourceFile before = ls.get(i);
+                        SourceFile after = map.apply(before);
+                        if (after == null) {
+                            deletedBy[i] = currentRecipeStack.get();
+                        }
+                        mapped[i] = after;
+                    }
+                } finally {
+                    // the executor's threads may outlive this edit
+                    currentRecipeStack.remove();
+                    if (originalTCCL != null) {
+                        Thread.currentThread().setContextClassLoader(originalTCCL);
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                for (Future<?> f : futures) {
+                    f.cancel(true);
+                }
+                Throwing.sneakyThrow(e.getCause());
+            }
+        }
+
+        Map<UUID, SourceFile> changes = null;
+        List<SourceFile> newLs = null;
+        for (int i = 0; i < size; i++) {
+            SourceFile before = ls.get(i);
+            SourceFile after = mapped[i];
+            if (after == null) {
+                if (deletions == null) {
+                    deletions = new LinkedHashMap<>();
+                }
+                deletions.put(before, deletedBy[i]);
+            }
+            if (newLs == null && after != before) {
+                newLs = new ArrayList<>(size);
+                newLs.addAll(ls.subList(0, i));
+                changes = handOverChanges();
+            }
+            recordChange(changes, before, after);
+            if (newLs != null && after != null) {
+                newLs.add(after);
+            }
+        }
+        return newLs != null ? withChanges(deletions, newLs, changes) : this;
+    }
+
+    /**
+     * Take this state's changes so that the next state can extend them in place. Only this state's
+     * own changeset is affected, which falls back to comparing all source files afterwards.
+     */
+    private @Nullable Map<UUID, SourceFile> handOverChanges() {
+        Map<UUID, SourceFile> changes = changed;
+        if (changes == null || changes.isEmpty()) {
+            return changes == null ? null : new LinkedHashMap<>();
+        }
+        changed = null;
+        return changes;
+    }
+
+    private static void recordChange(@Nullable Map<UUID, SourceFile> changes, SourceFile before, @Nullable SourceFile after) {
+        if (changes == null || after == before) {
+            return;
+        }
+        if (after == null || !after.getId().equals(before.getId())) {
+            changes.remove(before.getId());
+        }
+        if (after != null) {
+            changes.put(after.getId(), after);
+        }
+    }
+
     @Override
     public LargeSourceSet generate(@Nullable Collection<? extends SourceFile> t) {
         if (t == null || t.isEmpty()) {
             //noinspection ConstantConditions
             return this;
-        } else if (ls.isEmpty()) {
+        }
+
+        Map<UUID, SourceFile> changes = handOverChanges();
+        if (changes != null) {
+            for (SourceFile sourceFile : t) {
+                changes.put(sourceFile.getId(), sourceFile);
+            }
+        }
+
+        if (ls.isEmpty()) {
             //noinspection unchecked
-            return withChanges(deletions, (List<SourceFile>) t);
+            return withChanges(deletions, (List<SourceFile>) t, changes);
         }
 
         List<SourceFile> newLs = new ArrayList<>(ls);
         newLs.addAll(t);
-        return withChanges(deletions, newLs);
+        return withChanges(deletions, newLs, changes);
     }
 
     protected InMemoryLargeSourceSet getInitialState() {
@@ -123,16 +298,23 @@ protected InMemoryLargeSourceSet getInitialState() {
 
     @Override
     public Changeset getChangeset() {
-        Map<UUID, SourceFile> sourceFileIdentities = new HashMap<>();
-        for (SourceFile sourceFile : getInitialState().ls) {
-            sourceFileIdentities.put(sourceFile.getId(), sourceFile);
+        InMemoryLargeSourceSet initial = getInitialState();
+        Map<UUID, Integer> initialIndexById = initial.getInitialIndexById();
+
+        Collection<SourceFile> candidates = ls;
+        if (changed != null) {
+            // files from the initial state in their original order, then generated files in the order they were added
+            List<SourceFile> sorted = new ArrayList<>(changed.values());
+            sorted.sort(Comparator.comparingInt(s -> initialIndexById.getOrDefault(s.getId(), Integer.MAX_VALUE)));
+            candidates = sorted;
         }
 
         List<Result> changes = new ArrayList<>();
 
         // added or changed files
-        for (SourceFile s : ls) {
-            SourceFile original = sourceFileIdentities.get(s.getId());
+        for (SourceFile s : candidates) {
+            Integer originalIndex = initialIndexById.get(s.getId());
+            SourceFile original = originalIndex == null ? null : initial.ls.get(originalIndex);
             if (original != s) {
                 if (original != null) {
                     if (original.getMarkers().findFirst(Generated.class).isPresent() || s.getMarkers().findFirst(DeserializationError.class).isPresent()) {
@@ -157,13 +339,31 @@ public Changeset getChangeset() {
 
     @Override
     public @Nullable SourceFile getBefore(Path sourcePath) {
-        List<SourceFile> sourceFiles = getInitialState().ls;
-        for (SourceFile s : sourceFiles) {
-            if (s.getSourcePath().equals(sourcePath)) {
-                return s;
+        return getInitialState().getInitialByPath().get(sourcePath);
+    }
+
+    private Map<Path, SourceFile> getInitialByPath() {
+        Map<Path, SourceFile> byPath = initialByPath;
+        if (byPath == null) {
+            byPath = new HashMap<>((int) (ls.size() / 0.75f) + 1);
+            for (SourceFile s : ls) {
+                byPath.putIfAbsent(s.getSourcePath(), s);
+            }
+            initialByPath = byPath;
+        }
+        return byPath;
+    }
+
+    private Map<UUID, Integer> getInitialIndexById() {
+        Map<UUID, Integer> byId = initialIndexById;
+        if (byId == null) {
+            byId = new HashMap<>((int) (ls.size() / 0.75f) + 1);
+            for (int i = 0; i < ls.size(); i++) {
+                byId.put(ls.get(i).getId(), i);
             }
+            initialIndexById = byId;
         }
-        return null;
+        return byId;
     }
 
     @RequiredArgsConstructor
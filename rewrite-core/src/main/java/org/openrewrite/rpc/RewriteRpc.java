@@ -43,8 +43,10 @@
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -61,6 +63,13 @@
  */
 @SuppressWarnings("UnusedReturnValue")
 public class RewriteRpc {
+    private static final long LIVENESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /**
+     * The JSON-RPC error code of a request for a method that the remote doesn't have.
+     */
+    private static final int METHOD_NOT_FOUND = -32601;
+
     private final JsonRpc jsonRpc;
     private final AtomicInteger batchSize = new AtomicInteger(1000);
     private Duration timeout = Duration.ofSeconds(30);
@@ -68,6 +77,18 @@ public class RewriteRpc {
     private final AtomicReference<@Nullable PrintStream> log = new AtomicReference<>();
     private final AtomicReference<TraceGetObject> traceGetObject = new AtomicReference<>(
             new TraceGetObject(false, false));
+    private volatile @Nullable RpcBinaryFrames binaryFrames;
+
+    /**
+     * The encoding negotiated with the remote for {@code GetObject} batches, {@code "json"} when
+     * the remote doesn't support a binary one, or null before negotiating.
+     */
+    private volatile @Nullable String getObjectEncoding;
+
+    /**
+     * Whether the remote handles {@code GetObjects}, or null until the first time it's asked to.
+     */
+    private volatile @Nullable Boolean remoteGetObjects;
 
     final PreparedRecipeCache preparedRecipes = new PreparedRecipeCache();
 
@@ -156,8 +177,18 @@ public RewriteRpc(JsonRpc jsonRpc, RecipeMarketplace marketplace, List<RecipeBun
                 this::getObject, this::getCursor));
         jsonRpc.rpc("Generate", new Generate.Handler(localObjects, preparedRecipes,
                 this::getObject));
-        jsonRpc.rpc("GetObject", new GetObject.Handler(batchSize, remoteObjects, localObjects,
-                localRefs, log, () -> traceGetObject.get().isSend()));
+        GetObject.Handler getObject = new GetObject.Handler(batchSize, remoteObjects, localObjects,
+                localRefs, log, () -> traceGetObject.get().isSend(), () -> binaryFrames);
+        jsonRpc.rpc("GetObject", getObject);
+        jsonRpc.rpc("GetObjects", new GetObjects.Handler(getObject));
+        jsonRpc.rpc("CancelGetObjects", new CancelGetObjects.Handler(getObject));
+        jsonRpc.rpc("GetObjectEncodings", new JsonRpcMethod<Void>() {
+            @Override
+            protected Object handle(Void noParams) {
+                RpcBinaryFrames frames = binaryFrames;
+                return frames != null && frames.canWrite() ? new String[]{RpcBinaryEncoding.SMILE} : new String[0];
+            }
+        });
         jsonRpc.rpc("GetMarketplace", new JsonRpcMethod<Void>() {
             @Override
             protected Object handle(Void noParams) {
@@ -251,11 +282,32 @@ public RewriteRpc batchSize(int batchSize) {
         return this;
     }
 
+    /**
+     * Exchange tree data with the remote in a binary encoding, carried by these frames on the same
+     * streams as the JSON-RPC messages. The encoding is negotiated on the first {@code GetObject},
+     * and a remote that doesn't take part in the negotiation continues to send JSON.
+     *
+     * @param binaryFrames The frames that the streams of this peer's JSON-RPC transport were set up with,
+     *                     or null to only exchange JSON.
+     */
+    public RewriteRpc binaryFrames(@Nullable RpcBinaryFrames binaryFrames) {
+        this.binaryFrames = binaryFrames;
+        this.getObjectEncoding = null;
+        return this;
+    }
+
     public RewriteRpc log(@Nullable PrintStream logFile) {
         this.log.set(logFile);
         return this;
     }
 
+    /**
+     * @return Whether the remote is still running, as far as the liveness check can tell.
+     */
+    public boolean isAlive() {
+        return livenessCheck.get() == null;
+    }
+
     public void shutdown() {
         PrintStream logOut = log.get();
         if (logOut != null) {
@@ -594,18 +646,23 @@ List<String> getCursorIds(@Nullable Cursor cursor) {
 
     @VisibleForTesting
     public <T> T getObject(String id, @Nullable String sourceFileType) {
+        RpcReceiveQueue q = new RpcReceiveQueue(
+                remoteRefs,
+                () -> getObjectBatch(id, sourceFileType),
+                sourceFileType,
+                log.get()
+        );
+        //noinspection unchecked
+        return (T) receiveObject(id, q);
+    }
+
+    private @Nullable Object receiveObject(String id, RpcReceiveQueue q) {
         // Use the last synced state as the baseline for receiving diffs.
         // This must match what the remote used as its baseline when computing the diff.
         // Using localObjects here would be wrong if Java modified the tree locally
         // (e.g., via a Java-side recipe) since the remote doesn't know about those changes.
         Object before = remoteObjects.get(id);
 
-        RpcReceiveQueue q = new RpcReceiveQueue(
-                remoteRefs,
-                () -> send("GetObject", new GetObject(id, sourceFileType), GetObjectResponse.class),
-                sourceFileType,
-                log.get()
-        );
         Object remoteObject;
         try {
             remoteObject = q.receive(before, null);
@@ -626,9 +683,95 @@ public <T> T getObject(String id, @Nullable String sourceFileType) {
             remoteObjects.put(id, requireNonNull(remoteObject));
             localObjects.put(id, remoteObject);
         }
+        return remoteObject;
+    }
 
-        //noinspection unchecked
-        return (T) remoteObject;
+    /**
+     * Get several objects in order, in as few round trips as the remote allows.
+     */
+    List<Object> getObjects(List<String> ids, @Nullable String sourceFileType) {
+        List<Object> objects = new ArrayList<>(ids.size());
+        if (ids.size() > 1 && !Boolean.FALSE.equals(remoteGetObjects)) {
+            RpcReceiveQueue q = new RpcReceiveQueue(
+                    remoteRefs,
+                    () -> getObjectsBatch(ids, sourceFileType),
+                    sourceFileType,
+                    log.get()
+            );
+            try {
+                for (String id : ids) {
+                    objects.add(receiveObject(id, q));
+                }
+                remoteGetObjects = true;
+                return objects;
+            } catch (RuntimeException e) {
+                if (remoteGetObjects != null || !objects.isEmpty() || !isMethodNotFound(e)) {
+                    cancelGetObjects(ids, objects.size(), e);
+                    throw e;
+                }
+                // A remote that predates GetObjects responds with a method not found error,
+                // so fall back to one GetObject per object from now on
+                remoteGetObjects = false;
+            }
+        }
+        for (String id : ids) {
+            objects.add(getObject(id, sourceFileType));
+        }
+        return objects;
+    }
+
+    /**
+     * Let the remote stop sending the objects of a {@code GetObjects} exchange that failed on this side,
+     * rather than leave its traversal waiting for batches that won't be asked for.
+     */
+    private void cancelGetObjects(List<String> ids, int received, RuntimeException failure) {
+        try {
+            send("CancelGetObjects", new CancelGetObjects(ids, received), Boolean.class);
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private List<RpcObjectData> getObjectsBatch(List<String> ids, @Nullable String sourceFileType) {
+        RpcBinaryFrames frames = binaryFrames;
+        String encoding = negotiateGetObjectEncoding(frames);
+        if (frames != null && RpcBinaryEncoding.SMILE.equals(encoding)) {
+            long frame = send("GetObjects", new GetObjects(ids, sourceFileType, encoding), Long.class);
+            return RpcBinaryEncoding.decode(frames.take(frame));
+        }
+        return send("GetObjects", new GetObjects(ids, sourceFileType, null), GetObjectResponse.class);
+    }
+
+    private List<RpcObjectData> getObjectBatch(String id, @Nullable String sourceFileType) {
+        RpcBinaryFrames frames = binaryFrames;
+        String encoding = negotiateGetObjectEncoding(frames);
+        if (frames != null && RpcBinaryEncoding.SMILE.equals(encoding)) {
+            long frame = send("GetObject", new GetObject(id, sourceFileType, encoding), Long.class);
+            return RpcBinaryEncoding.decode(frames.take(frame));
+        }
+        return send("GetObject", new GetObject(id, sourceFileType), GetObjectResponse.class);
+    }
+
+    private String negotiateGetObjectEncoding(@Nullable RpcBinaryFrames frames) {
+        if (frames == null) {
+            return "json";
+        }
+        String encoding = getObjectEncoding;
+        if (encoding == null) {
+            encoding = "json";
+            try {
+                if (Arrays.asList(send("GetObjectEncodings", null, String[].class)).contains(RpcBinaryEncoding.SMILE)) {
+                    encoding = RpcBinaryEncoding.SMILE;
+                }
+            } catch (RuntimeException e) {
+                // A remote that predates GetObjectEncodings responds with a method not found error
+                if (!isMethodNotFound(e)) {
+                    throw e;
+                }
+            }
+            getObjectEncoding = encoding;
+        }
+        return encoding;
     }
 
     protected <P> P send(String method, @Nullable RpcRequest body, Class<P> responseType) {
@@ -640,30 +783,25 @@ protected <P> P send(String method, @Nullable RpcRequest body, Class<P> response
 
             // future.get(timeout) from a FJP worker triggers ManagedBlocker compensation,
             // which spawns helper threads that can leak per-thread RewriteRpc state.
-            // Poll non-blockingly + Thread.sleep so FJP doesn't compensate.
-            long totalTimeoutMs = timeout.toMillis();
-            long pollIntervalMs = 1;
-            long livenessIntervalMs = 500;
-            long elapsedMs = 0;
-            long lastLivenessMs = 0;
-            while (elapsedMs < totalTimeoutMs) {
-                JsonRpcSuccess result = future.getNow(null);
-                if (result != null) {
-                    return result.getResult(responseType);
+            // Park instead, and have the future unpark this thread as soon as the response
+            // arrives, waking in between only to check that the remote is still alive.
+            Thread waiter = Thread.currentThread();
+            future.whenComplete((result, t) -> LockSupport.unpark(waiter));
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (!future.isDone()) {
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    throw new RuntimeException("Request timed out after " + timeout.getSeconds() + " seconds");
                 }
-                if (future.isCompletedExceptionally()) {
-                    return future.get().getResult(responseType);
+                LockSupport.parkNanos(future, Math.min(remainingNanos, LIVENESS_INTERVAL_NANOS));
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
                 }
-                Thread.sleep(pollIntervalMs);
-                elapsedMs += pollIntervalMs;
-                if (elapsedMs - lastLivenessMs >= livenessIntervalMs) {
+                if (!future.isDone()) {
                     checkLiveness();
-                    lastLivenessMs = elapsedMs;
                 }
             }
-
-            // If we get here, we've hit the total timeout
-            throw new RuntimeException("Request timed out after " + timeout.getSeconds() + " seconds");
+            return future.get().getResult(responseType);
         } catch (RuntimeException e) {
             // Check if process crashed during the request
             checkLiveness();
@@ -675,6 +813,21 @@ protected <P> P send(String method, @Nullable RpcRequest body, Class<P> response
         }
     }
 
+    /**
+     * Whether the remote answered a request with the JSON-RPC error for a method it doesn't have,
+     * as opposed to a failure of a method it does have or of the process itself.
+     */
+    static boolean isMethodNotFound(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && (message.contains(Integer.toString(METHOD_NOT_FOUND)) ||
+                                    message.toLowerCase(Locale.ROOT).contains("method not found"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void checkLiveness() {
         RuntimeException livenessProblem = livenessCheck.get();
         if (livenessProblem != null) {
@@ -686,10 +839,9 @@ private void checkLiveness() {
     Cursor getCursor(@Nullable List<String> cursorIds, @Nullable String sourceFileType) {
         Cursor cursor = new Cursor(null, Cursor.ROOT_VALUE);
         if (cursorIds != null) {
-            for (int i = cursorIds.size() - 1; i >= 0; i--) {
-                String cursorId = cursorIds.get(i);
-                Object cursorObject = getObject(cursorId, sourceFileType);
-                remoteObjects.put(cursorId, cursorObject);
+            List<String> rootFirst = new ArrayList<>(cursorIds);
+            Collections.reverse(rootFirst);
+            for (Object cursorObject : getObjects(rootFirst, sourceFileType)) {
                 cursor = new Cursor(cursor, cursorObject);
             }
         }
@@ -67,6 +67,12 @@ public class RewriteRpcProcess extends Thread {
     @Getter
     private JsonRpc rpcClient;
 
+    /**
+     * The binary frames carried next to the JSON-RPC messages exchanged with the process.
+     */
+    @Getter
+    private final RpcBinaryFrames binaryFrames = new RpcBinaryFrames();
+
     private final Map<String, String> environment = new LinkedHashMap<>();
 
     private final Set<String> unsetEnvNames = new LinkedHashSet<>();
@@ -223,7 +229,7 @@ public void start() {
         module.addDeserializer(Path.class, new PathDeserializer());
         JsonMessageFormatter formatter = new JsonMessageFormatter(module);
         MessageHandler handler = new HeaderDelimitedMessageHandler(formatter,
-                process.getInputStream(), process.getOutputStream());
+                binaryFrames.in(process.getInputStream()), binaryFrames.out(process.getOutputStream()));
         if (trace) {
             handler = new TraceMessageHandler("client", handler);
         }
@@ -26,6 +26,7 @@
 public class RewriteRpcProcessManager<R extends RewriteRpc> {
     private final ThreadLocal<R> rpc = new ThreadLocal<>();
     private final ThreadLocal<Supplier<R>> factory;
+    private volatile @Nullable RewriteRpcProcessPool<R> pool;
 
     public RewriteRpcProcessManager(Supplier<R> defaultFactory) {
         this.factory = ThreadLocal.withInitial(() -> defaultFactory);
@@ -49,6 +50,31 @@ public void setFactory(Supplier<R> factory) {
         this.factory.set(factory);
     }
 
+    /**
+     * A pool of peers started with the factory of the calling thread, to spread work over several processes
+     * rather than use the one of the calling thread.
+     */
+    public RewriteRpcProcessPool<R> pool(int size) {
+        return new RewriteRpcProcessPool<>(size, factory.get());
+    }
+
+    /**
+     * @return The pool that parsers of this language spread their inputs over, or null when they use the
+     * process of the calling thread.
+     */
+    public @Nullable RewriteRpcProcessPool<R> getPool() {
+        return pool;
+    }
+
+    /**
+     * Have parsers of this language, on every thread, spread their inputs over the pool, or use the process
+     * of the calling thread again when null. Recipes run on the pool when they are prepared with
+     * {@link RewriteRpcProcessPool#prepareRecipe(String, java.util.Map)}.
+     */
+    public void setPool(@Nullable RewriteRpcProcessPool<R> pool) {
+        this.pool = pool;
+    }
+
     public void reset() {
         R current = rpc.get();
         //noinspection ConstantValue
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.rpc;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Incubating;
+import org.openrewrite.Parser;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A fixed number of {@link RewriteRpc} peers of one language, to spread parsing and visiting over several RPC
+ * processes instead of the one per thread that {@link RewriteRpcProcessManager} holds. Language modules create
+ * one from their manager with {@link RewriteRpcProcessManager#pool(int)}, so the peers are started the same way
+ * as the per-thread ones. Their parsers parse on the pool once it is set with
+ * {@link RewriteRpcProcessManager#setPool(RewriteRpcProcessPool)}, and recipes run on it when they are prepared
+ * with {@link #prepareRecipe(String, Map)}.
+ * <p>
+ * A {@link RewriteRpc} keeps the state of the objects it exchanged with its remote, so each source file is
+ * assigned to the peer that parsed or first visited it, and later work on it goes to the same peer, which only
+ * has to exchange what changed. Peers are used by one thread at a time, started when first needed, and
+ * restarted when their process dies. A restarted peer starts with no objects, so the source files assigned to
+ * the dead one are assigned afresh.
+ */
+@Incubating(since = "8.85.0")
+public class RewriteRpcProcessPool<R extends RewriteRpc> {
+    private static final ExecutorService PARSE_POOL = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "rpc-pool-parse");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Supplier<R> factory;
+    private final List<Peer<R>> peers;
+
+    /**
+     * Source file IDs to the index of the peer they are assigned to.
+     */
+    private final Map<UUID, Integer> assignments = new ConcurrentHashMap<>();
+
+    public RewriteRpcProcessPool(int size, Supplier<R> factory) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The pool must have at least one peer");
+        }
+        this.factory = factory;
+        this.peers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            peers.add(new Peer<>());
+        }
+    }
+
+    public int size() {
+        return peers.size();
+    }
+
+    /**
+     * Run work on the peer the source file is assigned to, assigning it to the least busy peer first if it
+     * isn't assigned yet.
+     *
+     * @param sourceFileId The ID of the source file the work is on, or null for work that isn't on any one
+     *                     source file, which goes to the least busy peer.
+     * @param work         The work, given exclusive use of the peer.
+     * @return The result of the work.
+     */
+    public <T> T withPeer(@Nullable UUID sourceFileId, Function<R, T> work) {
+        int peer = sourceFileId == null ?
+                leastBusy() :
+                assignments.computeIfAbsent(sourceFileId, id -> assign(leastBusy()));
+        return run(peer, sourceFileId, work);
+    }
+
+    /**
+     * Split the inputs into contiguous runs, one per peer, and parse the runs at the same time. Each parsed
+     * source file is assigned to the peer that parsed it.
+     *
+     * @param inputs The inputs to parse.
+     * @param parse  Parses a run of inputs on a peer, for example with
+     *               {@link RewriteRpc#parse(Iterable, java.nio.file.Path, Parser, String, org.openrewrite.ExecutionContext)}.
+     * @return The source files, in the order of the inputs.
+     */
+    public Stream<SourceFile> parse(List<Parser.Input> inputs, BiFunction<R, List<Parser.Input>, Stream<SourceFile>> parse) {
+        if (inputs.isEmpty()) {
+            return Stream.empty();
+        }
+        int runs = Math.min(peers.size(), inputs.size());
+        int runLength = (inputs.size() + runs - 1) / runs;
+        List<CompletableFuture<List<SourceFile>>> parsed = new ArrayList<>(runs);
+        for (int peer = 0, from = 0; from < inputs.size(); peer++, from += runLength) {
+            int p = peer;
+            List<Parser.Input> chunk = inputs.subList(from, Math.min(from + runLength, inputs.size()));
+            parsed.add(CompletableFuture.supplyAsync(() -> run(p, null, rpc -> {
+                List<SourceFile> sourceFiles = parse.apply(rpc, chunk).collect(toList());
+                for (SourceFile sourceFile : sourceFiles) {
+                    Integer previous = assignments.put(sourceFile.getId(), assign(p));
+                    if (previous != null) {
+                        unassign(previous);
+                    }
+                }
+                return sourceFiles;
+            }), PARSE_POOL));
+        }
+        return parsed.stream().flatMap(sourceFiles -> sourceFiles.join().stream());
+    }
+
+    /**
+     * Prepare a recipe to run on the pool. When the recipe is run, each source file is visited on the peer it is
+     * assigned to, which the recipe is prepared on as well the first time. A recipe with a scanning phase keeps its
+     * accumulator on the peer it is prepared on, so it visits every source file there instead.
+     * <p>
+     * Every peer must be able to prepare the recipe, for example because the factory starts peers with the
+     * recipe's bundle installed.
+     */
+    public Recipe prepareRecipe(String id, Map<String, Object> options) {
+        return withPeer(null, rpc -> {
+            Recipe recipe = rpc.prepareRecipe(id, options);
+            return recipe instanceof RpcRecipe ? ((RpcRecipe) recipe).onPool(this) : recipe;
+        });
+    }
+
+    public void reset() {
+        for (Peer<R> peer : peers) {
+            peer.lock.lock();
+            try {
+                R rpc = peer.rpc;
+                if (rpc != null) {
+                    rpc.reset();
+                }
+                peer.assigned.set(0);
+            } finally {
+                peer.lock.unlock();
+            }
+        }
+        assignments.clear();
+    }
+
+    public void shutdown() {
+        for (int i = 0; i < peers.size(); i++) {
+            Peer<R> peer = peers.get(i);
+            peer.lock.lock();
+            try {
+                stop(i);
+            } finally {
+                peer.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Run work on a particular peer, which must still be running the process the work is meant for.
+     */
+    <T> T withRpc(RewriteRpc rpc, Function<R, T> work) {
+        for (int i = 0; i < peers.size(); i++) {
+            if (peers.get(i).rpc == rpc) {
+                return run(i, null, peer -> {
+                    if (peer != rpc) {
+                        throw new IllegalStateException("The RPC process that the work is meant for has stopped");
+                    }
+                    return work.apply(peer);
+                });
+            }
+        }
+        throw new IllegalStateException("The RPC process that the work is meant for has stopped");
+    }
+
+    /**
+     * Run work on every peer that has been started.
+     */
+    void forEachStarted(Consumer<R> work) {
+        for (Peer<R> peer : peers) {
+            peer.lock.lock();
+            try {
+                R rpc = peer.rpc;
+                if (rpc != null) {
+                    work.accept(rpc);
+                }
+            } finally {
+                peer.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Run work on a peer, and run it once more on a new process if the peer's process died while it ran. An error
+     * from a process that is still alive is an error of the remote application, which is thrown rather than retried.
+     *
+     * @param sourceFileId The source file the work is on, which stays assigned to the peer if it is restarted.
+     */
+    private <T> T run(int index, @Nullable UUID sourceFileId, Function<R, T> work) {
+        Peer<R> peer = peers.get(index);
+        peer.lock.lock();
+        try {
+            R rpc = peer.getOrStart(factory);
+            try {
+                return work.apply(rpc);
+            } catch (RuntimeException e) {
+                if (rpc.isAlive()) {
+                    throw e;
+                }
+                // The process died, so try once more on a new one, which receives the objects afresh
+                stop(index);
+                if (sourceFileId != null) {
+                    assignments.put(sourceFileId, assign(index));
+                }
+                return work.apply(peer.getOrStart(factory));
+            }
+        } finally {
+            peer.lock.unlock();
+        }
+    }
+
+    /**
+     * Stop the peer at the index, which the calling thread holds the lock of.
+     */
+    private void stop(int index) {
+        Peer<R> peer = peers.get(index);
+        R rpc = peer.rpc;
+        if (rpc != null) {
+            peer.rpc = null;
+            try {
+                rpc.shutdown();
+            } catch (RuntimeException ignored) {
+                // The process may already be gone
+            }
+        }
+        assignments.values().removeIf(assigned -> assigned == index);
+        peer.assigned.set(0);
+    }
+
+    private int leastBusy() {
+        int leastBusy = 0;
+        for (int i = 1; i < peers.size(); i++) {
+            if (peers.get(i).assigned.get() < peers.get(leastBusy).assigned.get()) {
+                leastBusy = i;
+            }
+        }
+        return leastBusy;
+    }
+
+    private int assign(int index) {
+        peers.get(index).assigned.incrementAndGet();
+        return index;
+    }
+
+    private void unassign(int index) {
+        // the peer may have been stopped, resetting its count, since the source file was assigned to it
+        peers.get(index).assigned.updateAndGet(assigned -> Math.max(0, assigned - 1));
+    }
+
+    private static class Peer<R extends RewriteRpc> {
+        final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * The number of source files assigned to this peer, used to balance new assignments.
+         */
+        final AtomicInteger assigned = new AtomicInteger();
+
+        volatile @Nullable R rpc;
+
+        R getOrStart(Supplier<R> factory) {
+            R current = rpc;
+            if (current == null) {
+                current = factory.get();
+                rpc = current;
+            }
+            return current;
+        }
+    }
+}
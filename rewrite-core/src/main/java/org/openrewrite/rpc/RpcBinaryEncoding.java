@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.rpc;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.ConstructorDetector;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.openrewrite.Incubating;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Encodes a batch of {@link RpcObjectData} as a single binary frame in
+ * <a href="https://github.com/FasterXML/smile-format-specification">Smile</a>, for peers that
+ * negotiated it with {@code GetObjectEncodings}. The frame travels as raw bytes with
+ * {@link RpcBinaryFrames}, next to the JSON-RPC messages.
+ * <p>
+ * Tree data repeats the same short strings over and over: value types, whitespace, and the
+ * names of the {@link RpcObjectData} fields themselves. Smile writes each of them in full once
+ * per frame and afterward as a one or two byte back reference, and it writes numbers and
+ * lengths in binary rather than as text, so a frame is both smaller and faster to read than
+ * the same batch as JSON.
+ */
+@Incubating(since = "8.85.0")
+public class RpcBinaryEncoding {
+    public static final String SMILE = "smile";
+
+    private static final TypeReference<List<RpcObjectData>> BATCH = new TypeReference<List<RpcObjectData>>() {
+    };
+
+    private static final ObjectMapper mapper;
+
+    static {
+        SmileFactory f = new SmileFactory();
+        f.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true);
+        mapper = JsonMapper.builder(f)
+                // to be able to construct classes that have @Data and a single field
+                // see https://cowtowncoder.medium.com/jackson-2-12-most-wanted-3-5-246624e2d3d0
+                .constructorDetector(ConstructorDetector.USE_PROPERTIES_BASED)
+                .build()
+                .registerModules(new ParameterNamesModule(), new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    private RpcBinaryEncoding() {
+    }
+
+    public static byte[] encode(List<RpcObjectData> batch) {
+        try {
+            return mapper.writeValueAsBytes(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<RpcObjectData> decode(byte[] frame) {
+        try {
+            return mapper.readValue(frame, BATCH);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
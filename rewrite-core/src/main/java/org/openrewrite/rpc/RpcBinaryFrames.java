@@ -0,0 +1,300 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.rpc;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Incubating;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carries binary frames, such as {@link RpcBinaryEncoding#SMILE} batches of tree data, on the same
+ * header-delimited stream as the JSON-RPC messages, so that they travel as raw bytes rather than as
+ * base64 strings inside a JSON response.
+ * <p>
+ * A frame is a message like any other, with a {@code Content-Length} header as its length prefix, and a
+ * {@value #FRAME_HEADER} header with an id that is unique to the peer that writes it:
+ * <pre>
+ * Content-Length: 1234\r\n
+ * Rewrite-Frame: 7\r\n
+ * \r\n
+ * (1234 bytes)
+ * </pre>
+ * A peer answers a request with a frame by writing the frame first and then responding with the frame's id.
+ * Since both travel in order on the same stream, the frame has been received by the time the response is.
+ * <p>
+ * The {@link #in(InputStream) input} takes frames out of the stream before the JSON-RPC transport reads it,
+ * and the {@link #out(OutputStream) output} writes each message of the transport whole, so that no frame
+ * is written in the middle of one.
+ */
+@Incubating(since = "8.85.0")
+public class RpcBinaryFrames {
+    public static final String FRAME_HEADER = "Rewrite-Frame";
+
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+
+    private final Map<Long, byte[]> received = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final Object writeLock = new Object();
+
+    private volatile @Nullable OutputStream out;
+
+    /**
+     * @param in The stream of messages from the remote.
+     * @return The same stream without the frames in it, for the JSON-RPC transport to read.
+     */
+    public InputStream in(InputStream in) {
+        return new DemultiplexingInputStream(new BufferedInputStream(in));
+    }
+
+    /**
+     * @param out The stream of messages to the remote.
+     * @return A stream for the JSON-RPC transport to write to, which this peer's frames are written to as well.
+     */
+    public OutputStream out(OutputStream out) {
+        this.out = out;
+        return new MessageOutputStream(out);
+    }
+
+    /**
+     * @return Whether frames can be written, because an {@link #out(OutputStream) output} was set up.
+     */
+    public boolean canWrite() {
+        return out != null;
+    }
+
+    /**
+     * Write a frame, to be followed by a response that refers to it.
+     *
+     * @return The id of the frame.
+     */
+    public long write(byte[] frame) {
+        OutputStream o = out;
+        if (o == null) {
+            throw new IllegalStateException("No output to write frames to");
+        }
+        long id = nextId.incrementAndGet();
+        byte[] header = ("Content-Length: " + frame.length + "\r\n" + FRAME_HEADER + ": " + id + "\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        synchronized (writeLock) {
+            try {
+                o.write(header);
+                o.write(frame);
+                o.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * @return The frame the remote wrote with this id, which is given out only once.
+     */
+    public byte[] take(long id) {
+        byte[] frame = received.remove(id);
+        if (frame == null) {
+            throw new IllegalStateException("No frame " + id + " was received");
+        }
+        return frame;
+    }
+
+    private static int indexOfHeaderEnd(byte[] bytes, int length) {
+        outer:
+        for (int i = 0; i + HEADER_END.length <= length; i++) {
+            for (int j = 0; j < HEADER_END.length; j++) {
+                if (bytes[i + j] != HEADER_END[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return The value of the header in a header block, or null if it isn't there.
+     */
+    private static @Nullable String header(String headers, String name) {
+        for (String line : headers.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase(name)) {
+                return line.substring(colon + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    private static int contentLength(String headers) throws IOException {
+        String contentLength = header(headers, "Content-Length");
+        if (contentLength == null) {
+            throw new IOException("Message without a Content-Length header: " + headers);
+        }
+        try {
+            return Integer.parseInt(contentLength);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid Content-Length header: " + contentLength, e);
+        }
+    }
+
+    private class DemultiplexingInputStream extends InputStream {
+        private final InputStream in;
+
+        private byte[] header = new byte[0];
+        private int headerPos;
+        private int bodyRemaining;
+
+        DemultiplexingInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (headerPos == header.length && bodyRemaining == 0 && !nextMessage()) {
+                return -1;
+            }
+            if (headerPos < header.length) {
+                int n = Math.min(len, header.length - headerPos);
+                System.arraycopy(header, headerPos, b, off, n);
+                headerPos += n;
+                return n;
+            }
+            int n = in.read(b, off, Math.min(len, bodyRemaining));
+            if (n < 0) {
+                throw new EOFException("Stream ended in the middle of a message");
+            }
+            bodyRemaining -= n;
+            return n;
+        }
+
+        /**
+         * Read up to the next message that is not a frame, keeping the frames that come before it.
+         *
+         * @return false when the stream ended.
+         */
+        private boolean nextMessage() throws IOException {
+            while (true) {
+                byte[] headerBlock = readHeaderBlock();
+                if (headerBlock == null) {
+                    return false;
+                }
+                String headers = new String(headerBlock, StandardCharsets.US_ASCII);
+                int length = contentLength(headers);
+                String frameId = header(headers, FRAME_HEADER);
+                if (frameId == null) {
+                    header = headerBlock;
+                    headerPos = 0;
+                    bodyRemaining = length;
+                    return true;
+                }
+                byte[] frame = new byte[length];
+                new DataInputStream(in).readFully(frame);
+                received.put(Long.parseLong(frameId), frame);
+            }
+        }
+
+        private byte @Nullable [] readHeaderBlock() throws IOException {
+            byte[] block = new byte[128];
+            int length = 0;
+            while (length < HEADER_END.length || indexOfHeaderEnd(block, length) != length - HEADER_END.length) {
+                int b = in.read();
+                if (b < 0) {
+                    if (length == 0) {
+                        return null;
+                    }
+                    throw new EOFException("Stream ended in the middle of a message header");
+                }
+                if (length == block.length) {
+                    block = Arrays.copyOf(block, block.length * 2);
+                }
+                block[length++] = (byte) b;
+            }
+            return Arrays.copyOf(block, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Holds back what the JSON-RPC transport writes until a whole message is written, and then writes it at once.
+     */
+    private class MessageOutputStream extends OutputStream {
+        private final OutputStream out;
+
+        private byte[] pending = new byte[8192];
+        private int count;
+
+        MessageOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) throws IOException {
+            if (count + len > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, count + len));
+            }
+            System.arraycopy(b, off, pending, count, len);
+            count += len;
+
+            int headerEnd;
+            while ((headerEnd = indexOfHeaderEnd(pending, count)) >= 0) {
+                int messageLength = headerEnd + HEADER_END.length +
+                                    contentLength(new String(pending, 0, headerEnd, StandardCharsets.US_ASCII));
+                if (count < messageLength) {
+                    break;
+                }
+                synchronized (writeLock) {
+                    out.write(pending, 0, messageLength);
+                    out.flush();
+                }
+                System.arraycopy(pending, messageLength, pending, 0, count - messageLength);
+                count -= messageLength;
+            }
+        }
+
+        @Override
+        public void flush() {
+            // every whole message is flushed as soon as it is written
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -22,13 +22,16 @@
 import org.openrewrite.config.OptionDescriptor;
 import org.openrewrite.config.RecipeDescriptor;
 import org.openrewrite.config.RecipeExample;
+import org.openrewrite.rpc.request.BatchVisit;
+import org.openrewrite.rpc.request.BatchVisitResponse;
 
 import java.time.Duration;
-import java.util.Collection;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.BiFunction;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.synchronizedMap;
+import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
@@ -62,6 +65,16 @@ public class RpcRecipe extends ScanningRecipe<Integer> {
     @Getter
     private final @Nullable TreeVisitor<?, ExecutionContext> scanPreconditionVisitor;
 
+    /**
+     * The pool the recipe runs on, when it was prepared with {@link RewriteRpcProcessPool#prepareRecipe(String, Map)}.
+     */
+    private transient @Nullable RewriteRpcProcessPool<?> pool;
+
+    /**
+     * This recipe as prepared on the other peers of its pool.
+     */
+    private final transient Map<RewriteRpc, RpcRecipe> onPeers = synchronizedMap(new WeakHashMap<>());
+
     @Override
     public String getName() {
         return descriptor.getName();
@@ -110,31 +123,102 @@ public Integer getInitialValue(ExecutionContext ctx) {
 
     @Override
     public TreeVisitor<?, ExecutionContext> getScanner(Integer acc) {
-        return scanVisitor == null ? TreeVisitor.noop() : Preconditions.check(scanPreconditionVisitor, new RpcVisitor(rpc, scanVisitor));
+        return scanVisitor == null ? TreeVisitor.noop() : Preconditions.check(scanPreconditionVisitor, new RpcVisitor(this, true));
     }
 
     @Override
     public Collection<? extends SourceFile> generate(Integer acc, ExecutionContext ctx) {
-        return rpc.generate(remoteId, ctx);
+        return withRpc((UUID) null, (peer, recipe) -> peer.generate(recipe.remoteId, ctx));
     }
 
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor(Integer acc) {
-        return Preconditions.check(editPreconditionVisitor, new RpcVisitor(rpc, editVisitor));
+        return Preconditions.check(editPreconditionVisitor, new RpcVisitor(this, false));
     }
 
     @Override
     public synchronized List<Recipe> getRecipeList() {
         if (recipeList == null) {
+            RewriteRpcProcessPool<?> p = pool;
             recipeList = descriptor.getRecipeList().stream()
-                    .map(r -> rpc.prepareRecipe(r.getName(), r.getOptions().stream()
-                            .filter(opt -> opt.getValue() != null)
-                            .collect(toMap(OptionDescriptor::getName, OptionDescriptor::getValue))))
+                    .map(r -> p == null ?
+                            rpc.prepareRecipe(r.getName(), options(r)) :
+                            p.prepareRecipe(r.getName(), options(r)))
                     .collect(toList());
         }
         return recipeList;
     }
 
+    /**
+     * @return The source file types that the remote can visit.
+     */
+    public List<String> getLanguages() {
+        return withRpc((UUID) null, (peer, recipe) -> peer.getLanguages());
+    }
+
+    /**
+     * What recipes must have in common to visit a source file in one {@code BatchVisit}: the peer they were
+     * prepared on, or the pool, which visits each source file on one peer.
+     */
+    public Object getBatchTarget() {
+        RewriteRpcProcessPool<?> p = pool;
+        return p != null && scanVisitor == null ? p : rpc;
+    }
+
+    /**
+     * Run work on the peer that visits the source file for this recipe, with the recipe as prepared on that peer.
+     */
+    public <T> T withRpc(SourceFile sourceFile, BiFunction<RewriteRpc, RpcRecipe, T> work) {
+        return withRpc(sourceFile.getId(), work);
+    }
+
+    /**
+     * Visit a source file with several recipes of the same {@link #getBatchTarget() batch target} in one exchange.
+     *
+     * @param scan Whether to run the recipes' scanners rather than their editing visitors.
+     */
+    public static BatchVisitResponse batchVisit(List<RpcRecipe> recipes, boolean scan, SourceFile sourceFile,
+                                                ExecutionContext ctx, Cursor cursor) {
+        return recipes.get(0).withRpc(sourceFile, (peer, first) -> {
+            List<BatchVisit.BatchVisitItem> items = new ArrayList<>(recipes.size());
+            for (RpcRecipe recipe : recipes) {
+                RpcRecipe onPeer = recipe.onPeer(peer);
+                items.add(new BatchVisit.BatchVisitItem(scan ? requireNonNull(onPeer.scanVisitor) : onPeer.editVisitor, null));
+            }
+            return peer.batchVisit(sourceFile, ctx, cursor, items);
+        });
+    }
+
+    RpcRecipe onPool(RewriteRpcProcessPool<?> pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    <T> T withRpc(@Nullable UUID sourceFileId, BiFunction<RewriteRpc, RpcRecipe, T> work) {
+        RewriteRpcProcessPool<?> p = pool;
+        if (p == null) {
+            return work.apply(rpc, this);
+        }
+        if (scanVisitor != null) {
+            // the accumulator is on the peer the recipe was prepared on
+            return p.withRpc(rpc, peer -> work.apply(peer, this));
+        }
+        return p.withPeer(sourceFileId, peer -> work.apply(peer, onPeer(peer)));
+    }
+
+    private RpcRecipe onPeer(RewriteRpc peer) {
+        if (peer == rpc) {
+            return this;
+        }
+        return onPeers.computeIfAbsent(peer, r -> (RpcRecipe) r.prepareRecipe(descriptor.getName(), options(descriptor)));
+    }
+
+    private static Map<String, Object> options(RecipeDescriptor descriptor) {
+        return descriptor.getOptions().stream()
+                .filter(opt -> opt.getValue() != null)
+                .collect(toMap(OptionDescriptor::getName, OptionDescriptor::getValue));
+    }
+
     @Override
     public void onComplete(ExecutionContext ctx) {
         // This will merge data tables from the remote into the local context.
@@ -145,6 +229,22 @@ public void onComplete(ExecutionContext ctx) {
         //
         // It doesn't matter which one added data table entries, because they all share
         // the same view of the data tables.
+        RewriteRpcProcessPool<?> p = pool;
+        if (p != null) {
+            // every peer that visited a source file has its own view of the context
+            Object unwrapped = ctx;
+            while (unwrapped instanceof DelegatingExecutionContext) {
+                unwrapped = ((DelegatingExecutionContext) unwrapped).getDelegate();
+            }
+            Object context = unwrapped;
+            p.forEachStarted(peer -> {
+                String peerId = peer.localObjectIds.get(context);
+                if (peerId != null) {
+                    peer.getObject(peerId, null);
+                }
+            });
+            return;
+        }
         String id = ctx.getMessage("org.openrewrite.rpc.id");
         if (id != null) {
             rpc.getObject(id, null);
@@ -24,14 +24,20 @@
 
 import java.util.List;
 
+import static java.util.Objects.requireNonNull;
+
 @RequiredArgsConstructor
 class RpcVisitor extends TreeVisitor<Tree, ExecutionContext> {
-    private final RewriteRpc rpc;
-    private final String visitorName;
+    private final RpcRecipe recipe;
+
+    /**
+     * Whether this is the recipe's scanner rather than its editing visitor.
+     */
+    private final boolean scan;
 
     @Override
     public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
-        List<String> languages = rpc.getLanguages();
+        List<String> languages = recipe.getLanguages();
         for (Class<?> c = sourceFile.getClass(); c != null; c = c.getSuperclass()) {
             if (languages.contains(c.getName())) {
                 return true;
@@ -43,6 +49,8 @@ public boolean isAcceptable(SourceFile sourceFile, ExecutionContext ctx) {
     @Override
     public @Nullable Tree preVisit(Tree tree, ExecutionContext ctx) {
         stopAfterPreVisit();
-        return rpc.visit((SourceFile) tree, visitorName, ctx);
+        SourceFile sourceFile = (SourceFile) tree;
+        return recipe.withRpc(sourceFile, (rpc, onPeer) -> rpc.visit(sourceFile,
+                scan ? requireNonNull(onPeer.getScanVisitor()) : onPeer.getEditVisitor(), ctx));
     }
 }
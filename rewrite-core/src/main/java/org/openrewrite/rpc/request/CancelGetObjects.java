@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.rpc.request;
+
+import io.moderne.jsonrpc.JsonRpcMethod;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Abandons a {@link GetObjects} exchange that failed on the receiving side before every object was received,
+ * so that the remote stops traversing the objects that are left and forgets what it believes it sent of them.
+ */
+@Value
+public class CancelGetObjects implements RpcRequest {
+    /**
+     * The ids of the {@link GetObjects} request, in the same order.
+     */
+    List<String> ids;
+
+    /**
+     * How many of the objects were received in full before the exchange failed.
+     */
+    int received;
+
+    @RequiredArgsConstructor
+    public static class Handler extends JsonRpcMethod<CancelGetObjects> {
+        private final GetObject.Handler getObject;
+
+        @Override
+        protected Boolean handle(CancelGetObjects request) throws InterruptedException {
+            getObject.cancel(request.getIds(), request.getReceived());
+            return true;
+        }
+    }
+}
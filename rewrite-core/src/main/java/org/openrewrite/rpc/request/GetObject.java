@@ -15,10 +15,14 @@
  */
 package org.openrewrite.rpc.request;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import io.moderne.jsonrpc.JsonRpcMethod;
+import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import org.jspecify.annotations.Nullable;
+import org.openrewrite.rpc.RpcBinaryEncoding;
+import org.openrewrite.rpc.RpcBinaryFrames;
 import org.openrewrite.rpc.RpcObjectData;
 import org.openrewrite.rpc.RpcSendQueue;
 
@@ -32,16 +36,30 @@
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
+import static java.util.Collections.singletonList;
 import static org.openrewrite.rpc.RpcObjectData.State.DELETE;
 import static org.openrewrite.rpc.RpcObjectData.State.END_OF_OBJECT;
 
 @Value
+@AllArgsConstructor(onConstructor_ = @JsonCreator)
 public class GetObject implements RpcRequest {
     String id;
 
     @Nullable
     String sourceFileType;
 
+    /**
+     * The encoding to return the batch in, one of those the remote advertised from
+     * {@code GetObjectEncodings}. When null, the batch is returned as a JSON array. Otherwise, it is written
+     * as a {@link org.openrewrite.rpc.RpcBinaryFrames binary frame} and the id of the frame is returned.
+     */
+    @Nullable
+    String encoding;
+
+    public GetObject(String id, @Nullable String sourceFileType) {
+        this(id, sourceFileType, null);
+    }
+
     @RequiredArgsConstructor
     public static class Handler extends JsonRpcMethod<GetObject> {
         // Dedicated pool for tree traversal so GetObject producers can't be starved
@@ -64,69 +82,168 @@ public static class Handler extends JsonRpcMethod<GetObject> {
 
         private final AtomicReference<PrintStream> log;
         private final Supplier<Boolean> traceGetObject;
+        private final Supplier<@Nullable RpcBinaryFrames> frames;
 
-        private final Map<String, BlockingQueue<List<RpcObjectData>>> inProgressGetRpcObjects = new ConcurrentHashMap<>();
+        private final Map<String, InProgress> inProgressGetRpcObjects = new ConcurrentHashMap<>();
 
         @Override
-        protected List<RpcObjectData> handle(GetObject request) throws Exception {
-            Object after = localObjects.get(request.getId());
+        protected Object handle(GetObject request) throws Exception {
+            return handle(singletonList(request.getId()), request.getSourceFileType(), request.getEncoding());
+        }
 
-            if (after == null) {
+        /**
+         * Send the objects one after the other, each ended by {@link RpcObjectData.State#END_OF_OBJECT},
+         * in as many batches as the remote asks for by repeating the same request.
+         */
+        Object handle(List<String> ids, @Nullable String sourceFileType, @Nullable String encoding) throws Exception {
+            if (ids.size() == 1 && localObjects.get(ids.get(0)) == null) {
                 List<RpcObjectData> deleted = new ArrayList<>(2);
                 deleted.add(new RpcObjectData(DELETE, null, null, null, traceGetObject.get()));
                 deleted.add(new RpcObjectData(END_OF_OBJECT, null, null, null, traceGetObject.get()));
-                return deleted;
+                return encode(deleted, encoding);
             }
 
-            BlockingQueue<List<RpcObjectData>> q = inProgressGetRpcObjects.computeIfAbsent(request.getId(), id -> {
-                BlockingQueue<List<RpcObjectData>> batch = new ArrayBlockingQueue<>(1);
-                Object before = remoteObjects.get(id);
-
-                RpcSendQueue sendQueue = new RpcSendQueue(batchSize.get(), batch::put, localRefs, request.getSourceFileType(), traceGetObject.get());
-                TREE_TRAVERSAL_POOL.submit(() -> {
-                    // Snapshot the current ref count so we can roll back on failure.
-                    // Ref IDs are assigned sequentially as localRefs.size() + 1,
-                    // so any ref > savedRefCount was added during this exchange.
-                    int savedRefCount = localRefs.size();
+            String key = String.join("\n", ids);
+            InProgress inProgress = inProgressGetRpcObjects.computeIfAbsent(key, k -> {
+                InProgress started = new InProgress(new ArrayBlockingQueue<>(1), ids.size());
+                RpcSendQueue sendQueue = new RpcSendQueue(batchSize.get(), batch -> {
+                    if (started.cancelledAt >= 0) {
+                        throw new CancellationException();
+                    }
+                    started.batches.put(batch);
+                }, localRefs, sourceFileType, traceGetObject.get());
+                started.traversal = TREE_TRAVERSAL_POOL.submit(() -> {
                     try {
-                        sendQueue.send(after, before, null);
-
-                        // All the data has been sent, and the remote should have received
-                        // the full tree, so update our understanding of the remote state
-                        // of this tree.
-                        remoteObjects.put(id, after);
-                    } catch (Throwable t) {
-                        // Reset our tracking of the remote state so the next interaction
-                        // forces a full object sync (ADD) instead of a delta (CHANGE)
-                        // against the stale, partially-sent baseline.
-                        remoteObjects.remove(id);
-
-                        // Roll back localRefs to remove refs assigned during this failed
-                        // exchange. Without this, subsequent exchanges would send pure
-                        // references for objects the remote never received, causing
-                        // "Received a reference to an object that was not previously sent".
-                        localRefs.values().removeIf(ref -> ref > savedRefCount);
-
-                        PrintStream logFile = log.get();
-                        //noinspection ConstantValue
-                        if (logFile != null) {
-                            t.printStackTrace(logFile);
+                        for (String id : ids) {
+                            if (started.cancelledAt >= 0) {
+                                break;
+                            }
+                            send(id, sendQueue);
                         }
-                    } finally {
-                        sendQueue.put(new RpcObjectData(END_OF_OBJECT, null, null, null, traceGetObject.get()));
                         sendQueue.flush();
+                    } finally {
+                        int cancelledAt = started.cancelledAt;
+                        if (cancelledAt >= 0) {
+                            forget(ids.subList(cancelledAt, ids.size()));
+                        }
                     }
                     return 0;
                 });
-                return batch;
+                return started;
             });
 
-            List<RpcObjectData> batch = q.take();
-            if (batch.get(batch.size() - 1).getState() == END_OF_OBJECT) {
-                inProgressGetRpcObjects.remove(request.getId());
+            List<RpcObjectData> batch = inProgress.batches.take();
+            for (RpcObjectData data : batch) {
+                if (data.getState() == END_OF_OBJECT) {
+                    inProgress.remaining--;
+                }
+            }
+            if (inProgress.remaining == 0) {
+                inProgressGetRpcObjects.remove(key);
             }
 
+            return encode(batch, encoding);
+        }
+
+        private void send(String id, RpcSendQueue sendQueue) {
+            Object after = localObjects.get(id);
+            if (after == null) {
+                sendQueue.put(new RpcObjectData(DELETE, null, null, null, traceGetObject.get()));
+                sendQueue.put(new RpcObjectData(END_OF_OBJECT, null, null, null, traceGetObject.get()));
+                return;
+            }
+            Object before = remoteObjects.get(id);
+
+            // Snapshot the current ref count so we can roll back on failure.
+            // Ref IDs are assigned sequentially as localRefs.size() + 1,
+            // so any ref > savedRefCount was added during this exchange.
+            int savedRefCount = localRefs.size();
+            try {
+                sendQueue.send(after, before, null);
+
+                // All the data has been sent, and the remote should have received
+                // the full tree, so update our understanding of the remote state
+                // of this tree.
+                remoteObjects.put(id, after);
+            } catch (Throwable t) {
+                // Reset our tracking of the remote state so the next interaction
+                // forces a full object sync (ADD) instead of a delta (CHANGE)
+                // against the stale, partially-sent baseline.
+                remoteObjects.remove(id);
+
+                // Roll back localRefs to remove refs assigned during this failed
+                // exchange. Without this, subsequent exchanges would send pure
+                // references for objects the remote never received, causing
+                // "Received a reference to an object that was not previously sent".
+                localRefs.values().removeIf(ref -> ref > savedRefCount);
+
+                PrintStream logFile = log.get();
+                //noinspection ConstantValue
+                if (logFile != null) {
+                    t.printStackTrace(logFile);
+                }
+            } finally {
+                sendQueue.put(new RpcObjectData(END_OF_OBJECT, null, null, null, traceGetObject.get()));
+            }
+        }
+
+        /**
+         * Stop sending the objects of a {@link GetObjects} exchange that the remote gave up on, and forget
+         * that those it did not receive in full were sent, so that they are sent whole the next time.
+         *
+         * @param ids      The ids of the exchange.
+         * @param received How many of the objects the remote received in full.
+         */
+        void cancel(List<String> ids, int received) throws InterruptedException {
+            InProgress inProgress = inProgressGetRpcObjects.remove(String.join("\n", ids));
+            if (inProgress == null) {
+                // every batch was already taken, so the traversal is over
+                forget(ids.subList(received, ids.size()));
+                return;
+            }
+            // the traversal forgets the objects itself when it stops, so that it can't
+            // record one of them as sent after this
+            inProgress.cancelledAt = received;
+            // release a traversal that is waiting for a batch that will never be taken
+            inProgress.batches.clear();
+            try {
+                // wait for it to stop, so that it doesn't roll back refs of the next exchange
+                inProgress.traversal.get();
+            } catch (ExecutionException e) {
+                // it stops by failing to hand off its next batch
+            }
+        }
+
+        private void forget(List<String> ids) {
+            for (String id : ids) {
+                remoteObjects.remove(id);
+            }
+        }
+
+        private Object encode(List<RpcObjectData> batch, @Nullable String encoding) {
+            RpcBinaryFrames f = frames.get();
+            if (RpcBinaryEncoding.SMILE.equals(encoding) && f != null && f.canWrite()) {
+                return f.write(RpcBinaryEncoding.encode(batch));
+            }
             return batch;
         }
+
+        private static class InProgress {
+            final BlockingQueue<List<RpcObjectData>> batches;
+            int remaining;
+
+            /**
+             * How many objects the remote received before it cancelled the exchange, or -1 while it hasn't.
+             */
+            volatile int cancelledAt = -1;
+
+            @SuppressWarnings("NotNullFieldNotInitialized")
+            volatile Future<?> traversal;
+
+            InProgress(BlockingQueue<List<RpcObjectData>> batches, int remaining) {
+                this.batches = batches;
+                this.remaining = remaining;
+            }
+        }
     }
 }
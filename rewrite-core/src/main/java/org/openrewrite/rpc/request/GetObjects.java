@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.rpc.request;
+
+import io.moderne.jsonrpc.JsonRpcMethod;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Like {@link GetObject}, for several objects in one exchange, such as every object on a cursor path. The objects
+ * are sent one after the other in the order of {@link #ids}, each ended by an
+ * {@link org.openrewrite.rpc.RpcObjectData.State#END_OF_OBJECT}, so the remote saves a round trip per object.
+ */
+@Value
+public class GetObjects implements RpcRequest {
+    List<String> ids;
+
+    @Nullable
+    String sourceFileType;
+
+    @Nullable
+    String encoding;
+
+    @RequiredArgsConstructor
+    public static class Handler extends JsonRpcMethod<GetObjects> {
+        private final GetObject.Handler getObject;
+
+        @Override
+        protected Object handle(GetObjects request) throws Exception {
+            return getObject.handle(request.getIds(), request.getSourceFileType(), request.getEncoding());
+        }
+    }
+}
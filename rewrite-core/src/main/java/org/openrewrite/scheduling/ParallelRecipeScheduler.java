@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.*;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.table.RecipeRunStats;
+import org.openrewrite.table.SearchResults;
+import org.openrewrite.table.SourcesFileErrors;
+import org.openrewrite.table.SourcesFileResults;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link RecipeScheduler} that runs the edit phase of each cycle concurrently across
+ * partitions of an {@link InMemoryLargeSourceSet}. The scanning and generate phases remain
+ * sequential, because scanning recipe accumulators are not required to be thread-safe.
+ * <p>
+ * The resulting changeset is the same regardless of the degree of parallelism. Rows that
+ * recipes insert into data tables during the edit phase may arrive in a different order than
+ * with a sequential run. Source sets other than {@link InMemoryLargeSourceSet} are edited
+ * sequentially.
+ * <p>
+ * The messages of the root cursor, including the accumulators of scanning recipes, are shared by
+ * the edit visitors of every thread. The map holding them is safe to use concurrently, but the
+ * values in it are not made so: a scanning recipe whose edit visitor changes its accumulator, or a
+ * visitor that puts a mutable message on the root cursor and changes it later, must make that
+ * value safe for concurrent use itself, or run with a sequential {@link RecipeScheduler}.
+ */
+public class ParallelRecipeScheduler extends RecipeScheduler {
+    private final int parallelism;
+
+    @Nullable
+    private final ExecutorService executor;
+
+    /**
+     * The pool created for the duration of a run when no executor was supplied by the caller.
+     */
+    @Nullable
+    private volatile ExecutorService runExecutor;
+
+    /**
+     * @param parallelism The number of threads used to edit source files. A dedicated pool
+     *                    of this size is created for each run and shut down when it completes.
+     */
+    public ParallelRecipeScheduler(int parallelism) {
+        this(parallelism, null);
+    }
+
+    /**
+     * @param parallelism The number of partitions the source set is split into in the edit phase.
+     * @param executor    An executor owned by the caller that runs each partition, or {@code null}
+     *                    to create a dedicated pool for each run.
+     */
+    public ParallelRecipeScheduler(int parallelism, @Nullable ExecutorService executor) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.executor = executor;
+
+        // the root cursor is shared by visitors running on every thread
+        rootCursorProvider(() -> new Cursor(null, Cursor.ROOT_VALUE, new ConcurrentHashMap<>()));
+    }
+
+    @Override
+    public RecipeRun scheduleRun(Recipe recipe, LargeSourceSet sourceSet, ExecutionContext ctx, int maxCycles, int minCycles) {
+        if (executor != null || parallelism == 1) {
+            return super.scheduleRun(recipe, sourceSet, ctx, maxCycles, minCycles);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, new EditThreadFactory());
+        runExecutor = pool;
+        try {
+            return super.scheduleRun(recipe, sourceSet, ctx, maxCycles, minCycles);
+        } finally {
+            runExecutor = null;
+            pool.shutdownNow();
+        }
+    }
+
+    @Override
+    protected RecipeRunCycle<LargeSourceSet> createRecipeRunCycle(Recipe recipe, int cycle, Cursor rootCursor,
+                                                                  WatchableExecutionContext ctxWithWatch,
+                                                                  RecipeRunStats recipeRunStats, SearchResults searchResults,
+                                                                  SourcesFileResults sourceFileResults, SourcesFileErrors errorsTable) {
+        return new RecipeRunCycle<LargeSourceSet>(recipe, cycle, rootCursor, ctxWithWatch,
+                recipeRunStats, searchResults, sourceFileResults, errorsTable, LargeSourceSet::edit) {
+            @Override
+            public LargeSourceSet editSources(LargeSourceSet sourceSet) {
+                ExecutorService editExecutor = executor != null ? executor : runExecutor;
+                if (editExecutor == null || !(sourceSet instanceof InMemoryLargeSourceSet)) {
+                    return super.editSources(sourceSet);
+                }
+                return ((InMemoryLargeSourceSet) sourceSet).edit(sourceFile -> {
+                    try {
+                        return editSource(sourceSet, sourceFile);
+                    } finally {
+                        // edit threads may belong to a pool that outlives the run
+                        releaseRecipeStack();
+                    }
+                }, editExecutor, parallelism);
+            }
+        };
+    }
+
+    private static class EditThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "rewrite-edit-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
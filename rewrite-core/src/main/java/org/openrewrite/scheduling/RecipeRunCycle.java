@@ -36,10 +36,8 @@
 import org.openrewrite.table.SourcesFileResults;
 
 import org.openrewrite.marker.SearchResult;
-import org.openrewrite.rpc.RewriteRpc;
 import org.openrewrite.rpc.DynamicDispatchRpcCodec;
 import org.openrewrite.rpc.RpcRecipe;
-import org.openrewrite.rpc.request.BatchVisit;
 import org.openrewrite.rpc.request.BatchVisitResponse;
 
 import java.nio.file.Path;
@@ -78,15 +76,48 @@
     SourcesFileErrors errorsTable;
     BiFunction<LSS, UnaryOperator<@Nullable SourceFile>, LSS> sourceSetEditor;
 
-    RecipeStack allRecipeStack = new RecipeStack();
+    /**
+     * The recipe list of every recipe in the tree, expanded once for the cycle on first use and
+     * then only read, so that every thread sees the same sub-recipe instances.
+     */
+    @NonFinal
+    volatile @Nullable Map<Recipe, List<Recipe>> recipeLists;
+
+    /**
+     * Each thread that edits source files gets its own recipe stack, so that the same cycle
+     * can be driven concurrently by a parallel source set editor.
+     */
+    ThreadLocal<RecipeStack> allRecipeStack = ThreadLocal.withInitial(() -> new RecipeStack(getRecipeLists()));
     long cycleStartTime = System.nanoTime();
     AtomicBoolean thrownErrorOnTimeout = new AtomicBoolean();
 
     @Getter
-    Set<Recipe> madeChangesInThisCycle = newSetFromMap(new IdentityHashMap<>());
+    Set<Recipe> madeChangesInThisCycle = synchronizedSet(newSetFromMap(new IdentityHashMap<>()));
+
+    private Map<Recipe, List<Recipe>> getRecipeLists() {
+        Map<Recipe, List<Recipe>> lists = recipeLists;
+        if (lists == null) {
+            synchronized (this) {
+                lists = recipeLists;
+                if (lists == null) {
+                    lists = RecipeStack.expandRecipeLists(recipe);
+                    recipeLists = lists;
+                }
+            }
+        }
+        return lists;
+    }
+
+    /**
+     * Forget the recipe stack of the calling thread, so that the threads of a long-lived pool that
+     * edited source files in this cycle don't hold on to it after the cycle is over.
+     */
+    void releaseRecipeStack() {
+        allRecipeStack.remove();
+    }
 
     public int getRecipePosition() {
-        return allRecipeStack.getRecipePosition();
+        return allRecipeStack.get().getRecipePosition();
     }
 
     public LSS scanSources(LSS sourceSet) {
@@ -94,7 +125,7 @@ public LSS scanSources(LSS sourceSet) {
             return sourceSetEditor.apply(sourceSet, sourceFile -> {
                 BatchState scanBatch = new BatchState();
 
-                SourceFile result = allRecipeStack.reduce(sourceSet, recipe, ctx, (source, recipeStack) -> {
+                SourceFile result = allRecipeStack.get().reduce(sourceSet, recipe, ctx, (source, recipeStack) -> {
                     Recipe recipe = recipeStack.peek();
                     if (source == null) {
                         return null;
@@ -104,30 +135,30 @@ public LSS scanSources(LSS sourceSet) {
 
                     if (recipe instanceof ScanningRecipe) {
                         // Check if this is a batchable RPC scanning recipe
-                        RewriteRpc currentRpc = recipe instanceof RpcRecipe ? ((RpcRecipe) recipe).getRpc() : null;
+                        Object currentTarget = recipe instanceof RpcRecipe ? ((RpcRecipe) recipe).getBatchTarget() : null;
                         String scanVisitorName = recipe instanceof RpcRecipe ? ((RpcRecipe) recipe).getScanVisitor() : null;
 
-                        if (currentRpc != null && scanVisitorName != null) {
+                        if (currentTarget != null && scanVisitorName != null) {
                             // Flush if switching to a different RPC instance
-                            if (scanBatch.rpc != null && scanBatch.rpc != currentRpc) {
+                            if (scanBatch.target != null && scanBatch.target != currentTarget) {
                                 flushScanBatch(scanBatch, source);
                             }
 
-                            Recipe nextRecipe = allRecipeStack.getNextRecipe();
-                            RewriteRpc nextRpc = nextRecipe instanceof RpcRecipe ? ((RpcRecipe) nextRecipe).getRpc() : null;
+                            Recipe nextRecipe = allRecipeStack.get().getNextRecipe();
+                            Object nextTarget = nextRecipe instanceof RpcRecipe ? ((RpcRecipe) nextRecipe).getBatchTarget() : null;
                             @Nullable String nextScanVisitor = nextRecipe instanceof RpcRecipe ? ((RpcRecipe) nextRecipe).getScanVisitor() : null;
-                            boolean isInBatch = nextRpc == currentRpc && nextScanVisitor != null || scanBatch.rpc == currentRpc;
+                            boolean isInBatch = nextTarget == currentTarget && nextScanVisitor != null || scanBatch.target == currentTarget;
 
                             if (isInBatch) {
-                                scanBatch.items.add(new BatchVisit.BatchVisitItem(scanVisitorName, null));
+                                scanBatch.recipes.add((RpcRecipe) recipe);
                                 scanBatch.recipeStacks.add(recipeStack);
                                 if (scanBatch.originalBeforeBatch == null) {
                                     scanBatch.originalBeforeBatch = source;
                                 }
-                                scanBatch.rpc = currentRpc;
+                                scanBatch.target = currentTarget;
 
                                 // If this is the last recipe in the batch, flush now
-                                if (nextRpc != currentRpc || nextScanVisitor == null) {
+                                if (nextTarget != currentTarget || nextScanVisitor == null) {
                                     flushScanBatch(scanBatch, source);
                                 }
                                 return source;
@@ -163,7 +194,7 @@ public LSS scanSources(LSS sourceSet) {
                 }, sourceFile);
 
                 // Flush any remaining scan batch
-                if (scanBatch.rpc != null && result != null) {
+                if (scanBatch.target != null && result != null) {
                     flushScanBatch(scanBatch, result);
                 }
 
@@ -174,14 +205,14 @@ public LSS scanSources(LSS sourceSet) {
     }
 
     private void flushScanBatch(BatchState batch, SourceFile source) {
-        if (batch.rpc == null || batch.items.isEmpty()) {
+        if (batch.target == null || batch.recipes.isEmpty()) {
             batch.clear();
             return;
         }
 
         try {
             // Send BatchVisit — no getObject needed for scan phase
-            batch.rpc.batchVisit(source, ctx, rootCursor, batch.items);
+            RpcRecipe.batchVisit(batch.recipes, true, source, ctx, rootCursor);
         } catch (Throwable t) {
             if (!batch.recipeStacks.isEmpty()) {
                 handleError(batch.recipeStacks.get(0).peek(), source, source, t);
@@ -193,7 +224,7 @@ private void flushScanBatch(BatchState batch, SourceFile source) {
 
     public LSS generateSources(LSS sourceSet) {
         if (isScanningRequired()) {
-            List<SourceFile> generatedInThisCycle = allRecipeStack.reduce(sourceSet, recipe, ctx, (acc, recipeStack) -> {
+            List<SourceFile> generatedInThisCycle = allRecipeStack.get().reduce(sourceSet, recipe, ctx, (acc, recipeStack) -> {
                 Recipe recipe = recipeStack.peek();
                 if (recipe instanceof ScanningRecipe) {
                     assert acc != null;
@@ -267,14 +298,17 @@ public LSS editSources(LSS sourceSet) {
      * that will be sent as a single BatchVisit RPC call.
      */
     private static class BatchState {
-        @Nullable RewriteRpc rpc;
-        final List<BatchVisit.BatchVisitItem> items = new ArrayList<>();
+        /**
+         * The {@link RpcRecipe#getBatchTarget() batch target} the recipes have in common.
+         */
+        @Nullable Object target;
+        final List<RpcRecipe> recipes = new ArrayList<>();
         final List<Stack<Recipe>> recipeStacks = new ArrayList<>();
         @Nullable SourceFile originalBeforeBatch;
 
         void clear() {
-            rpc = null;
-            items.clear();
+            target = null;
+            recipes.clear();
             recipeStacks.clear();
             originalBeforeBatch = null;
         }
@@ -284,16 +318,16 @@ void clear() {
         recipeRunStats.recordSourceVisited(sourceFile);
         BatchState batch = new BatchState();
 
-        SourceFile result = allRecipeStack.reduce(sourceSet, recipe, ctx, (source, recipeStack) -> {
+        SourceFile result = allRecipeStack.get().reduce(sourceSet, recipe, ctx, (source, recipeStack) -> {
             Recipe recipe = recipeStack.peek();
             if (source == null) {
                 return null;
             }
 
-            RewriteRpc currentRpc = recipe instanceof RpcRecipe ? ((RpcRecipe) recipe).getRpc() : null;
+            Object currentTarget = recipe instanceof RpcRecipe ? ((RpcRecipe) recipe).getBatchTarget() : null;
 
             // Flush batch if switching to a different RPC or non-RPC recipe
-            if (batch.rpc != null && batch.rpc != currentRpc) {
+            if (batch.target != null && batch.target != currentTarget) {
                 source = flushBatch(batch, source);
                 if (source == null) {
                     return null;
@@ -304,9 +338,9 @@ void clear() {
             // We're "in a batch" if this is an RPC recipe and either:
             //   (a) the next recipe uses the same RPC (batch continues), or
             //   (b) we're already in a batch with this RPC (batch ends here)
-            Recipe nextRecipe = allRecipeStack.getNextRecipe();
-            RewriteRpc nextRpc = nextRecipe instanceof RpcRecipe ? ((RpcRecipe) nextRecipe).getRpc() : null;
-            boolean isInBatch = currentRpc != null && (nextRpc == currentRpc || batch.rpc == currentRpc);
+            Recipe nextRecipe = allRecipeStack.get().getNextRecipe();
+            Object nextTarget = nextRecipe instanceof RpcRecipe ? ((RpcRecipe) nextRecipe).getBatchTarget() : null;
+            boolean isInBatch = currentTarget != null && (nextTarget == currentTarget || batch.target == currentTarget);
 
             // Effectively-final copy for inner lambdas (source may have been reassigned by flush above)
             final SourceFile src = source;
@@ -340,8 +374,8 @@ void clear() {
                     // the subclass name. getLanguages() reports canonical type names (the same
                     // ones used as the RPC sourceFileType), so a raw name comparison never
                     // matches for those, silently dropping every batched recipe but the last.
-                    if (currentRpc.getLanguages().contains(DynamicDispatchRpcCodec.canonicalSourceFileType(src.getClass()))) {
-                        RpcRecipe rpcRecipe = (RpcRecipe) recipe;
+                    RpcRecipe rpcRecipe = (RpcRecipe) recipe;
+                    if (rpcRecipe.getLanguages().contains(DynamicDispatchRpcCodec.canonicalSourceFileType(src.getClass()))) {
                         // Evaluate the precondition locally before batching. The non-batch
                         // path runs the precondition via getVisitor()'s Preconditions.check
                         // wrapper; the batch path bypasses that wrapper because it dispatches
@@ -357,17 +391,17 @@ void clear() {
                             preconditionPasses = typed.visit(src, ctx, rootCursor) != src;
                         }
                         if (preconditionPasses) {
-                            batch.items.add(new BatchVisit.BatchVisitItem(rpcRecipe.getEditVisitor(), null));
+                            batch.recipes.add(rpcRecipe);
                             batch.recipeStacks.add(recipeStack);
                             if (batch.originalBeforeBatch == null) {
                                 batch.originalBeforeBatch = src;
                             }
-                            batch.rpc = currentRpc;
+                            batch.target = currentTarget;
                         }
                     }
 
                     // If this is the last recipe in the batch, flush now
-                    if (nextRpc != currentRpc) {
+                    if (nextTarget != currentTarget) {
                         return flushBatch(batch, src);
                     }
 
@@ -375,6 +409,9 @@ void clear() {
                 }
 
                 // Normal (non-batched) path
+                if (recipe instanceof RecipeApplicability && !((RecipeApplicability) recipe).mayApply(src, ctx)) {
+                    return src;
+                }
                 TreeVisitor<?, ExecutionContext> visitor = recipe.getVisitor();
                 // set root cursor as it is required by the `ScanningRecipe#isAcceptable()`
                 visitor.setCursor(rootCursor);
@@ -415,7 +452,7 @@ void clear() {
         }, sourceFile);
 
         // Flush any remaining batch at end of recipe list
-        if (batch.rpc != null && result != null) {
+        if (batch.target != null && result != null) {
             result = flushBatch(batch, result);
         }
 
@@ -423,18 +460,17 @@ void clear() {
     }
 
     private @Nullable SourceFile flushBatch(BatchState batch, SourceFile source) {
-        if (batch.rpc == null || batch.items.isEmpty()) {
+        if (batch.target == null || batch.recipes.isEmpty()) {
             batch.clear();
             return source;
         }
 
-        RewriteRpc rpc = batch.rpc;
         SourceFile originalBefore = batch.originalBeforeBatch != null ? batch.originalBeforeBatch : source;
 
         // Send BatchVisit RPC
         BatchVisitResponse response;
         try {
-            response = rpc.batchVisit(originalBefore, ctx, rootCursor, batch.items);
+            response = RpcRecipe.batchVisit(batch.recipes, false, originalBefore, ctx, rootCursor);
         } catch (Throwable t) {
             if (!batch.recipeStacks.isEmpty()) {
                 SourceFile beforeError = source;
@@ -487,7 +523,8 @@ void clear() {
         SourceFile fetched;
         if (anyModified) {
             // Fetch final tree state from remote
-            fetched = rpc.getObject(originalBefore.getId().toString(), DynamicDispatchRpcCodec.canonicalSourceFileType(originalBefore.getClass()));
+            fetched = batch.recipes.get(0).withRpc(originalBefore, (rpc, recipe) -> rpc.getObject(
+                    originalBefore.getId().toString(), DynamicDispatchRpcCodec.canonicalSourceFileType(originalBefore.getClass())));
         } else {
             fetched = source;
         }
@@ -22,17 +22,14 @@
 import org.openrewrite.LargeSourceSet;
 import org.openrewrite.Recipe;
 
-import java.util.IdentityHashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Stack;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 
 import static org.openrewrite.Recipe.PANIC;
 
 class RecipeStack {
-    private final Map<Recipe, List<Recipe>> recipeLists = new IdentityHashMap<>();
+    private final Map<Recipe, List<Recipe>> recipeLists;
 
     @SuppressWarnings("NotNullFieldNotInitialized")
     private Stack<Stack<Recipe>> allRecipesStack;
@@ -54,6 +51,37 @@ class RecipeStack {
     @Nullable
     Recipe nextRecipe;
 
+    /**
+     * @param recipeLists The recipe list of every recipe in the tree, as {@link #expandRecipeLists(Recipe)}
+     *                    makes it. It is only read, so it may be shared by the recipe stacks of several threads.
+     */
+    RecipeStack(Map<Recipe, List<Recipe>> recipeLists) {
+        this.recipeLists = recipeLists;
+    }
+
+    /**
+     * Call {@link Recipe#getRecipeList()} once for every recipe in the tree, so that composite recipes that
+     * make new sub-recipes on each call present the same instances to every recipe stack of a cycle.
+     *
+     * @return The recipe list of every recipe in the tree, by identity.
+     */
+    static Map<Recipe, List<Recipe>> expandRecipeLists(Recipe recipe) {
+        Map<Recipe, List<Recipe>> recipeLists = new IdentityHashMap<>();
+        Deque<Recipe> toExpand = new ArrayDeque<>();
+        toExpand.push(recipe);
+        while (!toExpand.isEmpty()) {
+            Recipe next = toExpand.pop();
+            if (!recipeLists.containsKey(next)) {
+                List<Recipe> recipeList = next.getRecipeList();
+                recipeLists.put(next, recipeList);
+                for (Recipe subRecipe : recipeList) {
+                    toExpand.push(subRecipe);
+                }
+            }
+        }
+        return Collections.unmodifiableMap(recipeLists);
+    }
+
     public <T> @Nullable T reduce(LargeSourceSet sourceSet, Recipe recipe, ExecutionContext ctx,
                                   BiFunction<@Nullable T, Stack<Recipe>, @Nullable T> consumer, @Nullable T acc) {
         init(recipe);
@@ -107,6 +135,7 @@ private int countRecipes(Recipe recipe) {
     }
 
     private List<Recipe> getRecipeList(Recipe recipe) {
-        return recipeLists.computeIfAbsent(recipe, Recipe::getRecipeList);
+        List<Recipe> recipeList = recipeLists.get(recipe);
+        return recipeList == null ? recipe.getRecipeList() : recipeList;
     }
 }
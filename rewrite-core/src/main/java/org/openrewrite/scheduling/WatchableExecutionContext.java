@@ -19,25 +19,50 @@
 import org.openrewrite.DelegatingExecutionContext;
 import org.openrewrite.ExecutionContext;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class WatchableExecutionContext extends DelegatingExecutionContext {
     public WatchableExecutionContext(ExecutionContext delegate) {
         super(delegate);
     }
 
-    private boolean hasNewMessages;
+    /**
+     * Incremented to forget the new messages of every thread at once.
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * The generation in which each thread last put a message, so that recipes editing source files
+     * on several threads at once each only see the messages they put themselves.
+     */
+    private final ThreadLocal<int[]> newMessagesGeneration = ThreadLocal.withInitial(() -> new int[]{-1});
 
+    /**
+     * @return Whether the current thread put a message since it last reset.
+     */
     public boolean hasNewMessages() {
-        return hasNewMessages;
+        return newMessagesGeneration.get()[0] == generation.get();
     }
 
+    /**
+     * Forget the new messages of the current thread.
+     */
     public void resetHasNewMessages() {
-        this.hasNewMessages = false;
+        newMessagesGeneration.get()[0] = -1;
+    }
+
+    /**
+     * Forget the new messages of every thread, as at the end of a cycle.
+     */
+    public void resetHasNewMessagesOnAllThreads() {
+        generation.incrementAndGet();
+        resetHasNewMessages();
     }
 
     @Override
     public void putMessage(String key, @Nullable Object value) {
         if (value != null) {
-            hasNewMessages = true;
+            newMessagesGeneration.get()[0] = generation.get();
             super.putMessage(key, value);
         }
     }
@@ -15,13 +15,11 @@
  */
 package org.openrewrite.table;
 
-import lombok.Getter;
 import lombok.Value;
 import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
 
 import java.nio.file.Path;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -29,8 +27,8 @@
 
 public class RecipeRunStats extends DataTable<RecipeRunStats.Row> {
     private final Map<String, RecipeTimers> recipeTimers = new ConcurrentHashMap<>();
-    private final Set<Path> sourceFileVisited = new HashSet<>();
-    private final Set<Path> sourceFileChanged = new HashSet<>();
+    private final Set<Path> sourceFileVisited = ConcurrentHashMap.newKeySet();
+    private final Set<Path> sourceFileChanged = ConcurrentHashMap.newKeySet();
 
     public RecipeRunStats(Recipe recipe) {
         super(recipe,
@@ -130,11 +128,18 @@ SourceFile recordEdit(Callable<SourceFile> editCallable) throws Exception {
         }
     }
 
-    @Getter
     private static class PhaseTimer {
         private long totalNs = 0;
         private long maxNs = 0;
 
+        synchronized long getTotalNs() {
+            return totalNs;
+        }
+
+        synchronized long getMaxNs() {
+            return maxNs;
+        }
+
         <T> T recordTimed(Callable<T> callable) throws Exception {
             long startNs = System.nanoTime();
             try {
@@ -145,7 +150,7 @@ <T> T recordTimed(Callable<T> callable) throws Exception {
             }
         }
 
-        private void record(long elapsedNs) {
+        private synchronized void record(long elapsedNs) {
             totalNs += elapsedNs;
             maxNs = Math.max(maxNs, elapsedNs);
         }
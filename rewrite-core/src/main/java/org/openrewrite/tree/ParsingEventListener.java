@@ -35,4 +35,15 @@ default void startedParsing(Parser.Input input) {
 
     default void parsed(Parser.Input input, SourceFile sourceFile) {
     }
+
+    /**
+     * Parsers that type attribute their inputs in batches call this after attributing each batch, before
+     * any source file of the batch is parsed.
+     *
+     * @param attributed   The number of inputs attributed so far.
+     * @param total        The number of inputs being parsed.
+     * @param peakHeapUsed The most heap in use, in bytes, after attributing any batch so far.
+     */
+    default void attributedBatch(int attributed, int total, long peakHeapUsed) {
+    }
 }
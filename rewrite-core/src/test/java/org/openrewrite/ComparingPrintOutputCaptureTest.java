@@ -0,0 +1,75 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.text.PlainText;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ComparingPrintOutputCaptureTest {
+
+    @Test
+    void matchesWhatWasPrinted() {
+        ComparingPrintOutputCapture<Integer> out = new ComparingPrintOutputCapture<>(0, "class A {}", false);
+        out.append("class").append(' ').append("A {").append(null).append("}");
+        assertThat(out.matches()).isTrue();
+        assertThat(out.getOut()).isEqualTo("class A {}");
+        assertThat(out.getMismatchIndex()).isEqualTo(-1);
+    }
+
+    @Test
+    void stopsAtFirstDifference() {
+        ComparingPrintOutputCapture<Integer> out = new ComparingPrintOutputCapture<>(0, "class A {}", false);
+        out.append("class ");
+        assertThatThrownBy(() -> out.append("B {}")).isInstanceOf(RuntimeException.class);
+        assertThat(out.matches()).isFalse();
+        assertThat(out.getMismatchIndex()).isEqualTo(6);
+        assertThat(out.getOut()).isEqualTo("class ");
+    }
+
+    @Test
+    void printedTooMuchOrTooLittle() {
+        ComparingPrintOutputCapture<Integer> tooMuch = new ComparingPrintOutputCapture<>(0, "abc", false);
+        assertThatThrownBy(() -> tooMuch.append("abcd")).isInstanceOf(RuntimeException.class);
+        assertThat(tooMuch.getMismatchIndex()).isEqualTo(3);
+
+        ComparingPrintOutputCapture<Integer> tooLittle = new ComparingPrintOutputCapture<>(0, "abc", false);
+        tooLittle.append("ab");
+        assertThat(tooLittle.matches()).isFalse();
+        assertThat(tooLittle.getMismatchIndex()).isEqualTo(-1);
+    }
+
+    @Test
+    void printEquals() {
+        SourceFile sourceFile = PlainText.builder().text("hello\nworld").build();
+        assertThat(ComparingPrintOutputCapture.printEquals(sourceFile, "hello\nworld")).isTrue();
+        assertThat(ComparingPrintOutputCapture.printEquals(sourceFile, "hello\nworld\n")).isFalse();
+        assertThat(ComparingPrintOutputCapture.printEquals(sourceFile, "hello\nWorld")).isFalse();
+        assertThat(ComparingPrintOutputCapture.printEquals(sourceFile, "")).isFalse();
+    }
+
+    @Test
+    void byteOrderMarkIgnoredWhenCharsetHasOne() {
+        SourceFile sourceFile = PlainText.builder().text("hello").charsetBomMarked(true).build();
+        assertThat(ComparingPrintOutputCapture.printEquals(sourceFile, "\uFEFFhello")).isTrue();
+        assertThat(ComparingPrintOutputCapture.printEquals(sourceFile, "hello")).isTrue();
+
+        SourceFile unmarked = PlainText.builder().text("hello").build();
+        assertThat(ComparingPrintOutputCapture.printEquals(unmarked, "\uFEFFhello")).isFalse();
+    }
+}
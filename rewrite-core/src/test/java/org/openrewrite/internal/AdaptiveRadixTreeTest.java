@@ -17,6 +17,10 @@
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -453,4 +457,25 @@ void insertAndSearch_ControlCharacters() {
         assertThat(tree.search("line1")).isNull();
         assertThat(tree.search("tab")).isNull();
     }
+
+    @Test
+    void forEachVisitsEveryKey() {
+        AdaptiveRadixTree<Integer> tree = new AdaptiveRadixTree<>();
+        Map<String, Integer> expected = new HashMap<>();
+        String[] words = {"", "a", "ab", "abc", "abd", "b", "café", "java.lang.String", "java.lang.StringBuilder"};
+        for (int i = 0; i < words.length; i++) {
+            tree.insert(words[i], i);
+            expected.put(words[i], i);
+        }
+        for (int i = 0; i < 300; i++) {
+            // enough children under one prefix to grow to the largest node type
+            String key = "k" + (char) i;
+            tree.insert(key, 1000 + i);
+            expected.put(key, 1000 + i);
+        }
+
+        Map<String, Integer> visited = new HashMap<>();
+        tree.forEach((key, value) -> visited.put(new String(key, StandardCharsets.UTF_8), value));
+        assertThat(visited).isEqualTo(expected);
+    }
 }
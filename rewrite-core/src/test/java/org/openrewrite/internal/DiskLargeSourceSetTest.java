@@ -0,0 +1,125 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.LargeSourceSet;
+import org.openrewrite.RecipeSerializer;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.text.PlainText;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskLargeSourceSetTest {
+
+    private static final DiskLargeSourceSet.Codec PLAIN_TEXT = new DiskLargeSourceSet.Codec() {
+        @Override
+        public void write(SourceFile sourceFile, OutputStream out) throws IOException {
+            PlainText text = (PlainText) sourceFile;
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeUTF(text.getId().toString());
+            data.writeUTF(text.getSourcePath().toString());
+            data.writeUTF(text.getText());
+            data.flush();
+        }
+
+        @Override
+        public SourceFile read(InputStream in) throws IOException {
+            DataInputStream data = new DataInputStream(in);
+            return PlainText.builder()
+              .id(UUID.fromString(data.readUTF()))
+              .sourcePath(Path.of(data.readUTF()))
+              .text(data.readUTF())
+              .build();
+        }
+    };
+
+    @Test
+    void editsInWindows(@TempDir Path tempDir) {
+        List<SourceFile> sources = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sources.add(PlainText.builder().text(Integer.toString(i)).sourcePath(Path.of(i + ".txt")).build());
+        }
+
+        try (DiskLargeSourceSet sourceSet = new DiskLargeSourceSet(tempDir, sources.iterator(), PLAIN_TEXT, 3, null)) {
+            LargeSourceSet after = sourceSet.edit(s -> {
+                PlainText text = (PlainText) s;
+                if ("4".equals(text.getText())) {
+                    return null;
+                }
+                return "7".equals(text.getText()) ? text.withText("seven") : text;
+            });
+
+            assertThat(after.getChangeset().size()).isEqualTo(2);
+            List<Result> deleted = after.getChangeset().getPage(1, 1);
+            assertThat(deleted).singleElement().satisfies(r -> {
+                assertThat(r.getAfter()).isNull();
+                assertThat(((PlainText) r.getBefore()).getText()).isEqualTo("4");
+            });
+
+            List<String> texts = new ArrayList<>();
+            after.edit(s -> {
+                texts.add(((PlainText) s).getText());
+                return s;
+            });
+            assertThat(texts).containsExactly("0", "1", "2", "3", "5", "6", "seven", "8", "9");
+
+            assertThat(after.getBefore(Path.of("7.txt")))
+              .isInstanceOfSatisfying(PlainText.class, t -> assertThat(t.getText()).isEqualTo("7"));
+        }
+    }
+
+    @Test
+    void unchangedEditReturnsSameSourceSet(@TempDir Path tempDir) {
+        List<SourceFile> sources = List.of(PlainText.builder().text("hello").sourcePath(Path.of("a.txt")).build());
+        try (DiskLargeSourceSet sourceSet = new DiskLargeSourceSet(tempDir, sources.iterator(), PLAIN_TEXT, 10, null)) {
+            assertThat(sourceSet.edit(s -> s)).isSameAs(sourceSet);
+            assertThat(sourceSet.getChangeset().size()).isZero();
+        }
+    }
+
+    @Test
+    void jacksonCodecRoundTrips(@TempDir Path tempDir) {
+        PlainText a = PlainText.builder().text("a").sourcePath(tempDir.resolve("a.txt")).build();
+        PlainText b = PlainText.builder().text("b").sourcePath(tempDir.resolve("b.txt")).build();
+        DiskLargeSourceSet.Codec codec = DiskLargeSourceSet.Codec.jackson(new RecipeSerializer().getMapper());
+
+        try (DiskLargeSourceSet sourceSet = new DiskLargeSourceSet(tempDir, List.of(a, b).iterator(), codec, 1, null)) {
+            List<PlainText> read = new ArrayList<>();
+            LargeSourceSet after = sourceSet.edit(s -> {
+                read.add((PlainText) s);
+                return "b".equals(((PlainText) s).getText()) ? ((PlainText) s).withText("bee") : s;
+            });
+            assertThat(read).extracting(PlainText::getId).containsExactly(a.getId(), b.getId());
+            assertThat(read).extracting(PlainText::getSourcePath).containsExactly(a.getSourcePath(), b.getSourcePath());
+            assertThat(read).extracting(PlainText::getText).containsExactly("a", "b");
+
+            assertThat(after.getChangeset().getPage(0, 1)).singleElement().satisfies(r -> {
+                assertThat(((PlainText) r.getBefore()).getText()).isEqualTo("b");
+                assertThat(((PlainText) r.getAfter()).getText()).isEqualTo("bee");
+                assertThat(r.getAfter().getId()).isEqualTo(b.getId());
+            });
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.internal;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.LargeSourceSet;
+import org.openrewrite.Result;
+import org.openrewrite.SourceFile;
+import org.openrewrite.marker.RecipesThatMadeChanges;
+import org.openrewrite.text.PlainText;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryLargeSourceSetTest {
+
+    @Test
+    void changesetInSourceSetOrderAcrossCycles() {
+        LargeSourceSet sourceSet = new InMemoryLargeSourceSet(sources());
+
+        // first cycle: change a later file, delete another, and generate a new one
+        LargeSourceSet after = sourceSet.edit(s -> {
+            PlainText text = (PlainText) s;
+            return switch (text.getText()) {
+                case "4" -> null;
+                case "7" -> change(text, "seven");
+                default -> text;
+            };
+        }).generate(List.of(PlainText.builder().text("generated").sourcePath(Path.of("generated.txt")).build()));
+
+        // second cycle: change an earlier file, the same later file again, and the generated file
+        after = after.edit(s -> {
+            PlainText text = (PlainText) s;
+            return switch (text.getText()) {
+                case "2" -> change(text, "two");
+                case "seven" -> change(text, "SEVEN");
+                case "generated" -> change(text, "GENERATED");
+                default -> text;
+            };
+        });
+
+        assertThat(describe(after.getChangeset().getAllResults())).containsExactly(
+          "2.txt: 2 -> two",
+          "7.txt: 7 -> SEVEN",
+          "generated.txt:  -> GENERATED",
+          "4.txt: 4 -> "
+        );
+    }
+
+    @Test
+    void changeBackToOriginalIsNotInChangeset() {
+        List<SourceFile> sources = sources();
+        LargeSourceSet sourceSet = new InMemoryLargeSourceSet(sources);
+
+        LargeSourceSet after = sourceSet
+          .edit(s -> "3".equals(((PlainText) s).getText()) ? change((PlainText) s, "three") : s)
+          .edit(s -> "three".equals(((PlainText) s).getText()) ? sources.get(3) : s);
+
+        assertThat(after.getChangeset().getAllResults()).isEmpty();
+    }
+
+    @Test
+    void earlierStateKeepsItsChangesetAfterHandingChangesOver() {
+        LargeSourceSet sourceSet = new InMemoryLargeSourceSet(sources());
+
+        LargeSourceSet first = sourceSet.edit(s -> "3".equals(((PlainText) s).getText()) ? change((PlainText) s, "three") : s);
+        LargeSourceSet second = first.edit(s -> "5".equals(((PlainText) s).getText()) ? change((PlainText) s, "five") : s);
+
+        assertThat(describe(first.getChangeset().getAllResults())).containsExactly("3.txt: 3 -> three");
+        assertThat(describe(second.getChangeset().getAllResults())).containsExactly("3.txt: 3 -> three", "5.txt: 5 -> five");
+    }
+
+    private static PlainText change(PlainText text, String newText) {
+        return text.withText(newText).withMarkers(text.getMarkers().addIfAbsent(RecipesThatMadeChanges.create(List.of())));
+    }
+
+    private static List<SourceFile> sources() {
+        List<SourceFile> sources = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sources.add(PlainText.builder().text(Integer.toString(i)).sourcePath(Path.of(i + ".txt")).build());
+        }
+        return sources;
+    }
+
+    private static List<String> describe(List<Result> results) {
+        List<String> described = new ArrayList<>();
+        for (Result result : results) {
+            SourceFile any = result.getAfter() == null ? result.getBefore() : result.getAfter();
+            described.add(any.getSourcePath() + ": " +
+                          (result.getBefore() == null ? "" : ((PlainText) result.getBefore()).getText()) + " -> " +
+                          (result.getAfter() == null ? "" : ((PlainText) result.getAfter()).getText()));
+        }
+        return described;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.rpc;
+
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import io.moderne.jsonrpc.JsonRpc;
+import io.moderne.jsonrpc.formatter.JsonMessageFormatter;
+import io.moderne.jsonrpc.handler.HeaderDelimitedMessageHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.Parser;
+import org.openrewrite.Recipe;
+import org.openrewrite.SourceFile;
+import org.openrewrite.Tree;
+import org.openrewrite.config.CompositeRecipe;
+import org.openrewrite.config.Environment;
+import org.openrewrite.config.RecipeDescriptor;
+import org.openrewrite.internal.RecipeLoader;
+import org.openrewrite.marketplace.*;
+import org.openrewrite.test.RewriteTest;
+import org.openrewrite.text.PlainText;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.openrewrite.marketplace.RecipeBundle.runtimeClasspath;
+import static org.openrewrite.test.SourceSpecs.text;
+
+class RewriteRpcProcessPoolTest implements RewriteTest {
+    RecipeMarketplace marketplace = Environment.builder()
+      .scanRuntimeClasspath("org.openrewrite.text")
+      .build()
+      .toMarketplace(runtimeClasspath());
+
+    List<RewriteRpc> started = new CopyOnWriteArrayList<>();
+    AtomicReference<RewriteRpc> dead = new AtomicReference<>();
+
+    RewriteRpcProcessPool<RewriteRpc> pool = new RewriteRpcProcessPool<>(2, this::startPeer);
+
+    @AfterEach
+    void after() {
+        pool.shutdown();
+        started.forEach(RewriteRpc::shutdown);
+    }
+
+    @Test
+    void sourceFilesStickToTheirPeer() {
+        UUID first = Tree.randomId();
+        UUID second = Tree.randomId();
+
+        RewriteRpc firstPeer = pool.withPeer(first, rpc -> rpc);
+        RewriteRpc secondPeer = pool.withPeer(second, rpc -> rpc);
+
+        assertThat(secondPeer).isNotSameAs(firstPeer);
+        RewriteRpc firstAgain = pool.withPeer(first, rpc -> rpc);
+        RewriteRpc secondAgain = pool.withPeer(second, rpc -> rpc);
+        assertThat(firstAgain).isSameAs(firstPeer);
+        assertThat(secondAgain).isSameAs(secondPeer);
+    }
+
+    @Test
+    void parseSpreadsInputsOverPeers() {
+        List<Parser.Input> inputs = new ArrayList<>();
+        IntStream.range(0, 5).forEach(i -> inputs.add(Parser.Input.fromString(Path.of(i + ".txt"), "text " + i)));
+        Map<Path, RewriteRpc> parsedBy = new ConcurrentHashMap<>();
+
+        List<SourceFile> sourceFiles = pool.parse(inputs, (rpc, chunk) -> chunk.stream().map(input -> {
+            parsedBy.put(input.getPath(), rpc);
+            return PlainText.builder()
+              .sourcePath(input.getPath())
+              .text("parsed")
+              .build();
+        })).toList();
+
+        assertThat(sourceFiles).extracting(SourceFile::getSourcePath)
+          .containsExactly(Path.of("0.txt"), Path.of("1.txt"), Path.of("2.txt"), Path.of("3.txt"), Path.of("4.txt"));
+        assertThat(parsedBy).hasSize(5);
+        assertThat(new HashSet<>(parsedBy.values())).hasSize(2);
+        for (SourceFile sourceFile : sourceFiles) {
+            RewriteRpc assigned = pool.withPeer(sourceFile.getId(), rpc -> rpc);
+            assertThat(assigned).isSameAs(parsedBy.get(sourceFile.getSourcePath()));
+        }
+    }
+
+    @Test
+    void restartsPeerThatDied() {
+        UUID first = Tree.randomId();
+        UUID second = Tree.randomId();
+        RewriteRpc firstPeer = pool.withPeer(first, rpc -> rpc);
+        RewriteRpc original = pool.withPeer(second, rpc -> rpc);
+        assertThat(original).isNotSameAs(firstPeer);
+        dead.set(original);
+
+        RewriteRpc retried = pool.withPeer(second, rpc -> {
+            if (rpc == dead.get()) {
+                throw new IllegalStateException("Connection lost");
+            }
+            return rpc;
+        });
+        assertThat(retried).isNotSameAs(original).isNotSameAs(firstPeer);
+
+        // the second source file is still assigned to the restarted peer, so each peer has one
+        RewriteRpc third = pool.withPeer(Tree.randomId(), rpc -> rpc);
+        RewriteRpc secondAgain = pool.withPeer(second, rpc -> rpc);
+        RewriteRpc firstAgain = pool.withPeer(first, rpc -> rpc);
+        assertThat(third).isSameAs(firstPeer);
+        assertThat(secondAgain).isSameAs(retried);
+        assertThat(firstAgain).isSameAs(firstPeer);
+    }
+
+    @Test
+    void doesNotRetryErrorOfLivePeer() {
+        UUID sourceFileId = Tree.randomId();
+        RewriteRpc peer = pool.withPeer(sourceFileId, rpc -> rpc);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> pool.withPeer(sourceFileId, rpc -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Recipe failed");
+        })).hasMessage("Recipe failed");
+
+        assertThat(attempts).hasValue(1);
+        RewriteRpc samePeer = pool.withPeer(sourceFileId, rpc -> rpc);
+        assertThat(samePeer).isSameAs(peer);
+    }
+
+    @Test
+    void recipeVisitsEachSourceFileOnItsPeer() {
+        rewriteRun(
+          spec -> spec
+            .recipe(pool.prepareRecipe("org.openrewrite.text.ChangeText", Map.of("toText", "changed")))
+            .validateRecipeSerialization(false)
+            .cycles(1).expectedCyclesThatMakeChanges(1),
+          text("first", "changed"),
+          text("second", "changed")
+        );
+        // the recipe was prepared on one peer, and then on the other for the source file assigned to it
+        assertThat(started).hasSize(2);
+    }
+
+    @Test
+    void recipesOnThePoolAreBatched() {
+        Recipe r1 = pool.prepareRecipe("org.openrewrite.text.ChangeText", Map.of("toText", "step1"));
+        Recipe r2 = pool.prepareRecipe("org.openrewrite.text.ChangeText", Map.of("toText", "step2"));
+        assertThat(((RpcRecipe) r1).getBatchTarget()).isSameAs(((RpcRecipe) r2).getBatchTarget());
+
+        rewriteRun(
+          spec -> spec
+            .recipe(new CompositeRecipe(List.of(r1, r2)))
+            .validateRecipeSerialization(false)
+            .cycles(1).expectedCyclesThatMakeChanges(1),
+          text("hello", "step2"),
+          text("world", "step2")
+        );
+    }
+
+    private RewriteRpc startPeer() {
+        try {
+            var serverOut = new PipedOutputStream();
+            var clientOut = new PipedOutputStream();
+            var serverIn = new PipedInputStream(clientOut);
+            var clientIn = new PipedInputStream(serverOut);
+
+            RewriteRpc client = new RewriteRpc(new JsonRpc(new HeaderDelimitedMessageHandler(
+              new JsonMessageFormatter(new ParameterNamesModule()), clientIn, clientOut)), marketplace);
+            RewriteRpc server = new RewriteRpc(new JsonRpc(new HeaderDelimitedMessageHandler(
+              new JsonMessageFormatter(new ParameterNamesModule()), serverIn, serverOut)), marketplace,
+              List.of(new RuntimeRecipeBundleResolver()));
+            client.livenessCheck(() -> client == dead.get() ? new IllegalStateException("RPC process shut down early") : null);
+            started.add(server);
+            return client;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    class RuntimeRecipeBundleResolver implements RecipeBundleResolver {
+        @Override
+        public String getEcosystem() {
+            return "runtime";
+        }
+
+        @Override
+        public RecipeBundleReader resolve(RecipeBundle bundle) {
+            return new RecipeBundleReader() {
+                @Override
+                public RecipeBundle getBundle() {
+                    return bundle;
+                }
+
+                @Override
+                public RecipeMarketplace read() {
+                    return marketplace;
+                }
+
+                @Override
+                public RecipeDescriptor describe(RecipeListing listing) {
+                    return new RecipeLoader(null).load(listing.getName(), Map.of()).getDescriptor();
+                }
+
+                @Override
+                public Recipe prepare(RecipeListing listing, Map<String, Object> options) {
+                    return new RecipeLoader(null).load(listing.getName(), options);
+                }
+            };
+        }
+    }
+}
@@ -24,6 +24,7 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.*;
 import org.openrewrite.internal.InMemoryLargeSourceSet;
 import org.openrewrite.marker.Markup;
@@ -34,6 +35,10 @@
 import org.openrewrite.config.RecipeDescriptor;
 import org.openrewrite.internal.RecipeLoader;
 import org.openrewrite.marketplace.*;
+import org.openrewrite.rpc.request.CancelGetObjects;
+import org.openrewrite.rpc.request.GetObjectResponse;
+import org.openrewrite.rpc.request.GetObjects;
+import org.openrewrite.rpc.request.RpcRequest;
 import org.openrewrite.table.TextMatches;
 import org.openrewrite.test.RewriteTest;
 import org.openrewrite.marker.RecipesThatMadeChanges;
@@ -44,10 +49,12 @@
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.nio.file.Path;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -61,6 +68,8 @@ class RewriteRpcTest implements RewriteTest {
       .build();
 
     RecipeMarketplace marketplace;
+    RpcBinaryFrames clientFrames;
+    List<String> clientRequests = new CopyOnWriteArrayList<>();
     RewriteRpc client;
     RewriteRpc server;
 
@@ -76,11 +85,21 @@ void before() throws IOException {
         var clientFormatter = new JsonMessageFormatter(new ParameterNamesModule());
         var serverFormatter = new JsonMessageFormatter(new ParameterNamesModule());
 
-        client = new RewriteRpc(new JsonRpc(new HeaderDelimitedMessageHandler(clientFormatter, clientIn, clientOut)), marketplace)
-          .batchSize(1);
-
-        server = new RewriteRpc(new JsonRpc(new HeaderDelimitedMessageHandler(serverFormatter, serverIn, serverOut)), marketplace, List.of(new TestRecipeBundleResolver()))
-          .batchSize(1);
+        clientFrames = new RpcBinaryFrames();
+        client = new RewriteRpc(new JsonRpc(new HeaderDelimitedMessageHandler(clientFormatter,
+          clientFrames.in(clientIn), clientFrames.out(clientOut))), marketplace) {
+            @Override
+            protected <P> P send(String method, @Nullable RpcRequest body, Class<P> responseType) {
+                clientRequests.add(method);
+                return super.send(method, body, responseType);
+            }
+        }.batchSize(1);
+
+        var serverFrames = new RpcBinaryFrames();
+        server = new RewriteRpc(new JsonRpc(new HeaderDelimitedMessageHandler(serverFormatter,
+          serverFrames.in(serverIn), serverFrames.out(serverOut))), marketplace, List.of(new TestRecipeBundleResolver()))
+          .batchSize(1)
+          .binaryFrames(serverFrames);
     }
 
     @AfterEach
@@ -140,6 +159,115 @@ void getObjectUsesRemoteObjectsAsBaseline() {
           .isEqualTo(syncedMarkersId);
     }
 
+    @Test
+    void getObjectInBinaryEncoding() {
+        PlainText original = PlainText.builder()
+          .sourcePath(Path.of("test.txt"))
+          .text("Hello")
+          .build();
+        String id = original.getId().toString();
+        String sourceFileType = PlainText.class.getName();
+
+        client.binaryFrames(clientFrames);
+        server.localObjects.put(id, original);
+        PlainText synced = client.getObject(id, sourceFileType);
+        assertThat(synced.getText()).isEqualTo("Hello");
+        assertThat(synced.getSourcePath()).isEqualTo(original.getSourcePath());
+
+        server.localObjects.put(id, original.withText("Hello World"));
+        assertThat(client.<PlainText>getObject(id, sourceFileType).getText()).isEqualTo("Hello World");
+    }
+
+    /**
+     * The JavaScript, Python, C#, and Go peers have tests that encode this same batch to these same bytes.
+     */
+    @Test
+    void decodesBatchEncodedByOtherPeers() {
+        byte[] frame = HexFormat.of().parseHex(
+          "3a290a03f8fa847374617465424144448876616c7565547970655d6f72672e6f70656e726577726974652e746578742e506c61696e" +
+          "546578748476616c75654448656c6c6ffbfa40454348414e47454224038782726566c6fbfa40014203fbfa40484e4f5f4348414e" +
+          "4745fbfa404c454e445f4f465f4f424a454354fbf9");
+
+        List<RpcObjectData> batch = RpcBinaryEncoding.decode(frame);
+        assertThat(batch).extracting(RpcObjectData::getState).containsExactly(
+          RpcObjectData.State.ADD, RpcObjectData.State.CHANGE, RpcObjectData.State.ADD,
+          RpcObjectData.State.NO_CHANGE, RpcObjectData.State.END_OF_OBJECT);
+        assertThat(batch.get(0).getValueType()).isEqualTo("org.openrewrite.text.PlainText");
+        assertThat(batch.get(0).<String>getValue()).isEqualTo("Hello");
+        assertThat(batch.get(1).<Integer>getValue()).isEqualTo(-100);
+        assertThat(batch.get(1).getRef()).isEqualTo(3);
+        assertThat(batch.get(2).<String>getValue()).isEqualTo("Hello");
+        assertThat(RpcBinaryEncoding.encode(batch)).isEqualTo(frame);
+    }
+
+    @Test
+    void getCursorInOneExchange() {
+        PlainText root = PlainText.builder()
+          .sourcePath(Path.of("root.txt"))
+          .text("root")
+          .build();
+        PlainText leaf = PlainText.builder()
+          .sourcePath(Path.of("leaf.txt"))
+          .text("leaf")
+          .build();
+        server.localObjects.put(root.getId().toString(), root);
+        server.localObjects.put(leaf.getId().toString(), leaf);
+
+        // large enough for both objects to fit in one batch
+        server.batchSize(1000);
+
+        Cursor cursor = client.getCursor(List.of(leaf.getId().toString(), root.getId().toString()), PlainText.class.getName());
+        assertThat(cursor.<PlainText>getValue().getText()).isEqualTo("leaf");
+        assertThat(cursor.getParentOrThrow().<PlainText>getValue().getText()).isEqualTo("root");
+        assertThat(cursor.getParentOrThrow().getParentOrThrow().getValue()).isEqualTo(Cursor.ROOT_VALUE);
+        assertThat(clientRequests).containsExactly("GetObjects");
+    }
+
+    @Test
+    void cancelledGetObjectsIsSentWholeAgain() {
+        PlainText first = PlainText.builder()
+          .sourcePath(Path.of("first.txt"))
+          .text("first")
+          .build();
+        PlainText second = PlainText.builder()
+          .sourcePath(Path.of("second.txt"))
+          .text("second")
+          .build();
+        List<String> ids = List.of(first.getId().toString(), second.getId().toString());
+        server.localObjects.put(ids.get(0), first);
+        server.localObjects.put(ids.get(1), second);
+
+        // take only the first of many batches, as a receiver that fails partway through would
+        client.send("GetObjects", new GetObjects(ids, PlainText.class.getName(), null), GetObjectResponse.class);
+        client.send("CancelGetObjects", new CancelGetObjects(ids, 0), Boolean.class);
+
+        // a traversal left over from the cancelled exchange would send the rest of the
+        // objects, rather than the objects from the beginning
+        List<Object> objects = client.getObjects(ids, PlainText.class.getName());
+        assertThat(objects).extracting(o -> ((PlainText) o).getText()).containsExactly("first", "second");
+    }
+
+    @Test
+    void onlyMethodNotFoundFallsBack() {
+        assertThat(RewriteRpc.isMethodNotFound(new RuntimeException(
+          new RuntimeException("JsonRpcError(code=-32601, message=Unhandled method GetObjects)")))).isTrue();
+        assertThat(RewriteRpc.isMethodNotFound(new RuntimeException("Method not found: GetObjects"))).isTrue();
+        assertThat(RewriteRpc.isMethodNotFound(new RuntimeException(
+          "JsonRpcError(code=-32603, message=Internal error)"))).isFalse();
+        assertThat(RewriteRpc.isMethodNotFound(new IllegalStateException("Expected END_OF_OBJECT"))).isFalse();
+    }
+
+    @Test
+    void binaryEncodingRoundTrips() {
+        List<RpcObjectData> batch = List.of(
+          new RpcObjectData(RpcObjectData.State.ADD, PlainText.class.getName(), null, 1, false),
+          new RpcObjectData(RpcObjectData.State.CHANGE, null, "Hello", null, false),
+          new RpcObjectData(RpcObjectData.State.ADD, null, Map.of("text", "Hello", "length", 5), null, false),
+          new RpcObjectData(RpcObjectData.State.END_OF_OBJECT, null, null, null, false)
+        );
+        assertThat(RpcBinaryEncoding.decode(RpcBinaryEncoding.encode(batch))).isEqualTo(batch);
+    }
+
     /**
      * Verifies that when getObject() fails mid-serialization on the sender side,
      * the sender removes the stale entry from remoteObjects. This ensures that
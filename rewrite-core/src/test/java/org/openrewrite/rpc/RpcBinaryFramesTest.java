@@ -0,0 +1,67 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.rpc;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RpcBinaryFramesTest {
+
+    @Test
+    void framesAreTakenOutOfTheMessageStream() throws IOException {
+        var wire = new ByteArrayOutputStream();
+        var writer = new RpcBinaryFrames();
+        OutputStream transport = writer.out(wire);
+
+        byte[] first = message("{\"id\":1}");
+        byte[] second = message("{\"id\":2}");
+        // the transport may write a message in pieces, and a frame must not land in between them
+        transport.write(first, 0, 10);
+        long frame = writer.write(new byte[]{0, (byte) 0xFF, '\r', '\n', '\r', '\n'});
+        transport.write(first, 10, first.length - 10);
+        transport.write(second);
+
+        var reader = new RpcBinaryFrames();
+        byte[] read = reader.in(new ByteArrayInputStream(wire.toByteArray())).readAllBytes();
+        assertThat(new String(read, UTF_8)).isEqualTo(new String(first, UTF_8) + new String(second, UTF_8));
+        assertThat(reader.take(frame)).containsExactly(0, 0xFF, '\r', '\n', '\r', '\n');
+        assertThatThrownBy(() -> reader.take(frame)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void cannotWriteWithoutOutput() {
+        assertThat(new RpcBinaryFrames().canWrite()).isFalse();
+        assertThatThrownBy(() -> new RpcBinaryFrames().write(new byte[1])).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static byte[] message(String json) {
+        byte[] body = json.getBytes(UTF_8);
+        byte[] header = ("Content-Length: " + body.length + "\r\n\r\n").getBytes(US_ASCII);
+        byte[] message = new byte[header.length + body.length];
+        System.arraycopy(header, 0, message, 0, header.length);
+        System.arraycopy(body, 0, message, header.length, body.length);
+        return message;
+    }
+}
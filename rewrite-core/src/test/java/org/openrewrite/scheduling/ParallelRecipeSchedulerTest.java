@@ -0,0 +1,156 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.scheduling;
+
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.openrewrite.*;
+import org.openrewrite.internal.InMemoryLargeSourceSet;
+import org.openrewrite.text.PlainText;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.test.RewriteTest.toRecipe;
+
+class ParallelRecipeSchedulerTest {
+
+    @Test
+    void sameChangesetRegardlessOfParallelism() {
+        List<String> sequential = describe(new RecipeScheduler().scheduleRun(
+          recipe(ConcurrentHashMap.newKeySet()), new InMemoryLargeSourceSet(sources()), new InMemoryExecutionContext(), 3, 1));
+        List<String> parallel = describe(new ParallelRecipeScheduler(8).scheduleRun(
+          recipe(ConcurrentHashMap.newKeySet()), new InMemoryLargeSourceSet(sources()), new InMemoryExecutionContext(), 3, 1));
+
+        assertThat(sequential).hasSize(100);
+        assertThat(parallel).containsExactlyElementsOf(sequential);
+    }
+
+    @Test
+    void editsOnMultipleThreads() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        new ParallelRecipeScheduler(4).scheduleRun(
+          recipe(threads), new InMemoryLargeSourceSet(sources()), new InMemoryExecutionContext(), 1, 1);
+        assertThat(threads)
+          .hasSizeGreaterThan(1)
+          .allMatch(name -> name.startsWith("rewrite-edit-"));
+    }
+
+    @Test
+    void editsSeeWhatSubRecipesMadeOnEachCallScanned() {
+        Recipe composite = new Recipe() {
+            @Override
+            public String getDisplayName() {
+                return "Composite";
+            }
+
+            @Override
+            public String getDescription() {
+                return "Makes a new scanning recipe on every call to `getRecipeList()`.";
+            }
+
+            @Override
+            public List<Recipe> getRecipeList() {
+                return List.of(new CountSources());
+            }
+        };
+
+        RecipeRun run = new ParallelRecipeScheduler(4).scheduleRun(
+          composite, new InMemoryLargeSourceSet(sources()), new InMemoryExecutionContext(), 1, 1);
+
+        List<Result> results = run.getChangeset().getAllResults();
+        assertThat(results).hasSize(200);
+        assertThat(results).allMatch(result -> ((PlainText) result.getAfter()).getText().endsWith(" of 200"));
+    }
+
+    static class CountSources extends ScanningRecipe<AtomicInteger> {
+        @Override
+        public String getDisplayName() {
+            return "Count sources";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Appends the number of scanned sources to each source.";
+        }
+
+        @Override
+        public AtomicInteger getInitialValue(ExecutionContext ctx) {
+            return new AtomicInteger();
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getScanner(AtomicInteger acc) {
+            return new TreeVisitor<>() {
+                @Override
+                public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                    acc.incrementAndGet();
+                    return tree;
+                }
+            };
+        }
+
+        @Override
+        public TreeVisitor<?, ExecutionContext> getVisitor(AtomicInteger acc) {
+            return new TreeVisitor<>() {
+                @Override
+                public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                    return tree instanceof PlainText text ? text.withText(text.getText() + " of " + acc.get()) : tree;
+                }
+            };
+        }
+    }
+
+    private static Recipe recipe(Set<String> threads) {
+        return toRecipe(() -> new TreeVisitor<>() {
+            @Override
+            public @Nullable Tree visit(@Nullable Tree tree, ExecutionContext ctx) {
+                threads.add(Thread.currentThread().getName());
+                if (tree instanceof PlainText text) {
+                    int n = Integer.parseInt(text.getText());
+                    if (n % 10 == 0) {
+                        return null;
+                    } else if (n % 2 == 0) {
+                        return text.withText(text.getText() + "!");
+                    }
+                }
+                return tree;
+            }
+        });
+    }
+
+    private static List<SourceFile> sources() {
+        List<SourceFile> sources = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            sources.add(PlainText.builder().text(Integer.toString(i)).sourcePath(Path.of(i + ".txt")).build());
+        }
+        return sources;
+    }
+
+    private static List<String> describe(RecipeRun run) {
+        List<String> results = new ArrayList<>();
+        for (Result result : run.getChangeset().getAllResults()) {
+            results.add((result.getBefore() == null ? "" : result.getBefore().getSourcePath().toString()) + " -> " +
+                        (result.getAfter() == null ? "" : ((PlainText) result.getAfter()).getText()));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+using System.Text;
+using OpenRewrite.Core.Rpc;
+using static OpenRewrite.Core.Rpc.RpcObjectData.ObjectState;
+
+namespace OpenRewrite.Tests.Rpc;
+
+public class RpcSmileTest
+{
+    // The same batch is decoded by RewriteRpcTest on the Java side, and Jackson encodes it to these same bytes
+    private static readonly byte[] GoldenSmile = Convert.FromHexString(
+        "3a290a03f8fa847374617465424144448876616c7565547970655d6f72672e6f70656e726577726974652e746578742e506c61696e" +
+        "546578748476616c75654448656c6c6ffbfa40454348414e47454224038782726566c6fbfa40014203fbfa40484e4f5f4348414e" +
+        "4745fbfa404c454e445f4f465f4f424a454354fbf9");
+
+    [Fact]
+    public void EncodesGoldenBatch()
+    {
+        var batch = new List<RpcObjectData>
+        {
+            new() { State = ADD, ValueType = "org.openrewrite.text.PlainText", Value = "Hello" },
+            new() { State = CHANGE, Value = -100, Ref = 3 },
+            new() { State = ADD, Value = "Hello" },
+            new() { State = NO_CHANGE },
+            new() { State = END_OF_OBJECT },
+        };
+
+        Assert.Equal(GoldenSmile, RpcSmile.Encode(batch));
+    }
+
+    [Fact]
+    public void SharesRepeatedNamesAndValues()
+    {
+        var batch = Enumerable.Range(0, 100)
+            .Select(_ => new RpcObjectData { State = ADD, ValueType = "org.openrewrite.java.tree.J$Identifier" })
+            .ToList();
+
+        var text = Encoding.Latin1.GetString(RpcSmile.Encode(batch));
+
+        Assert.Equal(2, text.Split("valueType").Length);
+        Assert.Equal(2, text.Split("J$Identifier").Length);
+    }
+
+    [Fact]
+    public void FrameIsWrittenWholeBetweenMessages()
+    {
+        var output = new MemoryStream();
+        var stream = new RpcFrameStream(output);
+        var message = Encoding.ASCII.GetBytes("Content-Length: 8\r\n\r\n{\"id\":1}");
+
+        // the transport may write a message in pieces, and a frame must not land in between them
+        stream.Write(message, 0, 10);
+        var id = stream.WriteFrame(GoldenSmile);
+        stream.Write(message, 10, message.Length - 10);
+
+        var frame = Encoding.ASCII.GetBytes($"Content-Length: {GoldenSmile.Length}\r\nRewrite-Frame: {id}\r\n\r\n")
+            .Concat(GoldenSmile);
+        Assert.Equal(frame.Concat(message).ToArray(), output.ToArray());
+    }
+}
@@ -54,6 +54,7 @@ public class RewriteRpcServer
     private string? _recipesProjectDir;
     private readonly string? _recipeInstallDir;
     private JsonRpc? _jsonRpc;
+    private RpcFrameStream? _frames;
     private DotNetBuildContext? _buildContext;
 
     /// <summary>
@@ -347,8 +348,29 @@ public class RewriteRpcServer
         return fullPath;
     }
 
+    /// <summary>
+    /// The encodings that <see cref="GetObject"/> can return batches in, which need frames
+    /// to be written on the transport's output.
+    /// </summary>
+    [JsonRpcMethod("GetObjectEncodings")]
+    public List<string> GetObjectEncodings() => _frames != null ? [RpcSmile.Encoding] : [];
+
+    /// <summary>
+    /// Returns the batch of an object, or when it is requested in <see cref="RpcSmile"/>,
+    /// writes the batch as a binary frame and returns the id of the frame.
+    /// </summary>
     [JsonRpcMethod("GetObject", UseSingleObjectParameterDeserialization = true)]
-    public Task<List<RpcObjectData>> GetObject(GetObjectRequest request)
+    public async Task<object> GetObject(GetObjectRequest request)
+    {
+        var batch = await GetObjectBatch(request);
+        if (_frames != null && request.Encoding == RpcSmile.Encoding)
+        {
+            return _frames.WriteFrame(RpcSmile.Encode(batch));
+        }
+        return batch;
+    }
+
+    private Task<List<RpcObjectData>> GetObjectBatch(GetObjectRequest request)
     {
         var after = _localObjects.GetValueOrDefault(request.Id);
 
@@ -1338,11 +1360,15 @@ public class RewriteRpcServer
             JsonSerializerOptions = RpcJson.Options,
         };
 
-        var handler = new HeaderDelimitedMessageHandler(outputStream, inputStream, formatter);
+        // Messages are written through the frame stream, so that GetObject batches can
+        // also be written to it as binary frames, in between messages rather than inside them.
+        var frames = new RpcFrameStream(outputStream);
+        var handler = new HeaderDelimitedMessageHandler(frames, inputStream, formatter);
         using var jsonRpc = new StringErrorDataJsonRpc(handler);
 
         var server = new RewriteRpcServer(marketplace, recipeInstallDir);
         server._jsonRpc = jsonRpc;
+        server._frames = frames;
         _current = server;
         // Allow concurrent request dispatch so reentrant callbacks don't deadlock.
         // Without this, the default NonConcurrentSynchronizationContext serializes
@@ -1576,6 +1602,12 @@ public class GetObjectRequest
 {
     public string Id { get; set; } = "";
     public string? SourceFileType { get; set; }
+
+    /// <summary>
+    /// The encoding to return the batch in, one of those advertised by GetObjectEncodings,
+    /// or null for a JSON array.
+    /// </summary>
+    public string? Encoding { get; set; }
 }
 
 public class ParseRequest
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+using System.Text;
+
+namespace OpenRewrite.Core.Rpc;
+
+/// <summary>
+/// The output stream of the JSON-RPC transport, which binary frames, such as
+/// GetObject batches in <see cref="RpcSmile"/>, are written to as well, so that
+/// they travel as raw bytes rather than inside a JSON response.
+/// <para>
+/// A frame is a message like any other, with a <c>Content-Length</c> header as its
+/// length prefix and a <c>Rewrite-Frame</c> header with its id. A request is answered
+/// with a frame by writing the frame first and then responding with its id, so the
+/// remote has the frame by the time it reads the response.
+/// </para>
+/// <para>
+/// What the transport writes is held back until a whole message is written, and then
+/// written at once, so that no frame is written in the middle of a message.
+/// </para>
+/// </summary>
+public sealed class RpcFrameStream(Stream output) : Stream
+{
+    private static readonly byte[] HeaderEnd = "\r\n\r\n"u8.ToArray();
+
+    private readonly object _writeLock = new();
+    private readonly MemoryStream _pending = new();
+    private long _nextFrameId;
+
+    /// <summary>
+    /// Write a frame, to be followed by a response that refers to it.
+    /// </summary>
+    /// <returns>The id of the frame.</returns>
+    public long WriteFrame(byte[] frame)
+    {
+        var id = Interlocked.Increment(ref _nextFrameId);
+        var header = Encoding.ASCII.GetBytes($"Content-Length: {frame.Length}\r\nRewrite-Frame: {id}\r\n\r\n");
+        lock (_writeLock)
+        {
+            output.Write(header);
+            output.Write(frame);
+            output.Flush();
+        }
+        return id;
+    }
+
+    public override void Write(byte[] buffer, int offset, int count) =>
+        Write(buffer.AsSpan(offset, count));
+
+    public override void Write(ReadOnlySpan<byte> buffer)
+    {
+        lock (_pending)
+        {
+            _pending.Write(buffer);
+            while (true)
+            {
+                var pending = _pending.GetBuffer().AsSpan(0, (int)_pending.Length);
+                var headerEnd = pending.IndexOf(HeaderEnd);
+                if (headerEnd < 0)
+                {
+                    return;
+                }
+                var messageLength = headerEnd + HeaderEnd.Length +
+                                    ContentLength(Encoding.ASCII.GetString(pending[..headerEnd]));
+                if (pending.Length < messageLength)
+                {
+                    return;
+                }
+                lock (_writeLock)
+                {
+                    output.Write(pending[..messageLength]);
+                    output.Flush();
+                }
+                var rest = pending[messageLength..].ToArray();
+                _pending.SetLength(0);
+                _pending.Write(rest);
+            }
+        }
+    }
+
+    public override Task WriteAsync(byte[] buffer, int offset, int count, CancellationToken cancellationToken)
+    {
+        Write(buffer, offset, count);
+        return Task.CompletedTask;
+    }
+
+    public override ValueTask WriteAsync(ReadOnlyMemory<byte> buffer, CancellationToken cancellationToken = default)
+    {
+        Write(buffer.Span);
+        return ValueTask.CompletedTask;
+    }
+
+    /// <summary>
+    /// Every whole message is flushed as soon as it is written.
+    /// </summary>
+    public override void Flush()
+    {
+    }
+
+    public override Task FlushAsync(CancellationToken cancellationToken) => Task.CompletedTask;
+
+    private static int ContentLength(string headers)
+    {
+        foreach (var line in headers.Split("\r\n"))
+        {
+            var colon = line.IndexOf(':');
+            if (colon > 0 && line[..colon].Trim().Equals("Content-Length", StringComparison.OrdinalIgnoreCase))
+            {
+                return int.Parse(line[(colon + 1)..].Trim());
+            }
+        }
+        throw new IOException($"Message without a Content-Length header: {headers}");
+    }
+
+    public override bool CanRead => false;
+    public override bool CanSeek => false;
+    public override bool CanWrite => true;
+    public override long Length => throw new NotSupportedException();
+
+    public override long Position
+    {
+        get => throw new NotSupportedException();
+        set => throw new NotSupportedException();
+    }
+
+    public override int Read(byte[] buffer, int offset, int count) => throw new NotSupportedException();
+    public override long Seek(long offset, SeekOrigin origin) => throw new NotSupportedException();
+    public override void SetLength(long value) => throw new NotSupportedException();
+
+    protected override void Dispose(bool disposing)
+    {
+        if (disposing)
+        {
+            output.Dispose();
+        }
+        base.Dispose(disposing);
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2026 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+using System.Numerics;
+using System.Text.Json;
+
+namespace OpenRewrite.Core.Rpc;
+
+/// <summary>
+/// Encodes values in the binary <a href="https://github.com/FasterXML/smile-format-specification">Smile</a>
+/// format, which the Java peer can ask for GetObject batches to be returned in.
+/// <para>
+/// Tree data repeats the same short strings over and over: value types, whitespace, and the names
+/// of the <see cref="RpcObjectData"/> fields themselves. Smile writes each of them in full once per
+/// frame and afterward as a one or two byte back reference.
+/// </para>
+/// <para>
+/// A value is first serialized with <see cref="RpcJson.Options"/> and the JSON is then transcoded,
+/// so the Smile document holds exactly what the JSON response would have.
+/// </para>
+/// </summary>
+public static class RpcSmile
+{
+    public const string Encoding = "smile";
+
+    // ':)\n' followed by version 0 with shared property names and shared string values enabled
+    private static readonly byte[] Header = [0x3A, 0x29, 0x0A, 0x03];
+
+    private const int MaxShared = 1024;
+
+    public static byte[] Encode<T>(T value)
+    {
+        var json = JsonSerializer.SerializeToUtf8Bytes(value, RpcJson.Options);
+        var encoder = new Encoder();
+        var reader = new Utf8JsonReader(json);
+        while (reader.Read())
+        {
+            encoder.Write(ref reader);
+        }
+        return encoder.ToArray();
+    }
+
+    private sealed class Encoder
+    {
+        private readonly MemoryStream _out = new();
+        private readonly Dictionary<string, int> _names = new();
+        private int _nameCount;
+        private readonly Dictionary<string, int> _values = new();
+        private int _valueCount;
+
+        public Encoder()
+        {
+            _out.Write(Header);
+        }
+
+        public byte[] ToArray() => _out.ToArray();
+
+        public void Write(ref Utf8JsonReader reader)
+        {
+            switch (reader.TokenType)
+            {
+                case JsonTokenType.StartArray:
+                    _out.WriteByte(0xF8);
+                    break;
+                case JsonTokenType.EndArray:
+                    _out.WriteByte(0xF9);
+                    break;
+                case JsonTokenType.StartObject:
+                    _out.WriteByte(0xFA);
+                    break;
+                case JsonTokenType.EndObject:
+                    _out.WriteByte(0xFB);
+                    break;
+                case JsonTokenType.PropertyName:
+                    WriteName(reader.GetString()!);
+                    break;
+                case JsonTokenType.String:
+                    WriteString(reader.GetString()!);
+                    break;
+                case JsonTokenType.Number:
+                    WriteNumber(ref reader);
+                    break;
+                case JsonTokenType.True:
+                    _out.WriteByte(0x23);
+                    break;
+                case JsonTokenType.False:
+                    _out.WriteByte(0x22);
+                    break;
+                case JsonTokenType.Null:
+                    _out.WriteByte(0x21);
+                    break;
+            }
+        }
+
+        private void WriteNumber(ref Utf8JsonReader reader)
+        {
+            var text = System.Text.Encoding.ASCII.GetString(reader.ValueSpan);
+            if (text.IndexOfAny(['.', 'e', 'E']) >= 0)
+            {
+                _out.WriteByte(0x29);
+                var bits = (ulong)BitConverter.DoubleToInt64Bits(reader.GetDouble());
+                for (var i = 9; i >= 0; i--)
+                {
+                    _out.WriteByte((byte)((bits >> (7 * i)) & 0x7F));
+                }
+            }
+            else if (reader.TryGetInt32(out var i32))
+            {
+                // zigzag, with the sign moved to the lowest bit
+                var zigzag = (uint)((i32 << 1) ^ (i32 >> 31));
+                if (zigzag <= 0x1F)
+                {
+                    _out.WriteByte((byte)(0xC0 + zigzag));
+                }
+                else
+                {
+                    _out.WriteByte(0x24);
+                    WriteVInt(zigzag);
+                }
+            }
+            else if (reader.TryGetInt64(out var i64))
+            {
+                _out.WriteByte(0x25);
+                WriteVInt((ulong)((i64 << 1) ^ (i64 >> 63)));
+            }
+            else
+            {
+                _out.WriteByte(0x26);
+                var data = BigInteger.Parse(text).ToByteArray(isUnsigned: false, isBigEndian: true);
+                WriteVInt((ulong)data.Length);
+                Write7Bit(data);
+            }
+        }
+
+        /// <summary>
+        /// A non-negative number in 7 bit groups, most significant first, where the last
+        /// byte has its high bit set and holds 6 bits.
+        /// </summary>
+        private void WriteVInt(ulong value)
+        {
+            Span<byte> groups = stackalloc byte[10];
+            var n = 0;
+            groups[n++] = (byte)(0x80 | (value & 0x3F));
+            value >>= 6;
+            while (value != 0)
+            {
+                groups[n++] = (byte)(value & 0x7F);
+                value >>= 7;
+            }
+            for (var i = n - 1; i >= 0; i--)
+            {
+                _out.WriteByte(groups[i]);
+            }
+        }
+
+        /// <summary>
+        /// Raw bytes with 7 bits to a byte, in chunks of 7 bytes to 8.
+        /// </summary>
+        private void Write7Bit(byte[] data)
+        {
+            for (var start = 0; start < data.Length; start += 7)
+            {
+                var n = Math.Min(7, data.Length - start);
+                ulong bits = 0;
+                for (var k = 0; k < n; k++)
+                {
+                    bits = (bits << 8) | data[start + k];
+                }
+                for (var k = 1; k <= n; k++)
+                {
+                    _out.WriteByte((byte)((bits >> (8 * n - 7 * k)) & 0x7F));
+                }
+                _out.WriteByte((byte)(bits & ((1UL << n) - 1)));
+            }
+        }
+
+        private void WriteString(string text)
+        {
+            if (text.Length == 0)
+            {
+                _out.WriteByte(0x20);
+                return;
+            }
+            if (_values.TryGetValue(text, out var index))
+            {
+                if (index < 31)
+                {
+                    _out.WriteByte((byte)(0x01 + index));
+                }
+                else
+                {
+                    _out.WriteByte((byte)(0xEC | (index >> 8)));
+                    _out.WriteByte((byte)(index & 0xFF));
+                }
+                return;
+            }
+            var data = System.Text.Encoding.UTF8.GetBytes(text);
+            var n = data.Length;
+            if (n == text.Length)
+            {
+                if (n <= 32)
+                {
+                    _out.WriteByte((byte)(0x40 + n - 1));
+                }
+                else if (n <= 64)
+                {
+                    _out.WriteByte((byte)(0x60 + n - 33));
+                }
+                else
+                {
+                    _out.WriteByte(0xE0);
+                    _out.Write(data);
+                    _out.WriteByte(0xFC);
+                    return;
+                }
+            }
+            else if (n <= 33)
+            {
+                _out.WriteByte((byte)(0x80 + n - 2));
+            }
+            else if (n <= 65)
+            {
+                _out.WriteByte((byte)(0xA0 + n - 34));
+            }
+            else
+            {
+                _out.WriteByte(0xE4);
+                _out.Write(data);
+                _out.WriteByte(0xFC);
+                return;
+            }
+            _out.Write(data);
+            // every short string is remembered by the decoder, so the indexes must be counted alike
+            if (_valueCount == MaxShared)
+            {
+                _values.Clear();
+                _valueCount = 0;
+            }
+            if (IsValidBackReference(_valueCount))
+            {
+                _values[text] = _valueCount;
+            }
+            _valueCount++;
+        }
+
+        private void WriteName(string name)
+        {
+            if (name.Length == 0)
+            {
+                _out.WriteByte(0x20);
+                return;
+            }
+            if (_names.TryGetValue(name, out var index))
+            {
+                if (index < 64)
+                {
+                    _out.WriteByte((byte)(0x40 + index));
+                }
+                else
+                {
+                    _out.WriteByte((byte)(0x30 | (index >> 8)));
+                    _out.WriteByte((byte)(index & 0xFF));
+                }
+                return;
+            }
+            var data = System.Text.Encoding.UTF8.GetBytes(name);
+            var n = data.Length;
+            if (n == name.Length && n <= 64)
+            {
+                _out.WriteByte((byte)(0x80 + n - 1));
+                _out.Write(data);
+            }
+            else if (n != name.Length && n <= 57)
+            {
+                _out.WriteByte((byte)(0xC0 + n - 2));
+                _out.Write(data);
+            }
+            else
+            {
+                _out.WriteByte(0x34);
+                _out.Write(data);
+                _out.WriteByte(0xFC);
+            }
+            if (_nameCount == MaxShared)
+            {
+                _names.Clear();
+                _nameCount = 0;
+            }
+            if (IsValidBackReference(_nameCount))
+            {
+                _names[name] = _nameCount;
+            }
+            _nameCount++;
+        }
+
+        /// <summary>
+        /// The low byte of a two byte reference can't be 0xFE or 0xFF, which Smile reserves.
+        /// </summary>
+        private static bool IsValidBackReference(int index) => (index & 0xFF) < 0xFE;
+    }
+}
@@ -27,6 +27,7 @@
 import org.openrewrite.rpc.RewriteRpc;
 import org.openrewrite.rpc.RewriteRpcProcess;
 import org.openrewrite.rpc.RewriteRpcProcessManager;
+import org.openrewrite.rpc.RewriteRpcProcessPool;
 import org.openrewrite.tree.ParsingEventListener;
 import org.openrewrite.tree.ParsingExecutionContextView;
 
@@ -63,6 +64,7 @@ public class CSharpRewriteRpc extends RewriteRpc {
         this.command = command;
         this.commandEnv = commandEnv;
         this.process = process;
+        binaryFrames(process.getBinaryFrames());
     }
 
     public static @Nullable CSharpRewriteRpc get() {
@@ -77,6 +79,13 @@ public static void setFactory(Builder builder) {
         MANAGER.setFactory(builder);
     }
 
+    /**
+     * A pool of RPC processes started with the factory of the calling thread.
+     */
+    public static RewriteRpcProcessPool<CSharpRewriteRpc> pool(int size) {
+        return MANAGER.pool(size);
+    }
+
     @Override
     public void shutdown() {
         super.shutdown();
@@ -123,6 +123,8 @@ type server struct {
 
 	reader    *bufio.Reader
 	writer    io.Writer
+	// id of the last binary frame written, see writeFrame
+	lastFrameID int64
 	logger    *log.Logger
 	registry  *recipe.Registry
 	installer *installer.Installer
@@ -392,6 +394,18 @@ func (s *server) writeMessage(resp *jsonRPCResponse) error {
 	return err
 }
 
+// writeFrame writes a binary frame to stdout, to be followed by the response that
+// refers to it by its id. A frame is a message with a Rewrite-Frame header, which
+// the Java side takes out of the stream before its JSON-RPC transport reads it.
+func (s *server) writeFrame(data []byte) (int64, error) {
+	s.lastFrameID++
+	header := fmt.Sprintf("Content-Length: %d\r\nRewrite-Frame: %d\r\n\r\n", len(data), s.lastFrameID)
+	if _, err := s.writer.Write(append([]byte(header), data...)); err != nil {
+		return 0, err
+	}
+	return s.lastFrameID, nil
+}
+
 // safeHandleRequest wraps handleRequest with panic recovery and per-RPC
 // metrics capture. The metric row is written exactly once per request,
 // after the response is determined (panic-recovered or not).
@@ -427,6 +441,8 @@ func (s *server) handleRequest(req *jsonRPCRequest) *jsonRPCResponse {
 		result, rpcErr = s.handleParse(req.Params)
 	case "GetObject":
 		result, rpcErr = s.handleGetObject(req.Params)
+	case "GetObjectEncodings":
+		result = []string{rpc.Smile}
 	case "Print":
 		result, rpcErr = s.handlePrint(req.Params)
 	case "InstallRecipes":
@@ -711,21 +727,42 @@ func (s *server) handleParse(params json.RawMessage) (any, *rpcError) {
 type getObjectRequest struct {
 	ID             string `json:"id"`
 	SourceFileType string `json:"sourceFileType"`
+	// Encoding to return the batch in, one of those advertised by GetObjectEncodings,
+	// or empty for a JSON array.
+	Encoding string `json:"encoding,omitempty"`
 }
 
-// handleGetObject serializes a local object for transfer to Java.
+// handleGetObject serializes a local object for transfer to Java. When the batch is
+// requested in Smile, it is written as a binary frame and the id of the frame is returned.
 func (s *server) handleGetObject(params json.RawMessage) (any, *rpcError) {
 	var req getObjectRequest
 	if err := json.Unmarshal(params, &req); err != nil {
 		return nil, &rpcError{Code: -32602, Message: fmt.Sprintf("Invalid params: %v", err)}
 	}
 
+	batch := s.getObjectBatch(req)
+	if req.Encoding != rpc.Smile {
+		return batch, nil
+	}
+	data, err := rpc.EncodeSmile(batch)
+	if err != nil {
+		return nil, &rpcError{Code: -32603, Message: fmt.Sprintf("Failed to encode batch: %v", err)}
+	}
+	id, err := s.writeFrame(data)
+	if err != nil {
+		return nil, &rpcError{Code: -32603, Message: fmt.Sprintf("Failed to write frame: %v", err)}
+	}
+	return id, nil
+}
+
+// getObjectBatch collects all the RpcObjectData of a local object in a single batch.
+func (s *server) getObjectBatch(req getObjectRequest) []rpc.RpcObjectData {
 	obj := s.localObjects[req.ID]
 	if obj == nil {
 		return []rpc.RpcObjectData{
 			{State: rpc.Delete},
 			{State: rpc.EndOfObject},
-		}, nil
+		}
 	}
 
 	before := s.remoteObjects[req.ID]
@@ -751,7 +788,7 @@ func (s *server) handleGetObject(params json.RawMessage) (any, *rpcError) {
 	// Update remote tracking
 	s.remoteObjects[req.ID] = obj
 
-	return result, nil
+	return result
 }
 
 // printRequest is the parameter type for Print.
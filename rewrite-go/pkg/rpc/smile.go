@@ -0,0 +1,312 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rpc
+
+import (
+	"bytes"
+	"encoding/json"
+	"fmt"
+	"io"
+	"math"
+	"math/big"
+	"strconv"
+	"strings"
+	"unicode/utf8"
+)
+
+// Smile is the encoding GetObject batches can be returned in, as a binary frame
+// rather than as the JSON array of the response.
+//
+// Tree data repeats the same short strings over and over: value types, whitespace,
+// and the names of the RpcObjectData fields themselves. Smile
+// (https://github.com/FasterXML/smile-format-specification) writes each of them in
+// full once per frame and afterward as a one or two byte back reference.
+const Smile = "smile"
+
+// smileHeader is ':)\n' followed by version 0 with shared property names and shared
+// string values enabled.
+var smileHeader = []byte{0x3A, 0x29, 0x0A, 0x03}
+
+const smileMaxShared = 1024
+
+// EncodeSmile encodes a value in Smile. The value is first marshaled to JSON and the
+// JSON is then transcoded, so the Smile document holds exactly what the JSON would have.
+func EncodeSmile(v any) ([]byte, error) {
+	data, err := json.Marshal(v)
+	if err != nil {
+		return nil, err
+	}
+	dec := json.NewDecoder(bytes.NewReader(data))
+	dec.UseNumber()
+
+	e := &smileEncoder{
+		names:  make(map[string]int),
+		values: make(map[string]int),
+	}
+	e.out.Write(smileHeader)
+
+	// whether each open container is an object, and whether the next token in it is a key
+	var inObject []bool
+	expectKey := false
+	for {
+		tok, err := dec.Token()
+		if err == io.EOF {
+			break
+		}
+		if err != nil {
+			return nil, err
+		}
+		switch t := tok.(type) {
+		case json.Delim:
+			switch t {
+			case '[':
+				e.out.WriteByte(0xF8)
+				inObject = append(inObject, false)
+				expectKey = false
+			case '{':
+				e.out.WriteByte(0xFA)
+				inObject = append(inObject, true)
+				expectKey = true
+			case ']', '}':
+				if t == ']' {
+					e.out.WriteByte(0xF9)
+				} else {
+					e.out.WriteByte(0xFB)
+				}
+				inObject = inObject[:len(inObject)-1]
+				expectKey = len(inObject) > 0 && inObject[len(inObject)-1]
+			}
+			continue
+		case string:
+			if expectKey {
+				e.writeName(t)
+				expectKey = false
+				continue
+			}
+			e.writeString(t)
+		case json.Number:
+			if err := e.writeNumber(t); err != nil {
+				return nil, err
+			}
+		case bool:
+			if t {
+				e.out.WriteByte(0x23)
+			} else {
+				e.out.WriteByte(0x22)
+			}
+		case nil:
+			e.out.WriteByte(0x21)
+		}
+		expectKey = len(inObject) > 0 && inObject[len(inObject)-1]
+	}
+	return e.out.Bytes(), nil
+}
+
+type smileEncoder struct {
+	out        bytes.Buffer
+	names      map[string]int
+	nameCount  int
+	values     map[string]int
+	valueCount int
+}
+
+func (e *smileEncoder) writeNumber(n json.Number) error {
+	s := string(n)
+	if strings.ContainsAny(s, ".eE") {
+		f, err := strconv.ParseFloat(s, 64)
+		if err != nil {
+			return err
+		}
+		bits := math.Float64bits(f)
+		e.out.WriteByte(0x29)
+		for i := 9; i >= 0; i-- {
+			e.out.WriteByte(byte((bits >> (7 * i)) & 0x7F))
+		}
+		return nil
+	}
+	if i, err := strconv.ParseInt(s, 10, 64); err == nil {
+		if i >= math.MinInt32 && i <= math.MaxInt32 {
+			// zigzag, with the sign moved to the lowest bit
+			zigzag := uint64(uint32((int32(i) << 1) ^ (int32(i) >> 31)))
+			if zigzag <= 0x1F {
+				e.out.WriteByte(byte(0xC0 + zigzag))
+			} else {
+				e.out.WriteByte(0x24)
+				e.writeVInt(zigzag)
+			}
+		} else {
+			e.out.WriteByte(0x25)
+			e.writeVInt(uint64((i << 1) ^ (i >> 63)))
+		}
+		return nil
+	}
+	b, ok := new(big.Int).SetString(s, 10)
+	if !ok {
+		return fmt.Errorf("invalid number %q", s)
+	}
+	data := twosComplement(b)
+	e.out.WriteByte(0x26)
+	e.writeVInt(uint64(len(data)))
+	e.write7Bit(data)
+	return nil
+}
+
+// writeVInt writes a non-negative number in 7 bit groups, most significant first,
+// where the last byte has its high bit set and holds 6 bits.
+func (e *smileEncoder) writeVInt(v uint64) {
+	var groups [10]byte
+	n := 0
+	groups[n] = byte(0x80 | (v & 0x3F))
+	n++
+	v >>= 6
+	for v != 0 {
+		groups[n] = byte(v & 0x7F)
+		n++
+		v >>= 7
+	}
+	for i := n - 1; i >= 0; i-- {
+		e.out.WriteByte(groups[i])
+	}
+}
+
+// write7Bit writes raw bytes with 7 bits to a byte, in chunks of 7 bytes to 8.
+func (e *smileEncoder) write7Bit(data []byte) {
+	for start := 0; start < len(data); start += 7 {
+		chunk := data[start:min(start+7, len(data))]
+		n := len(chunk)
+		var bits uint64
+		for _, b := range chunk {
+			bits = bits<<8 | uint64(b)
+		}
+		for k := 1; k <= n; k++ {
+			e.out.WriteByte(byte((bits >> (8*n - 7*k)) & 0x7F))
+		}
+		e.out.WriteByte(byte(bits & (1<<n - 1)))
+	}
+}
+
+func (e *smileEncoder) writeString(s string) {
+	if s == "" {
+		e.out.WriteByte(0x20)
+		return
+	}
+	if index, ok := e.values[s]; ok {
+		if index < 31 {
+			e.out.WriteByte(byte(0x01 + index))
+		} else {
+			e.out.WriteByte(byte(0xEC | index>>8))
+			e.out.WriteByte(byte(index & 0xFF))
+		}
+		return
+	}
+	n := len(s)
+	ascii := utf8.RuneCountInString(s) == n
+	switch {
+	case ascii && n <= 32:
+		e.out.WriteByte(byte(0x40 + n - 1))
+	case ascii && n <= 64:
+		e.out.WriteByte(byte(0x60 + n - 33))
+	case ascii:
+		e.out.WriteByte(0xE0)
+		e.out.WriteString(s)
+		e.out.WriteByte(0xFC)
+		return
+	case n <= 33:
+		e.out.WriteByte(byte(0x80 + n - 2))
+	case n <= 65:
+		e.out.WriteByte(byte(0xA0 + n - 34))
+	default:
+		e.out.WriteByte(0xE4)
+		e.out.WriteString(s)
+		e.out.WriteByte(0xFC)
+		return
+	}
+	e.out.WriteString(s)
+	// every short string is remembered by the decoder, so the indexes must be counted alike
+	if e.valueCount == smileMaxShared {
+		clear(e.values)
+		e.valueCount = 0
+	}
+	if isValidBackReference(e.valueCount) {
+		e.values[s] = e.valueCount
+	}
+	e.valueCount++
+}
+
+func (e *smileEncoder) writeName(s string) {
+	if s == "" {
+		e.out.WriteByte(0x20)
+		return
+	}
+	if index, ok := e.names[s]; ok {
+		if index < 64 {
+			e.out.WriteByte(byte(0x40 + index))
+		} else {
+			e.out.WriteByte(byte(0x30 | index>>8))
+			e.out.WriteByte(byte(index & 0xFF))
+		}
+		return
+	}
+	n := len(s)
+	ascii := utf8.RuneCountInString(s) == n
+	switch {
+	case ascii && n <= 64:
+		e.out.WriteByte(byte(0x80 + n - 1))
+		e.out.WriteString(s)
+	case !ascii && n <= 57:
+		e.out.WriteByte(byte(0xC0 + n - 2))
+		e.out.WriteString(s)
+	default:
+		e.out.WriteByte(0x34)
+		e.out.WriteString(s)
+		e.out.WriteByte(0xFC)
+	}
+	if e.nameCount == smileMaxShared {
+		clear(e.names)
+		e.nameCount = 0
+	}
+	if isValidBackReference(e.nameCount) {
+		e.names[s] = e.nameCount
+	}
+	e.nameCount++
+}
+
+// isValidBackReference reports whether an index can be referred to, since the low byte
+// of a two byte reference can't be 0xFE or 0xFF, which Smile reserves.
+func isValidBackReference(index int) bool {
+	return index&0xFF < 0xFE
+}
+
+// twosComplement returns the shortest big-endian two's complement bytes of a number.
+func twosComplement(b *big.Int) []byte {
+	if b.Sign() >= 0 {
+		data := b.Bytes()
+		if len(data) == 0 || data[0]&0x80 != 0 {
+			data = append([]byte{0}, data...)
+		}
+		return data
+	}
+	// -b - 1 has the complement of the bits of b
+	data := new(big.Int).Sub(new(big.Int).Neg(b), big.NewInt(1)).Bytes()
+	if len(data) == 0 || data[0]&0x80 != 0 {
+		data = append([]byte{0}, data...)
+	}
+	for i := range data {
+		data[i] = ^data[i]
+	}
+	return data
+}
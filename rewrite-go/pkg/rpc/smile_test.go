@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package rpc
+
+import (
+	"bytes"
+	"encoding/hex"
+	"testing"
+)
+
+// The same batch is decoded by RewriteRpcTest on the Java side, and Jackson encodes it to these same bytes
+const goldenSmile = "3a290a03f8fa847374617465424144448876616c7565547970655d6f72672e6f70656e726577726974652e746578742e506c61696e" +
+	"546578748476616c75654448656c6c6ffbfa40454348414e47454224038782726566c6fbfa40014203fbfa40484e4f5f4348414e" +
+	"4745fbfa404c454e445f4f465f4f424a454354fbf9"
+
+func TestEncodeSmileGoldenBatch(t *testing.T) {
+	valueType := "org.openrewrite.text.PlainText"
+	ref := 3
+	batch := []RpcObjectData{
+		{State: Add, ValueType: &valueType, Value: "Hello"},
+		{State: Change, Value: -100, Ref: &ref},
+		{State: Add, Value: "Hello"},
+		{State: NoChange},
+		{State: EndOfObject},
+	}
+
+	data, err := EncodeSmile(batch)
+	if err != nil {
+		t.Fatal(err)
+	}
+	if got := hex.EncodeToString(data); got != goldenSmile {
+		t.Errorf("EncodeSmile() = %s, want %s", got, goldenSmile)
+	}
+}
+
+func TestEncodeSmileSharesRepeatedNamesAndValues(t *testing.T) {
+	valueType := "org.openrewrite.java.tree.J$Identifier"
+	batch := make([]RpcObjectData, 100)
+	for i := range batch {
+		batch[i] = RpcObjectData{State: Add, ValueType: &valueType}
+	}
+
+	data, err := EncodeSmile(batch)
+	if err != nil {
+		t.Fatal(err)
+	}
+	if n := bytes.Count(data, []byte("valueType")); n != 1 {
+		t.Errorf("valueType written %d times, want 1", n)
+	}
+	if n := bytes.Count(data, []byte("J$Identifier")); n != 1 {
+		t.Errorf("J$Identifier written %d times, want 1", n)
+	}
+}
@@ -21,8 +21,11 @@
 import org.openrewrite.SourceFile;
 import org.openrewrite.golang.rpc.GoRewriteRpc;
 import org.openrewrite.golang.tree.Go;
+import org.openrewrite.rpc.RewriteRpcProcessPool;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -55,7 +58,16 @@ public GolangParser() {
 
     @Override
     public Stream<SourceFile> parseInputs(Iterable<Input> sources, @Nullable Path relativeTo, ExecutionContext ctx) {
-        GoRewriteRpc rpc = GoRewriteRpc.getOrStart();
+        RewriteRpcProcessPool<GoRewriteRpc> pool = GoRewriteRpc.getPool();
+        if (pool == null) {
+            return parseInputs(GoRewriteRpc.getOrStart(), sources, relativeTo, ctx);
+        }
+        List<Input> inputs = new ArrayList<>();
+        sources.forEach(inputs::add);
+        return pool.parse(inputs, (rpc, run) -> parseInputs(rpc, run, relativeTo, ctx));
+    }
+
+    private Stream<SourceFile> parseInputs(GoRewriteRpc rpc, Iterable<Input> sources, @Nullable Path relativeTo, ExecutionContext ctx) {
         if (module != null && !module.isEmpty()) {
             return rpc.parseWithProject(sources, relativeTo, this,
                     Go.CompilationUnit.class.getName(), ctx, module, goModContent);
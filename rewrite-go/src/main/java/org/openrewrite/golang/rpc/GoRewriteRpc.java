@@ -26,6 +26,7 @@
 import org.openrewrite.rpc.RewriteRpc;
 import org.openrewrite.rpc.RewriteRpcProcess;
 import org.openrewrite.rpc.RewriteRpcProcessManager;
+import org.openrewrite.rpc.RewriteRpcProcessPool;
 import org.openrewrite.rpc.request.Parse;
 import org.openrewrite.rpc.request.ParseResponse;
 import org.openrewrite.tree.ParseError;
@@ -70,6 +71,7 @@ public class GoRewriteRpc extends RewriteRpc {
         this.command = command;
         this.commandEnv = commandEnv;
         this.process = process;
+        binaryFrames(process.getBinaryFrames());
     }
 
     public static @Nullable GoRewriteRpc get() {
@@ -84,6 +86,24 @@ public static void setFactory(Builder builder) {
         MANAGER.setFactory(builder);
     }
 
+    /**
+     * A pool of RPC processes started with the factory of the calling thread.
+     */
+    public static RewriteRpcProcessPool<GoRewriteRpc> pool(int size) {
+        return MANAGER.pool(size);
+    }
+
+    public static @Nullable RewriteRpcProcessPool<GoRewriteRpc> getPool() {
+        return MANAGER.getPool();
+    }
+
+    /**
+     * Parse on the pool, from every thread, rather than on the process of the calling thread, or stop when null.
+     */
+    public static void setPool(@Nullable RewriteRpcProcessPool<GoRewriteRpc> pool) {
+        MANAGER.setPool(pool);
+    }
+
     @Override
     public void shutdown() {
         super.shutdown();
@@ -28,10 +28,8 @@
 import org.openrewrite.kotlin.KotlinParser;
 
 import java.nio.file.Path;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import static java.util.Collections.singletonList;
 
@@ -65,71 +63,153 @@ public class GradleParser implements Parser {
 
     @Override
     public Stream<SourceFile> parseInputs(Iterable<Input> sources, @Nullable Path relativeTo, ExecutionContext ctx) {
-        if (groovyBuildParser == null) {
-            Collection<Path> buildscriptClasspath = base.buildscriptClasspath;
-            if (buildscriptClasspath == null) {
-                buildscriptClasspath = defaultClasspath(ctx);
+        // Groovy scripts of the same kind are parsed as one batch, so that they share a compiler configuration and
+        // class loaders. Kotlin scripts are parsed one at a time, because the Kotlin parser fails a whole batch when
+        // any script in it can't be compiled, and would put scripts with the same file name in one module. Only
+        // the parsers for kinds that are present are ever built.
+        List<Input> inputs = new ArrayList<>();
+        Map<ScriptKind, List<Input>> groovyBatches = new EnumMap<>(ScriptKind.class);
+        for (Input source : sources) {
+            inputs.add(source);
+            ScriptKind kind = ScriptKind.of(source.getPath());
+            if (!kind.isKotlin()) {
+                groovyBatches.computeIfAbsent(kind, k -> new ArrayList<>()).add(source);
             }
-            groovyBuildParser = GroovyParser.builder(base.groovyParser)
-                    .classpath(buildscriptClasspath)
-                    .compilerCustomizers(
-                            new DefaultImportsCustomizer(),
-                            config -> config.setScriptBaseClass("RewriteGradleProject")
-                    )
-                    .build();
-        }
-        if (kotlinBuildParser == null) {
-            Collection<Path> buildscriptClasspath = base.buildscriptClasspath;
-            if (buildscriptClasspath == null) {
-                buildscriptClasspath = defaultClasspath(ctx);
+        }
+        if (groovyBatches.size() == 1) {
+            Map.Entry<ScriptKind, List<Input>> batch = groovyBatches.entrySet().iterator().next();
+            if (batch.getValue().size() == inputs.size()) {
+                return parser(batch.getKey(), ctx).parseInputs(batch.getValue(), relativeTo, ctx);
             }
-            kotlinBuildParser = KotlinParser.builder(base.kotlinParser)
-                    .classpath(buildscriptClasspath)
-                    .dependsOn(KTS_BUILD_STUBS)
-                    .isKotlinScript(true)
-                    .scriptImplicitReceivers("org.gradle.api.Project")
-                    .scriptDefaultImports(DefaultImportsCustomizer.DEFAULT_IMPORTS)
-                    .build();
-        }
-        if (groovySettingsParser == null) {
-            Collection<Path> settingsClasspath = base.settingsClasspath;
-            if (settingsClasspath == null) {
-                settingsClasspath = defaultClasspath(ctx);
+        }
+
+        // Callers expect source files in the order of their inputs, so each Groovy batch is parsed lazily as its
+        // scripts come up, relying on the Groovy parser returning exactly one source file per input, in order.
+        Map<ScriptKind, GroovyBatch> opened = new EnumMap<>(ScriptKind.class);
+        return inputs.stream()
+                .flatMap(input -> {
+                    ScriptKind kind = ScriptKind.of(input.getPath());
+                    if (kind.isKotlin()) {
+                        return parser(kind, ctx).parseInputs(singletonList(input), relativeTo, ctx);
+                    }
+                    return Stream.of(opened.computeIfAbsent(kind, k -> new GroovyBatch(
+                            parser(k, ctx).parseInputs(groovyBatches.get(k), relativeTo, ctx),
+                            groovyBatches.get(k).size())).next(input));
+                })
+                .onClose(() -> opened.values().forEach(GroovyBatch::close));
+    }
+
+    /**
+     * The source files of a batch of Groovy scripts, handed out one at a time. The batch's stream is closed,
+     * releasing the Groovy parser's class loaders, as soon as its last source file is handed out, or when the
+     * stream of all source files is closed before that.
+     */
+    private static class GroovyBatch {
+        private final Stream<SourceFile> parsed;
+        private final Iterator<SourceFile> iterator;
+        private int remaining;
+
+        GroovyBatch(Stream<SourceFile> parsed, int size) {
+            this.parsed = parsed;
+            this.iterator = parsed.iterator();
+            this.remaining = size;
+        }
+
+        SourceFile next(Input input) {
+            if (remaining == 0 || !iterator.hasNext()) {
+                close();
+                throw new IllegalStateException("The Groovy parser returned no source file for " + input.getPath());
             }
-            groovySettingsParser = GroovyParser.builder(base.groovyParser)
-                    .classpath(settingsClasspath)
-                    .compilerCustomizers(
-                            new DefaultImportsCustomizer(),
-                            config -> config.setScriptBaseClass("RewriteSettings")
-                    )
-                    .build();
-        }
-        if (kotlinSettingsParser == null) {
-            Collection<Path> settingsClasspath = base.settingsClasspath;
-            if (settingsClasspath == null) {
-                settingsClasspath = defaultClasspath(ctx);
+            SourceFile sourceFile = iterator.next();
+            if (--remaining == 0) {
+                close();
             }
-            kotlinSettingsParser = KotlinParser.builder(base.kotlinParser)
-                    .classpath(settingsClasspath)
-                    .dependsOn(KTS_SETTINGS_STUBS)
-                    .isKotlinScript(true)
-                    .scriptImplicitReceivers("org.gradle.api.initialization.Settings")
-                    .scriptDefaultImports(DefaultImportsCustomizer.DEFAULT_IMPORTS)
-                    .build();
-        }
-
-        return StreamSupport.stream(sources.spliterator(), false)
-                .flatMap(source -> {
-                    Path sourcePath = source.getPath();
-                    if (sourcePath.endsWith("settings.gradle.kts")) {
-                        return kotlinSettingsParser.parseInputs(singletonList(source), relativeTo, ctx);
-                    } else if (sourcePath.endsWith("settings.gradle")) {
-                        return groovySettingsParser.parseInputs(singletonList(source), relativeTo, ctx);
-                    } else if (sourcePath.toString().endsWith(".gradle.kts")) {
-                        return kotlinBuildParser.parseInputs(singletonList(source), relativeTo, ctx);
-                    }
-                    return groovyBuildParser.parseInputs(singletonList(source), relativeTo, ctx);
-                });
+            return sourceFile;
+        }
+
+        void close() {
+            parsed.close();
+        }
+    }
+
+    private Parser parser(ScriptKind kind, ExecutionContext ctx) {
+        switch (kind) {
+            case KOTLIN_SETTINGS:
+                if (kotlinSettingsParser == null) {
+                    kotlinSettingsParser = KotlinParser.builder(base.kotlinParser)
+                            .classpath(settingsClasspath(ctx))
+                            .dependsOn(KTS_SETTINGS_STUBS)
+                            .isKotlinScript(true)
+                            .scriptImplicitReceivers("org.gradle.api.initialization.Settings")
+                            .scriptDefaultImports(DefaultImportsCustomizer.DEFAULT_IMPORTS)
+                            .build();
+                }
+                return kotlinSettingsParser;
+            case GROOVY_SETTINGS:
+                if (groovySettingsParser == null) {
+                    groovySettingsParser = GroovyParser.builder(base.groovyParser)
+                            .classpath(settingsClasspath(ctx))
+                            .compilerCustomizers(
+                                    new DefaultImportsCustomizer(),
+                                    config -> config.setScriptBaseClass("RewriteSettings")
+                            )
+                            .build();
+                }
+                return groovySettingsParser;
+            case KOTLIN_BUILD:
+                if (kotlinBuildParser == null) {
+                    kotlinBuildParser = KotlinParser.builder(base.kotlinParser)
+                            .classpath(buildscriptClasspath(ctx))
+                            .dependsOn(KTS_BUILD_STUBS)
+                            .isKotlinScript(true)
+                            .scriptImplicitReceivers("org.gradle.api.Project")
+                            .scriptDefaultImports(DefaultImportsCustomizer.DEFAULT_IMPORTS)
+                            .build();
+                }
+                return kotlinBuildParser;
+            case GROOVY_BUILD:
+            default:
+                if (groovyBuildParser == null) {
+                    groovyBuildParser = GroovyParser.builder(base.groovyParser)
+                            .classpath(buildscriptClasspath(ctx))
+                            .compilerCustomizers(
+                                    new DefaultImportsCustomizer(),
+                                    config -> config.setScriptBaseClass("RewriteGradleProject")
+                            )
+                            .build();
+                }
+                return groovyBuildParser;
+        }
+    }
+
+    private Collection<Path> buildscriptClasspath(ExecutionContext ctx) {
+        return base.buildscriptClasspath == null ? defaultClasspath(ctx) : base.buildscriptClasspath;
+    }
+
+    private Collection<Path> settingsClasspath(ExecutionContext ctx) {
+        return base.settingsClasspath == null ? defaultClasspath(ctx) : base.settingsClasspath;
+    }
+
+    private enum ScriptKind {
+        GROOVY_BUILD,
+        GROOVY_SETTINGS,
+        KOTLIN_BUILD,
+        KOTLIN_SETTINGS;
+
+        boolean isKotlin() {
+            return this == KOTLIN_BUILD || this == KOTLIN_SETTINGS;
+        }
+
+        static ScriptKind of(Path sourcePath) {
+            if (sourcePath.endsWith("settings.gradle.kts")) {
+                return KOTLIN_SETTINGS;
+            } else if (sourcePath.endsWith("settings.gradle")) {
+                return GROOVY_SETTINGS;
+            } else if (sourcePath.toString().endsWith(".gradle.kts")) {
+                return KOTLIN_BUILD;
+            }
+            return GROOVY_BUILD;
+        }
     }
 
     @Override
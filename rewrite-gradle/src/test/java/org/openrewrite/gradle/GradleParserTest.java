@@ -27,6 +27,7 @@
 import org.openrewrite.test.RewriteTest;
 import org.openrewrite.tree.ParseError;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -569,6 +570,38 @@ void noTrailingCommaWithNamedParametersComplicated() {
         assertThat(sourceFile).isNotInstanceOf(ParseError.class);
     }
 
+    @Test
+    void parsesScriptsInInputOrder() {
+        var gradleParser = new GradleParser(new GradleParser.Builder());
+        List<SourceFile> sourceFiles = gradleParser.parseInputs(List.of(
+          Parser.Input.fromString(Path.of("a/build.gradle"), "plugins { id 'java' }"),
+          Parser.Input.fromString(Path.of("settings.gradle"), "include 'a', 'b'"),
+          Parser.Input.fromString(Path.of("b/build.gradle"), "plugins { id 'java-library' }")
+        ), null, new InMemoryExecutionContext()).toList();
+        assertThat(sourceFiles)
+          .allSatisfy(sourceFile -> assertThat(sourceFile).isNotInstanceOf(ParseError.class))
+          .extracting(SourceFile::getSourcePath)
+          .containsExactly(Path.of("a/build.gradle"), Path.of("settings.gradle"), Path.of("b/build.gradle"));
+    }
+
+    @Test
+    void brokenKotlinScriptOnlyFailsItself() {
+        var gradleParser = new GradleParser(new GradleParser.Builder());
+        List<SourceFile> sourceFiles = gradleParser.parseInputs(List.of(
+          Parser.Input.fromString(Path.of("a/build.gradle.kts"), "plugins { java }"),
+          Parser.Input.fromString(Path.of("b/build.gradle.kts"), "plugins { java "),
+          Parser.Input.fromString(Path.of("settings.gradle"), "include 'a', 'b', 'c'"),
+          Parser.Input.fromString(Path.of("c/build.gradle.kts"), "plugins { `java-library` }")
+        ), null, new InMemoryExecutionContext()).toList();
+        assertThat(sourceFiles)
+          .extracting(SourceFile::getSourcePath)
+          .containsExactly(Path.of("a/build.gradle.kts"), Path.of("b/build.gradle.kts"), Path.of("settings.gradle"), Path.of("c/build.gradle.kts"));
+        assertThat(sourceFiles.get(0)).isNotInstanceOf(ParseError.class);
+        assertThat(sourceFiles.get(1)).isInstanceOf(ParseError.class);
+        assertThat(sourceFiles.get(2)).isNotInstanceOf(ParseError.class);
+        assertThat(sourceFiles.get(3)).isNotInstanceOf(ParseError.class);
+    }
+
     @MethodSource("escapedBackslashesAndInterpolationInGStringParams")
     @ParameterizedTest
     void escapedBackslashesAndInterpolationInGString(@Language("groovy") String groovy) {
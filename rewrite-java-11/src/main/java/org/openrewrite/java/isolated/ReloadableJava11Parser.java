@@ -15,13 +15,18 @@
  */
 package org.openrewrite.java.isolated;
 
+import com.sun.tools.javac.code.ClassFinder;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symtab;
 import com.sun.tools.javac.comp.*;
 import com.sun.tools.javac.file.JavacFileManager;
 import com.sun.tools.javac.main.JavaCompiler;
 import com.sun.tools.javac.main.Option;
 import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeScanner;
 import com.sun.tools.javac.util.Context;
 import com.sun.tools.javac.util.Log;
+import com.sun.tools.javac.util.Names;
 import com.sun.tools.javac.util.Options;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Timer;
@@ -36,6 +41,7 @@
 import org.openrewrite.SourceFile;
 import org.openrewrite.internal.MetricsHelper;
 import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.JavaParserExecutionContextView;
 import org.openrewrite.java.JavaParsingException;
 import org.openrewrite.java.internal.DefaultJavaTypeFactory;
 import org.openrewrite.java.internal.JavaTypeCache;
@@ -52,11 +58,15 @@
 import javax.annotation.processing.Processor;
 import javax.tools.*;
 import java.io.*;
+import java.lang.management.ManagementFactory;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -77,7 +87,7 @@ public class ReloadableJava11Parser implements JavaParser {
     @Nullable
     private final Collection<Input> dependsOn;
 
-    private final JavacFileManager pfm;
+    private final ByteArrayCapableJavacFileManager pfm;
     private final Context context;
     private final JavaCompiler compiler;
     private final ResettableLog compilerLog;
@@ -179,8 +189,34 @@ public static Builder builder() {
     @Override
     public Stream<SourceFile> parseInputs(Iterable<Input> sourceFiles, @Nullable Path relativeTo, ExecutionContext ctx) {
         ParsingEventListener parsingListener = ParsingExecutionContextView.view(ctx).getParsingListener();
-        LinkedHashMap<Input, JCTree.JCCompilationUnit> cus = parseInputsToCompilerAst(sourceFiles, ctx);
-        return cus.entrySet().stream().map(cuByPath -> {
+        JavaParserExecutionContextView javaCtx = JavaParserExecutionContextView.view(ctx);
+        int batchSize = javaCtx.getAttributionBatchSize();
+        Map<String, List<Input>> declaringInputs = javaCtx.getDeclaringInputs();
+        Set<Input> attributedInputs = null;
+        Iterable<Input> entered = sourceFiles;
+        if (declaringInputs != null && !annotationProcessors.isEmpty()) {
+            // annotation processors only add members to the compilation units they are given, so the types
+            // declared by the other inputs must be entered from them up front to have those members
+            attributedInputs = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<Input> all = new ArrayList<>();
+            for (Input input : sourceFiles) {
+                attributedInputs.add(input);
+                all.add(input);
+            }
+            declaringInputs.values().forEach(all::addAll);
+            entered = all;
+            declaringInputs = null;
+        }
+        pfm.setDeclaringInputs(declaringInputs, ctx);
+        if (declaringInputs != null) {
+            listDeclaringInputs(declaringInputs.keySet());
+        }
+        boolean attributeAll = batchSize <= 0 && attributedInputs == null && declaringInputs == null;
+        LinkedHashMap<Input, JCTree.JCCompilationUnit> cus = parseInputsToCompilerAst(entered, ctx, attributeAll);
+        Stream<Map.Entry<Input, JCTree.JCCompilationUnit>> attributed = attributeAll ?
+                cus.entrySet().stream() :
+                attributeInBatches(cus, attributedInputs, batchSize > 0 ? batchSize : Integer.MAX_VALUE, ctx, parsingListener);
+        return attributed.map(cuByPath -> {
             Input input = cuByPath.getKey();
             parsingListener.startedParsing(input);
             try {
@@ -205,7 +241,11 @@ public Stream<SourceFile> parseInputs(Iterable<Input> sourceFiles, @Nullable Pat
         });
     }
 
-    LinkedHashMap<Input, JCTree.JCCompilationUnit> parseInputsToCompilerAst(Iterable<Input> sourceFiles, ExecutionContext ctx) {
+    /**
+     * @param attribute Whether to attribute the compilation units, or only to enter their symbols and leave them
+     *                  in the compiler's todo queue for {@link #attributeInBatches}.
+     */
+    LinkedHashMap<Input, JCTree.JCCompilationUnit> parseInputsToCompilerAst(Iterable<Input> sourceFiles, ExecutionContext ctx, boolean attribute) {
         if (classpath != null) { // override classpath
             // Lombok is expected to replace the file manager with its own, so we need to check for that
             if (context.get(JavaFileManager.class) != pfm && (annotationProcessors.isEmpty() || !(context.get(JavaFileManager.class) instanceof ForwardingJavaFileManager))) {
@@ -249,12 +289,8 @@ LinkedHashMap<Input, JCTree.JCCompilationUnit> parseInputsToCompilerAst(Iterable
                 handleParsingException(ctx, t);
             }
 
-            while (!compiler.todo.isEmpty()) {
-                try {
-                    compiler.attribute(compiler.todo);
-                } catch (Throwable t) {
-                    handleParsingException(ctx, t);
-                }
+            if (attribute) {
+                attribute(compiler.todo, ctx);
             }
         } catch (IllegalStateException e) {
             if ("endPosTable already set".equals(e.getMessage())) {
@@ -267,6 +303,116 @@ LinkedHashMap<Input, JCTree.JCCompilationUnit> parseInputsToCompilerAst(Iterable
         return cus;
     }
 
+    /**
+     * Attribute the compilation units a batch at a time, as the returned stream reaches each batch, and release the
+     * method bodies of a batch before attributing the next. Every compilation unit was entered before any is
+     * attributed, so each batch sees the symbols declared in all the others.
+     *
+     * @param attributedInputs The inputs to attribute and return, or {@code null} for all of them. The others
+     *                         are only entered, so that the symbols they declare are visible.
+     */
+    private Stream<Map.Entry<Input, JCTree.JCCompilationUnit>> attributeInBatches(LinkedHashMap<Input, JCTree.JCCompilationUnit> cus,
+                                                                                 @Nullable Set<Input> attributedInputs,
+                                                                                 int batchSize,
+                                                                                 ExecutionContext ctx,
+                                                                                 ParsingEventListener parsingListener) {
+        Map<JCTree.JCCompilationUnit, Queue<Env<AttrContext>>> todoByCu = new IdentityHashMap<>();
+        for (Env<AttrContext> env = compiler.todo.poll(); env != null; env = compiler.todo.poll()) {
+            if (env.toplevel.sourcefile instanceof DeclaringInputFileObject) {
+                // entered because a type it declares was looked up, but another parser attributes it
+                continue;
+            }
+            todoByCu.computeIfAbsent(env.toplevel, cu -> new ArrayDeque<>()).add(env);
+        }
+
+        List<List<Map.Entry<Input, JCTree.JCCompilationUnit>>> batches = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Input, JCTree.JCCompilationUnit> cuByPath : cus.entrySet()) {
+            if (attributedInputs != null && !attributedInputs.contains(cuByPath.getKey())) {
+                todoByCu.remove(cuByPath.getValue());
+                continue;
+            }
+            if (batches.isEmpty() || batches.get(batches.size() - 1).size() == batchSize) {
+                batches.add(new ArrayList<>());
+            }
+            batches.get(batches.size() - 1).add(cuByPath);
+            total++;
+        }
+
+        int attributedTotal = total;
+        List<JCTree.JCCompilationUnit> previousBatch = new ArrayList<>();
+        AtomicInteger attributed = new AtomicInteger();
+        AtomicLong peakHeapUsed = new AtomicLong();
+        return IntStream.range(0, batches.size()).boxed().flatMap(i -> {
+            releaseMethodBodies(previousBatch);
+            previousBatch.clear();
+
+            List<Map.Entry<Input, JCTree.JCCompilationUnit>> batch = batches.get(i);
+            Queue<Env<AttrContext>> todo = new ArrayDeque<>();
+            for (Map.Entry<Input, JCTree.JCCompilationUnit> cuByPath : batch) {
+                Queue<Env<AttrContext>> cuTodo = todoByCu.remove(cuByPath.getValue());
+                if (cuTodo != null) {
+                    todo.addAll(cuTodo);
+                }
+                previousBatch.add(cuByPath.getValue());
+            }
+            if (i == batches.size() - 1) {
+                // anything left over, like the classes of sources generated by annotation processors
+                todoByCu.values().forEach(todo::addAll);
+                todoByCu.clear();
+            }
+            attribute(todo, ctx);
+
+            peakHeapUsed.accumulateAndGet(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(), Math::max);
+            parsingListener.attributedBatch(attributed.addAndGet(batch.size()), attributedTotal, peakHeapUsed.get());
+            return batch.stream();
+        });
+    }
+
+    private void attribute(Queue<Env<AttrContext>> todo, ExecutionContext ctx) {
+        while (!todo.isEmpty()) {
+            try {
+                compiler.attribute(todo);
+            } catch (Throwable t) {
+                handleParsingException(ctx, t);
+            }
+        }
+    }
+
+    /**
+     * The compiler keeps compilation units reachable from the environments of the classes they declare, but
+     * nothing reads the method bodies of a class again once it is attributed, and they hold most of its
+     * attributed trees.
+     */
+    private static void releaseMethodBodies(List<JCTree.JCCompilationUnit> cus) {
+        TreeScanner releaser = new TreeScanner() {
+            @Override
+            public void visitMethodDef(JCTree.JCMethodDecl tree) {
+                tree.body = null;
+            }
+        };
+        for (JCTree.JCCompilationUnit cu : cus) {
+            releaser.scan(cu);
+        }
+    }
+
+    /**
+     * A package lists its classes once, when it is first completed, which may have been for an earlier source
+     * set, so have the packages that declaring inputs are in be completed again for them to be listed.
+     */
+    private void listDeclaringInputs(Set<String> packages) {
+        Symtab syms = Symtab.instance(context);
+        Names names = Names.instance(context);
+        Symbol.Completer completer = ClassFinder.instance(context).getCompleter();
+        for (String pkg : packages) {
+            for (Symbol.PackageSymbol p : syms.getPackagesForName(names.fromString(pkg))) {
+                if (p.completer == Symbol.Completer.NULL_COMPLETER) {
+                    p.completer = completer;
+                }
+            }
+        }
+    }
+
     private void handleParsingException(ExecutionContext ctx, Throwable t) {
         // when symbol entering fails on problems like missing types, attribution can often times proceed
         // unhindered, but it sometimes cannot (so attribution is always best-effort in the presence of errors)
@@ -385,6 +531,7 @@ public ReloadableJava11Parser build() {
 
     private static class ByteArrayCapableJavacFileManager extends JavacFileManager {
         private final List<PackageAwareJavaFileObject> classByteClasspath;
+        private Map<String, List<DeclaringInputFileObject>> declaringInputs = new HashMap<>();
 
         public ByteArrayCapableJavacFileManager(Context context,
                                                 boolean register,
@@ -396,11 +543,27 @@ public ByteArrayCapableJavacFileManager(Context context,
                     .collect(toList());
         }
 
+        /**
+         * Set the inputs of other parsers that the classpath lists as sources, for the types they declare to be
+         * entered from when they are looked up.
+         */
+        void setDeclaringInputs(@Nullable Map<String, List<Input>> declaringInputs, ExecutionContext ctx) {
+            this.declaringInputs = new HashMap<>();
+            if (declaringInputs != null) {
+                declaringInputs.forEach((pkg, inputs) -> this.declaringInputs.put(pkg, inputs.stream()
+                        .map(input -> new DeclaringInputFileObject(input, pkg, ctx))
+                        .collect(toList())));
+            }
+        }
+
         @Override
         public String inferBinaryName(Location location, JavaFileObject file) {
             if (file instanceof PackageAwareJavaFileObject) {
                 return ((PackageAwareJavaFileObject) file).getClassName();
             }
+            if (file instanceof DeclaringInputFileObject) {
+                return ((DeclaringInputFileObject) file).getBinaryName();
+            }
             return super.inferBinaryName(location, file);
         }
 
@@ -408,8 +571,11 @@ public String inferBinaryName(Location location, JavaFileObject file) {
         public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds, boolean recurse) throws IOException {
             if (StandardLocation.CLASS_PATH.equals(location)) {
                 Iterable<JavaFileObject> listed = super.list(location, packageName, kinds, recurse);
-                return Stream.concat(classByteClasspath.stream()
-                                .filter(jfo -> jfo.getPackage().equals(packageName)),
+                List<DeclaringInputFileObject> declaring = kinds.contains(JavaFileObject.Kind.SOURCE) ?
+                        declaringInputs.getOrDefault(packageName, emptyList()) : emptyList();
+                return Stream.concat(Stream.concat(classByteClasspath.stream()
+                                        .filter(jfo -> jfo.getPackage().equals(packageName)),
+                                declaring.stream()),
                         StreamSupport.stream(listed.spliterator(), false)
                 ).collect(toList());
             }
@@ -417,6 +583,22 @@ public Iterable<JavaFileObject> list(Location location, String packageName, Set<
         }
     }
 
+    /**
+     * An input that another parser returns, which this one parses and enters only when a type named after it
+     * is looked up.
+     */
+    private static class DeclaringInputFileObject extends ReloadableJava11ParserInputFileObject {
+        @Getter
+        private final String binaryName;
+
+        private DeclaringInputFileObject(Input input, String pkg, ExecutionContext ctx) {
+            super(input, ctx);
+            String fileName = input.getPath().getFileName().toString();
+            String simpleName = fileName.substring(0, fileName.length() - ".java".length());
+            this.binaryName = pkg.isEmpty() ? simpleName : pkg + "." + simpleName;
+        }
+    }
+
     private static class PackageAwareJavaFileObject extends SimpleJavaFileObject {
         private final String pkg;
         @Getter
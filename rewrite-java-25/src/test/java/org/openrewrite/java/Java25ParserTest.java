@@ -0,0 +1,83 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.tree.ParsingEventListener;
+import org.openrewrite.tree.ParsingExecutionContextView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Java25ParserTest {
+
+    @Test
+    void attributeInBatches() {
+        List<Integer> attributed = new ArrayList<>();
+        InMemoryExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        ParsingExecutionContextView.view(ctx).setParsingListener(new ParsingEventListener() {
+            @Override
+            public void attributedBatch(int attributedSoFar, int total, long peakHeapUsed) {
+                assertThat(total).isEqualTo(3);
+                assertThat(peakHeapUsed).isPositive();
+                attributed.add(attributedSoFar);
+            }
+        });
+        JavaParserExecutionContextView.view(ctx).setAttributionBatchSize(2);
+
+        List<SourceFile> sourceFiles = JavaParser.fromJavaVersion().build().parse(ctx,
+          // refers to a class attributed in a later batch
+          """
+            class A {
+                int a() {
+                    return new C().c();
+                }
+            }
+            """,
+          """
+            class B extends A {
+            }
+            """,
+          // refers to classes attributed in an earlier batch
+          """
+            class C {
+                int c() {
+                    return new B().a();
+                }
+            }
+            """
+        ).toList();
+
+        assertThat(attributed).containsExactly(2, 3);
+        assertThat(sourceFiles).allSatisfy(sourceFile -> assertThat(sourceFile).isInstanceOf(J.CompilationUnit.class));
+        assertThat(returnedCallDeclaringType(sourceFiles.getFirst())).isEqualTo("C");
+        assertThat(returnedCallDeclaringType(sourceFiles.get(2))).isEqualTo("A");
+    }
+
+    private static String returnedCallDeclaringType(SourceFile sourceFile) {
+        J.MethodDeclaration method = (J.MethodDeclaration) ((J.CompilationUnit) sourceFile).getClasses().getFirst()
+          .getBody().getStatements().getFirst();
+        //noinspection DataFlowIssue
+        J.Return ret = (J.Return) method.getBody().getStatements().getFirst();
+        //noinspection DataFlowIssue
+        return ((J.MethodInvocation) ret.getExpression()).getMethodType().getDeclaringType().getFullyQualifiedName();
+    }
+}
@@ -18,9 +18,16 @@
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.tree.ParsingEventListener;
+import org.openrewrite.tree.ParsingExecutionContextView;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class Java8ParserTest {
@@ -31,4 +38,50 @@ void dependenciesFromResources(@TempDir Path temp) {
         ctx.setParserClasspathDownloadTarget(temp.toFile());
         assertThat(JavaParser.dependenciesFromResources(ctx, "guava-31.0-jre")).isNotEmpty();
     }
+
+    @Test
+    void attributeInBatches() {
+        List<Integer> attributed = new ArrayList<>();
+        InMemoryExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        ParsingExecutionContextView.view(ctx).setParsingListener(new ParsingEventListener() {
+            @Override
+            public void attributedBatch(int attributedSoFar, int total, long peakHeapUsed) {
+                assertThat(total).isEqualTo(3);
+                assertThat(peakHeapUsed).isPositive();
+                attributed.add(attributedSoFar);
+            }
+        });
+        JavaParserExecutionContextView.view(ctx).setAttributionBatchSize(2);
+
+        List<SourceFile> sourceFiles = JavaParser.fromJavaVersion().build().parse(ctx,
+          // refers to a class attributed in a later batch
+          "class A {\n" +
+          "    int a() {\n" +
+          "        return new C().c();\n" +
+          "    }\n" +
+          "}\n",
+          "class B extends A {\n" +
+          "}\n",
+          // refers to classes attributed in an earlier batch
+          "class C {\n" +
+          "    int c() {\n" +
+          "        return new B().a();\n" +
+          "    }\n" +
+          "}\n"
+        ).collect(toList());
+
+        assertThat(attributed).containsExactly(2, 3);
+        assertThat(sourceFiles).allSatisfy(sourceFile -> assertThat(sourceFile).isInstanceOf(J.CompilationUnit.class));
+        assertThat(returnedCallDeclaringType(sourceFiles.get(0))).isEqualTo("C");
+        assertThat(returnedCallDeclaringType(sourceFiles.get(2))).isEqualTo("A");
+    }
+
+    private static String returnedCallDeclaringType(SourceFile sourceFile) {
+        J.MethodDeclaration method = (J.MethodDeclaration) ((J.CompilationUnit) sourceFile).getClasses().get(0)
+          .getBody().getStatements().get(0);
+        //noinspection DataFlowIssue
+        J.Return ret = (J.Return) method.getBody().getStatements().get(0);
+        //noinspection DataFlowIssue
+        return ((J.MethodInvocation) ret.getExpression()).getMethodType().getDeclaringType().getFullyQualifiedName();
+    }
 }
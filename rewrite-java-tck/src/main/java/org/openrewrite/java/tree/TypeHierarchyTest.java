@@ -0,0 +1,166 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.tree;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaIsoVisitor;
+import org.openrewrite.test.RewriteTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class TypeHierarchyTest implements RewriteTest {
+
+    @Test
+    void sameAnswersAsTypeUtils() {
+        rewriteRun(
+          java(
+            """
+              import java.util.*;
+
+              class Test {
+                  interface Shape {}
+                  interface Named extends Comparable<Named> {}
+                  static abstract class Base implements Shape {}
+                  static class Square extends Base implements Named {
+                      public int compareTo(Named o) { return 0; }
+                  }
+
+                  Shape shape;
+                  Base base;
+                  Square square;
+                  Named named;
+                  Comparable<Named> comparableNamed;
+                  Comparable<String> comparableString;
+                  List<String> listString;
+                  List<Object> listObject;
+                  List<? extends CharSequence> listCharSequence;
+                  ArrayList<String> arrayListString;
+                  Collection<String> collectionString;
+                  Iterable<?> iterable;
+                  Map.Entry<String, Integer> entry;
+                  Object object;
+                  String string;
+                  int primitive;
+                  String[] array;
+              }
+              """,
+            spec -> spec.afterRecipe(cu -> {
+                List<JavaType> types = new ArrayList<>();
+                new JavaIsoVisitor<List<JavaType>>() {
+                    @Override
+                    public J.VariableDeclarations.NamedVariable visitVariable(J.VariableDeclarations.NamedVariable variable, List<JavaType> ts) {
+                        ts.add(variable.getType());
+                        ts.add(variable.getVariableType());
+                        return variable;
+                    }
+                }.visit(cu, types);
+
+                TypeHierarchy hierarchy = TypeHierarchy.get(new InMemoryExecutionContext());
+                for (JavaType to : types) {
+                    for (JavaType from : types) {
+                        assertThat(hierarchy.isAssignableTo(to, from))
+                          .as("%s assignable to %s", from, to)
+                          .isEqualTo(TypeUtils.isAssignableTo(to, from));
+                        if (to instanceof JavaType.FullyQualified) {
+                            String name = ((JavaType.FullyQualified) to).getFullyQualifiedName();
+                            assertThat(hierarchy.isAssignableTo(name, from))
+                              .as("%s assignable to %s", from, name)
+                              .isEqualTo(TypeUtils.isAssignableTo(name, from));
+                        }
+                    }
+                }
+            })
+          )
+        );
+    }
+
+    @Test
+    void sameAnswersAsTypeUtilsForShallowTypes() {
+        JavaType.ShallowClass shallow = JavaType.ShallowClass.build("com.example.Shallow");
+        List<JavaType.FullyQualified> types = List.of(
+          shallow,
+          JavaType.ShallowClass.build("com.example.Outer$Inner"),
+          new JavaType.Parameterized(null, shallow, List.of(JavaType.ShallowClass.build("java.lang.String"))),
+          JavaType.Unknown.getInstance()
+        );
+
+        TypeHierarchy hierarchy = new TypeHierarchy();
+        for (JavaType.FullyQualified from : types) {
+            for (String to : List.of("java.lang.Object", "java.lang.String", "com.example.Shallow",
+              "com.example.Outer.Inner", "com.example.Outer$Inner")) {
+                assertThat(hierarchy.isAssignableTo(to, from))
+                  .as("%s assignable to %s", from, to)
+                  .isEqualTo(TypeUtils.isAssignableTo(to, from));
+            }
+            for (JavaType.FullyQualified to : types) {
+                assertThat(hierarchy.isAssignableTo(to, from))
+                  .as("%s assignable to %s", from, to)
+                  .isEqualTo(TypeUtils.isAssignableTo(to, from));
+            }
+        }
+    }
+
+    @Test
+    void nestedTypeNames() {
+        rewriteRun(
+          java(
+            """
+              import java.util.Map;
+
+              abstract class Test implements Map.Entry<String, String> {
+              }
+              """,
+            spec -> spec.afterRecipe(cu -> {
+                TypeHierarchy hierarchy = TypeHierarchy.get(new InMemoryExecutionContext());
+                JavaType.FullyQualified test = cu.getClasses().get(0).getType();
+                assertThat(hierarchy.isAssignableTo("java.util.Map$Entry", test)).isTrue();
+                assertThat(hierarchy.isAssignableTo("java.util.Map.Entry", test)).isTrue();
+                assertThat(hierarchy.isAssignableTo("java.util.Map", test)).isFalse();
+            })
+          )
+        );
+    }
+
+    @Test
+    void threadsAskingAtOnceGetTheSameAnswers() {
+        rewriteRun(
+          java(
+            """
+              import java.util.ArrayList;
+
+              abstract class Test extends ArrayList<String> implements Comparable<Test> {
+              }
+              """,
+            spec -> spec.afterRecipe(cu -> {
+                TypeHierarchy hierarchy = new TypeHierarchy();
+                JavaType.FullyQualified test = cu.getClasses().get(0).getType();
+                List<String> supertypes = List.of("java.util.ArrayList", "java.util.AbstractList", "java.util.List",
+                  "java.util.Collection", "java.lang.Iterable", "java.util.RandomAccess", "java.lang.Comparable");
+                assertThat(IntStream.range(0, 1_000).parallel()
+                  .allMatch(i -> hierarchy.isAssignableTo(supertypes.get(i % supertypes.size()), test) &&
+                                 !hierarchy.isAssignableTo("java.util.Map", test)))
+                  .isTrue();
+            })
+          )
+        );
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MethodMatcherSetTest {
+
+    private final List<MethodMatcher> matchers = List.of(
+      new MethodMatcher("java.util.List add(java.lang.Object)"),
+      new MethodMatcher("java.util.ArrayList add(..)"),
+      new MethodMatcher("java.util.Collection add(..)", true),
+      new MethodMatcher("java.util.ArrayList <constructor>()"),
+      new MethodMatcher("java.util.* size()"),
+      new MethodMatcher("java.util..* is*()"),
+      new MethodMatcher("java.lang.String format(java.lang.String, ..)"),
+      new MethodMatcher("java.util.Map$Entry get*()"),
+      new MethodMatcher("java.util.Map.Entry getKey()"),
+      new MethodMatcher("*..* toString()"),
+      new MethodMatcher("java.lang.Object *()", true),
+      new MethodMatcher("java.io.PrintStream println(int)")
+    );
+
+    @Test
+    void agreesWithIndividualMatchers() {
+        ExecutionContext ctx = new InMemoryExecutionContext(t -> {
+            throw new AssertionError(t);
+        });
+        J.CompilationUnit cu = (J.CompilationUnit) JavaParser.fromJavaVersion().build().parse(ctx,
+          """
+            import java.util.*;
+
+            class Test {
+                void test(Map<String, Integer> map) {
+                    List<String> list = new ArrayList<>();
+                    list.add("a");
+                    new ArrayList<String>().add("b");
+                    list.size();
+                    list.isEmpty();
+                    String s = String.format("%s %s", "a", list.toString());
+                    for (Map.Entry<String, Integer> entry : map.entrySet()) {
+                        entry.getKey();
+                        entry.getValue();
+                    }
+                    System.out.println(list.hashCode());
+                }
+            }
+            """
+        ).findFirst().orElseThrow();
+
+        List<JavaType.Method> methodTypes = new ArrayList<>(cu.getTypesInUse().getUsedMethods());
+        assertThat(methodTypes).isNotEmpty();
+
+        MethodMatcherSet set = new MethodMatcherSet(matchers);
+        BitSet matchedAnywhere = new BitSet();
+        for (JavaType.Method methodType : methodTypes) {
+            BitSet matching = set.matching(methodType);
+            for (int i = 0; i < matchers.size(); i++) {
+                assertThat(matching.get(i))
+                  .as("%s against %s", matchers.get(i), methodType)
+                  .isEqualTo(matchers.get(i).matches(methodType));
+            }
+            assertThat(set.matchesAny(methodType)).isEqualTo(!matching.isEmpty());
+            matchedAnywhere.or(matching);
+        }
+        assertThat(matchedAnywhere.cardinality()).isEqualTo(matchers.size());
+    }
+
+    @Test
+    void fromPatterns() {
+        MethodMatcherSet set = MethodMatcherSet.fromPatterns("java.util.List add(..)", "java.util.List remove(..)");
+        assertThat(set.size()).isEqualTo(2);
+        assertThat(set.get(1).getExactMethodName()).isEqualTo("remove");
+        assertThat(set.matching((JavaType.Method) null)).isEmpty();
+        assertThat(set.matchesAny((JavaType.Method) null)).isFalse();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.tree.J;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.TypeUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelJavaParserTest {
+
+    @Test
+    void sameOrderAndTypesAsOneParser() {
+        List<SourceFile> sourceFiles = ParallelJavaParser.build(JavaParser.fromJavaVersion(), 4)
+          .parse(new InMemoryExecutionContext(Throwable::printStackTrace),
+            """
+              class A {
+                  C c = new C();
+              }
+              """,
+            """
+              class B extends A {
+              }
+              """,
+            """
+              import java.util.List;
+              class C {
+                  List<A> as;
+              }
+              """,
+            """
+              import java.util.List;
+              class D extends B {
+                  List<A> as;
+              }
+              """
+          ).toList();
+
+        assertThat(sourceFiles).map(sourceFile -> ((J.CompilationUnit) sourceFile).getClasses().getFirst().getSimpleName())
+          .containsExactly("A", "B", "C", "D");
+
+        // declared in a later run than the source file that refers to it
+        JavaType.FullyQualified c = TypeUtils.asFullyQualified(field(sourceFiles.get(0)).getType());
+        assertThat(c).isNotNull();
+        assertThat(c.getFullyQualifiedName()).isEqualTo("C");
+        assertThat(c).isSameAs(((J.CompilationUnit) sourceFiles.get(2)).getClasses().getFirst().getType());
+
+        // mapped by different parsers, but one instance
+        assertThat(field(sourceFiles.get(2)).getType())
+          .isInstanceOf(JavaType.Parameterized.class)
+          .isSameAs(field(sourceFiles.get(3)).getType());
+    }
+
+    @Test
+    void typesOfOtherRunsResolveAfterReset() {
+        ParallelJavaParser parser = ParallelJavaParser.build(JavaParser.fromJavaVersion(), 2);
+        InMemoryExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        parser.parse(ctx,
+          """
+            package p;
+            class A {
+            }
+            """,
+          """
+            package p;
+            class B {
+            }
+            """
+        ).toList();
+        parser.reset();
+
+        // the package was listed for the first source set, and must be listed again for the types of this one
+        List<SourceFile> sourceFiles = parser.parse(ctx,
+          """
+            package p;
+            class C {
+                D d;
+            }
+            """,
+          """
+            package p;
+            class D {
+                C c;
+            }
+            """
+        ).toList();
+
+        assertThat(TypeUtils.asFullyQualified(field(sourceFiles.get(0)).getType()))
+          .isSameAs(((J.CompilationUnit) sourceFiles.get(1)).getClasses().getFirst().getType());
+        assertThat(TypeUtils.asFullyQualified(field(sourceFiles.get(1)).getType()))
+          .isSameAs(((J.CompilationUnit) sourceFiles.get(0)).getClasses().getFirst().getType());
+    }
+
+    private static J.VariableDeclarations field(SourceFile sourceFile) {
+        return (J.VariableDeclarations) ((J.CompilationUnit) sourceFile).getClasses().getFirst()
+          .getBody().getStatements().getFirst();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal.template;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.Cursor;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.tree.J;
+
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JavaTemplateCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        JavaTemplateCache cache = new JavaTemplateCache(2);
+        cache.put("cp", "a", emptyList());
+        cache.put("cp", "b", emptyList());
+        assertThat(cache.get("cp", "a")).isNotNull();
+
+        cache.put("cp", "c", emptyList());
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("cp", "a")).isNotNull();
+        assertThat(cache.get("cp", "b")).isNull();
+        assertThat(cache.get("cp", "c")).isNotNull();
+    }
+
+    @Test
+    void keyedByClasspath() {
+        JavaTemplateCache cache = new JavaTemplateCache(10);
+        cache.put("cp1", "a", emptyList());
+        assertThat(cache.get("cp2", "a")).isNull();
+    }
+
+    @Test
+    void fingerprintDistinguishesSources() {
+        String a = JavaParser.fromJavaVersion().dependsOn("class A {}").getClasspathFingerprint();
+        assertThat(a)
+          .isEqualTo(JavaParser.fromJavaVersion().dependsOn("class A {}").getClasspathFingerprint())
+          .isNotEqualTo(JavaParser.fromJavaVersion().dependsOn("class B {}").getClasspathFingerprint())
+          .isNotEqualTo(JavaParser.fromJavaVersion().dependsOn("class A {}", "class B {}").getClasspathFingerprint());
+    }
+
+    @Test
+    void parsedTemplatesOutliveTheRootCursor() {
+        J.CompilationUnit cu = JavaParser.fromJavaVersion().build()
+          .parse("class A {}")
+          .findFirst()
+          .filter(J.CompilationUnit.class::isInstance)
+          .map(J.CompilationUnit.class::cast)
+          .orElseThrow();
+
+        List<J.TypeParameter> first = new JavaTemplateParser(false, JavaParser.fromJavaVersion(), s -> {}, s -> {}, emptySet(), "Type")
+          .parseTypeParameters(new Cursor(new Cursor(null, Cursor.ROOT_VALUE), cu), "TCacheTest");
+        int size = JavaTemplateCache.getInstance().size();
+
+        // a different parser with an equivalent classpath in a later cycle with a fresh root cursor
+        List<J.TypeParameter> second = new JavaTemplateParser(false, JavaParser.fromJavaVersion(), s -> {}, s -> {}, emptySet(), "Type")
+          .parseTypeParameters(new Cursor(new Cursor(null, Cursor.ROOT_VALUE), cu), "TCacheTest");
+
+        assertThat(JavaTemplateCache.getInstance().size()).isEqualTo(size);
+        assertThat(second).hasSize(1);
+        assertThat(second.getFirst().getId()).isNotEqualTo(first.getFirst().getId());
+    }
+}
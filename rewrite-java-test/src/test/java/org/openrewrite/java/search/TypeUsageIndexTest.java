@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.search;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.test.RewriteTest;
+import org.openrewrite.tree.ParsingExecutionContextView;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.Assertions.java;
+
+class TypeUsageIndexTest implements RewriteTest {
+
+    private static final String USES_LIST = """
+      import java.util.ArrayList;
+      import java.util.List;
+
+      class A {
+          List<String> list = new ArrayList<>();
+          void add() {
+              list.add("a");
+          }
+      }
+      """;
+
+    private static final String USES_NOTHING = """
+      class B {
+          int size() {
+              return 0;
+          }
+      }
+      """;
+
+    @Test
+    void indexedWhileParsing() {
+        TypeUsageIndex index = new TypeUsageIndex();
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        ParsingExecutionContextView.view(ctx).setParsingListener(index);
+        List<SourceFile> sourceFiles = JavaParser.fromJavaVersion().build()
+          .parse(ctx, USES_LIST, USES_NOTHING).toList();
+        SourceFile a = sourceFiles.get(0);
+        SourceFile b = sourceFiles.get(1);
+
+        assertThat(index.mayUseType(a, "java.util.List")).isTrue();
+        assertThat(index.mayUseType(a, "java.util.Collection")).isTrue();
+        assertThat(index.mayUseType(b, "java.util.List")).isFalse();
+        assertThat(index.mayUseType(b, "java.util.*")).isNull();
+
+        assertThat(index.mayUseMethod(a, new MethodMatcher("java.util.List add(..)"))).isTrue();
+        assertThat(index.mayUseMethod(a, "java.util.ArrayList <constructor>()")).isTrue();
+        assertThat(index.mayUseMethod(b, "java.util.List add(..)")).isFalse();
+        assertThat(index.mayUseMethod(b, "java.util.List *(..)")).isNull();
+    }
+
+    @Test
+    void indexesChangedVersionsOfSourceFiles() {
+        List<SourceFile> sourceFiles = JavaParser.fromJavaVersion().build()
+          .parse(USES_NOTHING, USES_LIST).toList();
+        TypeUsageIndex index = TypeUsageIndex.build(sourceFiles.subList(0, 1));
+        SourceFile b = sourceFiles.getFirst();
+        SourceFile a = sourceFiles.get(1);
+
+        assertThat(index.mayUseType(b, "java.util.List")).isFalse();
+        // a version of B that a recipe changed to use a List
+        assertThat(index.mayUseType(a.withId(b.getId()), "java.util.List")).isTrue();
+        assertThat(index.mayUseType(a, "java.util.List")).isNull();
+    }
+
+    @Test
+    void findsTypesWithIndexRegistered() {
+        ExecutionContext ctx = new InMemoryExecutionContext();
+        TypeUsageIndex index = new TypeUsageIndex().register(ctx);
+        rewriteRun(
+          spec -> spec.recipe(new FindTypes("java.util.List", false))
+            .recipeExecutionContext(ctx)
+            .beforeRecipe(sourceFiles -> sourceFiles.forEach(index::add)),
+          java(
+            USES_LIST,
+            """
+              import java.util.ArrayList;
+              import java.util.List;
+
+              class A {
+                  /*~~>*/List<String> list = new ArrayList<>();
+                  void add() {
+                      list.add("a");
+                  }
+              }
+              """
+          ),
+          java(USES_NOTHING)
+        );
+    }
+}
@@ -22,6 +22,7 @@
 import org.openrewrite.internal.ToBeRemoved;
 import org.openrewrite.java.internal.JavaTypeCache;
 import org.openrewrite.java.internal.JavaTypeFactory;
+import org.openrewrite.java.internal.parser.IndexedTypeTable;
 import org.openrewrite.java.internal.parser.RewriteClasspathJarClasspathLoader;
 import org.openrewrite.java.internal.parser.TypeTable;
 import org.openrewrite.java.marker.JavaSourceSet;
@@ -31,10 +32,14 @@
 import java.io.ByteArrayInputStream;
 import java.lang.reflect.Method;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -125,6 +130,21 @@ static List<Path> filterArtifacts(String artifactName, List<Path> runtimeClasspa
      * @return A list of paths to the located artifacts.
      */
     static List<Path> dependenciesFromResources(ExecutionContext ctx, String... artifactNamesWithVersions) {
+        return dependenciesFromResources(ctx, null, artifactNamesWithVersions);
+    }
+
+    /**
+     * Load artifacts from packaged resources, like {@link #dependenciesFromResources(ExecutionContext, String...)},
+     * but only as much of each artifact as is needed for the given classes where the resource allows it, as an
+     * {@link IndexedTypeTable} does.
+     *
+     * @param ctx                       The execution context to use for loading resources.
+     * @param classNames                Binary names of the classes that are needed, or null for all of them.
+     * @param artifactNamesWithVersions artifact prefix to match, e.g. "guava" or "guava-31" for a specific version.
+     * @return A list of paths to the located artifacts.
+     */
+    static List<Path> dependenciesFromResources(ExecutionContext ctx, @Nullable Collection<String> classNames,
+                                                String... artifactNamesWithVersions) {
         if (artifactNamesWithVersions.length == 0) {
             return emptyList();
         }
@@ -132,6 +152,23 @@ static List<Path> dependenciesFromResources(ExecutionContext ctx, String... arti
         Set<String> missingArtifactNames = new LinkedHashSet<>(Arrays.asList(artifactNamesWithVersions));
         List<String> availableArtifacts = new ArrayList<>();
 
+        for (IndexedTypeTable indexedTypeTable : IndexedTypeTable.fromClasspath(ctx)) {
+            for (Iterator<String> it = missingArtifactNames.iterator(); it.hasNext(); ) {
+                String missingArtifactName = it.next();
+                Path located = classNames == null ?
+                        indexedTypeTable.load(missingArtifactName) :
+                        indexedTypeTable.load(missingArtifactName, classNames);
+                if (located != null) {
+                    artifacts.add(located);
+                    it.remove();
+                }
+            }
+            if (missingArtifactNames.isEmpty()) {
+                return artifacts;
+            }
+            availableArtifacts.addAll(indexedTypeTable.availableArtifacts());
+        }
+
         TypeTable typeTable = TypeTable.fromClasspath(ctx, missingArtifactNames);
         if (typeTable != null) {
             for (Iterator<String> it = missingArtifactNames.iterator(); it.hasNext(); ) {
@@ -336,6 +373,22 @@ public B classpathFromResources(ExecutionContext ctx, String... classpath) {
             return (B) this;
         }
 
+        /**
+         * Load artifacts from packaged resources, like {@link #classpathFromResources(ExecutionContext, String...)},
+         * but only the given classes of each artifact, together with their supertypes, enclosing and nested types,
+         * where the resource is an indexed type table. Other resources provide the whole artifact.
+         *
+         * @param ctx        The execution context to use for loading resources.
+         * @param classNames Binary names of the classes that are needed, such as {@code com.example.Outer$Inner}.
+         * @param classpath  artifact prefix to match, e.g. "guava" or "guava-31" for a specific version.
+         */
+        @SuppressWarnings({"UnusedReturnValue", "unused"})
+        public B classpathFromResources(ExecutionContext ctx, Collection<String> classNames, String... classpath) {
+            this.artifactNames = emptyList();
+            this.classpath = dependenciesFromResources(ctx, classNames, classpath);
+            return (B) this;
+        }
+
         /**
          * @deprecated prefer {@link #classpath} and {@link #classpathFromResources(ExecutionContext, String...)}.
          */
@@ -362,6 +415,43 @@ protected Collection<Path> resolvedClasspath() {
             return classpath;
         }
 
+        /**
+         * A fingerprint of everything other than the source text itself that determines how this parser
+         * attributes types: the parser implementation, its classpath, and the sources it depends on.
+         * Two builders with the same fingerprint produce parsers that attribute the same source the same way.
+         */
+        public String getClasspathFingerprint() {
+            StringBuilder fingerprint = new StringBuilder(getClass().getName());
+            for (Path entry : resolvedClasspath()) {
+                fingerprint.append('\n').append(entry);
+            }
+            if (!classBytesClasspath.isEmpty() || dependsOn != null) {
+                try {
+                    MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+                    for (byte[] classBytes : classBytesClasspath) {
+                        sha256.update(ByteBuffer.allocate(4).putInt(classBytes.length).array());
+                        sha256.update(classBytes);
+                    }
+                    if (dependsOn != null) {
+                        ExecutionContext ctx = new InMemoryExecutionContext();
+                        for (Input input : dependsOn) {
+                            byte[] source = input.getSource(ctx).readFully().getBytes(StandardCharsets.UTF_8);
+                            sha256.update(ByteBuffer.allocate(4).putInt(source.length).array());
+                            sha256.update(source);
+                        }
+                    }
+                    fingerprint.append("\nsha256:");
+                    for (byte b : sha256.digest()) {
+                        fingerprint.append(Character.forDigit((b >> 4) & 0xF, 16))
+                                .append(Character.forDigit(b & 0xF, 16));
+                    }
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return fingerprint.toString();
+        }
+
         /**
          * Resolve the {@link JavaTypeFactory} to use for this parser. Returns the explicit
          * factory set via {@link #typeFactory}, or {@code null} when none is configured —
@@ -15,15 +15,21 @@
  */
 package org.openrewrite.java;
 
+import org.jspecify.annotations.Nullable;
 import org.openrewrite.DelegatingExecutionContext;
 import org.openrewrite.ExecutionContext;
+import org.openrewrite.Parser;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
 
 public class JavaParserExecutionContextView extends DelegatingExecutionContext {
     private static final String PARSER_CLASSPATH_DOWNLOAD_LOCATION = "org.openrewrite.java.parserClasspathDownloadLocation";
+    private static final String ATTRIBUTION_BATCH_SIZE = "org.openrewrite.java.attributionBatchSize";
+    static final String DECLARING_INPUTS = "org.openrewrite.java.declaringInputs";
 
     public JavaParserExecutionContextView(ExecutionContext delegate) {
         super(delegate);
@@ -52,4 +58,37 @@ public File getParserClasspathDownloadTarget() {
         }
         return target;
     }
+
+    /**
+     * Have the Java parsers type attribute the source files they parse this many at a time, as the returned
+     * stream reaches them, rather than all of them before the first is returned. Symbols are still entered for
+     * all the source files up front, so each batch sees the types declared in the others, and the method bodies
+     * of a batch, which hold most of its attributed trees, are released before the next is attributed. The rest
+     * of a batch's compiler trees, its class declarations and their environments, stay with the compiler until
+     * the parser is reset, because later batches may still complete symbols from them. This reduces the memory
+     * the compiler holds for a large source set at the cost of some throughput.
+     *
+     * @param batchSize The number of source files to attribute at a time, or 0 to attribute them all at once.
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public JavaParserExecutionContextView setAttributionBatchSize(int batchSize) {
+        putMessage(ATTRIBUTION_BATCH_SIZE, batchSize);
+        return this;
+    }
+
+    public int getAttributionBatchSize() {
+        return getMessage(ATTRIBUTION_BATCH_SIZE, 0);
+    }
+
+    /**
+     * The inputs of a source set that other parsers return, when a Java parser is one of several that
+     * {@link ParallelJavaParser} split the source set between. The parser doesn't parse them up front, but finds
+     * one by its package and file name when a type it declares is looked up, as javac finds sources on a source
+     * path, and then only enters its symbols.
+     *
+     * @return The inputs by the package they declare, or {@code null} if there are none.
+     */
+    public @Nullable Map<String, List<Parser.Input>> getDeclaringInputs() {
+        return getMessage(DECLARING_INPUTS);
+    }
 }
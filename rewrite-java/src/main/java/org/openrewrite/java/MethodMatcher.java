@@ -200,6 +200,52 @@ private boolean matchesMethodName(String name) {
         return methodNameMatcher.matches(name);
     }
 
+    /**
+     * @return The only method name this matcher matches, with constructors named {@code <constructor>},
+     * or {@code null} when the method name in the pattern has wildcards.
+     */
+    public @Nullable String getExactMethodName() {
+        if (methodNameMatcher instanceof ConstructorMethodNameMatcher) {
+            return "<constructor>";
+        } else if (methodNameMatcher instanceof ExactMethodNameMatcher) {
+            return methodNameMatcher.toString();
+        }
+        return null;
+    }
+
+    /**
+     * @return The only declaring type this matcher matches, overrides aside, or {@code null} when the
+     * declaring type in the pattern has wildcards or is an array.
+     */
+    @Nullable String getExactDeclaringTypeName() {
+        if (typeMatcher instanceof StandardTypeMatcher) {
+            StandardTypeMatcher standard = (StandardTypeMatcher) typeMatcher;
+            if (standard.arrayDimensions == 0 && standard.nameMatcher instanceof ExactTypeNameMatcher) {
+                return standard.nameMatcher.toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The literal start of the declaring type pattern, up to its first wildcard, which the name of
+     * every declaring type this matcher matches, overrides aside, starts with. {@code null} when the pattern
+     * starts with a wildcard or is an array.
+     */
+    @Nullable String getDeclaringTypePrefix() {
+        if (!(typeMatcher instanceof StandardTypeMatcher) || ((StandardTypeMatcher) typeMatcher).arrayDimensions != 0) {
+            return null;
+        }
+        String pattern = typeMatcher.toString();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || (c == '.' && i + 1 < pattern.length() && pattern.charAt(i + 1) == '.')) {
+                return i == 0 ? null : pattern.substring(0, i);
+            }
+        }
+        return pattern;
+    }
+
     private boolean matchesParameterTypes(List<JavaType> parameterTypes) {
         // Try the new ArgumentMatcher approach first if available
         return matchesParameterTypesWithMatchers(parameterTypes);
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Incubating;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.java.tree.MethodCall;
+
+import java.util.*;
+
+/**
+ * Matches a method type against many {@link MethodMatcher} at once.
+ * <p>
+ * The matchers are indexed by what their patterns fix: the method name and declaring type when both are exact,
+ * the method name alone when the declaring type has wildcards or overrides are matched, and the literal start of
+ * the declaring type when the method name has wildcards. Looking up a method type only tests the matchers that
+ * share its method name or a prefix of its declaring type, so the cost of a lookup barely grows with the number of
+ * matchers in the set. Matchers whose patterns fix neither, like {@code *..* toString()}, are tested every time.
+ */
+@Incubating(since = "8.85.0")
+public class MethodMatcherSet {
+    private static final int[] NONE = new int[0];
+
+    private final List<MethodMatcher> matchers;
+
+    /**
+     * Method name to declaring type name to the indices of the matchers that fix both.
+     */
+    private final Map<String, Map<String, int[]>> byNameAndType = new HashMap<>();
+
+    /**
+     * Method name to the indices of the matchers that fix the method name but not the declaring type.
+     */
+    private final Map<String, int[]> byName = new HashMap<>();
+
+    /**
+     * The literal start of the declaring type pattern to the indices of the matchers with a method name pattern.
+     */
+    private final TypePrefixTrie byTypePrefix = new TypePrefixTrie();
+
+    private int[] unindexed = NONE;
+
+    public MethodMatcherSet(MethodMatcher... matchers) {
+        this(Arrays.asList(matchers));
+    }
+
+    public MethodMatcherSet(Collection<MethodMatcher> matchers) {
+        this.matchers = new ArrayList<>(matchers);
+        for (int i = 0; i < this.matchers.size(); i++) {
+            MethodMatcher matcher = this.matchers.get(i);
+            String methodName = matcher.getExactMethodName();
+            String typeName = matcher.isMatchOverrides() ? null : matcher.getExactDeclaringTypeName();
+            String typePrefix = matcher.isMatchOverrides() ? null : matcher.getDeclaringTypePrefix();
+            if (methodName != null && typeName != null) {
+                byNameAndType.computeIfAbsent(methodName, n -> new HashMap<>())
+                        .merge(canonicalTypeName(typeName), new int[]{i}, MethodMatcherSet::concat);
+            } else if (methodName != null) {
+                byName.merge(methodName, new int[]{i}, MethodMatcherSet::concat);
+            } else if (typePrefix != null) {
+                byTypePrefix.insert(canonicalTypeName(typePrefix), i);
+            } else {
+                unindexed = concat(unindexed, new int[]{i});
+            }
+        }
+    }
+
+    public static MethodMatcherSet fromPatterns(String... methodPatterns) {
+        return fromPatterns(Arrays.asList(methodPatterns), false);
+    }
+
+    public static MethodMatcherSet fromPatterns(Collection<String> methodPatterns, boolean matchOverrides) {
+        List<MethodMatcher> matchers = new ArrayList<>(methodPatterns.size());
+        for (String methodPattern : methodPatterns) {
+            matchers.add(new MethodMatcher(methodPattern, matchOverrides));
+        }
+        return new MethodMatcherSet(matchers);
+    }
+
+    public int size() {
+        return matchers.size();
+    }
+
+    public MethodMatcher get(int index) {
+        return matchers.get(index);
+    }
+
+    /**
+     * @param type The method type to match.
+     * @return The indices of the matchers that match the method type, in the order the matchers were given.
+     */
+    public BitSet matching(JavaType.@Nullable Method type) {
+        BitSet matching = new BitSet();
+        if (type != null) {
+            test(type, matching);
+        }
+        return matching;
+    }
+
+    public BitSet matching(@Nullable MethodCall methodCall) {
+        return matching(methodCall == null ? null : methodCall.getMethodType());
+    }
+
+    public boolean matchesAny(JavaType.@Nullable Method type) {
+        return type != null && test(type, null);
+    }
+
+    public boolean matchesAny(@Nullable MethodCall methodCall) {
+        return methodCall != null && matchesAny(methodCall.getMethodType());
+    }
+
+    /**
+     * Test the matchers that may match the method type.
+     *
+     * @param matching Where to record the matchers that match, or {@code null} to stop at the first one.
+     * @return Whether any matcher matches.
+     */
+    private boolean test(JavaType.Method type, @Nullable BitSet matching) {
+        String methodName = canonicalMethodName(type.getName());
+        String typeName = canonicalTypeName(type.getDeclaringType().getFullyQualifiedName());
+
+        boolean any = false;
+        Map<String, int[]> byType = byNameAndType.get(methodName);
+        if (byType != null) {
+            any = test(byType.get(typeName), type, matching);
+        }
+        if (!any || matching != null) {
+            any |= test(byName.get(methodName), type, matching);
+        }
+        TypePrefixTrie node = byTypePrefix;
+        for (int i = 0; node != null && (!any || matching != null); i++) {
+            any |= test(node.indices, type, matching);
+            node = i < typeName.length() ? node.child(typeName.charAt(i)) : null;
+        }
+        if (!any || matching != null) {
+            any |= test(unindexed, type, matching);
+        }
+        return any;
+    }
+
+    private boolean test(int @Nullable [] candidates, JavaType.Method type, @Nullable BitSet matching) {
+        if (candidates == null) {
+            return false;
+        }
+        boolean any = false;
+        for (int candidate : candidates) {
+            if (matchers.get(candidate).matches(type)) {
+                if (matching == null) {
+                    return true;
+                }
+                matching.set(candidate);
+                any = true;
+            }
+        }
+        return any;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] both = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, both, a.length, b.length);
+        return both;
+    }
+
+    private static String canonicalTypeName(String typeName) {
+        return typeName.indexOf('$') < 0 ? typeName : typeName.replace('$', '.');
+    }
+
+    private static String canonicalMethodName(String methodName) {
+        return "<init>".equals(methodName) ? "<constructor>" : methodName;
+    }
+
+    private static class TypePrefixTrie {
+        private int[] indices = NONE;
+        private @Nullable Map<Character, TypePrefixTrie> children;
+
+        void insert(String prefix, int index) {
+            TypePrefixTrie node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                if (node.children == null) {
+                    node.children = new HashMap<>();
+                }
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new TypePrefixTrie());
+            }
+            node.indices = concat(node.indices, new int[]{index});
+        }
+
+        @Nullable TypePrefixTrie child(char c) {
+            return children == null ? null : children.get(c);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.DelegatingExecutionContext;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.SourceFile;
+import org.openrewrite.java.internal.ConcurrentJavaTypeFactory;
+import org.openrewrite.java.internal.JavaTypeFactory;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Parses a source set with several Java parsers on different threads, each with its own compiler, which share
+ * one {@link ConcurrentJavaTypeFactory} so that the source files they produce share the same type instances, as
+ * those of one parser would.
+ * <p>
+ * The inputs are split into contiguous runs, one per parser, and each parser parses, attributes and maps only
+ * its own run. A type declared in another run is found by its package and file name when it is looked up, as
+ * javac finds sources on a source path, and the parser then parses and enters that input, but doesn't attribute
+ * it. So a type declared in a source file that isn't named after it resolves only in the run of that source file.
+ * When the parsers run annotation processors, like Lombok, they enter all the inputs instead, because the
+ * processors only add members to the compilation units they are given. The source files are returned in the
+ * order of the inputs.
+ * <p>
+ * The {@link org.openrewrite.tree.ParsingEventListener} and the error handler of the execution context are
+ * called from all the threads, so they must be thread-safe.
+ */
+@Incubating(since = "8.85.0")
+public class ParallelJavaParser implements JavaParser {
+    private static final ExecutorService PARSE_POOL = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "parallel-java-parser");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([\\w.\\s]+?)\\s*;", Pattern.MULTILINE);
+
+    private final List<JavaParser> parsers;
+
+    private ParallelJavaParser(List<JavaParser> parsers) {
+        this.parsers = parsers;
+    }
+
+    /**
+     * @param builder     Configures each of the parsers. Any type factory it sets is replaced by the one
+     *                    the parsers share.
+     * @param parallelism The number of parsers, and so of threads parsing at the same time.
+     */
+    public static ParallelJavaParser build(JavaParser.Builder<?, ?> builder, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("There must be at least one parser");
+        }
+        JavaTypeFactory typeFactory = new ConcurrentJavaTypeFactory();
+        List<JavaParser> parsers = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            JavaParser.Builder<?, ?> clone = builder.clone();
+            clone.typeFactory(typeFactory);
+            parsers.add(clone.build());
+        }
+        return new ParallelJavaParser(parsers);
+    }
+
+    @Override
+    public Stream<SourceFile> parseInputs(Iterable<Input> sourceFiles, @Nullable Path relativeTo, ExecutionContext ctx) {
+        List<Input> inputs = acceptedInputs(sourceFiles).collect(toList());
+        int runs = Math.min(parsers.size(), inputs.size());
+        if (runs <= 1) {
+            return parsers.get(0).parseInputs(inputs, relativeTo, ctx);
+        }
+
+        int runLength = (inputs.size() + runs - 1) / runs;
+        List<List<Input>> runInputs = new ArrayList<>(runs);
+        List<CompletableFuture<Map<String, List<Input>>>> runPackages = new ArrayList<>(runs);
+        for (int from = 0; from < inputs.size(); from += runLength) {
+            List<Input> run = inputs.subList(from, Math.min(from + runLength, inputs.size()));
+            runInputs.add(run);
+            runPackages.add(CompletableFuture.supplyAsync(() -> byPackage(run, ctx), PARSE_POOL));
+        }
+
+        List<CompletableFuture<List<SourceFile>>> parsed = new ArrayList<>(runs);
+        for (int i = 0; i < runInputs.size(); i++) {
+            Map<String, List<Input>> declaringInputs = new HashMap<>();
+            for (int other = 0; other < runPackages.size(); other++) {
+                if (other != i) {
+                    join(runPackages.get(other)).forEach((pkg, declaring) ->
+                            declaringInputs.computeIfAbsent(pkg, k -> new ArrayList<>()).addAll(declaring));
+                }
+            }
+            JavaParser p = parsers.get(i);
+            List<Input> run = runInputs.get(i);
+            ExecutionContext runCtx = new RunExecutionContext(ctx, declaringInputs);
+            parsed.add(CompletableFuture.supplyAsync(() -> p.parseInputs(run, relativeTo, runCtx).collect(toList()), PARSE_POOL));
+        }
+        return parsed.stream().flatMap(run -> join(run).stream());
+    }
+
+    /**
+     * The inputs by the package they declare. A package-info.java declares no types, so it is left out.
+     */
+    private static Map<String, List<Input>> byPackage(List<Input> inputs, ExecutionContext ctx) {
+        Map<String, List<Input>> byPackage = new HashMap<>();
+        for (Input input : inputs) {
+            if (input.getPath().getFileName().toString().equals("package-info.java")) {
+                continue;
+            }
+            Matcher packageMatcher = PACKAGE.matcher(input.getSource(ctx).readFully());
+            String pkg = packageMatcher.find() ? packageMatcher.group(1).replaceAll("\\s", "") : "";
+            byPackage.computeIfAbsent(pkg, k -> new ArrayList<>()).add(input);
+        }
+        return byPackage;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public JavaParser reset() {
+        for (JavaParser parser : parsers) {
+            parser.reset();
+        }
+        return this;
+    }
+
+    @Override
+    public JavaParser reset(Collection<URI> uris) {
+        for (JavaParser parser : parsers) {
+            parser.reset(uris);
+        }
+        return this;
+    }
+
+    @Override
+    public void setClasspath(Collection<Path> classpath) {
+        for (JavaParser parser : parsers) {
+            parser.setClasspath(classpath);
+        }
+    }
+
+    /**
+     * Tells one of the parsers which inputs the other parsers return, without affecting what the others see.
+     */
+    private static class RunExecutionContext extends DelegatingExecutionContext {
+        private final Map<String, List<Input>> declaringInputs;
+
+        RunExecutionContext(ExecutionContext delegate, Map<String, List<Input>> declaringInputs) {
+            super(delegate);
+            this.declaringInputs = declaringInputs;
+        }
+
+        @Override
+        public <T> @Nullable T getMessage(String key) {
+            if (JavaParserExecutionContextView.DECLARING_INPUTS.equals(key)) {
+                //noinspection unchecked
+                return (T) declaringInputs;
+            }
+            return super.getMessage(key);
+        }
+    }
+}
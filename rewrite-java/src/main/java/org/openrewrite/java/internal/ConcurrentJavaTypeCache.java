@@ -0,0 +1,182 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.internal.AdaptiveRadixTree;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link JavaTypeCache} that can be shared by many parsers running on different threads, so that
+ * types common to all of them (the JDK, shared libraries) are only held once.
+ * <p>
+ * Signatures are spread over a fixed number of stripes, each an {@link AdaptiveRadixTree} guarded by
+ * its own {@link StampedLock}. Lookups are optimistic and take no lock unless they overlap a write to
+ * the same stripe, which is rare once the cache is warm, so reads scale with the number of threads.
+ */
+public class ConcurrentJavaTypeCache extends JavaTypeCache {
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public ConcurrentJavaTypeCache() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param concurrencyLevel The expected number of concurrently writing threads. Rounded up to
+     *                         the next power of two to determine the number of stripes.
+     */
+    public ConcurrentJavaTypeCache(int concurrencyLevel) {
+        int size = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.mask = size - 1;
+    }
+
+    @Override
+    public <T> @Nullable T get(String signature) {
+        //noinspection unchecked
+        T result = (T) stripeFor(signature).search(getKeyBytes(signature));
+        if (result == null && base != null) {
+            return base.get(signature);
+        }
+        return result;
+    }
+
+    @Override
+    public void put(String signature, Object o) {
+        stripeFor(signature).insert(getKeyBytes(signature), o);
+    }
+
+    /**
+     * Cache the type unless one is already cached for the signature, in one step, so that of two threads
+     * caching a type for the same signature at the same time, both go on to use the same one.
+     *
+     * @return The type already cached for the signature, or the given type if there was none.
+     */
+    public <T> T putIfAbsent(String signature, T o) {
+        if (base != null) {
+            T cached = base.get(signature);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        //noinspection unchecked
+        return (T) stripeFor(signature).insertIfAbsent(getKeyBytes(signature), o);
+    }
+
+    @Override
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    @Override
+    void forEach(BiConsumer<byte[], Object> action) {
+        for (Stripe stripe : stripes) {
+            stripe.forEach(action);
+        }
+        if (base != null) {
+            base.forEach(action);
+        }
+    }
+
+    /**
+     * @return A single-threaded overlay that reads through to this cache, as {@link JavaTypeCache#clone()} does.
+     */
+    @Override
+    public JavaTypeCache clone() {
+        return JavaTypeCache.withBase(this);
+    }
+
+    private Stripe stripeFor(String signature) {
+        int h = signature.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static class Stripe {
+        private final StampedLock lock = new StampedLock();
+        private final AdaptiveRadixTree<Object> tree = new AdaptiveRadixTree<>();
+
+        @Nullable
+        Object search(byte[] key) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                try {
+                    Object result = tree.search(key);
+                    if (lock.validate(stamp)) {
+                        return result;
+                    }
+                } catch (RuntimeException | AssertionError ignored) {
+                    // a concurrent insert left the tree in a transient state, so retry under the read lock
+                }
+            }
+
+            stamp = lock.readLock();
+            try {
+                return tree.search(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void insert(byte[] key, Object value) {
+            long stamp = lock.writeLock();
+            try {
+                tree.insert(key, value);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        Object insertIfAbsent(byte[] key, Object value) {
+            long stamp = lock.writeLock();
+            try {
+                Object existing = tree.search(key);
+                if (existing != null) {
+                    return existing;
+                }
+                tree.insert(key, value);
+                return value;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void forEach(BiConsumer<byte[], Object> action) {
+            long stamp = lock.readLock();
+            try {
+                tree.forEach(action);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                tree.clear();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+}
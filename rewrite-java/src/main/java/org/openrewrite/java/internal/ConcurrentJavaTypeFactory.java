@@ -0,0 +1,205 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal;
+
+import org.openrewrite.Incubating;
+import org.openrewrite.java.tree.JavaType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A {@link JavaTypeFactory} that parsers on different threads can share, so that they map the same type to the
+ * same instance, as one parser would.
+ * <p>
+ * It works like {@link DefaultJavaTypeFactory}, except that a type with an initializer is only registered with
+ * the {@link ConcurrentJavaTypeCache} once it is initialized. While one thread initializes it, another that looks
+ * it up waits for it to be registered, and a recursive lookup on the initializing thread returns the stub being
+ * initialized, just as it does with one parser. When waiting would close a cycle, because the thread initializing
+ * the type is itself waiting, directly or through others, for one that the looking up thread initializes, the
+ * stub is returned instead, as it would be to the initializing thread. It is fully initialized by the time the
+ * threads in the cycle are done with the types they are initializing.
+ */
+@Incubating(since = "8.85.0")
+public class ConcurrentJavaTypeFactory implements JavaTypeFactory {
+    private final ConcurrentJavaTypeCache cache;
+
+    /**
+     * Keys to the initializations in progress.
+     */
+    private final Map<String, Initialization> initializations = new ConcurrentHashMap<>();
+
+    /**
+     * Threads to the initialization on another thread that they are waiting for, to tell when waiting would
+     * close a cycle.
+     */
+    private final Map<Thread, Initialization> waiting = new HashMap<>();
+
+    public ConcurrentJavaTypeFactory() {
+        this(new ConcurrentJavaTypeCache());
+    }
+
+    public ConcurrentJavaTypeFactory(ConcurrentJavaTypeCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public JavaType.Class computeClass(String fqn, long flags,
+                                       JavaType.FullyQualified.Kind kind,
+                                       Consumer<JavaType.Class> initializer) {
+        JavaType.Class cached = cache.get(fqn);
+        if (cached != null) {
+            return cached;
+        }
+        JavaType.Class stub = new JavaType.Class(
+                null, flags, fqn, kind,
+                null, null, null, null, null, null, null);
+        return initializeOnce(fqn, stub, initializer);
+    }
+
+    @Override
+    public JavaType.Parameterized computeParameterized(String signature,
+                                                       Consumer<JavaType.Parameterized> initializer) {
+        JavaType.Parameterized cached = cache.get(signature);
+        if (cached != null) {
+            return cached;
+        }
+        return initializeOnce(signature, new JavaType.Parameterized(null, null, null), initializer);
+    }
+
+    @Override
+    public JavaType.GenericTypeVariable computeGenericTypeVariable(
+            String signature, String name,
+            JavaType.GenericTypeVariable.Variance variance,
+            Consumer<JavaType.GenericTypeVariable> initializer) {
+        JavaType.GenericTypeVariable cached = cache.get(signature);
+        if (cached != null) {
+            return cached;
+        }
+        return initializeOnce(signature, new JavaType.GenericTypeVariable(null, name, variance, null), initializer);
+    }
+
+    @Override
+    public JavaType.Method methodFor(String signature, Supplier<JavaType.Method> stub,
+                                     Consumer<JavaType.Method> initializer) {
+        JavaType.Method cached = cache.get(signature);
+        if (cached != null) {
+            return cached;
+        }
+        return initializeOnce(signature, stub.get(), initializer);
+    }
+
+    @Override
+    public JavaType.Variable variableFor(String signature, Supplier<JavaType.Variable> builder) {
+        JavaType.Variable cached = cache.get(signature);
+        return cached != null ? cached : cache.putIfAbsent(signature, builder.get());
+    }
+
+    @Override
+    public JavaType.Array arrayFor(String signature, Supplier<JavaType.Array> builder) {
+        JavaType.Array cached = cache.get(signature);
+        return cached != null ? cached : cache.putIfAbsent(signature, builder.get());
+    }
+
+    @Override
+    public JavaType.Intersection intersectionFor(String signature,
+                                                 Supplier<JavaType.Intersection> builder) {
+        JavaType.Intersection cached = cache.get(signature);
+        return cached != null ? cached : cache.putIfAbsent(signature, builder.get());
+    }
+
+    /**
+     * Initialize the stub and register it, unless another thread registers one for the key first. While a thread
+     * is initializing a stub, other threads wait for it to be registered rather than start their own.
+     */
+    private <T> T initializeOnce(String key, T stub, Consumer<T> initializer) {
+        Initialization mine = new Initialization(stub);
+        while (true) {
+            Initialization initializing = initializations.putIfAbsent(key, mine);
+            if (initializing == null) {
+                try {
+                    T registered = cache.get(key);
+                    if (registered != null) {
+                        return registered;
+                    }
+                    initializer.accept(stub);
+                    return cache.putIfAbsent(key, stub);
+                } finally {
+                    initializations.remove(key);
+                    mine.done.countDown();
+                }
+            }
+            if (!awaitUnlessCycle(initializing)) {
+                //noinspection unchecked
+                return (T) initializing.stub;
+            }
+            T registered = cache.get(key);
+            if (registered != null) {
+                return registered;
+            }
+            // the initializing thread failed, so try to initialize it on this one
+        }
+    }
+
+    /**
+     * Wait for another initialization to finish, unless it is this thread's own or waiting would deadlock.
+     *
+     * @return Whether this thread waited for the initialization to finish.
+     */
+    private boolean awaitUnlessCycle(Initialization initializing) {
+        Thread current = Thread.currentThread();
+        synchronized (waiting) {
+            for (Initialization next = initializing; next != null; next = waiting.get(next.thread)) {
+                if (next.thread == current) {
+                    return false;
+                }
+            }
+            waiting.put(current, initializing);
+        }
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    initializing.done.await();
+                    return true;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            synchronized (waiting) {
+                waiting.remove(current);
+            }
+            if (interrupted) {
+                current.interrupt();
+            }
+        }
+    }
+
+    private static class Initialization {
+        final Thread thread = Thread.currentThread();
+        final Object stub;
+        final CountDownLatch done = new CountDownLatch(1);
+
+        Initialization(Object stub) {
+            this.stub = stub;
+        }
+    }
+}
@@ -20,6 +20,7 @@
 
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
 
 public class JavaTypeCache implements Cloneable {
 
@@ -45,6 +46,17 @@ public void clear() {
         // base is intentionally NOT cleared — it may be shared
     }
 
+    /**
+     * Visit the key bytes and value of every cached signature, followed by those of the base.
+     * A signature that is cached in both is visited twice.
+     */
+    void forEach(BiConsumer<byte[], Object> action) {
+        typeCache.forEach(action);
+        if (base != null) {
+            base.forEach(action);
+        }
+    }
+
     @Override
     public JavaTypeCache clone() {
         try {
@@ -0,0 +1,805 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.java.tree.JavaType;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * A {@link JavaTypeCache} backed by a memory-mapped binary image of a populated cache.
+ * <p>
+ * A cache that was populated once, for example by parsing against the JDK and common dependencies, is
+ * frozen with {@link #write(JavaTypeCache, Path)}. Later processes {@link #open(Path) open} the image
+ * and use it as the read-through base of their own cache with {@link JavaTypeCache#withBase(JavaTypeCache)}.
+ * The image is paged in by the operating system and shared between processes mapping the same file, and
+ * types are only decoded onto the heap when they are first looked up.
+ * <p>
+ * The image holds every type reachable from the cached values exactly once, with references between types
+ * stored as indexes, so identity between types is preserved within a snapshot. Only signatures made of ASCII
+ * characters are included, so images do not depend on how {@link JavaTypeCache} encodes keys in the writing
+ * or the reading process.
+ * <p>
+ * The image itself is never changed. Types put into a snapshot, as a parser using it as its cache does, are kept
+ * on the heap in front of the image, the same as in a cache made with {@link JavaTypeCache#withBase(JavaTypeCache)}.
+ */
+public class JavaTypeCacheSnapshot extends JavaTypeCache {
+    private static final int MAGIC = 0x52575443; // "RWTC"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 20;
+    private static final int ENTRY_SIZE = 12;
+
+    private static final byte CLASS = 0;
+    private static final byte SHALLOW_CLASS = 1;
+    private static final byte PARAMETERIZED = 2;
+    private static final byte GENERIC_TYPE_VARIABLE = 3;
+    private static final byte ARRAY = 4;
+    private static final byte PRIMITIVE = 5;
+    private static final byte METHOD = 6;
+    private static final byte VARIABLE = 7;
+    private static final byte ANNOTATION = 8;
+    private static final byte MULTI_CATCH = 9;
+    private static final byte INTERSECTION = 10;
+    private static final byte UNKNOWN = 11;
+
+    private static final byte SINGLE_ELEMENT_VALUE = 0;
+    private static final byte ARRAY_ELEMENT_VALUE = 1;
+
+    private final ByteBuffer buffer;
+    private final int entryCount;
+    private final int typeTable;
+    private final int stringTable;
+
+    /**
+     * Fully decoded types by index. Types are only published here once everything they reference has been
+     * decoded too, so they can be read without holding a lock.
+     */
+    private final AtomicReferenceArray<JavaType> types;
+
+    /**
+     * Only accessed while decoding, which holds the lock on this snapshot.
+     */
+    private final @Nullable String[] strings;
+
+    /**
+     * Types put into this snapshot after it was opened, created on the first put.
+     */
+    private @Nullable JavaTypeCache overlay;
+
+    private JavaTypeCacheSnapshot(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a type cache snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported type cache snapshot version " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.entryCount = buffer.getInt(8);
+        int typeCount = buffer.getInt(12);
+        this.typeTable = HEADER_SIZE + entryCount * ENTRY_SIZE;
+        this.stringTable = typeTable + typeCount * 4;
+        this.types = new AtomicReferenceArray<>(typeCount);
+        this.strings = new String[buffer.getInt(16)];
+    }
+
+    /**
+     * Map a snapshot image read-only into memory.
+     */
+    public static JavaTypeCacheSnapshot open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Type cache snapshot " + file + " is larger than 2GB");
+            }
+            return new JavaTypeCacheSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Freeze the types held by a cache, including those of its base, to a snapshot image. The image is
+     * written to a temporary file that is then moved in place, so processes opening the same path never
+     * map a partially written image.
+     */
+    public static void write(JavaTypeCache cache, Path file) {
+        SortedMap<byte[], JavaType> entries = new TreeMap<>(JavaTypeCacheSnapshot::compareUnsigned);
+        cache.forEach((key, value) -> {
+            if (value instanceof JavaType && isAscii(key)) {
+                // the first visited wins, since an overlay is visited before its base
+                entries.putIfAbsent(key, (JavaType) value);
+            }
+        });
+
+        try {
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                    new Writer().write(entries, new DataOutputStream(out));
+                }
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The number of signatures in the image of this snapshot.
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    @Override
+    public <T> @Nullable T get(String signature) {
+        if (overlay != null) {
+            T put = overlay.get(signature);
+            if (put != null) {
+                return put;
+            }
+        }
+        byte[] key = getKeyBytes(signature);
+        int lo = 0;
+        int hi = entryCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compareKey(mid, key);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                //noinspection unchecked
+                return (T) type(buffer.getInt(HEADER_SIZE + mid * ENTRY_SIZE + 8));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Put a type in front of the image, which is left unchanged.
+     */
+    @Override
+    public void put(String signature, Object o) {
+        if (overlay == null) {
+            overlay = new JavaTypeCache();
+        }
+        overlay.put(signature, o);
+    }
+
+    /**
+     * Forget the types put into this snapshot. Those of the image remain.
+     */
+    @Override
+    public void clear() {
+        overlay = null;
+    }
+
+    @Override
+    void forEach(BiConsumer<byte[], Object> action) {
+        if (overlay != null) {
+            overlay.forEach(action);
+        }
+        for (int i = 0; i < entryCount; i++) {
+            int entry = HEADER_SIZE + i * ENTRY_SIZE;
+            byte[] key = new byte[buffer.getInt(entry + 4)];
+            for (int j = 0; j < key.length; j++) {
+                key[j] = buffer.get(buffer.getInt(entry) + j);
+            }
+            action.accept(key, Objects.requireNonNull(type(buffer.getInt(entry + 8))));
+        }
+    }
+
+    /**
+     * @return A writable overlay that reads through to this snapshot.
+     */
+    @Override
+    public JavaTypeCache clone() {
+        return JavaTypeCache.withBase(this);
+    }
+
+    private int compareKey(int entry, byte[] key) {
+        int offset = buffer.getInt(HEADER_SIZE + entry * ENTRY_SIZE);
+        int length = buffer.getInt(HEADER_SIZE + entry * ENTRY_SIZE + 4);
+        for (int i = 0; i < Math.min(length, key.length); i++) {
+            int cmp = (buffer.get(offset + i) & 0xFF) - (key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - key.length;
+    }
+
+    private @Nullable JavaType type(int id) {
+        if (id < 0) {
+            return null;
+        }
+        JavaType type = types.get(id);
+        if (type != null) {
+            return type;
+        }
+        synchronized (this) {
+            return new Decoding().decode(id);
+        }
+    }
+
+    private static boolean isAscii(byte[] key) {
+        for (byte b : key) {
+            // also excludes the NUL suffix of keys for strings that are not Latin-1
+            if (b <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compareUnsigned(byte[] a, byte[] b) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            int cmp = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * Decodes one type and everything it references. Referenced types are first created empty, so that
+     * cycles between types can be wired up, and then filled in from a work list, so the depth of the
+     * type graph is bounded by heap rather than the JVM stack.
+     */
+    private class Decoding {
+        final Map<Integer, JavaType> pending = new HashMap<>();
+        final Deque<Integer> unfilled = new ArrayDeque<>();
+
+        @Nullable
+        JavaType decode(int id) {
+            JavaType type = resolve(id);
+            while (!unfilled.isEmpty()) {
+                int next = unfilled.pop();
+                fill(next, pending.get(next));
+            }
+            for (Map.Entry<Integer, JavaType> decoded : pending.entrySet()) {
+                types.set(decoded.getKey(), decoded.getValue());
+            }
+            return type;
+        }
+
+        @Nullable
+        JavaType resolve(int id) {
+            if (id < 0) {
+                return null;
+            }
+            JavaType type = types.get(id);
+            if (type == null) {
+                type = pending.get(id);
+            }
+            if (type == null) {
+                type = create(id);
+                pending.put(id, type);
+                if (!(type instanceof JavaType.Primitive) && !(type instanceof JavaType.Unknown)) {
+                    unfilled.push(id);
+                }
+            }
+            return type;
+        }
+
+        JavaType create(int id) {
+            int offset = buffer.getInt(typeTable + id * 4);
+            byte tag = buffer.get(offset);
+            switch (tag) {
+                case CLASS:
+                    return new JavaType.Class(null, 0L, "", JavaType.FullyQualified.Kind.Class,
+                            (List<JavaType>) null, null, null, null, null, null, null);
+                case SHALLOW_CLASS:
+                    return new JavaType.ShallowClass(null, 0L, "", JavaType.FullyQualified.Kind.Class,
+                            null, null, null, null, null, null, null);
+                case PARAMETERIZED:
+                    return new JavaType.Parameterized(null, null, (List<JavaType>) null);
+                case GENERIC_TYPE_VARIABLE:
+                    return new JavaType.GenericTypeVariable(null, "", JavaType.GenericTypeVariable.Variance.INVARIANT,
+                            (List<JavaType>) null);
+                case ARRAY:
+                    return new JavaType.Array(null, null, (JavaType.FullyQualified[]) null);
+                case PRIMITIVE:
+                    return JavaType.Primitive.values()[buffer.get(offset + 1)];
+                case METHOD:
+                    return new JavaType.Method(null, 0L, null, "", null, (List<String>) null,
+                            null, null, null, null, null);
+                case VARIABLE:
+                    // a variable's flags can only be set on construction
+                    return new JavaType.Variable(null, buffer.getLong(offset + 1), "", null, null,
+                            (List<JavaType.FullyQualified>) null);
+                case ANNOTATION:
+                    return new JavaType.Annotation(JavaType.Unknown.getInstance(), emptyList());
+                case MULTI_CATCH:
+                    return new JavaType.MultiCatch((List<JavaType>) null);
+                case INTERSECTION:
+                    return new JavaType.Intersection((List<JavaType>) null);
+                case UNKNOWN:
+                    return JavaType.Unknown.getInstance();
+                default:
+                    throw new IllegalStateException("Unknown type tag " + tag + " in type cache snapshot");
+            }
+        }
+
+        void fill(int id, JavaType type) {
+            Record r = new Record(buffer.getInt(typeTable + id * 4) + 1);
+            if (type instanceof JavaType.ShallowClass) {
+                long flags = r.readLong();
+                JavaType.FullyQualified.Kind kind = JavaType.FullyQualified.Kind.values()[r.readByte()];
+                String fqn = r.readString();
+                ((JavaType.ShallowClass) type).unsafeSet(flags, kind, Objects.requireNonNull(fqn), null,
+                        null, (JavaType.FullyQualified) r.readRef(), null, null, null, null);
+            } else if (type instanceof JavaType.Class) {
+                long flags = r.readLong();
+                JavaType.FullyQualified.Kind kind = JavaType.FullyQualified.Kind.values()[r.readByte()];
+                String fqn = Objects.requireNonNull(r.readString());
+                JavaType[] typeParameters = r.readRefs(JavaType[]::new);
+                JavaType.FullyQualified supertype = (JavaType.FullyQualified) r.readRef();
+                JavaType.FullyQualified owningClass = (JavaType.FullyQualified) r.readRef();
+                JavaType.FullyQualified[] annotations = r.readRefs(JavaType.FullyQualified[]::new);
+                JavaType.FullyQualified[] interfaces = r.readRefs(JavaType.FullyQualified[]::new);
+                JavaType.Variable[] members = r.readRefs(JavaType.Variable[]::new);
+                JavaType.Method[] methods = r.readRefs(JavaType.Method[]::new);
+                ((JavaType.Class) type).unsafeSet(flags, kind, fqn, Arrays.asList(typeParameters), supertype, owningClass,
+                        Arrays.asList(annotations), Arrays.asList(interfaces), Arrays.asList(members), Arrays.asList(methods));
+            } else if (type instanceof JavaType.Parameterized) {
+                JavaType.FullyQualified fq = (JavaType.FullyQualified) r.readRef();
+                ((JavaType.Parameterized) type).unsafeSet(fq, r.readRefs(JavaType[]::new));
+            } else if (type instanceof JavaType.GenericTypeVariable) {
+                String name = Objects.requireNonNull(r.readString());
+                JavaType.GenericTypeVariable.Variance variance = JavaType.GenericTypeVariable.Variance.values()[r.readByte()];
+                ((JavaType.GenericTypeVariable) type).unsafeSet(name, variance, r.readRefs(JavaType[]::new));
+            } else if (type instanceof JavaType.Array) {
+                JavaType elemType = Objects.requireNonNull(r.readRef());
+                ((JavaType.Array) type).unsafeSet(elemType, r.readRefs(JavaType.FullyQualified[]::new));
+            } else if (type instanceof JavaType.Method) {
+                long flags = r.readLong();
+                JavaType.FullyQualified declaringType = (JavaType.FullyQualified) r.readRef();
+                String name = Objects.requireNonNull(r.readString());
+                JavaType returnType = r.readRef();
+                String[] parameterNames = r.readStrings();
+                JavaType[] parameterTypes = r.readRefs(JavaType[]::new);
+                JavaType[] thrownExceptions = r.readRefs(JavaType[]::new);
+                JavaType.FullyQualified[] annotations = r.readRefs(JavaType.FullyQualified[]::new);
+                String[] defaultValue = r.readStrings();
+                String[] declaredFormalTypeNames = r.readStrings();
+                ((JavaType.Method) type).unsafeSet(name, flags, declaringType, returnType, parameterNames,
+                        parameterTypes, thrownExceptions, annotations,
+                        defaultValue == null ? null : Arrays.asList(defaultValue), declaredFormalTypeNames);
+            } else if (type instanceof JavaType.Variable) {
+                r.readLong(); // the flags were set on creation
+                String name = Objects.requireNonNull(r.readString());
+                JavaType owner = r.readRef();
+                JavaType varType = r.readRef();
+                //noinspection DataFlowIssue
+                ((JavaType.Variable) type).unsafeSet(name, owner, varType, r.readRefs(JavaType.FullyQualified[]::new));
+            } else if (type instanceof JavaType.Annotation) {
+                JavaType.FullyQualified annotationType = (JavaType.FullyQualified) Objects.requireNonNull(r.readRef());
+                int count = r.readInt();
+                JavaType.Annotation.ElementValue[] values = new JavaType.Annotation.ElementValue[count];
+                for (int i = 0; i < count; i++) {
+                    byte kind = r.readByte();
+                    JavaType element = Objects.requireNonNull(r.readRef());
+                    if (kind == SINGLE_ELEMENT_VALUE) {
+                        values[i] = new JavaType.Annotation.SingleElementValue(element, r.readConstant(), r.readRef());
+                    } else {
+                        Object[] constantValues = null;
+                        int constantCount = r.readInt();
+                        if (constantCount >= 0) {
+                            constantValues = new Object[constantCount];
+                            for (int j = 0; j < constantCount; j++) {
+                                constantValues[j] = r.readConstant();
+                            }
+                        }
+                        JavaType[] referenceValues = null;
+                        int referenceCount = r.readInt();
+                        if (referenceCount >= 0) {
+                            referenceValues = new JavaType[referenceCount];
+                            for (int j = 0; j < referenceCount; j++) {
+                                referenceValues[j] = r.readRef();
+                            }
+                        }
+                        values[i] = new JavaType.Annotation.ArrayElementValue(element, constantValues, referenceValues);
+                    }
+                }
+                ((JavaType.Annotation) type).unsafeSet(annotationType, values);
+            } else if (type instanceof JavaType.MultiCatch) {
+                JavaType[] throwableTypes = r.readRefs(JavaType[]::new);
+                ((JavaType.MultiCatch) type).unsafeSet(throwableTypes);
+            } else if (type instanceof JavaType.Intersection) {
+                JavaType[] bounds = r.readRefs(JavaType[]::new);
+                ((JavaType.Intersection) type).unsafeSet(bounds);
+            }
+        }
+
+        /**
+         * A position in the record of one type.
+         */
+        private class Record {
+            int position;
+
+            Record(int position) {
+                this.position = position;
+            }
+
+            byte readByte() {
+                return buffer.get(position++);
+            }
+
+            int readInt() {
+                int i = buffer.getInt(position);
+                position += 4;
+                return i;
+            }
+
+            long readLong() {
+                long l = buffer.getLong(position);
+                position += 8;
+                return l;
+            }
+
+            @Nullable
+            JavaType readRef() {
+                return resolve(readInt());
+            }
+
+            <T extends JavaType> T[] readRefs(IntFunction<T[]> newArray) {
+                int count = readInt();
+                T[] refs = newArray.apply(count);
+                for (int i = 0; i < count; i++) {
+                    //noinspection unchecked
+                    refs[i] = (T) resolve(readInt());
+                }
+                return refs;
+            }
+
+            @Nullable
+            String readString() {
+                int id = readInt();
+                if (id < 0) {
+                    return null;
+                }
+                String s = strings[id];
+                if (s == null) {
+                    int offset = buffer.getInt(stringTable + id * 4);
+                    byte[] bytes = new byte[buffer.getInt(offset)];
+                    for (int i = 0; i < bytes.length; i++) {
+                        bytes[i] = buffer.get(offset + 4 + i);
+                    }
+                    s = new String(bytes, StandardCharsets.UTF_8);
+                    strings[id] = s;
+                }
+                return s;
+            }
+
+            String @Nullable [] readStrings() {
+                int count = readInt();
+                if (count < 0) {
+                    return null;
+                }
+                String[] s = new String[count];
+                for (int i = 0; i < count; i++) {
+                    s[i] = readString();
+                }
+                return s;
+            }
+
+            @Nullable
+            Object readConstant() {
+                byte tag = readByte();
+                switch (tag) {
+                    case 0:
+                        return null;
+                    case 1:
+                        return readString();
+                    case 2:
+                        return readInt();
+                    case 3:
+                        return readLong();
+                    case 4:
+                        return readByte() != 0;
+                    case 5:
+                        return (char) readInt();
+                    case 6:
+                        return Double.longBitsToDouble(readLong());
+                    case 7:
+                        return Float.intBitsToFloat(readInt());
+                    case 8:
+                        return (short) readInt();
+                    case 9:
+                        return readByte();
+                    default:
+                        throw new IllegalStateException("Unknown constant tag " + tag + " in type cache snapshot");
+                }
+            }
+        }
+    }
+
+    private static class Writer {
+        final Map<JavaType, Integer> typeIds = new IdentityHashMap<>();
+        final List<JavaType> types = new ArrayList<>();
+        final Map<String, Integer> stringIds = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+
+        void write(SortedMap<byte[], JavaType> entries, DataOutputStream out) throws IOException {
+            int[] entryTypes = new int[entries.size()];
+            int i = 0;
+            for (JavaType type : entries.values()) {
+                entryTypes[i++] = ref(type);
+            }
+
+            // encoding a type assigns indexes to the types it references, which are encoded in turn
+            ByteArrayOutputStream records = new ByteArrayOutputStream();
+            DataOutputStream recordsOut = new DataOutputStream(records);
+            List<Integer> typeOffsets = new ArrayList<>();
+            for (int t = 0; t < types.size(); t++) {
+                typeOffsets.add(recordsOut.size());
+                writeType(types.get(t), recordsOut);
+            }
+
+            ByteArrayOutputStream stringRecords = new ByteArrayOutputStream();
+            DataOutputStream stringsOut = new DataOutputStream(stringRecords);
+            int[] stringOffsets = new int[strings.size()];
+            for (int s = 0; s < strings.size(); s++) {
+                stringOffsets[s] = stringsOut.size();
+                byte[] bytes = strings.get(s).getBytes(StandardCharsets.UTF_8);
+                stringsOut.writeInt(bytes.length);
+                stringsOut.write(bytes);
+            }
+
+            long keysSize = 0;
+            for (byte[] key : entries.keySet()) {
+                keysSize += key.length;
+            }
+            long keysStart = HEADER_SIZE + (long) entries.size() * ENTRY_SIZE + types.size() * 4L + strings.size() * 4L;
+            long recordsStart = keysStart + keysSize;
+            long stringsStart = recordsStart + records.size();
+            if (stringsStart + stringRecords.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Type cache snapshot would be larger than 2GB");
+            }
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            out.writeInt(types.size());
+            out.writeInt(strings.size());
+
+            long keyOffset = keysStart;
+            i = 0;
+            for (byte[] key : entries.keySet()) {
+                out.writeInt((int) keyOffset);
+                out.writeInt(key.length);
+                out.writeInt(entryTypes[i++]);
+                keyOffset += key.length;
+            }
+            for (int typeOffset : typeOffsets) {
+                out.writeInt((int) (recordsStart + typeOffset));
+            }
+            for (int stringOffset : stringOffsets) {
+                out.writeInt((int) (stringsStart + stringOffset));
+            }
+            for (byte[] key : entries.keySet()) {
+                out.write(key);
+            }
+            records.writeTo(out);
+            stringRecords.writeTo(out);
+        }
+
+        int ref(@Nullable JavaType type) {
+            if (type == null) {
+                return -1;
+            }
+            Integer id = typeIds.get(type);
+            if (id == null) {
+                id = types.size();
+                typeIds.put(type, id);
+                types.add(type);
+            }
+            return id;
+        }
+
+        int string(@Nullable String s) {
+            if (s == null) {
+                return -1;
+            }
+            Integer id = stringIds.get(s);
+            if (id == null) {
+                id = strings.size();
+                stringIds.put(s, id);
+                strings.add(s);
+            }
+            return id;
+        }
+
+        void writeType(JavaType type, DataOutputStream out) throws IOException {
+            if (type instanceof JavaType.ShallowClass) {
+                JavaType.ShallowClass shallowClass = (JavaType.ShallowClass) type;
+                out.writeByte(SHALLOW_CLASS);
+                out.writeLong(shallowClass.getFlagsBitMap());
+                out.writeByte(shallowClass.getKind().ordinal());
+                out.writeInt(string(shallowClass.getFullyQualifiedName()));
+                out.writeInt(ref(shallowClass.getOwningClass()));
+            } else if (type instanceof JavaType.Class) {
+                JavaType.Class aClass = (JavaType.Class) type;
+                out.writeByte(CLASS);
+                out.writeLong(aClass.getFlagsBitMap());
+                out.writeByte(aClass.getKind().ordinal());
+                out.writeInt(string(aClass.getFullyQualifiedName()));
+                writeRefs(aClass.getTypeParameters(), out);
+                out.writeInt(ref(aClass.getSupertype()));
+                out.writeInt(ref(aClass.getOwningClass()));
+                writeRefs(aClass.getAnnotations(), out);
+                writeRefs(aClass.getInterfaces(), out);
+                writeRefs(aClass.getMembers(), out);
+                writeRefs(aClass.getMethods(), out);
+            } else if (type instanceof JavaType.Parameterized) {
+                JavaType.Parameterized parameterized = (JavaType.Parameterized) type;
+                out.writeByte(PARAMETERIZED);
+                out.writeInt(ref(parameterized.getType()));
+                writeRefs(parameterized.getTypeParameters(), out);
+            } else if (type instanceof JavaType.GenericTypeVariable) {
+                JavaType.GenericTypeVariable generic = (JavaType.GenericTypeVariable) type;
+                out.writeByte(GENERIC_TYPE_VARIABLE);
+                out.writeInt(string(generic.getName()));
+                out.writeByte(generic.getVariance().ordinal());
+                writeRefs(generic.getBounds(), out);
+            } else if (type instanceof JavaType.Array) {
+                JavaType.Array array = (JavaType.Array) type;
+                out.writeByte(ARRAY);
+                out.writeInt(ref(array.getElemType()));
+                writeRefs(array.getAnnotations(), out);
+            } else if (type instanceof JavaType.Primitive) {
+                out.writeByte(PRIMITIVE);
+                out.writeByte(((JavaType.Primitive) type).ordinal());
+            } else if (type instanceof JavaType.Method) {
+                JavaType.Method method = (JavaType.Method) type;
+                out.writeByte(METHOD);
+                out.writeLong(method.getFlagsBitMap());
+                out.writeInt(ref(method.getDeclaringType()));
+                out.writeInt(string(method.getName()));
+                out.writeInt(ref(method.getReturnType()));
+                writeStrings(method.getParameterNames(), out);
+                writeRefs(method.getParameterTypes(), out);
+                writeRefs(method.getThrownExceptions(), out);
+                writeRefs(method.getAnnotations(), out);
+                writeStrings(method.getDefaultValue(), out);
+                writeStrings(method.getDeclaredFormalTypeNames(), out);
+            } else if (type instanceof JavaType.Variable) {
+                JavaType.Variable variable = (JavaType.Variable) type;
+                out.writeByte(VARIABLE);
+                out.writeLong(variable.getFlagsBitMap());
+                out.writeInt(string(variable.getName()));
+                out.writeInt(ref(variable.getOwner()));
+                out.writeInt(ref(variable.getType()));
+                writeRefs(variable.getAnnotations(), out);
+            } else if (type instanceof JavaType.Annotation) {
+                JavaType.Annotation annotation = (JavaType.Annotation) type;
+                out.writeByte(ANNOTATION);
+                out.writeInt(ref(annotation.getType()));
+                out.writeInt(annotation.getValues().size());
+                for (JavaType.Annotation.ElementValue value : annotation.getValues()) {
+                    if (value instanceof JavaType.Annotation.SingleElementValue) {
+                        JavaType.Annotation.SingleElementValue single = (JavaType.Annotation.SingleElementValue) value;
+                        out.writeByte(SINGLE_ELEMENT_VALUE);
+                        out.writeInt(ref(single.getElement()));
+                        writeConstant(single.getConstantValue(), out);
+                        out.writeInt(ref(single.getReferenceValue()));
+                    } else {
+                        JavaType.Annotation.ArrayElementValue array = (JavaType.Annotation.ArrayElementValue) value;
+                        out.writeByte(ARRAY_ELEMENT_VALUE);
+                        out.writeInt(ref(array.getElement()));
+                        Object[] constantValues = array.getConstantValues();
+                        out.writeInt(constantValues == null ? -1 : constantValues.length);
+                        if (constantValues != null) {
+                            for (Object constantValue : constantValues) {
+                                writeConstant(constantValue, out);
+                            }
+                        }
+                        JavaType[] referenceValues = array.getReferenceValues();
+                        out.writeInt(referenceValues == null ? -1 : referenceValues.length);
+                        if (referenceValues != null) {
+                            for (JavaType referenceValue : referenceValues) {
+                                out.writeInt(ref(referenceValue));
+                            }
+                        }
+                    }
+                }
+            } else if (type instanceof JavaType.MultiCatch) {
+                out.writeByte(MULTI_CATCH);
+                writeRefs(((JavaType.MultiCatch) type).getThrowableTypes(), out);
+            } else if (type instanceof JavaType.Intersection) {
+                out.writeByte(INTERSECTION);
+                writeRefs(((JavaType.Intersection) type).getBounds(), out);
+            } else if (type instanceof JavaType.Unknown) {
+                out.writeByte(UNKNOWN);
+            } else {
+                throw new IllegalArgumentException("Unsupported type " + type.getClass().getName() + " in type cache snapshot");
+            }
+        }
+
+        void writeRefs(List<? extends JavaType> refs, DataOutputStream out) throws IOException {
+            out.writeInt(refs.size());
+            for (JavaType ref : refs) {
+                out.writeInt(ref(ref));
+            }
+        }
+
+        void writeStrings(@Nullable List<String> strings, DataOutputStream out) throws IOException {
+            if (strings == null) {
+                // distinct from an empty list, e.g. the default value of an annotation attribute that defaults to {}
+                out.writeInt(-1);
+                return;
+            }
+            out.writeInt(strings.size());
+            for (String s : strings) {
+                out.writeInt(string(s));
+            }
+        }
+
+        void writeConstant(@Nullable Object constant, DataOutputStream out) throws IOException {
+            if (constant == null) {
+                out.writeByte(0);
+            } else if (constant instanceof String) {
+                out.writeByte(1);
+                out.writeInt(string((String) constant));
+            } else if (constant instanceof Integer) {
+                out.writeByte(2);
+                out.writeInt((Integer) constant);
+            } else if (constant instanceof Long) {
+                out.writeByte(3);
+                out.writeLong((Long) constant);
+            } else if (constant instanceof Boolean) {
+                out.writeByte(4);
+                out.writeByte((Boolean) constant ? 1 : 0);
+            } else if (constant instanceof Character) {
+                out.writeByte(5);
+                out.writeInt((Character) constant);
+            } else if (constant instanceof Double) {
+                out.writeByte(6);
+                out.writeLong(Double.doubleToRawLongBits((Double) constant));
+            } else if (constant instanceof Float) {
+                out.writeByte(7);
+                out.writeInt(Float.floatToRawIntBits((Float) constant));
+            } else if (constant instanceof Short) {
+                out.writeByte(8);
+                out.writeInt((Short) constant);
+            } else if (constant instanceof Byte) {
+                out.writeByte(9);
+                out.writeByte((Byte) constant);
+            } else {
+                throw new IllegalArgumentException("Unsupported annotation constant " + constant.getClass().getName() + " in type cache snapshot");
+            }
+        }
+    }
+}
@@ -191,33 +191,53 @@ private FqnTrie getOrBuildTrie() {
         return getOrBuildTrie(false);
     }
 
+    /**
+     * Every fully qualified name {@link #hasType} can be {@code true} for when implicit uses are included,
+     * in raw form ({@code $} preserved in inner-class names). Not cached, as it is meant for callers that
+     * index many compilation units at once.
+     */
+    public Set<String> getReachableTypeNames() {
+        Set<String> names = new HashSet<>();
+        FqnSink sink = (fqn, explicit) -> names.add(fqn);
+        Set<String> visited = new HashSet<>();
+        walkExplicit(sink, visited);
+        walkImplicit(sink, visited);
+        return names;
+    }
+
     private FqnTrie buildExplicitTrie() {
         FqnTrie t = new FqnTrie();
-        Set<String> visited = new HashSet<>();
+        walkExplicit(t, new HashSet<>());
+        return t;
+    }
+
+    private void walkExplicit(FqnSink sink, Set<String> visited) {
         for (JavaType type : typesInUse) {
             JavaType checkType = type instanceof JavaType.Primitive ? type : TypeUtils.asFullyQualified(type);
-            walkAssignableTo(checkType, t, true, visited);
+            walkAssignableTo(checkType, sink, true, visited);
         }
         for (J.Import anImport : cu.getImports()) {
             JavaType target = anImport.isStatic()
                     ? anImport.getQualid().getTarget().getType()
                     : anImport.getQualid().getType();
-            walkAssignableTo(TypeUtils.asFullyQualified(target), t, true, visited);
+            walkAssignableTo(TypeUtils.asFullyQualified(target), sink, true, visited);
         }
-        return t;
     }
 
     private synchronized void populateImplicitPass(FqnTrie t) {
         if (implicitPopulated) return;
-        Set<String> visited = new HashSet<>();
+        walkImplicit(t, new HashSet<>());
+        implicitPopulated = true;
+    }
+
+    private void walkImplicit(FqnSink sink, Set<String> visited) {
         for (JavaType.Method method : usedMethods) {
-            walkAssignableTo(method.getDeclaringType(), t, false, visited);
-            walkAssignableTo(method.getReturnType(), t, false, visited);
+            walkAssignableTo(method.getDeclaringType(), sink, false, visited);
+            walkAssignableTo(method.getReturnType(), sink, false, visited);
             for (JavaType pt : method.getParameterTypes()) {
-                walkAssignableTo(pt, t, false, visited);
+                walkAssignableTo(pt, sink, false, visited);
             }
         }
-        implicitPopulated = true;
     }
 
     /**
@@ -228,7 +248,7 @@ private synchronized void populateImplicitPass(FqnTrie t) {
      * {@code .} or {@code $} form land on the same node. Mirrors the cases in
      * {@link TypeUtils#isAssignableTo(String, JavaType)}.
      */
-    private static void walkAssignableTo(@Nullable JavaType from, FqnTrie trie, boolean explicit, Set<String> visited) {
+    private static void walkAssignableTo(@Nullable JavaType from, FqnSink trie, boolean explicit, Set<String> visited) {
         if (from == null) {
             return;
         }
@@ -298,7 +318,11 @@ private static void walkAssignableTo(@Nullable JavaType from, FqnTrie trie, bool
      * plus a descendant-explicit/-implicit rollup that propagates only on the raw insertion path,
      * so {@code com.foo..*} queries don't get false positives from canonical alias paths.
      */
-    private static final class FqnTrie {
+    private interface FqnSink {
+        void insert(String fqn, boolean explicit);
+    }
+
+    private static final class FqnTrie implements FqnSink {
         // Bit flags packed into a single byte on each Node, replacing six boolean fields.
         // Java 25's compact object headers (-XX:+UseCompactObjectHeaders) shrinks Node from 32 B
         // to 24 B with this packing — material savings on tries with thousands of nodes.
@@ -315,7 +339,8 @@ private static final class FqnTrie {
          * Insert {@code fqn} as a real leaf at its raw path. If it contains {@code $}, additionally
          * insert the canonicalized path as an alias leaf so {@link #hasFqn} answers either form.
          */
-        void insert(String fqn, boolean explicit) {
+        @Override
+        public void insert(String fqn, boolean explicit) {
             if (fqn.isEmpty()) {
                 return;
             }
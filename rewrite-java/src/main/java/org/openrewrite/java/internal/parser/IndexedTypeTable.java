@@ -0,0 +1,766 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal.parser;
+
+import org.jspecify.annotations.Nullable;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureVisitor;
+import org.objectweb.asm.util.CheckClassAdapter;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.java.internal.parser.TypeTable.ClassDefinition;
+import org.openrewrite.java.internal.parser.TypeTable.GroupArtifactVersion;
+import org.openrewrite.java.internal.parser.TypeTable.Member;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.regex.Pattern;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.sort;
+import static java.util.Objects.requireNonNull;
+import static org.objectweb.asm.ClassWriter.COMPUTE_MAXS;
+import static org.openrewrite.java.internal.parser.TypeTable.VERIFY_CLASS_WRITING;
+
+/**
+ * A random-access form of a {@link TypeTable}. A TSV type table has to be read from start to end, and every
+ * class of a matching artifact is turned into bytecode. This format instead keeps a sorted index of class names
+ * per artifact, so that {@link #load(String, Collection)} only decodes and writes the classes a compilation
+ * actually needs.
+ * <p>
+ * The file consists of:
+ * <ul>
+ *     <li>a header with the magic number {@code RWTI} and a format version</li>
+ *     <li>the class and resource records of each artifact, one artifact after the other</li>
+ *     <li>per artifact, an index of fixed-size entries sorted by name, followed by the names themselves</li>
+ *     <li>a directory of artifacts and the position of their indexes</li>
+ *     <li>the position of the directory in the last four bytes</li>
+ * </ul>
+ * The file is memory-mapped when opened and therefore limited to 2GB.
+ */
+@Incubating(since = "8.85.0")
+public class IndexedTypeTable implements JavaParserClasspathLoader {
+    private static final int MAGIC = 0x52575449; // "RWTI"
+    private static final int VERSION = 1;
+
+    public static final String DEFAULT_RESOURCE_PATH = "META-INF/rewrite/classpath.idx";
+
+    /**
+     * Tables packaged in jars, by resource, as copied out to the local file system to be memory-mapped.
+     */
+    private static final Map<URL, Path> extractedTables = new ConcurrentHashMap<>();
+
+    /**
+     * Mapped tables by file, so that repeated lookups don't open and map the same file again. Only the mapping,
+     * the directory of artifacts and the jars written from it are shared, since loading also depends on the
+     * execution context.
+     */
+    private static final Map<Path, MappedTable> mappedTables = new ConcurrentHashMap<>();
+
+    /**
+     * An index entry is the offset and length of the name, followed by the offset and length of the record.
+     */
+    private static final int ENTRY_SIZE = 16;
+
+    private final ExecutionContext ctx;
+    private final TypeTable.Reader reader;
+    private final ByteBuffer buffer;
+    private final Map<GroupArtifactVersion, ArtifactIndexes> indexesByArtifact;
+    private final Map<Path, CompletableFuture<Path>> jarsByPath;
+
+    private IndexedTypeTable(ExecutionContext ctx, MappedTable mapped) {
+        this.ctx = ctx;
+        this.reader = new TypeTable.Reader(ctx);
+        this.buffer = mapped.buffer;
+        this.indexesByArtifact = mapped.indexesByArtifact;
+        this.jarsByPath = mapped.jarsByPath;
+    }
+
+    /**
+     * Open an indexed type table. A file that was opened before and hasn't been modified since is not mapped again.
+     */
+    public static IndexedTypeTable open(ExecutionContext ctx, Path file) {
+        try {
+            FileTime lastModified = Files.getLastModifiedTime(file);
+            MappedTable mapped = mappedTables.compute(file.toAbsolutePath().normalize(), (f, existing) ->
+                    existing != null && existing.lastModified.equals(lastModified) ? existing : MappedTable.map(f, lastModified));
+            return new IndexedTypeTable(ctx, mapped);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Open the indexed type tables packaged as {@link #DEFAULT_RESOURCE_PATH} and visible to the caller of
+     * {@link org.openrewrite.java.JavaParser#dependenciesFromResources(ExecutionContext, String...)}, the same
+     * way {@link TypeTable#fromClasspath(ExecutionContext, Collection)} finds type tables. Tables packaged in a
+     * jar are first copied into the parser classpath download target, since a table is memory-mapped.
+     */
+    public static List<IndexedTypeTable> fromClasspath(ExecutionContext ctx) {
+        try {
+            ClassLoader callerClassLoader = JavaParserCaller.findCaller().getClassLoader();
+            ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+            Set<URL> seen = new LinkedHashSet<>();
+            TypeTable.collectResources(callerClassLoader, DEFAULT_RESOURCE_PATH, seen);
+            if (contextClassLoader != null && contextClassLoader != callerClassLoader) {
+                TypeTable.collectResources(contextClassLoader, DEFAULT_RESOURCE_PATH, seen);
+            }
+
+            List<IndexedTypeTable> tables = new ArrayList<>(seen.size());
+            for (URL url : seen) {
+                tables.add(open(ctx, "file".equals(url.getProtocol()) ? Paths.get(url.toURI()) : extract(ctx, url)));
+            }
+            return tables;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path extract(ExecutionContext ctx, URL url) {
+        return extractedTables.computeIfAbsent(url, u -> {
+            Path indexes = TypeTable.getJarsFolder(ctx).resolve("indexes");
+            String recordedHash = TypeTable.recordedHash(ctx, u);
+            if (recordedHash != null && Files.exists(indexes.resolve(recordedHash + ".idx"))) {
+                // copied out by an earlier JVM
+                return indexes.resolve(recordedHash + ".idx");
+            }
+            try {
+                Files.createDirectories(indexes);
+                Path tmp = Files.createTempFile(indexes, "classpath.idx.", ".tmp");
+                try {
+                    // tables are named after the hash of their content, computed while copying
+                    MessageDigest sha256 = TypeTable.sha256();
+                    try (InputStream is = new DigestInputStream(u.openStream(), sha256)) {
+                        Files.copy(is, tmp, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    String hash = TypeTable.hex(sha256);
+                    Path target = indexes.resolve(hash + ".idx");
+                    if (!Files.exists(target)) {
+                        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                    TypeTable.recordHash(ctx, u, hash);
+                    return target;
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Convert a type table into the indexed format.
+     *
+     * @param tsv    The uncompressed TSV form of the type table, as written by {@link TypeTable.Writer}.
+     * @param target The file to write. It is replaced atomically once completely written.
+     */
+    public static void write(InputStream tsv, Path target) {
+        try {
+            Path tmp = Files.createTempFile(target.toAbsolutePath().getParent(),
+                    target.getFileName().toString() + ".", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+
+                    Map<GroupArtifactVersion, IndexBuilder[]> sections = new LinkedHashMap<>();
+                    new TypeTable.Reader(new InMemoryExecutionContext()).parseTsvAndProcess(tsv, TypeTable.Reader.Options.matchAll(),
+                            (gav, classes, nestedTypes, resources) -> {
+                                if (gav != null) {
+                                    try {
+                                        sections.put(gav, writeRecords(out, classes, resources));
+                                    } catch (IOException e) {
+                                        throw new UncheckedIOException(e);
+                                    }
+                                }
+                            });
+
+                    Map<GroupArtifactVersion, ArtifactIndexes> indexes = new LinkedHashMap<>(sections.size());
+                    for (Map.Entry<GroupArtifactVersion, IndexBuilder[]> section : sections.entrySet()) {
+                        int classIndex = section.getValue()[0].write(out);
+                        int resourceIndex = section.getValue()[1].write(out);
+                        indexes.put(section.getKey(), new ArtifactIndexes(classIndex, resourceIndex));
+                    }
+
+                    int directory = out.size();
+                    out.writeInt(indexes.size());
+                    for (Map.Entry<GroupArtifactVersion, ArtifactIndexes> artifact : indexes.entrySet()) {
+                        GroupArtifactVersion gav = artifact.getKey();
+                        writeString(out, gav.getGroupId());
+                        writeString(out, gav.getArtifactId());
+                        writeString(out, gav.getVersion());
+                        out.writeInt(artifact.getValue().classIndex);
+                        out.writeInt(artifact.getValue().resourceIndex);
+                    }
+                    out.writeInt(directory);
+                    if (out.size() == Integer.MAX_VALUE) {
+                        // DataOutputStream#size() saturates rather than overflowing
+                        throw new IllegalStateException("Indexed type table would be larger than 2GB");
+                    }
+                }
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a jar with every class of the artifact.
+     */
+    @Override
+    public @Nullable Path load(String artifactName) {
+        GroupArtifactVersion gav = findArtifact(artifactName);
+        if (gav == null) {
+            return null;
+        }
+        ArtifactIndexes indexes = indexesByArtifact.get(gav);
+        Map<String, ClassDefinition> classes = new HashMap<>();
+        for (int i = 0, count = buffer.getInt(indexes.classIndex); i < count; i++) {
+            ClassDefinition classDef = readClass(recordAt(indexes.classIndex, i));
+            classes.put(classDef.getName(), classDef);
+        }
+        return writeJar(TypeTable.getJarPath(ctx, gav, digest(indexes, classes.keySet())), indexes, classes);
+    }
+
+    /**
+     * Writes a jar with just the named classes of the artifact, together with their supertypes, enclosing
+     * and nested types, and the types their members refer to, from the same artifact. Jars are named after the classes they hold, so repeated
+     * requests for the same classes of the same table reuse the same jar.
+     *
+     * @param classNames Binary names of the classes to load, such as {@code com.example.Outer$Inner}.
+     *                   Classes that the artifact doesn't contain are ignored.
+     */
+    @Override
+    public @Nullable Path load(String artifactName, Collection<String> classNames) {
+        GroupArtifactVersion gav = findArtifact(artifactName);
+        if (gav == null) {
+            return null;
+        }
+        ArtifactIndexes indexes = indexesByArtifact.get(gav);
+        Map<String, ClassDefinition> classes = closure(indexes.classIndex, classNames);
+        return writeJar(TypeTable.getJarPath(ctx, gav, digest(indexes, classes.keySet())), indexes, classes);
+    }
+
+    @Override
+    public Collection<String> availableArtifacts() {
+        List<String> available = new ArrayList<>(indexesByArtifact.size());
+        for (GroupArtifactVersion gav : indexesByArtifact.keySet()) {
+            available.add(gav.getArtifactId() + "-" + gav.getVersion());
+        }
+        sort(available);
+        return available;
+    }
+
+    private @Nullable GroupArtifactVersion findArtifact(String artifactName) {
+        Pattern artifactPattern = Pattern.compile(artifactName + ".*");
+        for (GroupArtifactVersion gav : indexesByArtifact.keySet()) {
+            if (artifactPattern.matcher(gav.getArtifactId() + "-" + gav.getVersion()).matches()) {
+                return gav;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * javac needs the supertypes of a class to resolve its inherited members, reads the enclosing
+     * and nested types named in its {@code InnerClasses} attribute, and resolves the types in the
+     * signatures of its fields and methods when a compilation refers to them, so those come along
+     * with each class.
+     */
+    private Map<String, ClassDefinition> closure(int classIndex, Collection<String> classNames) {
+        Map<String, ClassDefinition> classes = new HashMap<>();
+        Set<String> visited = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        for (String className : classNames) {
+            pending.add(className.replace('.', '/'));
+        }
+        ReferencedTypes referencedTypes = new ReferencedTypes(pending);
+
+        while (!pending.isEmpty()) {
+            String name = pending.poll();
+            if (!visited.add(name)) {
+                continue;
+            }
+            int entry = find(classIndex, name.getBytes(StandardCharsets.UTF_8));
+            if (entry < 0) {
+                // either from another artifact or the JDK
+                continue;
+            }
+            ClassDefinition classDef = readClass(recordAt(classIndex, entry));
+            classes.put(name, classDef);
+
+            if (classDef.getSuperclassSignature() != null) {
+                pending.add(classDef.getSuperclassSignature());
+            }
+            if (classDef.getSuperinterfaceSignatures() != null) {
+                Collections.addAll(pending, classDef.getSuperinterfaceSignatures());
+            }
+            for (Member member : classDef.getMembers()) {
+                referencedTypes.addMember(member);
+            }
+            int lastIndexOf$ = name.lastIndexOf('$');
+            if (lastIndexOf$ != -1) {
+                pending.add(name.substring(0, lastIndexOf$));
+            }
+
+            // nested types sort directly after their owner, since '$' sorts before any identifier character
+            byte[] prefix = (name + '$').getBytes(StandardCharsets.UTF_8);
+            for (int i = lowerBound(classIndex, prefix), count = buffer.getInt(classIndex);
+                 i < count && startsWith(classIndex, i, prefix); i++) {
+                pending.add(nameAt(classIndex, i));
+            }
+        }
+        return classes;
+    }
+
+    private Path writeJar(Path jarPath, ArtifactIndexes indexes, Map<String, ClassDefinition> classes) {
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> existing = jarsByPath.putIfAbsent(jarPath, future);
+        if (existing != null) {
+            return existing.join();
+        }
+
+        try {
+            // the name of the jar is a digest of its contents, so an existing jar holds the same classes
+            if (!Files.exists(jarPath)) {
+                Map<String, List<ClassDefinition>> nestedTypesByOwner = new HashMap<>();
+                for (ClassDefinition classDef : classes.values()) {
+                    int lastIndexOf$ = classDef.getName().lastIndexOf('$');
+                    if (lastIndexOf$ != -1) {
+                        nestedTypesByOwner.computeIfAbsent(classDef.getName().substring(0, lastIndexOf$), k -> new ArrayList<>(4))
+                                .add(classDef);
+                    }
+                }
+                List<String> classNames = new ArrayList<>(classes.keySet());
+                sort(classNames);
+
+                Path tmpJar = Files.createTempFile(jarPath.getParent(), jarPath.getFileName().toString() + ".", ".tmp");
+                try (JarOutputStream jos = new JarOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpJar)))) {
+                    for (String name : classNames) {
+                        ClassWriter cw = new ClassWriter(COMPUTE_MAXS);
+                        ClassVisitor classWriter = ctx.getMessage(VERIFY_CLASS_WRITING, false) ?
+                                new CheckClassAdapter(cw) : cw;
+                        reader.processClass(classes.get(name), nestedTypesByOwner.getOrDefault(name, emptyList()), classWriter);
+                        putEntry(jos, name + ".class", cw.toByteArray());
+                    }
+                    // resources are few and small, and for Kotlin the .kotlin_module is needed to see top-level functions
+                    for (int i = 0, count = buffer.getInt(indexes.resourceIndex); i < count; i++) {
+                        ByteBuffer record = recordAt(indexes.resourceIndex, i);
+                        byte[] content = new byte[record.remaining()];
+                        record.get(content);
+                        putEntry(jos, nameAt(indexes.resourceIndex, i), content);
+                    }
+                }
+                try {
+                    Files.move(tmpJar, jarPath, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException | AccessDeniedException e) {
+                    // another JVM sharing the cache directory published the same jar first
+                    Files.deleteIfExists(tmpJar);
+                    if (!Files.exists(jarPath)) {
+                        throw e;
+                    }
+                }
+            }
+            future.complete(jarPath);
+            return jarPath;
+        } catch (IOException e) {
+            jarsByPath.remove(jarPath, future);
+            future.completeExceptionally(e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void putEntry(JarOutputStream jos, String name, byte[] content) throws IOException {
+        JarEntry entry = new JarEntry(name);
+        entry.setTime(0L);
+        jos.putNextEntry(entry);
+        jos.write(content);
+        jos.closeEntry();
+    }
+
+    /**
+     * Jars are named after the records they are written from, not just the names of their classes, so a jar
+     * on disk is only reused when it was written from the same records, whichever table they came from.
+     */
+    private String digest(ArtifactIndexes indexes, Collection<String> classNames) {
+        List<String> sorted = new ArrayList<>(classNames);
+        sort(sorted);
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (String className : sorted) {
+                byte[] name = className.getBytes(StandardCharsets.UTF_8);
+                sha256.update(name);
+                sha256.update((byte) '\n');
+                sha256.update(recordAt(indexes.classIndex, find(indexes.classIndex, name)));
+            }
+            for (int i = 0, count = buffer.getInt(indexes.resourceIndex); i < count; i++) {
+                sha256.update(nameAt(indexes.resourceIndex, i).getBytes(StandardCharsets.UTF_8));
+                sha256.update((byte) '\n');
+                sha256.update(recordAt(indexes.resourceIndex, i));
+            }
+            byte[] hash = sha256.digest();
+            StringBuilder hex = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16))
+                        .append(Character.forDigit(hash[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return The position of the entry with the given name, or -1 if there is none.
+     */
+    private int find(int index, byte[] name) {
+        int entry = lowerBound(index, name);
+        return entry < buffer.getInt(index) && compareName(index, entry, name) == 0 ? entry : -1;
+    }
+
+    private int lowerBound(int index, byte[] name) {
+        int low = 0;
+        int high = buffer.getInt(index);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareName(index, mid, name) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareName(int index, int entry, byte[] name) {
+        int at = index + 4 + entry * ENTRY_SIZE;
+        int nameOffset = buffer.getInt(at);
+        int nameLength = buffer.getInt(at + 4);
+        for (int i = 0, n = Math.min(nameLength, name.length); i < n; i++) {
+            int c = (buffer.get(nameOffset + i) & 0xFF) - (name[i] & 0xFF);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return nameLength - name.length;
+    }
+
+    private boolean startsWith(int index, int entry, byte[] prefix) {
+        int at = index + 4 + entry * ENTRY_SIZE;
+        int nameOffset = buffer.getInt(at);
+        if (buffer.getInt(at + 4) < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(nameOffset + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String nameAt(int index, int entry) {
+        int at = index + 4 + entry * ENTRY_SIZE;
+        byte[] name = new byte[buffer.getInt(at + 4)];
+        at(buffer.getInt(at)).get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private ByteBuffer recordAt(int index, int entry) {
+        int at = index + 4 + entry * ENTRY_SIZE;
+        ByteBuffer record = at(buffer.getInt(at + 8));
+        record.limit(buffer.getInt(at + 8) + buffer.getInt(at + 12));
+        return record;
+    }
+
+    private ByteBuffer at(int offset) {
+        return at(buffer, offset);
+    }
+
+    private static ByteBuffer at(ByteBuffer buffer, int offset) {
+        // duplicates have their own position, so concurrent loads don't interfere
+        ByteBuffer in = buffer.duplicate();
+        in.position(offset);
+        return in;
+    }
+
+    private static IndexBuilder[] writeRecords(DataOutputStream out, Map<String, ClassDefinition> classes,
+                                               Map<String, byte[]> resources) throws IOException {
+        IndexBuilder classIndex = new IndexBuilder();
+        for (ClassDefinition classDef : classes.values()) {
+            int offset = out.size();
+            writeClass(out, classDef);
+            classIndex.add(classDef.getName(), offset, out.size() - offset);
+        }
+        IndexBuilder resourceIndex = new IndexBuilder();
+        for (Map.Entry<String, byte[]> resource : resources.entrySet()) {
+            int offset = out.size();
+            out.write(resource.getValue());
+            resourceIndex.add(resource.getKey(), offset, resource.getValue().length);
+        }
+        return new IndexBuilder[]{classIndex, resourceIndex};
+    }
+
+    private static void writeClass(DataOutputStream out, ClassDefinition classDef) throws IOException {
+        out.writeInt(classDef.getAccess());
+        writeString(out, classDef.getName());
+        writeString(out, classDef.getSignature());
+        writeString(out, classDef.getSuperclassSignature());
+        writeStrings(out, classDef.getSuperinterfaceSignatures());
+        writeString(out, classDef.getAnnotations());
+        writeString(out, classDef.getConstantValue());
+        writeStrings(out, classDef.getInnerClasses());
+
+        List<Member> members = classDef.getMembers();
+        out.writeInt(members.size());
+        for (Member member : members) {
+            out.writeInt(member.getAccess());
+            writeString(out, member.getName());
+            writeString(out, member.getDescriptor());
+            writeString(out, member.getSignature());
+            writeStrings(out, member.getParameterNames());
+            writeStrings(out, member.getExceptions());
+            writeString(out, member.getAnnotations());
+            writeString(out, member.getParameterAnnotations());
+            writeStrings(out, member.getTypeAnnotations());
+            writeString(out, member.getConstantValue());
+        }
+    }
+
+    private static ClassDefinition readClass(ByteBuffer in) {
+        ClassDefinition classDef = new ClassDefinition(
+                in.getInt(),
+                requireNonNull(readString(in)),
+                readString(in),
+                readString(in),
+                readStrings(in),
+                readString(in),
+                readString(in),
+                readStrings(in)
+        );
+        for (int i = 0, count = in.getInt(); i < count; i++) {
+            classDef.addMember(new Member(
+                    classDef,
+                    in.getInt(),
+                    requireNonNull(readString(in)),
+                    requireNonNull(readString(in)),
+                    readString(in),
+                    readStrings(in),
+                    readStrings(in),
+                    readString(in),
+                    readString(in),
+                    readStrings(in),
+                    readString(in)
+            ));
+        }
+        return classDef;
+    }
+
+    private static void writeString(DataOutputStream out, @Nullable String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, String @Nullable [] strings) throws IOException {
+        if (strings == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(strings.length);
+            for (String s : strings) {
+                writeString(out, s);
+            }
+        }
+    }
+
+    private static @Nullable String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String @Nullable [] readStrings(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String[] strings = new String[length];
+        for (int i = 0; i < length; i++) {
+            strings[i] = requireNonNull(readString(in));
+        }
+        return strings;
+    }
+
+    private static class MappedTable {
+        final ByteBuffer buffer;
+        final FileTime lastModified;
+        final Map<GroupArtifactVersion, ArtifactIndexes> indexesByArtifact;
+        final Map<Path, CompletableFuture<Path>> jarsByPath = new ConcurrentHashMap<>();
+
+        private MappedTable(ByteBuffer buffer, FileTime lastModified) {
+            if (buffer.capacity() < 12 || buffer.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Not an indexed type table");
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IllegalArgumentException("Unsupported indexed type table version " + buffer.getInt(4));
+            }
+            this.buffer = buffer;
+            this.lastModified = lastModified;
+
+            ByteBuffer in = at(buffer, buffer.getInt(buffer.capacity() - 4));
+            int artifactCount = in.getInt();
+            Map<GroupArtifactVersion, ArtifactIndexes> indexes = new LinkedHashMap<>(artifactCount);
+            for (int i = 0; i < artifactCount; i++) {
+                GroupArtifactVersion gav = new GroupArtifactVersion(
+                        requireNonNull(readString(in)),
+                        requireNonNull(readString(in)),
+                        requireNonNull(readString(in)));
+                indexes.put(gav, new ArtifactIndexes(in.getInt(), in.getInt()));
+            }
+            this.indexesByArtifact = indexes;
+        }
+
+        static MappedTable map(Path file, FileTime lastModified) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Indexed type table " + file + " is larger than 2GB");
+                }
+                return new MappedTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), lastModified);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Collects the internal names of the classes a type or method signature refers to. Nested classes are
+     * represented by their outermost named class, whose nested types come along in the closure anyway.
+     */
+    private static class ReferencedTypes extends SignatureVisitor {
+        final Collection<String> names;
+
+        ReferencedTypes(Collection<String> names) {
+            super(Opcodes.ASM9);
+            this.names = names;
+        }
+
+        void addMember(Member member) {
+            String signature = member.getSignature() == null ? member.getDescriptor() : member.getSignature();
+            if (signature.startsWith("(") || signature.startsWith("<")) {
+                new SignatureReader(signature).accept(this);
+            } else {
+                new SignatureReader(signature).acceptType(this);
+            }
+            if (member.getExceptions() != null) {
+                Collections.addAll(names, member.getExceptions());
+            }
+        }
+
+        @Override
+        public void visitClassType(String name) {
+            names.add(name);
+        }
+    }
+
+    private static class ArtifactIndexes {
+        final int classIndex;
+        final int resourceIndex;
+
+        ArtifactIndexes(int classIndex, int resourceIndex) {
+            this.classIndex = classIndex;
+            this.resourceIndex = resourceIndex;
+        }
+    }
+
+    private static class IndexBuilder {
+        private final List<byte[]> names = new ArrayList<>();
+        private final List<int[]> records = new ArrayList<>();
+
+        void add(String name, int offset, int length) {
+            names.add(name.getBytes(StandardCharsets.UTF_8));
+            records.add(new int[]{offset, length});
+        }
+
+        /**
+         * @return The offset of the index in the file.
+         */
+        int write(DataOutputStream out) throws IOException {
+            Integer[] order = new Integer[names.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (i1, i2) -> compareUnsigned(names.get(i1), names.get(i2)));
+
+            int start = out.size();
+            out.writeInt(order.length);
+            int nameOffset = start + 4 + order.length * ENTRY_SIZE;
+            for (int i : order) {
+                out.writeInt(nameOffset);
+                out.writeInt(names.get(i).length);
+                out.writeInt(records.get(i)[0]);
+                out.writeInt(records.get(i)[1]);
+                nameOffset += names.get(i).length;
+            }
+            for (int i : order) {
+                out.write(names.get(i));
+            }
+            return start;
+        }
+
+        private static int compareUnsigned(byte[] a, byte[] b) {
+            for (int i = 0, n = Math.min(a.length, b.length); i < n; i++) {
+                int c = (a[i] & 0xFF) - (b[i] & 0xFF);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return a.length - b.length;
+        }
+    }
+}
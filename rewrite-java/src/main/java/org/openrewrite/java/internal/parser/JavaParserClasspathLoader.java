@@ -38,6 +38,18 @@ public interface JavaParserClasspathLoader {
     @Nullable
     Path load(String artifactName);
 
+    /**
+     * Load only the given classes of a classpath resource, for loaders that can produce
+     * a classpath entry for part of a resource more cheaply than for all of it.
+     *
+     * @param artifactName A descriptor for the classpath resource to load.
+     * @param classNames   Binary names of the classes that are needed from the resource.
+     * @return The path a JAR or classes directory that contains at least the given classes.
+     */
+    default @Nullable Path load(String artifactName, Collection<String> classNames) {
+        return load(artifactName);
+    }
+
     /**
      * @return The artifact identifiers available from this loader, for use in diagnostic messages.
      */
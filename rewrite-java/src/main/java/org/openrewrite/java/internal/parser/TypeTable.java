@@ -26,14 +26,19 @@
 
 import java.io.*;
 import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -123,7 +128,7 @@ public class TypeTable implements JavaParserClasspathLoader {
         }
     }
 
-    private static void collectResources(ClassLoader classLoader, String resourcePath, Set<URL> target) throws IOException {
+    static void collectResources(ClassLoader classLoader, String resourcePath, Set<URL> target) throws IOException {
         for (Enumeration<URL> e = classLoader.getResources(resourcePath); e.hasMoreElements(); ) {
             target.add(e.nextElement());
         }
@@ -146,18 +151,188 @@ private static void read(URL url, Collection<String> artifactNames, ExecutionCon
             return;
         }
 
-        Reader.Options options = Reader.Options.builder().artifactPrefixes(artifactNames).build();
-        try (InputStream is = url.openStream(); InputStream inflate = new GZIPInputStream(is)) {
-            new Reader(ctx).read(inflate, options);
-        } catch (ZipException e) {
-            // Fallback to `InflaterInputStream` for older files created as raw zlib data using DeflaterOutputStream
-            try (InputStream is = url.openStream(); InputStream inflate = new InflaterInputStream(is)) {
-                new Reader(ctx).read(inflate, options);
-            } catch (IOException e1) {
-                throw new UncheckedIOException(e1);
+        String recordedHash = recordedHash(ctx, url);
+        if (recordedHash != null) {
+            missingArtifacts = reuseWrittenJars(ctx, recordedHash, missingArtifacts);
+            if (missingArtifacts.isEmpty()) {
+                // all artifacts were extracted from the same type table by an earlier JVM
+                return;
+            }
+        }
+
+        Reader.Options options = Reader.Options.builder().artifactPrefixes(missingArtifacts).build();
+        Reader reader = new Reader(ctx);
+        String tableHash;
+        try {
+            try {
+                tableHash = extractAndHash(url, reader, options, true);
+            } catch (ZipException e) {
+                // Fallback to `InflaterInputStream` for older files created as raw zlib data using DeflaterOutputStream
+                tableHash = extractAndHash(url, reader, options, false);
             }
         } catch (IOException e) {
+            reader.abandon(e);
             throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            reader.abandon(e);
+            throw e;
+        }
+        reader.publish(tableHash);
+        recordHash(ctx, url, tableHash);
+        recordWrittenJars(ctx, tableHash, reader.written);
+    }
+
+    /**
+     * Stub jars are named after the hash of the type table they were extracted from, so a jar
+     * on disk can be reused by another JVM as long as the type table hasn't changed. The hash is
+     * computed from the same stream the table is read from.
+     */
+    private static String extractAndHash(URL url, Reader reader, Reader.Options options, boolean gzip) throws IOException {
+        MessageDigest sha256 = sha256();
+        try (InputStream is = new DigestInputStream(url.openStream(), sha256);
+             InputStream inflate = gzip ? new GZIPInputStream(is) : new InflaterInputStream(is)) {
+            reader.extract(inflate, options);
+            // the hash covers the whole resource, including anything after the end of the compressed table
+            byte[] rest = new byte[8192];
+            //noinspection StatementWithEmptyBody
+            while (is.read(rest) != -1) {
+            }
+        }
+        return hex(sha256);
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String hex(MessageDigest digest) {
+        byte[] hash = digest.digest();
+        StringBuilder hex = new StringBuilder(16);
+        for (int i = 0; i < 8; i++) {
+            hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16))
+                    .append(Character.forDigit(hash[i] & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * The hash of a resource is only known once it has been read. So that another JVM can reuse what was
+     * extracted from it without reading it first, the hash is recorded under the identity of the resource:
+     * its URL, length and modification time, which a connection reports without reading the content.
+     *
+     * @return The hash recorded for the resource as it is now, or null if there is none.
+     */
+    static @Nullable String recordedHash(ExecutionContext ctx, URL url) {
+        Path record = getHashRecordPath(ctx, url);
+        if (record == null || !Files.exists(record)) {
+            return null;
+        }
+        try {
+            String hash = new String(Files.readAllBytes(record), StandardCharsets.UTF_8).trim();
+            return hash.isEmpty() ? null : hash;
+        } catch (IOException e) {
+            // an unreadable record only means the resource is read again
+            return null;
+        }
+    }
+
+    static void recordHash(ExecutionContext ctx, URL url, String hash) {
+        Path record = getHashRecordPath(ctx, url);
+        if (record == null) {
+            return;
+        }
+        try {
+            Path tmp = Files.createTempFile(record.getParent(), record.getFileName().toString() + ".", ".tmp");
+            Files.write(tmp, hash.getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, record, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the record is only an optimization for the next JVM
+        }
+    }
+
+    private static @Nullable Path getHashRecordPath(ExecutionContext ctx, URL url) {
+        long length;
+        long lastModified;
+        try {
+            URLConnection connection = url.openConnection();
+            length = connection.getContentLengthLong();
+            lastModified = connection.getLastModified();
+        } catch (IOException e) {
+            return null;
+        }
+        if (length < 0 || lastModified <= 0) {
+            return null;
+        }
+        MessageDigest identity = sha256();
+        identity.update((url.toExternalForm() + '\n' + length + '\n' + lastModified).getBytes(StandardCharsets.UTF_8));
+        Path hashesFolder = getJarsFolder(ctx).resolve("hashes");
+        if (!hashesFolder.toFile().mkdirs() && !Files.exists(hashesFolder)) {
+            return null;
+        }
+        return hashesFolder.resolve(hex(identity) + ".txt");
+    }
+
+    /**
+     * Registers jars that an earlier JVM already extracted from the same type table, which are listed
+     * in a per-table manifest since artifact names alone don't identify the group and version.
+     *
+     * @return The artifact names that still have to be extracted.
+     */
+    private static Collection<String> reuseWrittenJars(ExecutionContext ctx, String tableHash, Collection<String> artifactNames) {
+        Path manifest = getManifestPath(ctx, tableHash);
+        if (!Files.exists(manifest)) {
+            return artifactNames;
+        }
+
+        Collection<String> notWritten = new ArrayList<>(artifactNames);
+        try {
+            for (String line : Files.readAllLines(manifest)) {
+                String[] gavParts = line.split(":");
+                if (gavParts.length != 3) {
+                    continue;
+                }
+                GroupArtifactVersion gav = new GroupArtifactVersion(gavParts[0], gavParts[1], gavParts[2]);
+                for (String artifactName : artifactNames) {
+                    if (Pattern.compile(artifactName + ".*").matcher(gav.getArtifactId() + "-" + gav.getVersion()).matches()) {
+                        Path jarPath = getJarPath(ctx, gav, tableHash);
+                        if (Files.exists(jarPath)) {
+                            jarByArtifact.putIfAbsent(gav, CompletableFuture.completedFuture(jarPath));
+                            notWritten.remove(artifactName);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // an unreadable manifest only means the jars are extracted again
+            return artifactNames;
+        }
+        return notWritten;
+    }
+
+    private static void recordWrittenJars(ExecutionContext ctx, String tableHash, Set<GroupArtifactVersion> written) {
+        if (written.isEmpty()) {
+            return;
+        }
+        Path manifest = getManifestPath(ctx, tableHash);
+        try {
+            Set<String> gavs = new TreeSet<>();
+            if (Files.exists(manifest)) {
+                gavs.addAll(Files.readAllLines(manifest));
+            }
+            for (GroupArtifactVersion gav : written) {
+                gavs.add(gav.getGroupId() + ":" + gav.getArtifactId() + ":" + gav.getVersion());
+            }
+            // Concurrent JVMs may each replace the manifest, in which case some jars are extracted again
+            // by a later JVM, but a partially written manifest is never observed.
+            Path tmp = Files.createTempFile(manifest.getParent(), manifest.getFileName().toString() + ".", ".tmp");
+            Files.write(tmp, gavs);
+            Files.move(tmp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the manifest is only an optimization for the next JVM
         }
     }
 
@@ -183,7 +358,6 @@ private static Collection<String> artifactsNotYetWritten(Collection<String> arti
      * archive index ({@code ArchiveContainer}) for jars, whereas a classes-directory triggers an
      * {@code openat} per {@code list()} call from {@code DirectoryContainer} during template parsing.
      */
-    @RequiredArgsConstructor
     public static class Reader {
 
         /**
@@ -231,10 +405,131 @@ public Builder artifactPrefixes(Collection<String> artifactPrefixes) {
                 Opcodes.ACC_ABSTRACT | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_ANNOTATION |
                 Opcodes.ACC_ENUM;
 
+        private static final int PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+        /**
+         * Writes the jars of artifacts while the next artifact is read. The queue is bounded, so once every
+         * writer is busy and the queue is full, the reading thread writes the next jar itself rather than
+         * holding more artifacts in memory.
+         */
+        private static final ExecutorService JAR_WRITERS = newJarWriters();
+
         private final ExecutionContext ctx;
 
+        private final Set<GroupArtifactVersion> written = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Jars that were written to temporary files, waiting for the hash of the table to be named after.
+         */
+        private final Queue<PendingJar> pending = new ConcurrentLinkedQueue<>();
+
+        public Reader(ExecutionContext ctx) {
+            this.ctx = ctx;
+        }
+
+        private static ExecutorService newJarWriters() {
+            AtomicInteger count = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(PARALLELISM, PARALLELISM, 30, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(PARALLELISM), r -> {
+                Thread t = new Thread(r, "rewrite-type-table-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+
+        /**
+         * Writes a jar for each matching artifact. The type table itself is read sequentially, but the
+         * bytecode and jar of each artifact are written on a dedicated, bounded pool while the next
+         * artifact is read.
+         */
         public void read(InputStream is, Options options) throws IOException {
-            parseTsvAndProcess(is, options, this::writeJar);
+            try {
+                extract(is, options);
+            } catch (IOException | RuntimeException e) {
+                abandon(e);
+                throw e;
+            }
+            publish(null);
+        }
+
+        /**
+         * Writes the jar of each matching artifact to a temporary file, to be named by {@link #publish(String)}.
+         */
+        void extract(InputStream is, Options options) throws IOException {
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+            parseTsvAndProcess(is, options, (gav, classes, nestedTypes, resources) -> {
+                if (gav == null) {
+                    return;
+                }
+                CompletableFuture<@Nullable Path> future = new CompletableFuture<>();
+                if (jarByArtifact.putIfAbsent(gav, future) != null) {
+                    // is already being written (by concurrent thread)
+                    return;
+                }
+
+                // the maps are reused for the next artifact once this returns
+                Map<String, ClassDefinition> classesCopy = new HashMap<>(classes);
+                Map<String, List<ClassDefinition>> nestedTypesCopy = new HashMap<>(nestedTypes);
+                Map<String, byte[]> resourcesCopy = new LinkedHashMap<>(resources);
+                writes.add(CompletableFuture.runAsync(
+                        () -> writeJar(gav, future, classesCopy, nestedTypesCopy, resourcesCopy), JAR_WRITERS));
+            });
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+        }
+
+        /**
+         * Move the jars written by {@link #extract(InputStream, Options)} to their final names.
+         *
+         * @param tableHash The hash of the type table the jars were extracted from, if any.
+         */
+        void publish(@Nullable String tableHash) {
+            for (PendingJar jar; (jar = pending.poll()) != null; ) {
+                try {
+                    Path jarPath = getJarPath(ctx, jar.gav, tableHash);
+                    // Atomic publish: callers blocked on `future` see either no jar or the
+                    // fully-written one — never a half-written file. If another JVM
+                    // produced the same jar concurrently on a shared cache directory,
+                    // keep its version and discard our temp file. Windows raises
+                    // AccessDeniedException when the target is held open in another JVM,
+                    // which we treat the same as FileAlreadyExistsException.
+                    try {
+                        Files.move(jar.tmpJar, jarPath, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (FileAlreadyExistsException | AccessDeniedException e) {
+                        Files.deleteIfExists(jar.tmpJar);
+                        if (!Files.exists(jarPath)) {
+                            throw e;
+                        }
+                    }
+                    written.add(jar.gav);
+                    jar.future.complete(jarPath);
+                } catch (Exception e) {
+                    jar.future.completeExceptionally(e);
+                }
+            }
+        }
+
+        /**
+         * Fail the jars that were written but not yet published, so that nobody waits on them.
+         */
+        void abandon(Throwable cause) {
+            for (PendingJar jar; (jar = pending.poll()) != null; ) {
+                try {
+                    Files.deleteIfExists(jar.tmpJar);
+                } catch (IOException ignored) {
+                    // the temporary file is in the parser classpath download target, which may be cleaned up
+                }
+                jarByArtifact.remove(jar.gav, jar.future);
+                jar.future.completeExceptionally(cause);
+            }
+        }
+
+        @RequiredArgsConstructor
+        private static class PendingJar {
+            final GroupArtifactVersion gav;
+            final CompletableFuture<@Nullable Path> future;
+            final Path tmpJar;
         }
 
         /**
@@ -376,20 +671,12 @@ public interface ResourceConsumer {
             void accept(String resourcePath, byte[] content);
         }
 
-        private void writeJar(@Nullable GroupArtifactVersion gav, Map<String, ClassDefinition> classes,
+        private void writeJar(GroupArtifactVersion gav, CompletableFuture<@Nullable Path> future,
+                              Map<String, ClassDefinition> classes,
                               Map<String, List<ClassDefinition>> nestedTypesByOwner,
                               Map<String, byte[]> resources) {
-            if (gav == null) {
-                return;
-            }
-
-            CompletableFuture<@Nullable Path> future = new CompletableFuture<>();
-            if (jarByArtifact.putIfAbsent(gav, future) != null) {
-                // is already being written (by concurrent thread)
-                return;
-            }
-
-            Path jarPath = getJarPath(ctx, gav);
+            // the directory doesn't depend on the hash of the table, only the name of the jar does
+            Path jarPath = getJarPath(ctx, gav, null);
             try {
                 // Sorting class and resource names produces deterministic jar layout — useful
                 // for cache stability across runs.
@@ -424,21 +711,7 @@ private void writeJar(@Nullable GroupArtifactVersion gav, Map<String, ClassDefin
                         jos.closeEntry();
                     }
                 }
-                // Atomic publish: callers blocked on `future` see either no jar or the
-                // fully-written one — never a half-written file. If another JVM
-                // produced the same jar concurrently on a shared cache directory,
-                // keep its version and discard our temp file. Windows raises
-                // AccessDeniedException when the target is held open in another JVM,
-                // which we treat the same as FileAlreadyExistsException.
-                try {
-                    Files.move(tmpJar, jarPath, StandardCopyOption.ATOMIC_MOVE);
-                } catch (FileAlreadyExistsException | AccessDeniedException e) {
-                    Files.deleteIfExists(tmpJar);
-                    if (!Files.exists(jarPath)) {
-                        throw e;
-                    }
-                }
-                future.complete(jarPath);
+                pending.add(new PendingJar(gav, future, tmpJar));
             } catch (Exception e) {
                 future.completeExceptionally(e);
             }
@@ -448,7 +721,7 @@ private void writeJar(@Nullable GroupArtifactVersion gav, Map<String, ClassDefin
          * Process a single class definition by feeding it to a ClassVisitor.
          * This contains the core logic for converting TypeTable data to ASM visitor calls.
          */
-        private void processClass(ClassDefinition classDef, List<ClassDefinition> nestedTypes, ClassVisitor classVisitor) {
+        void processClass(ClassDefinition classDef, List<ClassDefinition> nestedTypes, ClassVisitor classVisitor) {
             classVisitor.visit(
                     V1_8,
                     classDef.getAccess(),
@@ -664,14 +937,12 @@ private static boolean isValidConstantValueType(@Nullable Object value) {
     }
 
 
-    private static Path getJarPath(ExecutionContext ctx, GroupArtifactVersion gav) {
-        Path jarsFolder = JavaParserExecutionContextView.view(ctx)
-                .getParserClasspathDownloadTarget().toPath().resolve(".tt");
-        if (!jarsFolder.toFile().mkdirs() && !Files.exists(jarsFolder)) {
-            throw new UncheckedIOException(new IOException("Failed to create directory " + jarsFolder));
-        }
-
-        Path artifactDir = jarsFolder;
+    /**
+     * @param tableHash The hash of the type table the jar is extracted from, which is added to the
+     *                  file name so that jars from different versions of a type table don't collide.
+     */
+    static Path getJarPath(ExecutionContext ctx, GroupArtifactVersion gav, @Nullable String tableHash) {
+        Path artifactDir = getJarsFolder(ctx);
         for (String g : gav.getGroupId().split("\\.")) {
             artifactDir = artifactDir.resolve(g);
         }
@@ -681,7 +952,25 @@ private static Path getJarPath(ExecutionContext ctx, GroupArtifactVersion gav) {
             throw new UncheckedIOException(new IOException("Failed to create directory " + artifactDir));
         }
 
-        return artifactDir.resolve(gav.getArtifactId() + "-" + gav.getVersion() + ".jar");
+        return artifactDir.resolve(gav.getArtifactId() + "-" + gav.getVersion() +
+                (tableHash == null ? "" : "-" + tableHash) + ".jar");
+    }
+
+    private static Path getManifestPath(ExecutionContext ctx, String tableHash) {
+        Path manifestsFolder = getJarsFolder(ctx).resolve("manifests");
+        if (!manifestsFolder.toFile().mkdirs() && !Files.exists(manifestsFolder)) {
+            throw new UncheckedIOException(new IOException("Failed to create directory " + manifestsFolder));
+        }
+        return manifestsFolder.resolve(tableHash + ".txt");
+    }
+
+    static Path getJarsFolder(ExecutionContext ctx) {
+        Path jarsFolder = JavaParserExecutionContextView.view(ctx)
+                .getParserClasspathDownloadTarget().toPath().resolve(".tt");
+        if (!jarsFolder.toFile().mkdirs() && !Files.exists(jarsFolder)) {
+            throw new UncheckedIOException(new IOException("Failed to create directory " + jarsFolder));
+        }
+        return jarsFolder;
     }
 
     public static Writer newWriter(OutputStream out) {
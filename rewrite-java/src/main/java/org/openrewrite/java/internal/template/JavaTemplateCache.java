@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal.template;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.java.tree.J;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded, thread-safe cache of LST elements parsed from context-free template stubs that outlives
+ * a single recipe cycle, and by default the recipe run. Entries are keyed by the stub (or a
+ * context-free key for it) together with a fingerprint of the parser classpath the stub was compiled
+ * against, so that templates compiled against different classpaths never share an entry. Stubs that
+ * embed the source file they are applied to are never cached here.
+ * <p>
+ * When the cache is full, the least recently used entry is evicted. Values are softly referenced,
+ * so the cache gives way to memory pressure before it reaches its maximum size.
+ */
+public class JavaTemplateCache {
+    private static final JavaTemplateCache INSTANCE = new JavaTemplateCache(
+            Integer.getInteger("rewrite.template.cache.maximumSize", 4_096));
+
+    static {
+        Gauge.builder("rewrite.template.cache.size", INSTANCE, JavaTemplateCache::size)
+                .description("The number of parsed templates held in the shared template cache")
+                .register(Metrics.globalRegistry);
+    }
+
+    private final int maximumSize;
+    private final Map<Key, SoftReference<List<? extends J>>> entries;
+
+    public JavaTemplateCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<Key, SoftReference<List<? extends J>>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SoftReference<List<? extends J>>> eldest) {
+                if (size() > JavaTemplateCache.this.maximumSize) {
+                    Counter.builder("rewrite.template.cache.evictions")
+                            .register(Metrics.globalRegistry)
+                            .increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return The cache shared by all template parsers in this JVM. Its maximum size is controlled
+     * by the {@code rewrite.template.cache.maximumSize} system property.
+     */
+    public static JavaTemplateCache getInstance() {
+        return INSTANCE;
+    }
+
+    public @Nullable List<? extends J> get(String classpathFingerprint, Object stubKey) {
+        List<? extends J> js = null;
+        Key key = new Key(classpathFingerprint, stubKey);
+        synchronized (entries) {
+            SoftReference<List<? extends J>> ref = entries.get(key);
+            if (ref != null) {
+                js = ref.get();
+                if (js == null) {
+                    entries.remove(key);
+                }
+            }
+        }
+        Counter.builder("rewrite.template.cache.requests")
+                .tag("result", js == null ? "miss" : "hit")
+                .register(Metrics.globalRegistry)
+                .increment();
+        return js;
+    }
+
+    public void put(String classpathFingerprint, Object stubKey, List<? extends J> js) {
+        if (maximumSize <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(new Key(classpathFingerprint, stubKey), new SoftReference<>(js));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Value
+    private static class Key {
+        String classpathFingerprint;
+        Object stubKey;
+    }
+}
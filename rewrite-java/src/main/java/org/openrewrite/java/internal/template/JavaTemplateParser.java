@@ -34,6 +34,7 @@
 import org.openrewrite.java.tree.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -67,6 +68,13 @@ public class JavaTemplateParser {
     private final BlockStatementTemplateGenerator statementTemplateGenerator;
     private final AnnotationTemplateGenerator annotationTemplateGenerator;
 
+    /**
+     * Computed on first use. Empty when the parser's classpath can't be fingerprinted, in which case
+     * parsed templates are only cached for the duration of a recipe cycle.
+     */
+    @Nullable
+    private String classpathFingerprint;
+
     public JavaTemplateParser(boolean contextSensitive, Parser.Builder parser, Consumer<String> onAfterVariableSubstitution,
                               Consumer<String> onBeforeParseTemplate, Set<String> imports, String bindType) {
         this(
@@ -199,28 +207,28 @@ public J.MethodInvocation parseMethod(Cursor cursor, String template, Collection
         } else {
             methodWithReplacedNameAndArgs = method.getSelect().print(cursor) + "." + template;
         }
-        // TODO: The stub string includes the scoped elements of each original AST, and therefore is not a good
-        //       cache key. There are virtual no cases where a stub key will result in re-use. If we can come up with
-        //       a safe, reusable key, we can consider using the cache for block statements.
+        // the stub includes the scoped elements of the enclosing source, so it is only reused when a template is
+        // applied again in the same place, as when a recipe runs in another cycle
         @Language("java") String stub = statementTemplateGenerator.template(cursor, methodWithReplacedNameAndArgs, typeVariables, location, JavaCoordinates.Mode.REPLACEMENT);
         onBeforeParseTemplate.accept(stub);
-        JavaSourceFile cu = compileTemplate(cursor, stub);
-        return (J.MethodInvocation) statementTemplateGenerator
-                .listTemplatedTrees(cu, Statement.class).get(0);
+        return (J.MethodInvocation) this.<Statement>cache(cursor, new ContextSensitiveCacheKey(stub, Statement.class), () -> {
+            JavaSourceFile cu = compileTemplate(cursor, stub);
+            return statementTemplateGenerator.listTemplatedTrees(cu, Statement.class);
+        }).get(0);
     }
 
     public J.MethodInvocation parseMethodArguments(Cursor cursor, String template, Collection<JavaType.GenericTypeVariable> typeVariables, Space.Location location) {
         J.MethodInvocation method = cursor.getValue();
         String methodWithReplacementArgs = method.withArguments(emptyList()).printTrimmed(cursor.getParentOrThrow())
                 .replaceAll("\\)$", template + (isStatement(cursor) ? ");" : ")"));
-        // TODO: The stub string includes the scoped elements of each original AST, and therefore is not a good
-        //       cache key. There are virtual no cases where a stub key will result in re-use. If we can come up with
-        //       a safe, reusable key, we can consider using the cache for block statements.
+        // the stub includes the scoped elements of the enclosing source, so it is only reused when a template is
+        // applied again in the same place, as when a recipe runs in another cycle
         @Language("java") String stub = statementTemplateGenerator.template(cursor, methodWithReplacementArgs, typeVariables, location, JavaCoordinates.Mode.REPLACEMENT);
         onBeforeParseTemplate.accept(stub);
-        JavaSourceFile cu = compileTemplate(cursor, stub);
-        return (J.MethodInvocation) statementTemplateGenerator
-                .listTemplatedTrees(cu, Statement.class).get(0);
+        return (J.MethodInvocation) this.<Statement>cache(cursor, new ContextSensitiveCacheKey(stub, Statement.class), () -> {
+            JavaSourceFile cu = compileTemplate(cursor, stub);
+            return statementTemplateGenerator.listTemplatedTrees(cu, Statement.class);
+        }).get(0);
     }
 
     private boolean isStatement(Cursor cursor) {
@@ -305,8 +313,8 @@ private JavaSourceFile compileTemplate(Cursor cursor, @Language("java") String s
      * returns {@code null} otherwise and callers fall back to a fresh factory.
      */
     private static @Nullable JavaTypeFactory enclosingTypeFactory(Cursor cursor) {
-        return cursor.firstEnclosingOrThrow(SourceFile.class)
-                .getMarkers().findFirst(JavaSourceSet.class)
+        SourceFile sourceFile = cursor.firstEnclosing(SourceFile.class);
+        return sourceFile == null ? null : sourceFile.getMarkers().findFirst(JavaSourceSet.class)
                 .map(JavaSourceSet::getTypeFactory)
                 .orElse(null);
     }
@@ -342,27 +350,40 @@ private <J2 extends J> List<J2> cacheIfContextFree(Cursor cursor, ContextFreeCac
         if (!contextSensitive) {
             return cache(cursor, key, () -> treeMapper.apply(stubMapper.apply(key.getTemplate())));
         }
-        //noinspection unchecked
-        return (List<J2>) treeMapper.apply(stubMapper.apply(key.getTemplate()));
+        // the stub includes the context, so it is its own key
+        String stub = stubMapper.apply(key.getTemplate());
+        return cache(cursor, new ContextSensitiveCacheKey(stub, key.getExpected()), () -> treeMapper.apply(stub));
     }
 
     @SuppressWarnings("unchecked")
     private <J2 extends J> List<J2> cache(Cursor cursor, Object key, Supplier<List<? extends J>> ifAbsent) {
-        List<J2> js = null;
+        List<J2> js;
 
         Timer.Sample sample = Timer.start();
-        Cursor root = cursor.getRoot();
-        Map<Object, List<J2>> cache = root.getMessage(TEMPLATE_CACHE_MESSAGE_KEY);
-        if (cache == null) {
-            cache = new HashMap<>();
-            root.putMessage(TEMPLATE_CACHE_MESSAGE_KEY, cache);
+        String fingerprint = classpathFingerprint();
+        JavaTypeFactory typeFactory = enclosingTypeFactory(cursor);
+        Map<Object, List<J2>> cycleCache = null;
+        if (fingerprint != null && typeFactory == null && !(key instanceof ContextSensitiveCacheKey)) {
+            // outlives the cycle, since the parsed elements only depend on the stub and the classpath
+            js = (List<J2>) JavaTemplateCache.getInstance().get(fingerprint, key);
         } else {
-            js = cache.get(key);
+            // stubs that embed their context and the types of templates parsed with the type factory
+            // of a source set belong to the cycle that produced them
+            if (typeFactory != null) {
+                key = new TypeFactoryCacheKey(key, typeFactory);
+            }
+            cycleCache = cursor.getRoot().computeMessageIfAbsent(TEMPLATE_CACHE_MESSAGE_KEY, k -> new ConcurrentHashMap<>());
+            js = cycleCache.get(key);
         }
 
         if (js == null) {
             js = (List<J2>) ifAbsent.get();
-            cache.put(key, js);
+            if (cycleCache != null) {
+                cycleCache.put(key, js);
+            } else {
+                //noinspection DataFlowIssue
+                JavaTemplateCache.getInstance().put(fingerprint, key, js);
+            }
             sample.stop(Timer.builder("rewrite.template.cache").tag("result", "miss")
                     .register(Metrics.globalRegistry));
         } else {
@@ -373,6 +394,15 @@ private <J2 extends J> List<J2> cache(Cursor cursor, Object key, Supplier<List<?
         return ListUtils.map(js, j -> (J2) new RandomizeIdVisitor<Integer>().visit(j, 0));
     }
 
+    private @Nullable String classpathFingerprint() {
+        if (classpathFingerprint == null) {
+            classpathFingerprint = parser instanceof JavaParser.Builder ?
+                    ((JavaParser.Builder<?, ?>) parser).getClasspathFingerprint() :
+                    "";
+        }
+        return classpathFingerprint.isEmpty() ? null : classpathFingerprint;
+    }
+
     @Value
     private static class ContextFreeCacheKey {
         String template;
@@ -380,4 +410,16 @@ private static class ContextFreeCacheKey {
         Class<? extends J> expected;
         Set<String> imports;
     }
+
+    @Value
+    private static class ContextSensitiveCacheKey {
+        String stub;
+        Class<? extends J> expected;
+    }
+
+    @Value
+    private static class TypeFactoryCacheKey {
+        Object key;
+        JavaTypeFactory typeFactory;
+    }
 }
@@ -15,11 +15,20 @@
  */
 package org.openrewrite.java.marker;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ClassInfo;
 import io.github.classgraph.ClassInfoList;
 import io.github.classgraph.ScanResult;
-import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Setter;
@@ -38,9 +47,12 @@
 
 import java.beans.ConstructorProperties;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.net.URI;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -58,12 +70,25 @@ public class JavaSourceSet implements SourceSet {
 
     String name;
 
+    /**
+     * Built by {@link #build(String, Collection)}, or deserialized, the types of each artifact in
+     * {@link #getGavToTypes()} are shared with the classpath rather than copied into it, so that adding the types
+     * of an artifact costs in proportion to the number of artifacts, not of types. Removing them drops the types of
+     * the artifact without looking at them, but still looks at every other type on the classpath, since another
+     * artifact may provide the same type.
+     * <p>
+     * Serialized with the types that are no more than a name as just the name.
+     */
+    @JsonSerialize(using = TypeListSerializer.class)
+    @JsonDeserialize(using = TypeListDeserializer.class)
     List<JavaType.FullyQualified> classpath;
 
     /**
      * Mapping of a String taking the form "group:artifact:version" to the types provided by that artifact.
      * Does not include java standard library types.
      */
+    @JsonSerialize(contentUsing = TypeListSerializer.class)
+    @JsonDeserialize(contentUsing = TypeListDeserializer.class)
     Map<String, List<JavaType.FullyQualified>> gavToTypes;
 
     /**
@@ -94,7 +119,7 @@ public JavaSourceSet(UUID id, String name,
                          @Nullable JavaTypeFactory typeFactory) {
         this.id = id;
         this.name = name;
-        this.classpath = classpath;
+        this.classpath = SegmentedClasspath.segment(classpath, gavToTypes);
         this.gavToTypes = gavToTypes;
         this.typeFactory = typeFactory;
     }
@@ -175,13 +200,18 @@ public JavaSourceSet addTypesForGav(String gavKey, List<JavaType.FullyQualified>
             return this;
         }
 
-        List<JavaType.FullyQualified> newClasspath = new ArrayList<>(classpath);
-        newClasspath.addAll(types);
+        List<JavaType.FullyQualified> newClasspath;
+        if (classpath instanceof SegmentedClasspath) {
+            newClasspath = ((SegmentedClasspath) classpath).withTypes(types);
+        } else {
+            newClasspath = new ArrayList<>(classpath);
+            newClasspath.addAll(types);
+        }
 
         Map<String, List<JavaType.FullyQualified>> newGavToTypes = new LinkedHashMap<>(gavToTypes);
         newGavToTypes.put(gavKey, types);
 
-        return withClasspath(newClasspath).withGavToTypes(newGavToTypes);
+        return new JavaSourceSet(id, name, newClasspath, newGavToTypes, typeFactory);
     }
 
     /**
@@ -194,19 +224,7 @@ public JavaSourceSet removeTypesForGav(String gavKey) {
         if (gavToTypes.isEmpty() || !gavToTypes.containsKey(gavKey)) {
             return this;
         }
-        Set<JavaType.FullyQualified> oldTypesSet = new HashSet<>(gavToTypes.get(gavKey));
-
-        List<JavaType.FullyQualified> newClasspath = new ArrayList<>(classpath.size());
-        for (JavaType.FullyQualified type : classpath) {
-            if (!oldTypesSet.contains(type)) {
-                newClasspath.add(type);
-            }
-        }
-
-        Map<String, List<JavaType.FullyQualified>> newGavToTypes = new LinkedHashMap<>(gavToTypes);
-        newGavToTypes.remove(gavKey);
-
-        return withClasspath(newClasspath).withGavToTypes(newGavToTypes);
+        return withoutGavs(Collections.singleton(gavKey));
     }
 
     /**
@@ -232,21 +250,32 @@ public JavaSourceSet removeTypesMatching(String groupIdPattern, String artifactI
         if (keysToRemove.isEmpty()) {
             return this;
         }
+        return withoutGavs(keysToRemove);
+    }
+
+    private JavaSourceSet withoutGavs(Set<String> keysToRemove) {
+        List<List<JavaType.FullyQualified>> removedTypeLists = new ArrayList<>(keysToRemove.size());
         Set<JavaType.FullyQualified> typesToRemove = new HashSet<>();
         for (String key : keysToRemove) {
+            removedTypeLists.add(gavToTypes.get(key));
             typesToRemove.addAll(gavToTypes.get(key));
         }
-        List<JavaType.FullyQualified> newClasspath = new ArrayList<>(classpath.size());
-        for (JavaType.FullyQualified type : classpath) {
-            if (!typesToRemove.contains(type)) {
-                newClasspath.add(type);
+        List<JavaType.FullyQualified> newClasspath;
+        if (classpath instanceof SegmentedClasspath) {
+            newClasspath = ((SegmentedClasspath) classpath).withoutTypes(removedTypeLists, typesToRemove);
+        } else {
+            newClasspath = new ArrayList<>(classpath.size());
+            for (JavaType.FullyQualified type : classpath) {
+                if (!typesToRemove.contains(type)) {
+                    newClasspath.add(type);
+                }
             }
         }
         Map<String, List<JavaType.FullyQualified>> newGavToTypes = new LinkedHashMap<>(gavToTypes);
         for (String key : keysToRemove) {
             newGavToTypes.remove(key);
         }
-        return withClasspath(newClasspath).withGavToTypes(newGavToTypes);
+        return new JavaSourceSet(id, name, newClasspath, newGavToTypes, typeFactory);
     }
 
     /**
@@ -444,18 +473,21 @@ private static List<JavaType.FullyQualified> typesFrom(List<String> typeNames) {
      * Uses file I/O to compute the classpath.
      */
     public static JavaSourceSet build(String sourceSetName, Collection<Path> classpath) {
-        List<JavaType.FullyQualified> types = getJavaStandardLibraryTypes();
+        List<List<JavaType.FullyQualified>> segments = new ArrayList<>(classpath.size() + 1);
+        segments.add(getJavaStandardLibraryTypes());
         Map<String, List<JavaType.FullyQualified>> gavToTypes = new LinkedHashMap<>();
         for (Path path : classpath) {
-            List<JavaType.FullyQualified> typesFromPath = typesFromPath(path, null);
+            List<JavaType.FullyQualified> typesFromPath = cachedTypesFromPath(path);
 
-            types.addAll(typesFromPath);
             String gav = gavFromPath(path);
             if (gav != null) {
+                // a later artifact with the same coordinates replaces the earlier one in gavToTypes, while the
+                // types of both stay on the classpath
                 gavToTypes.put(gav, typesFromPath);
             }
+            segments.add(typesFromPath);
         }
-        return new JavaSourceSet(randomId(), sourceSetName, types, gavToTypes);
+        return new JavaSourceSet(randomId(), sourceSetName, new SegmentedClasspath(segments), gavToTypes);
     }
 
     /**
@@ -519,6 +551,58 @@ public static JavaSourceSet build(String sourceSetName, Collection<Path> classpa
 
     // Worth caching as there is typically substantial overlap in dependencies in use within the same repository
     // Even a single module project will typically have at least two source sets, main and test
+    private static final Map<Path, JarTypes> JAR_TYPES = new ConcurrentHashMap<>();
+
+    private static @Nullable List<JavaType.FullyQualified> javaStandardLibraryTypes;
+
+    /**
+     * The types of jars are shared by every source set built with the jar, for as long as the jar is unchanged and
+     * there is no shortage of memory. The types of directories, which are typically build outputs, are not.
+     */
+    private static List<JavaType.FullyQualified> cachedTypesFromPath(Path path) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return Collections.emptyList();
+        }
+        if (!attributes.isRegularFile()) {
+            return Collections.unmodifiableList(typesFromPath(path, null));
+        }
+        JarTypes cached = JAR_TYPES.get(path);
+        List<JavaType.FullyQualified> types = cached == null ? null : cached.typesIfUnchanged(attributes);
+        if (types == null) {
+            types = Collections.unmodifiableList(typesFromPath(path, null));
+            // the paths of jars whose types were collected are forgotten as other jars are scanned, so the cache
+            // only holds paths whose types are still in memory
+            JAR_TYPES.values().removeIf(JarTypes::isCleared);
+            JAR_TYPES.put(path, new JarTypes(attributes, types));
+        }
+        return types;
+    }
+
+    private static class JarTypes {
+        private final long size;
+        private final long lastModified;
+        private final SoftReference<List<JavaType.FullyQualified>> types;
+
+        JarTypes(BasicFileAttributes attributes, List<JavaType.FullyQualified> types) {
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.types = new SoftReference<>(types);
+        }
+
+        @Nullable
+        List<JavaType.FullyQualified> typesIfUnchanged(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis() ?
+                    types.get() : null;
+        }
+
+        boolean isCleared() {
+            return types.get() == null;
+        }
+    }
+
     public static List<JavaType.FullyQualified> typesFromPath(Path path, @Nullable String acceptPackage) {
         List<JavaType.FullyQualified> types = new ArrayList<>();
         try {
@@ -571,17 +655,24 @@ static boolean isMetaInfEntry(String entryName) {
         return normalized.startsWith("META-INF/");
     }
 
+    /**
+     * The Java standard library types don't change for the life of the JVM, so every source set shares them.
+     */
     private static List<JavaType.FullyQualified> getJavaStandardLibraryTypes() {
-        List<JavaType.FullyQualified> javaStandardLibraryTypes = new ArrayList<>();
-        Path toolsJar = Paths.get(System.getProperty("java.home")).resolve("../lib/tools.jar");
-        if (Files.exists(toolsJar)) {
-            javaStandardLibraryTypes.addAll(typesFromPath(toolsJar, "java"));
-        } else {
-            javaStandardLibraryTypes.addAll(typesFromPath(
-                    FileSystems.getFileSystem(URI.create("jrt:/")).getPath("modules", "java.base"),
-                    "java"));
+        List<JavaType.FullyQualified> types = javaStandardLibraryTypes;
+        if (types == null) {
+            Path toolsJar = Paths.get(System.getProperty("java.home")).resolve("../lib/tools.jar");
+            if (Files.exists(toolsJar)) {
+                types = typesFromPath(toolsJar, "java");
+            } else {
+                types = typesFromPath(
+                        FileSystems.getFileSystem(URI.create("jrt:/")).getPath("modules", "java.base"),
+                        "java");
+            }
+            types = Collections.unmodifiableList(types);
+            javaStandardLibraryTypes = types;
         }
-        return javaStandardLibraryTypes;
+        return types;
     }
 
     private static String entryNameToClassName(String entryName) {
@@ -595,3 +686,85 @@ static boolean isDeclarable(String className) {
         return dotIndex != -1 && dotIndex < className.length() - 1 && Character.isJavaIdentifierStart(className.charAt(dotIndex + 1));
     }
 }
+
+/**
+ * Writes the types of a classpath that are no more than a name, as {@link JavaType.ShallowClass#build(String)}
+ * makes them, as just the name, which is most of them and a fraction of the size. Any other type is written as it
+ * otherwise would be.
+ */
+class TypeListSerializer extends JsonSerializer<List<JavaType.FullyQualified>> {
+    @Override
+    public void serialize(List<JavaType.FullyQualified> types, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartArray(types, types.size());
+        for (JavaType.FullyQualified type : types) {
+            if (isNameOnly(type)) {
+                gen.writeString(type.getFullyQualifiedName());
+            } else {
+                serializers.defaultSerializeValue(type, gen);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    private static boolean isNameOnly(JavaType.FullyQualified type) {
+        return type.getClass() == JavaType.ShallowClass.class &&
+               sameAsBuilt((JavaType.ShallowClass) type, JavaType.ShallowClass.build(type.getFullyQualifiedName()));
+    }
+
+    /**
+     * Whether the type has every field that is serialized as the type built from its name does, so that building
+     * it again from the name on deserialization loses nothing.
+     */
+    private static boolean sameAsBuilt(JavaType.@Nullable FullyQualified type, JavaType.@Nullable FullyQualified built) {
+        if (type == null || built == null) {
+            return type == built;
+        }
+        return type.getClass() == built.getClass() &&
+               ((JavaType.Class) type).getFlagsBitMap() == ((JavaType.Class) built).getFlagsBitMap() &&
+               type.getFullyQualifiedName().equals(built.getFullyQualifiedName()) &&
+               type.getKind() == built.getKind() &&
+               type.getTypeParameters().isEmpty() &&
+               type.getSupertype() == null &&
+               type.getAnnotations().isEmpty() &&
+               type.getInterfaces().isEmpty() &&
+               type.getMembers().isEmpty() &&
+               type.getMethods().isEmpty() &&
+               sameAsBuilt(type.getOwningClass(), built.getOwningClass());
+    }
+}
+
+/**
+ * Reads the types of a classpath written by {@link TypeListSerializer}, or as they were written before it. A type
+ * written as a name is built once per deserialization, so that the classpath and the types of each artifact share
+ * the same instances, as they did when serialized.
+ */
+class TypeListDeserializer extends JsonDeserializer<List<JavaType.FullyQualified>> {
+    private static final String SHALLOW_TYPES = "org.openrewrite.java.marker.shallowTypes";
+
+    @Override
+    public List<JavaType.FullyQualified> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            return ctxt.reportInputMismatch(this, "Expected an array of types but found %s", p.currentToken());
+        }
+        Map<String, JavaType.FullyQualified> shallowTypes = shallowTypes(ctxt);
+        List<JavaType.FullyQualified> types = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                types.add(shallowTypes.computeIfAbsent(p.getText(), JavaType.ShallowClass::build));
+            } else {
+                types.add(ctxt.readValue(p, JavaType.FullyQualified.class));
+            }
+        }
+        return types;
+    }
+
+    private static Map<String, JavaType.FullyQualified> shallowTypes(DeserializationContext ctxt) {
+        //noinspection unchecked
+        Map<String, JavaType.FullyQualified> shallowTypes = (Map<String, JavaType.FullyQualified>) ctxt.getAttribute(SHALLOW_TYPES);
+        if (shallowTypes == null) {
+            shallowTypes = new HashMap<>();
+            ctxt.setAttribute(SHALLOW_TYPES, shallowTypes);
+        }
+        return shallowTypes;
+    }
+}
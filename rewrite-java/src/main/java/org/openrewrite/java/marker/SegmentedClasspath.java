@@ -0,0 +1,196 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.marker;
+
+import org.openrewrite.java.tree.JavaType;
+
+import java.util.*;
+
+/**
+ * The classpath of a {@link JavaSourceSet} as the concatenation of the type lists it was built from, one per
+ * artifact plus those not provided by an artifact, like the Java standard library types. The type lists are
+ * shared, not copied, so adding or removing the types of an artifact only copies the list of segments and any
+ * segment that has a removed type, and source sets built from the same artifacts share their types. Adding the
+ * types of an artifact costs in proportion to the number of segments, and removing them to the number of types
+ * in the segments that remain.
+ */
+final class SegmentedClasspath extends AbstractList<JavaType.FullyQualified> implements RandomAccess {
+    private final List<List<JavaType.FullyQualified>> segments;
+
+    /**
+     * The index into the classpath after the last type of each segment.
+     */
+    private final int[] ends;
+
+    /**
+     * @param segments The types of each segment, which must not be changed afterward.
+     */
+    SegmentedClasspath(List<List<JavaType.FullyQualified>> segments) {
+        this.segments = segments;
+        this.ends = new int[segments.size()];
+        int end = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            end += segments.get(i).size();
+            ends[i] = end;
+        }
+    }
+
+    /**
+     * Recognize a classpath that has the types of each artifact one after the other, in the order of the map and
+     * as the same instances, as {@link JavaSourceSet#build(String, Collection)} makes them and as they are
+     * deserialized. Any other types may come before, after, or between them.
+     *
+     * @return The classpath in segments, or the classpath itself if it isn't made that way.
+     */
+    static List<JavaType.FullyQualified> segment(List<JavaType.FullyQualified> classpath,
+                                                 Map<String, List<JavaType.FullyQualified>> gavToTypes) {
+        if (classpath instanceof SegmentedClasspath || gavToTypes.isEmpty()) {
+            return classpath;
+        }
+        List<List<JavaType.FullyQualified>> segments = new ArrayList<>();
+        int i = 0;
+        for (List<JavaType.FullyQualified> types : gavToTypes.values()) {
+            if (!types.isEmpty()) {
+                int start = i;
+                while (i < classpath.size() && classpath.get(i) != types.get(0)) {
+                    i++;
+                }
+                if (classpath.size() - i < types.size()) {
+                    return classpath;
+                }
+                if (i > start) {
+                    segments.add(new ArrayList<>(classpath.subList(start, i)));
+                }
+                for (JavaType.FullyQualified type : types) {
+                    if (classpath.get(i++) != type) {
+                        return classpath;
+                    }
+                }
+            }
+            segments.add(types);
+        }
+        if (i < classpath.size()) {
+            segments.add(new ArrayList<>(classpath.subList(i, classpath.size())));
+        }
+        return new SegmentedClasspath(segments);
+    }
+
+    /**
+     * @return This classpath with the types of an artifact after all the others, as adding them to a list of types
+     * would have them.
+     */
+    SegmentedClasspath withTypes(List<JavaType.FullyQualified> types) {
+        List<List<JavaType.FullyQualified>> newSegments = new ArrayList<>(segments.size() + 1);
+        newSegments.addAll(segments);
+        newSegments.add(types);
+        return new SegmentedClasspath(newSegments);
+    }
+
+    /**
+     * Remove every type equal to one of the types to remove, wherever it is on the classpath, as removing them
+     * from a list of types would. Segments that are the type lists of the removed artifacts are dropped without
+     * looking at their types, and any other segment is only copied when it has a type to remove, like a type
+     * that more than one artifact provides. Every type of the segments that remain is looked up in the types to
+     * remove, as there is no index of which segments have a type.
+     *
+     * @param removedTypeLists The type lists of the removed artifacts, all of whose types are to be removed.
+     * @param typesToRemove    The types to remove.
+     * @return This classpath without the types, or this instance if it has none of them.
+     */
+    SegmentedClasspath withoutTypes(Collection<List<JavaType.FullyQualified>> removedTypeLists,
+                                    Set<JavaType.FullyQualified> typesToRemove) {
+        Set<List<JavaType.FullyQualified>> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        removed.addAll(removedTypeLists);
+        List<List<JavaType.FullyQualified>> newSegments = new ArrayList<>(segments.size());
+        boolean changed = false;
+        for (List<JavaType.FullyQualified> segment : segments) {
+            if (removed.contains(segment)) {
+                changed = true;
+                continue;
+            }
+            List<JavaType.FullyQualified> kept = null;
+            for (int i = 0; i < segment.size(); i++) {
+                JavaType.FullyQualified type = segment.get(i);
+                if (typesToRemove.contains(type)) {
+                    if (kept == null) {
+                        kept = new ArrayList<>(segment.subList(0, i));
+                    }
+                } else if (kept != null) {
+                    kept.add(type);
+                }
+            }
+            if (kept == null) {
+                newSegments.add(segment);
+            } else {
+                changed = true;
+                if (!kept.isEmpty()) {
+                    newSegments.add(kept);
+                }
+            }
+        }
+        return changed ? new SegmentedClasspath(newSegments) : this;
+    }
+
+    @Override
+    public JavaType.FullyQualified get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int segment = Arrays.binarySearch(ends, index + 1);
+        if (segment < 0) {
+            segment = -segment - 1;
+        } else {
+            // empty segments share their end with the segment before them
+            while (segment > 0 && ends[segment - 1] == ends[segment]) {
+                segment--;
+            }
+        }
+        int start = segment == 0 ? 0 : ends[segment - 1];
+        return segments.get(segment).get(index - start);
+    }
+
+    @Override
+    public int size() {
+        return ends.length == 0 ? 0 : ends[ends.length - 1];
+    }
+
+    @Override
+    public Iterator<JavaType.FullyQualified> iterator() {
+        return new Iterator<JavaType.FullyQualified>() {
+            private int segment;
+            private Iterator<JavaType.FullyQualified> types = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!types.hasNext()) {
+                    if (segment == segments.size()) {
+                        return false;
+                    }
+                    types = segments.get(segment++).iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public JavaType.FullyQualified next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return types.next();
+            }
+        };
+    }
+}
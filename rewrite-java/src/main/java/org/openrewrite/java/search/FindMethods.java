@@ -39,7 +39,7 @@
  */
 @EqualsAndHashCode(callSuper = false)
 @Value
-public class FindMethods extends Recipe {
+public class FindMethods extends Recipe implements RecipeApplicability {
 
     /**
      * A method pattern that is used to find matching method invocations.
@@ -82,6 +82,12 @@ public Validated<Object> validate() {
         return super.validate().and(MethodMatcher.validate(methodPattern));
     }
 
+    @Override
+    public boolean mayApply(SourceFile sourceFile, ExecutionContext ctx) {
+        TypeUsageIndex index = TypeUsageIndex.get(ctx);
+        return index == null || !Boolean.FALSE.equals(index.mayUseMethod(sourceFile, methodPattern));
+    }
+
     @Override
     @SuppressWarnings("ConstantConditions")
     public TreeVisitor<?, ExecutionContext> getVisitor() {
@@ -35,7 +35,7 @@
 
 @Value
 @EqualsAndHashCode(callSuper = false)
-public class FindTypes extends Recipe {
+public class FindTypes extends Recipe implements RecipeApplicability {
 
     @Option(displayName = "Fully-qualified type name",
             description = "A fully-qualified type name, that is used to find matching type references. " +
@@ -59,6 +59,12 @@ private String dataTableInstanceName() {
 
     String description = "Find type references by name.";
 
+    @Override
+    public boolean mayApply(SourceFile sourceFile, ExecutionContext ctx) {
+        TypeUsageIndex index = TypeUsageIndex.get(ctx);
+        return index == null || !Boolean.FALSE.equals(index.mayUseType(sourceFile, fullyQualifiedTypeName));
+    }
+
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
         TypeNameMatcher fullyQualifiedType = TypeNameMatcher.fromPattern(fullyQualifiedTypeName);
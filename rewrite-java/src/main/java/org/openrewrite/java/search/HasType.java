@@ -21,11 +21,13 @@
 import org.openrewrite.ExecutionContext;
 import org.openrewrite.Option;
 import org.openrewrite.Recipe;
+import org.openrewrite.RecipeApplicability;
+import org.openrewrite.SourceFile;
 import org.openrewrite.TreeVisitor;
 
 @Value
 @EqualsAndHashCode(callSuper = false)
-public class HasType extends Recipe {
+public class HasType extends Recipe implements RecipeApplicability {
     @Option(displayName = "Fully-qualified type name",
             description = "A fully-qualified type name, that is used to find matching type references. " +
                           "Supports glob expressions. `java..*` finds every type from every subpackage of the `java` package.",
@@ -43,6 +45,12 @@ public class HasType extends Recipe {
     String description = "Marks files that have at least one occurrence of a type, even if the " +
                "name of that type doesn't appear in the source code.";
 
+    @Override
+    public boolean mayApply(SourceFile sourceFile, ExecutionContext ctx) {
+        TypeUsageIndex index = TypeUsageIndex.get(ctx);
+        return index == null || !Boolean.FALSE.equals(index.mayUseType(sourceFile, fullyQualifiedTypeName));
+    }
+
     @Override
     public TreeVisitor<?, ExecutionContext> getVisitor() {
         return new UsesType<>(fullyQualifiedTypeName, checkAssignability);
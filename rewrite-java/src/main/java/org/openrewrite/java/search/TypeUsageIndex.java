@@ -0,0 +1,225 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.search;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+import org.openrewrite.Parser;
+import org.openrewrite.SourceFile;
+import org.openrewrite.internal.AdaptiveRadixTree;
+import org.openrewrite.java.MethodMatcher;
+import org.openrewrite.java.internal.TypesInUse;
+import org.openrewrite.java.tree.JavaSourceFile;
+import org.openrewrite.java.tree.JavaType;
+import org.openrewrite.tree.ParsingEventListener;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An inverted index from the fully qualified types and the method names that Java source files use to the
+ * source files that use them, so that preconditions like {@link UsesType} and {@link UsesMethod} can rule out
+ * a source file without visiting it.
+ * <p>
+ * The index is built once for a run, either while parsing, by registering it as the
+ * {@link ParsingEventListener}, or from the parsed source files with {@link #build(Iterable)}. Either way it is
+ * made available to recipes with {@link #register(ExecutionContext)}. Source files are known by their id, so
+ * when a recipe asks about a version of a source file that an earlier recipe of the run changed, that version is
+ * indexed in place of the one before. Source files the index has never seen are checked the usual way.
+ */
+@Incubating(since = "8.85.0")
+public class TypeUsageIndex implements ParsingEventListener {
+    private static final String TYPE_USAGE_INDEX = "org.openrewrite.java.typeUsageIndex";
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Fully qualified type names, with {@code $} in inner class names replaced by {@code .}, to the ordinals of
+     * the source files that use them.
+     */
+    private final AdaptiveRadixTree<BitSet> types = new AdaptiveRadixTree<>();
+
+    /**
+     * Method names to the ordinals of the source files that call them.
+     */
+    private final AdaptiveRadixTree<BitSet> methods = new AdaptiveRadixTree<>();
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final List<WeakReference<SourceFile>> indexed = new ArrayList<>();
+
+    private final Map<String, Optional<String>> exactMethodNames = new ConcurrentHashMap<>();
+
+    public static TypeUsageIndex build(Iterable<? extends SourceFile> sourceFiles) {
+        TypeUsageIndex index = new TypeUsageIndex();
+        for (SourceFile sourceFile : sourceFiles) {
+            index.add(sourceFile);
+        }
+        return index;
+    }
+
+    public static @Nullable TypeUsageIndex get(ExecutionContext ctx) {
+        return ctx.getMessage(TYPE_USAGE_INDEX);
+    }
+
+    public TypeUsageIndex register(ExecutionContext ctx) {
+        ctx.putMessage(TYPE_USAGE_INDEX, this);
+        return this;
+    }
+
+    @Override
+    public void parsed(Parser.Input input, SourceFile sourceFile) {
+        add(sourceFile);
+    }
+
+    /**
+     * Index a source file, replacing what was indexed for an earlier version of it. Source files other than
+     * Java source files are ignored.
+     */
+    public void add(SourceFile sourceFile) {
+        if (!(sourceFile instanceof JavaSourceFile)) {
+            return;
+        }
+        TypesInUse typesInUse = ((JavaSourceFile) sourceFile).getTypesInUse();
+        Set<String> typeNames = typesInUse.getReachableTypeNames();
+        Set<String> methodNames = new HashSet<>();
+        for (JavaType.Method method : typesInUse.getUsedMethods()) {
+            methodNames.add(canonicalMethodName(method.getName()));
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(sourceFile.getId());
+            if (ordinal == null) {
+                ordinal = indexed.size();
+                ordinals.put(sourceFile.getId(), ordinal);
+                indexed.add(new WeakReference<>(sourceFile));
+            } else {
+                // The bits of the earlier version are left set, which can only cause a needless visit
+                indexed.set(ordinal, new WeakReference<>(sourceFile));
+            }
+            for (String typeName : typeNames) {
+                insert(types, canonicalTypeName(typeName), ordinal);
+            }
+            for (String methodName : methodNames) {
+                insert(methods, methodName, ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param sourceFile         The source file to check.
+     * @param fullyQualifiedType A fully qualified type name or a {@link UsesType} pattern.
+     * @return {@code false} when the source file certainly does not use the type, {@code true} when it may,
+     * or {@code null} when the index can't tell because no version of the source file or the pattern is indexed.
+     */
+    public @Nullable Boolean mayUseType(SourceFile sourceFile, String fullyQualifiedType) {
+        if (fullyQualifiedType.indexOf('*') >= 0) {
+            return null;
+        }
+        return mayUse(types, sourceFile, canonicalTypeName(fullyQualifiedType));
+    }
+
+    /**
+     * @param sourceFile    The source file to check.
+     * @param methodMatcher The method matcher to check.
+     * @return {@code false} when the source file certainly calls no method that matches, {@code true} when it may,
+     * or {@code null} when the index can't tell because no version of the source file is indexed or the method
+     * name is a pattern.
+     */
+    public @Nullable Boolean mayUseMethod(SourceFile sourceFile, MethodMatcher methodMatcher) {
+        String methodName = methodMatcher.getExactMethodName();
+        if (methodName == null) {
+            return null;
+        }
+        return mayUse(methods, sourceFile, canonicalMethodName(methodName));
+    }
+
+    /**
+     * Like {@link #mayUseMethod(SourceFile, MethodMatcher)}, for recipes that hold a method pattern rather than
+     * a matcher.
+     */
+    public @Nullable Boolean mayUseMethod(SourceFile sourceFile, String methodPattern) {
+        String methodName = exactMethodNames.computeIfAbsent(methodPattern,
+                pattern -> Optional.ofNullable(new MethodMatcher(pattern).getExactMethodName())).orElse(null);
+        if (methodName == null) {
+            return null;
+        }
+        return mayUse(methods, sourceFile, canonicalMethodName(methodName));
+    }
+
+    private @Nullable Boolean mayUse(AdaptiveRadixTree<BitSet> tree, SourceFile sourceFile, String key) {
+        Integer ordinal = ordinal(sourceFile);
+        if (ordinal == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            BitSet users = tree.search(key);
+            return users != null && users.get(ordinal);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The ordinal of the source file, after indexing this version of it if an earlier one was indexed,
+     * or {@code null} if no version of it was.
+     */
+    private @Nullable Integer ordinal(SourceFile sourceFile) {
+        if (!(sourceFile instanceof JavaSourceFile)) {
+            return null;
+        }
+        Integer ordinal;
+        boolean current;
+        lock.readLock().lock();
+        try {
+            ordinal = ordinals.get(sourceFile.getId());
+            if (ordinal == null) {
+                return null;
+            }
+            current = indexed.get(ordinal).get() == sourceFile;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!current) {
+            add(sourceFile);
+        }
+        return ordinal;
+    }
+
+    private static void insert(AdaptiveRadixTree<BitSet> tree, String key, int ordinal) {
+        BitSet users = tree.search(key);
+        if (users == null) {
+            users = new BitSet();
+            tree.insert(key, users);
+        }
+        users.set(ordinal);
+    }
+
+    private static String canonicalTypeName(String fullyQualifiedType) {
+        return fullyQualifiedType.indexOf('$') < 0 ? fullyQualifiedType : fullyQualifiedType.replace('$', '.');
+    }
+
+    private static String canonicalMethodName(String methodName) {
+        return "<init>".equals(methodName) ? "<constructor>" : methodName;
+    }
+}
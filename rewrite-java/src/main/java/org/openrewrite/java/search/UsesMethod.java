@@ -20,6 +20,7 @@
 import lombok.Value;
 import lombok.With;
 import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
 import org.openrewrite.java.JavaIsoVisitor;
 import org.openrewrite.java.MethodMatcher;
 import org.openrewrite.java.internal.TypesInUse;
@@ -83,6 +84,10 @@ public J preVisit(J tree, P p) {
         stopAfterPreVisit();
         if (tree instanceof JavaSourceFile) {
             JavaSourceFile cu = (JavaSourceFile) tree;
+            TypeUsageIndex index = p instanceof ExecutionContext ? TypeUsageIndex.get((ExecutionContext) p) : null;
+            if (index != null && Boolean.FALSE.equals(index.mayUseMethod(cu, methodMatcher))) {
+                return tree;
+            }
             if (TYPES_IN_USE_HAS_METHOD_USE
                     ? cu.getTypesInUse().hasMethodUse(methodMatcher)
                     : legacyHasMethodUse(cu)) {
@@ -18,6 +18,7 @@
 import lombok.Getter;
 import lombok.Value;
 import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
 import org.openrewrite.SourceFile;
 import org.openrewrite.SourceFileWithReferences;
 import org.openrewrite.Tree;
@@ -111,6 +112,13 @@ public boolean isAcceptable(SourceFile sourceFile, P p) {
             JavaSourceFile cu = (JavaSourceFile) requireNonNull(tree);
             boolean implicit = Boolean.TRUE.equals(includeImplicit);
 
+            if (fullyQualifiedType != null && p instanceof ExecutionContext) {
+                TypeUsageIndex index = TypeUsageIndex.get((ExecutionContext) p);
+                if (index != null && Boolean.FALSE.equals(index.mayUseType(cu, fullyQualifiedType))) {
+                    return cu;
+                }
+            }
+
             if (TYPES_IN_USE_HAS_TRIE_API) {
                 // Exact FQN: O(1) closure lookup on TypesInUse.
                 if (fullyQualifiedType != null) {
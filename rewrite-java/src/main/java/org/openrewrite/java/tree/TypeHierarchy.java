@@ -0,0 +1,253 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.tree;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.Incubating;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers the assignability questions of {@link TypeUtils} from the supertypes of each type, computed once and
+ * remembered, rather than by walking the supertypes and interfaces of a type on every question.
+ * <p>
+ * The names of all the supertypes of a class, direct or not, are kept as a sorted array of IDs of interned
+ * names, so asking whether a class is assignable to a raw type is a binary search. Questions the supertype names
+ * can't answer alone, like whether {@code List<String>} is assignable to {@code Collection<? extends CharSequence>},
+ * are first ruled out by the raw names when they can be, and otherwise answered by {@link TypeUtils}, so the
+ * answers are always the same as those of {@link TypeUtils}.
+ * <p>
+ * Types are remembered by identity, and only for as long as something else holds on to them, so that a type
+ * graph that is no longer used can be collected. The interned names are kept for as long as the hierarchy is, so it
+ * is meant to live for one recipe run, as the one {@link #get(ExecutionContext)} returns does. Many threads may
+ * ask at once: a class's supertypes are computed without a lock, and two threads that compute those of the same
+ * class at once arrive at the same IDs.
+ * <p>
+ * Only callers that have the execution context of the run can find its hierarchy, like
+ * {@link org.openrewrite.java.search.FindImplementations}. {@link TypeUtils}, {@link org.openrewrite.java.search.UsesType}
+ * and {@link org.openrewrite.java.MethodMatcher} still walk the supertypes on every question.
+ */
+@Incubating(since = "8.85.0")
+public class TypeHierarchy {
+    private static final String TYPE_HIERARCHY = "org.openrewrite.java.typeHierarchy";
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Raw classes, by identity, to the sorted IDs of the names of their supertypes, including their own.
+     */
+    private final Map<TypeKey, int[]> supertypes = new ConcurrentHashMap<>();
+
+    /**
+     * The keys of {@link #supertypes} whose classes have been collected.
+     */
+    private final ReferenceQueue<JavaType.FullyQualified> collected = new ReferenceQueue<>();
+
+    /**
+     * @return The hierarchy for the recipe run the execution context is for, created on first use.
+     */
+    public static TypeHierarchy get(ExecutionContext ctx) {
+        return ctx.computeMessageIfAbsent(TYPE_HIERARCHY, k -> new TypeHierarchy());
+    }
+
+    /**
+     * The same as {@link TypeUtils#isAssignableTo(String, JavaType)}.
+     */
+    public boolean isAssignableTo(String to, @Nullable JavaType from) {
+        if (to.indexOf('<') >= 0) {
+            return TypeUtils.isAssignableTo(to, from);
+        }
+        try {
+            if (from instanceof JavaType.FullyQualified) {
+                // as TypeUtils answers for every class, including those whose supertypes are unknown
+                return "java.lang.Object".equals(to) || hasSupertype((JavaType.FullyQualified) from, to);
+            } else if (from instanceof JavaType.GenericTypeVariable) {
+                for (JavaType bound : ((JavaType.GenericTypeVariable) from).getBounds()) {
+                    if (isAssignableTo(to, bound)) {
+                        return true;
+                    }
+                }
+            } else if (from instanceof JavaType.Variable) {
+                return isAssignableTo(to, ((JavaType.Variable) from).getType());
+            } else if (from instanceof JavaType.Method) {
+                return isAssignableTo(to, ((JavaType.Method) from).getReturnType());
+            } else if (from instanceof JavaType.Intersection) {
+                for (JavaType bound : ((JavaType.Intersection) from).getBounds()) {
+                    if (isAssignableTo(to, bound)) {
+                        return true;
+                    }
+                }
+            } else if (from instanceof JavaType.Primitive) {
+                return TypeUtils.isAssignableTo(to, from);
+            }
+        } catch (Exception e) {
+            return false;
+        }
+        return "java.lang.Object".equals(to);
+    }
+
+    /**
+     * The same as {@link TypeUtils#isAssignableTo(JavaType, JavaType)}.
+     */
+    public boolean isAssignableTo(@Nullable JavaType to, @Nullable JavaType from) {
+        if (to instanceof JavaType.FullyQualified && !(to instanceof JavaType.Unknown) &&
+            (from instanceof JavaType.Class || from instanceof JavaType.Parameterized) && to != from) {
+            JavaType.FullyQualified fqTo = (JavaType.FullyQualified) to;
+            if (TypeUtils.isObject(fqTo)) {
+                return true;
+            }
+            try {
+                if (!hasSupertype((JavaType.FullyQualified) from, fqTo.getFullyQualifiedName())) {
+                    return false;
+                } else if (fqTo instanceof JavaType.Class) {
+                    return true;
+                }
+            } catch (Exception e) {
+                return false;
+            }
+        }
+        // type parameters, type variables, arrays, and primitives
+        return TypeUtils.isAssignableTo(to, from);
+    }
+
+    private boolean hasSupertype(JavaType.FullyQualified type, String fullyQualifiedName) {
+        // the names of the supertypes are interned as they are computed, so the name is only looked up after
+        int[] all = supertypes(type);
+        Integer id = ids.get(canonicalName(fullyQualifiedName));
+        return id != null && Arrays.binarySearch(all, id) >= 0;
+    }
+
+    private int[] supertypes(JavaType.FullyQualified type) {
+        JavaType.FullyQualified raw = raw(type);
+        int[] cached = supertypes.get(new TypeKey(raw, null));
+        return cached != null ? cached : computeSupertypes(raw, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * A class that is its own supertype, which no compiler allows, contributes only its own name where the cycle
+     * was found.
+     *
+     * @param computing The classes whose supertypes this thread is computing, to find cycles by.
+     */
+    private int[] computeSupertypes(JavaType.FullyQualified raw, Set<JavaType.FullyQualified> computing) {
+        int[] cached = supertypes.get(new TypeKey(raw, null));
+        if (cached != null) {
+            return cached;
+        }
+        int[] all = new int[]{id(raw.getFullyQualifiedName())};
+        if (!computing.add(raw)) {
+            return all;
+        }
+
+        JavaType.FullyQualified supertype = raw.getSupertype();
+        if (supertype != null) {
+            all = union(all, computeSupertypes(raw(supertype), computing));
+        }
+        for (JavaType.FullyQualified anInterface : raw.getInterfaces()) {
+            all = union(all, computeSupertypes(raw(anInterface), computing));
+        }
+        computing.remove(raw);
+
+        expungeCollected();
+        int[] existing = supertypes.putIfAbsent(new TypeKey(raw, collected), all);
+        return existing != null ? existing : all;
+    }
+
+    private void expungeCollected() {
+        for (Reference<? extends JavaType.FullyQualified> key; (key = collected.poll()) != null; ) {
+            supertypes.remove(key);
+        }
+    }
+
+    private int id(String fullyQualifiedName) {
+        return ids.computeIfAbsent(canonicalName(fullyQualifiedName), n -> nextId.getAndIncrement());
+    }
+
+    private static JavaType.FullyQualified raw(JavaType.FullyQualified type) {
+        return type instanceof JavaType.Parameterized ? ((JavaType.Parameterized) type).getType() : type;
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        if (b.length == 0) {
+            return a;
+        }
+        if (a.length == 0) {
+            return b;
+        }
+        int[] merged = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                merged[k++] = a[i++];
+            } else if (a[i] > b[j]) {
+                merged[k++] = b[j++];
+            } else {
+                merged[k++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            merged[k++] = a[i++];
+        }
+        while (j < b.length) {
+            merged[k++] = b[j++];
+        }
+        return k == merged.length ? merged : Arrays.copyOf(merged, k);
+    }
+
+    private static String canonicalName(String fullyQualifiedName) {
+        return fullyQualifiedName.indexOf('$') < 0 ? fullyQualifiedName : fullyQualifiedName.replace('$', '.');
+    }
+
+    /**
+     * A class, compared by identity, that doesn't keep it from being collected. Keys made without a queue are only
+     * used to look up.
+     */
+    private static class TypeKey extends WeakReference<JavaType.FullyQualified> {
+        private final int hash;
+
+        TypeKey(JavaType.FullyQualified type, @Nullable ReferenceQueue<JavaType.FullyQualified> queue) {
+            super(type, queue);
+            this.hash = System.identityHashCode(type);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TypeKey)) {
+                return false;
+            }
+            JavaType.FullyQualified type = get();
+            // a collected class is only equal to its own key, which is how it is removed
+            return type != null && type == ((TypeKey) obj).get();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentJavaTypeCacheTest {
+
+    @Test
+    void concurrentWritersAndReaders() throws Exception {
+        ConcurrentJavaTypeCache cache = new ConcurrentJavaTypeCache(4);
+        int threads = 8;
+        int signatures = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < signatures; i++) {
+                        // every thread writes a disjoint slice and reads all of them
+                        if (i % threads == thread) {
+                            cache.put("java.lang.Type" + i, i);
+                        }
+                        Integer found = cache.get("java.lang.Type" + i);
+                        assertThat(found).isIn(null, i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < signatures; i++) {
+            assertThat(cache.<Integer>get("java.lang.Type" + i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void putIfAbsentHasOneWinner() throws Exception {
+        ConcurrentJavaTypeCache cache = new ConcurrentJavaTypeCache(4);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.putIfAbsent("java.lang.String", new Object());
+                }));
+            }
+            start.countDown();
+            Object cached = null;
+            for (Future<Object> future : futures) {
+                Object winner = future.get(30, TimeUnit.SECONDS);
+                assertThat(winner).isNotNull().isSameAs(cached == null ? winner : cached);
+                cached = winner;
+            }
+            assertThat(cache.<Object>get("java.lang.String")).isSameAs(cached);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void cloneIsOverlay() {
+        ConcurrentJavaTypeCache shared = new ConcurrentJavaTypeCache();
+        shared.put("java.lang.String", "shared");
+
+        JavaTypeCache overlay = shared.clone();
+        overlay.put("com.Example", "local");
+
+        assertThat(overlay.<String>get("java.lang.String")).isEqualTo("shared");
+        assertThat(shared.<String>get("com.Example")).isNull();
+    }
+
+    @Test
+    void readsThroughToBase() {
+        JavaTypeCache base = new JavaTypeCache();
+        base.put("java.lang.String", "base");
+
+        ConcurrentJavaTypeCache cache = new ConcurrentJavaTypeCache();
+        cache.base = base;
+        assertThat(cache.<String>get("java.lang.String")).isEqualTo("base");
+
+        cache.clear();
+        assertThat(cache.<String>get("java.lang.String")).isEqualTo("base");
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.java.tree.JavaType;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentJavaTypeFactoryTest {
+    ConcurrentJavaTypeFactory factory = new ConcurrentJavaTypeFactory();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @Test
+    void otherThreadGetsTypeOnlyOnceInitialized() throws Exception {
+        CountDownLatch initializing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Future<JavaType.Class> first = executor.submit(() -> factory.computeClass("a.A", 0, JavaType.FullyQualified.Kind.Class, stub -> {
+                initializing.countDown();
+                await(release);
+                stub.unsafeSet((List<JavaType>) null, JavaType.ShallowClass.build("java.lang.Object"), null, null, null, null, null);
+            }));
+            await(initializing);
+            Future<JavaType.Class> second = executor.submit(() -> factory.computeClass("a.A", 0, JavaType.FullyQualified.Kind.Class, stub -> {
+                throw new AssertionError("initializer must run only once");
+            }));
+
+            Thread.sleep(100);
+            assertThat(second).isNotDone();
+            release.countDown();
+
+            JavaType.Class type = second.get(10, TimeUnit.SECONDS);
+            assertThat(type).isSameAs(first.get(10, TimeUnit.SECONDS));
+            assertThat(type.getSupertype()).isNotNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void typesThatReferToEachOtherOnDifferentThreadsDoNotDeadlock() throws Exception {
+        CountDownLatch aInitializing = new CountDownLatch(1);
+        CountDownLatch bInitializing = new CountDownLatch(1);
+        try {
+            Future<JavaType.Class> a = executor.submit(() -> factory.computeClass("a.A", 0, JavaType.FullyQualified.Kind.Class, stub -> {
+                aInitializing.countDown();
+                await(bInitializing);
+                stub.unsafeSet((List<JavaType>) null, factory.computeClass("b.B", 0, JavaType.FullyQualified.Kind.Class, b -> {
+                }), null, null, null, null, null);
+            }));
+            Future<JavaType.Class> b = executor.submit(() -> factory.computeClass("b.B", 0, JavaType.FullyQualified.Kind.Class, stub -> {
+                bInitializing.countDown();
+                await(aInitializing);
+                stub.unsafeSet((List<JavaType>) null, factory.computeClass("a.A", 0, JavaType.FullyQualified.Kind.Class, other -> {
+                }), null, null, null, null, null);
+            }));
+
+            JavaType.Class aType = a.get(10, TimeUnit.SECONDS);
+            JavaType.Class bType = b.get(10, TimeUnit.SECONDS);
+            assertThat(aType.getSupertype()).isSameAs(bType);
+            assertThat(bType.getSupertype()).isSameAs(aType);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.java.tree.JavaType;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JavaTypeCacheSnapshotTest {
+
+    @Test
+    void roundTripsTypeGraph(@TempDir Path tempDir) {
+        JavaTypeCache cache = new JavaTypeCache();
+        new JavaReflectionTypeMapping(cache).type(ArrayList.class);
+
+        Map<String, Object> expected = new HashMap<>();
+        cache.forEach((key, value) -> expected.put(new String(key, StandardCharsets.UTF_8), value));
+        assertThat(expected).isNotEmpty();
+
+        Path image = tempDir.resolve("types.bin");
+        JavaTypeCacheSnapshot.write(cache, image);
+        JavaTypeCacheSnapshot snapshot = JavaTypeCacheSnapshot.open(image);
+        assertThat(snapshot.size()).isEqualTo(expected.size());
+
+        JavaTypeCache overlay = JavaTypeCache.withBase(snapshot);
+        for (Map.Entry<String, Object> entry : expected.entrySet()) {
+            JavaType actual = overlay.get(entry.getKey());
+            assertThat(actual).isNotNull().isNotSameAs(entry.getValue());
+            // the signature covers the type parameters, supertypes and members of the type
+            assertThat(actual.toString()).isEqualTo(entry.getValue().toString());
+            assertThat(overlay.<JavaType>get(entry.getKey())).isSameAs(actual);
+        }
+    }
+
+    @Test
+    void putsInFrontOfImage(@TempDir Path tempDir) {
+        JavaTypeCache cache = new JavaTypeCache();
+        cache.put("java.lang.String", JavaType.ShallowClass.build("java.lang.String"));
+
+        Path image = tempDir.resolve("types.bin");
+        JavaTypeCacheSnapshot.write(cache, image);
+        JavaTypeCacheSnapshot snapshot = JavaTypeCacheSnapshot.open(image);
+
+        JavaTypeCache overlay = snapshot.clone();
+        overlay.put("com.Overlay", JavaType.Primitive.Long);
+        assertThat(overlay.<JavaType>get("com.Overlay")).isSameAs(JavaType.Primitive.Long);
+        assertThat(snapshot.<JavaType>get("com.Overlay")).isNull();
+
+        snapshot.put("com.Example", JavaType.Primitive.Int);
+        assertThat(snapshot.<JavaType>get("com.Example")).isSameAs(JavaType.Primitive.Int);
+        assertThat(overlay.<JavaType>get("com.Example")).isSameAs(JavaType.Primitive.Int);
+        assertThat(snapshot.<JavaType.FullyQualified>get("java.lang.String"))
+          .isInstanceOfSatisfying(JavaType.ShallowClass.class, s -> assertThat(s.getFullyQualifiedName()).isEqualTo("java.lang.String"));
+
+        snapshot.clear();
+        assertThat(snapshot.<JavaType>get("com.Example")).isNull();
+        assertThat(snapshot.<JavaType>get("java.lang.String")).isNotNull();
+        assertThat(JavaTypeCacheSnapshot.open(image).<JavaType>get("com.Example")).isNull();
+    }
+
+    @Test
+    void keepsEmptyListsEmpty(@TempDir Path tempDir) {
+        JavaType.FullyQualified annotationType = JavaType.ShallowClass.build("com.Annotation");
+        JavaType.Method defaultsToEmpty = new JavaType.Method(null, 0L, annotationType, "empty",
+          null, (List<String>) null, null, null, null, null, null)
+          .unsafeSet("empty", 0L, annotationType, JavaType.Primitive.String, new String[0], null, null, null, emptyList(), null);
+        JavaType.Method noDefault = new JavaType.Method(null, 0L, annotationType, "none",
+          JavaType.Primitive.String, (List<String>) null, null, null, null, null, null);
+
+        JavaTypeCache cache = new JavaTypeCache();
+        cache.put("empty", defaultsToEmpty);
+        cache.put("none", noDefault);
+
+        Path image = tempDir.resolve("types.bin");
+        JavaTypeCacheSnapshot.write(cache, image);
+        JavaTypeCacheSnapshot snapshot = JavaTypeCacheSnapshot.open(image);
+
+        assertThat(snapshot.<JavaType.Method>get("empty").getDefaultValue()).isNotNull().isEmpty();
+        assertThat(snapshot.<JavaType.Method>get("none").getDefaultValue()).isNull();
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.java.internal.parser;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.java.JavaParser;
+import org.openrewrite.java.JavaParserExecutionContextView;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.java.internal.parser.TypeTable.VERIFY_CLASS_WRITING;
+
+class IndexedTypeTableTest {
+
+    @TempDir
+    Path tempDir;
+
+    ExecutionContext ctx;
+    JavaCompiler compiler;
+    IndexedTypeTable table;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ctx = new InMemoryExecutionContext();
+        ctx.putMessage(VERIFY_CLASS_WRITING, true);
+        JavaParserExecutionContextView.view(ctx).setParserClasspathDownloadTarget(tempDir.resolve("classpath").toFile());
+        compiler = ToolProvider.getSystemJavaCompiler();
+
+        Path src = Files.createDirectories(tempDir.resolve("src"));
+        Path classes = Files.createDirectories(tempDir.resolve("classes"));
+        //language=java
+        Files.writeString(src.resolve("Base.java"), """
+          package com.example;
+          public class Base {
+              public String name() { return "base"; }
+          }
+          """);
+        //language=java
+        Files.writeString(src.resolve("Api.java"), """
+          package com.example;
+          public class Api extends Base {
+              public static Builder builder() { return new Builder(); }
+              public static class Builder {
+                  public Api build() { return new Api(); }
+              }
+          }
+          """);
+        //language=java
+        Files.writeString(src.resolve("Unused.java"), """
+          package com.example;
+          public class Unused {
+          }
+          """);
+        assertThat(compiler.run(null, null, null, "-d", classes.toString(),
+          src.resolve("Base.java").toString(), src.resolve("Api.java").toString(),
+          src.resolve("Unused.java").toString())).isEqualTo(0);
+
+        table = IndexedTypeTable.open(ctx, index(classes, "types"));
+    }
+
+    private Path index(Path classes, String name) throws Exception {
+        Path jar = Files.createDirectories(tempDir.resolve(name)).resolve("library-1.0.jar");
+        try (var jos = new JarOutputStream(Files.newOutputStream(jar)); Stream<Path> classFiles = Files.walk(classes)) {
+            for (Path classFile : classFiles.filter(Files::isRegularFile).collect(toList())) {
+                jos.putNextEntry(new JarEntry(classes.relativize(classFile).toString().replace('\\', '/')));
+                jos.write(Files.readAllBytes(classFile));
+                jos.closeEntry();
+            }
+        }
+
+        Path tsv = tempDir.resolve(name + ".tsv.gz");
+        try (TypeTable.Writer writer = TypeTable.newWriter(Files.newOutputStream(tsv))) {
+            writer.jar("com.example", "library", "1.0").write(jar);
+        }
+        Path indexed = tempDir.resolve(name + ".idx");
+        try (InputStream is = new GZIPInputStream(Files.newInputStream(tsv))) {
+            IndexedTypeTable.write(is, indexed);
+        }
+        return indexed;
+    }
+
+    @Test
+    void loadsRequestedClassesWithTheirSupertypesAndNestedTypes() throws Exception {
+        Path jar = table.load("library", List.of("com.example.Api"));
+        assertThat(jar).isNotNull();
+        assertThat(entries(jar)).containsExactly(
+          "com/example/Api$Builder.class",
+          "com/example/Api.class",
+          "com/example/Base.class"
+        );
+
+        // the subset is enough to compile code that uses the requested class
+        Path src = tempDir.resolve("Client.java");
+        //language=java
+        Files.writeString(src, """
+          class Client {
+              String name() { return com.example.Api.builder().build().name(); }
+          }
+          """);
+        assertThat(compiler.run(null, null, null, "-cp", jar.toString(),
+          "-d", Files.createDirectories(tempDir.resolve("client")).toString(), src.toString())).isEqualTo(0);
+    }
+
+    @Test
+    void sameClassesShareAJar() {
+        Path first = table.load("library", List.of("com.example.Api"));
+        Path second = table.load("library", List.of("com/example/Api$Builder"));
+        assertThat(second).isEqualTo(first);
+        assertThat(table.load("library", List.of("com.example.Unused"))).isNotEqualTo(first);
+    }
+
+    @Test
+    void tableWithChangedClassesWritesANewJar() throws Exception {
+        Path first = table.load("library", List.of("com.example.Api"));
+        Path wholeFirst = table.load("library");
+
+        Path src = Files.createDirectories(tempDir.resolve("src2"));
+        Path classes = Files.createDirectories(tempDir.resolve("classes2"));
+        //language=java
+        Files.writeString(src.resolve("Base.java"), """
+          package com.example;
+          public class Base {
+              public String name() { return "base"; }
+              public String description() { return "changed"; }
+          }
+          """);
+        //language=java
+        Files.writeString(src.resolve("Api.java"), """
+          package com.example;
+          public class Api extends Base {
+              public static Builder builder() { return new Builder(); }
+              public static class Builder {
+                  public Api build() { return new Api(); }
+              }
+          }
+          """);
+        assertThat(compiler.run(null, null, null, "-d", classes.toString(),
+          src.resolve("Base.java").toString(), src.resolve("Api.java").toString())).isEqualTo(0);
+        IndexedTypeTable changed = IndexedTypeTable.open(ctx, index(classes, "types2"));
+
+        Path second = changed.load("library", List.of("com.example.Api"));
+        assertThat(second).isNotEqualTo(first);
+        assertThat(changed.load("library")).isNotEqualTo(wholeFirst);
+    }
+
+    @Test
+    void loadsTypesOfMemberSignatures() throws Exception {
+        Path src = Files.createDirectories(tempDir.resolve("src3"));
+        Path classes = Files.createDirectories(tempDir.resolve("classes3"));
+        //language=java
+        Files.writeString(src.resolve("Service.java"), """
+          package com.example;
+          import java.util.List;
+          public class Service {
+              public Config config;
+              public List<Result> run(Request request) throws Failure { return null; }
+          }
+          """);
+        //language=java
+        Files.writeString(src.resolve("Types.java"), """
+          package com.example;
+          class Config {}
+          class Request {}
+          class Result {}
+          class Failure extends Exception {}
+          class Unrelated {}
+          """);
+        assertThat(compiler.run(null, null, null, "-d", classes.toString(),
+          src.resolve("Service.java").toString(), src.resolve("Types.java").toString())).isEqualTo(0);
+
+        Path jar = IndexedTypeTable.open(ctx, index(classes, "types3")).load("library", List.of("com.example.Service"));
+        assertThat(jar).isNotNull();
+        assertThat(entries(jar)).containsExactly(
+          "com/example/Config.class",
+          "com/example/Failure.class",
+          "com/example/Request.class",
+          "com/example/Result.class",
+          "com/example/Service.class"
+        );
+    }
+
+    @Test
+    void loadedByJavaParserFromResources() throws Exception {
+        Path resources = Files.createDirectories(tempDir.resolve("resources/META-INF/rewrite"));
+        Files.copy(tempDir.resolve("types.idx"), resources.resolve("classpath.idx"));
+
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{tempDir.resolve("resources").toUri().toURL()}, original)) {
+            Thread.currentThread().setContextClassLoader(loader);
+            List<Path> classpath = JavaParser.dependenciesFromResources(ctx, List.of("com.example.Api"), "library");
+            assertThat(classpath).singleElement().satisfies(jar -> assertThat(entries(jar)).containsExactly(
+              "com/example/Api$Builder.class",
+              "com/example/Api.class",
+              "com/example/Base.class"
+            ));
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    @Test
+    void loadsWholeArtifact() throws Exception {
+        Path jar = table.load("library");
+        assertThat(jar).isNotNull();
+        assertThat(entries(jar)).containsExactly(
+          "com/example/Api$Builder.class",
+          "com/example/Api.class",
+          "com/example/Base.class",
+          "com/example/Unused.class"
+        );
+        assertThat(table.availableArtifacts()).containsExactly("library-1.0");
+        assertThat(table.load("missing")).isNull();
+    }
+
+    private static List<String> entries(Path jar) throws Exception {
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            return jarFile.stream().map(JarEntry::getName).collect(toList());
+        }
+    }
+}
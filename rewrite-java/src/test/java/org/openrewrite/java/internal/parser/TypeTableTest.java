@@ -46,6 +46,7 @@
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -954,6 +955,40 @@ public class SimpleClass {
             }
         }
 
+        @Test
+        void freshJvmReusesJarsFromSameTypeTable() throws Exception {
+            //language=java
+            String source = """
+                package com.example;
+
+                public class SimpleClass {
+                }
+                """;
+            Path classFile = compileToClassFile(source, "com.example.SimpleClass");
+            Path jarFile = createJarFromClasses("simple.jar", classFile);
+
+            try (TypeTable.Writer writer = TypeTable.newWriter(Files.newOutputStream(tsv))) {
+                writer.jar("com.example", "simple", "1.0").write(jarFile);
+                writer.jar("com.example", "other", "2.0").write(jarFile);
+            }
+
+            var table = new TypeTable(ctx, tsv.toUri().toURL(), List.of("simple", "other"));
+            Path simple = table.load("simple");
+            Path other = table.load("other");
+            assertThat(simple).isNotNull();
+            assertThat(other).isNotNull();
+            assertThat(simple.getFileName().toString()).matches("simple-1\\.0-[0-9a-f]{16}\\.jar");
+            FileTime writtenAt = FileTime.fromMillis(1000);
+            Files.setLastModifiedTime(simple, writtenAt);
+
+            clearJarByArtifact();
+
+            // the jar is found through the type table's manifest rather than extracted again
+            Path reused = new TypeTable(ctx, tsv.toUri().toURL(), List.of("simple")).load("simple");
+            assertThat(reused).isEqualTo(simple);
+            assertThat(Files.getLastModifiedTime(reused)).isEqualTo(writtenAt);
+        }
+
         @SuppressWarnings("unchecked")
         private void clearJarByArtifact() throws Exception {
             Field f = TypeTable.class.getDeclaredField("jarByArtifact");
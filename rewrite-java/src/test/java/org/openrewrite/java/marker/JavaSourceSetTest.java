@@ -15,18 +15,24 @@
  */
 package org.openrewrite.java.marker;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.internal.ObjectMappers;
 import org.openrewrite.java.tree.JavaType;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.openrewrite.Tree.randomId;
 
 class JavaSourceSetTest {
 
@@ -96,4 +102,138 @@ void gavFromGradleCachePath() {
         assertThat(JavaSourceSet.gavFromPath(p))
           .isEqualTo("org.openrewrite:rewrite-core:8.32.0");
     }
+
+    @Test
+    void addAndRemoveTypesOfArtifacts() {
+        List<JavaType.FullyQualified> jdk = types("java.lang.Object", "java.util.List");
+        List<JavaType.FullyQualified> guava = types("com.google.common.collect.ImmutableList");
+        List<JavaType.FullyQualified> jspecify = types("org.jspecify.annotations.Nullable");
+        JavaSourceSet sourceSet = new JavaSourceSet(randomId(), "main", concat(jdk, guava),
+          gavToTypes("com.google.guava:guava:33.0.0", guava));
+
+        JavaSourceSet added = sourceSet.addTypesForGav("org.jspecify:jspecify:1.0.0", jspecify);
+        assertThat(added.getClasspath()).containsExactlyElementsOf(concat(jdk, guava, jspecify));
+        assertThat(added.getGavToTypes()).containsOnlyKeys("com.google.guava:guava:33.0.0", "org.jspecify:jspecify:1.0.0");
+        assertThat(added.addTypesForGav("org.jspecify:jspecify:1.0.0", jspecify)).isSameAs(added);
+
+        JavaSourceSet upgraded = added.removeTypesForGav("com.google.guava:guava:33.0.0")
+          .addTypesForGav("com.google.guava:guava:33.1.0", guava);
+        assertThat(upgraded.getClasspath()).containsExactlyElementsOf(concat(jdk, jspecify, guava));
+        assertThat(upgraded.getClasspath().get(3)).isSameAs(guava.get(0));
+
+        assertThat(upgraded.removeTypesMatching("org.jspecify", "*").getClasspath())
+          .containsExactlyElementsOf(concat(jdk, guava));
+        assertThat(upgraded.removeTypesForGav("org.jspecify:jspecify:0.3.0")).isSameAs(upgraded);
+    }
+
+    @Test
+    void serializesTypesByName() throws Exception {
+        List<JavaType.FullyQualified> jdk = types("java.lang.Object", "java.util.Map$Entry");
+        List<JavaType.FullyQualified> guava = types("com.google.common.collect.ImmutableList");
+        JavaSourceSet sourceSet = new JavaSourceSet(randomId(), "main", concat(jdk, guava),
+          gavToTypes("com.google.guava:guava:33.0.0", guava));
+
+        ObjectMapper mapper = ObjectMappers.propertyBasedMapper(null);
+        String json = mapper.writeValueAsString(sourceSet);
+        assertThat(json).contains("\"java.util.Map$Entry\"");
+
+        JavaSourceSet read = mapper.readValue(json, JavaSourceSet.class);
+        assertThat(read.getClasspath()).containsExactlyElementsOf(sourceSet.getClasspath());
+        assertThat(read.getClasspath().get(1).getFullyQualifiedName()).isEqualTo("java.util.Map$Entry");
+        assertThat(read.getGavToTypes().get("com.google.guava:guava:33.0.0").get(0))
+          .isSameAs(read.getClasspath().get(2));
+
+        // types removed with their artifact after being read back, as before being written
+        assertThat(read.removeTypesForGav("com.google.guava:guava:33.0.0").getClasspath())
+          .containsExactlyElementsOf(jdk);
+    }
+
+    @Test
+    void serializesShallowTypesWithMoreThanANameInFull() throws Exception {
+        JavaType.ShallowClass list = JavaType.ShallowClass.build("java.util.List");
+        JavaType.ShallowClass arrayList = JavaType.ShallowClass.build("java.util.ArrayList");
+        arrayList.unsafeSet((List<JavaType>) null, null, null, null, List.of(list), null, null);
+        JavaSourceSet sourceSet = new JavaSourceSet(randomId(), "main", List.of(list, arrayList), Map.of());
+
+        ObjectMapper mapper = ObjectMappers.propertyBasedMapper(null);
+        String json = mapper.writeValueAsString(sourceSet);
+        // the class that has an interface is written in full rather than by name
+        assertThat(json)
+          .contains("\"classpath\":[\"java.util.List\",{")
+          .contains("\"fullyQualifiedName\":\"java.util.ArrayList\"")
+          .contains("\"interfaces\"");
+    }
+
+    @Test
+    void removesTheSameTypesWhetherSegmentedOrNot() throws Exception {
+        byte[] dummyClassBytes = new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE};
+        // two jars with the same coordinates, and a type that jars of two artifacts provide
+        Path a = jar(tempDir.resolve("one/repository/com/example/a/1.0/a-1.0.jar"), dummyClassBytes,
+          "com/example/A.class", "com/example/Shared.class");
+        Path aAgain = jar(tempDir.resolve("two/repository/com/example/a/1.0/a-1.0.jar"), dummyClassBytes,
+          "com/example/A.class", "com/example/A2.class");
+        Path b = jar(tempDir.resolve("one/repository/com/example/b/1.0/b-1.0.jar"), dummyClassBytes,
+          "com/example/B.class", "com/example/Shared.class");
+
+        JavaSourceSet segmented = JavaSourceSet.build("main", List.of(a, aAgain, b));
+        assertThat(segmented.getGavToTypes()).containsOnlyKeys("com.example:a:1.0", "com.example:b:1.0");
+        List<JavaType.FullyQualified> copies = new ArrayList<>();
+        for (JavaType.FullyQualified type : segmented.getClasspath()) {
+            copies.add(JavaType.ShallowClass.build(type.getFullyQualifiedName()));
+        }
+        JavaSourceSet plain = new JavaSourceSet(randomId(), "main", copies, segmented.getGavToTypes());
+
+        for (String gav : List.of("com.example:a:1.0", "com.example:b:1.0")) {
+            assertThat(names(segmented.removeTypesForGav(gav)))
+              .as("without %s", gav)
+              .containsExactlyElementsOf(names(plain.removeTypesForGav(gav)));
+        }
+        assertThat(names(segmented.removeTypesForGav("com.example:a:1.0")))
+          .contains("com.example.B", "com.example.Shared")
+          .doesNotContain("com.example.A", "com.example.A2");
+        assertThat(names(segmented.removeTypesForGav("com.example:b:1.0")))
+          .contains("com.example.A", "com.example.A2")
+          .doesNotContain("com.example.B", "com.example.Shared");
+    }
+
+    private static Path jar(Path path, byte[] content, String... entries) throws java.io.IOException {
+        Files.createDirectories(path.getParent());
+        try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(path))) {
+            for (String entry : entries) {
+                writeEntry(jos, entry, content);
+            }
+        }
+        return path;
+    }
+
+    private static List<String> names(JavaSourceSet sourceSet) {
+        List<String> names = new ArrayList<>(sourceSet.getClasspath().size());
+        for (JavaType.FullyQualified type : sourceSet.getClasspath()) {
+            names.add(type.getFullyQualifiedName());
+        }
+        return names;
+    }
+
+    private static List<JavaType.FullyQualified> types(String... fullyQualifiedNames) {
+        List<JavaType.FullyQualified> types = new ArrayList<>();
+        for (String fullyQualifiedName : fullyQualifiedNames) {
+            types.add(JavaType.ShallowClass.build(fullyQualifiedName));
+        }
+        return types;
+    }
+
+    @SafeVarargs
+    private static List<JavaType.FullyQualified> concat(List<JavaType.FullyQualified>... lists) {
+        List<JavaType.FullyQualified> all = new ArrayList<>();
+        for (List<JavaType.FullyQualified> list : lists) {
+            all.addAll(list);
+        }
+        return all;
+    }
+
+    private static Map<String, List<JavaType.FullyQualified>> gavToTypes(String gav, List<JavaType.FullyQualified> types) {
+        Map<String, List<JavaType.FullyQualified>> gavToTypes = new LinkedHashMap<>();
+        gavToTypes.put(gav, types);
+        return gavToTypes;
+    }
 }
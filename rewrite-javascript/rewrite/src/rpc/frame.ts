@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import * as rpc from "vscode-jsonrpc/node";
+
+/**
+ * Writes JSON-RPC messages to a stream, along with binary frames, such as GetObject batches
+ * in Smile, that travel as raw bytes rather than inside a JSON response.
+ *
+ * A frame is a message like any other, with a `Content-Length` header as its length prefix
+ * and a `Rewrite-Frame` header with its id. A request is answered with a frame by writing the
+ * frame first and then responding with its id, so the remote has the frame by the time it
+ * reads the response.
+ *
+ * Unlike `StreamMessageWriter`, which awaits between writing the header and the body of a
+ * message, each message is written in a single write, so a frame can't land in the middle of one.
+ */
+export class FramingMessageWriter extends rpc.AbstractMessageWriter implements rpc.MessageWriter {
+    private nextFrameId = 0;
+
+    constructor(private readonly stream: NodeJS.WritableStream) {
+        super();
+        stream.on("error", (error: any) => this.fireError(error));
+        stream.on("close", () => this.fireClose());
+    }
+
+    write(msg: rpc.Message): Promise<void> {
+        const body = Buffer.from(JSON.stringify(msg), "utf8");
+        return this.writeMessage(`Content-Length: ${body.length}\r\n\r\n`, body)
+            .catch(error => {
+                this.fireError(error, msg);
+                throw error;
+            });
+    }
+
+    /**
+     * Write a frame, to be followed by a response that refers to it.
+     *
+     * @returns The id of the frame.
+     */
+    writeFrame(frame: Uint8Array): number {
+        const id = ++this.nextFrameId;
+        this.writeMessage(`Content-Length: ${frame.length}\r\nRewrite-Frame: ${id}\r\n\r\n`, frame)
+            .catch(error => this.fireError(error));
+        return id;
+    }
+
+    end(): void {
+    }
+
+    private writeMessage(header: string, body: Uint8Array): Promise<void> {
+        const message = Buffer.concat([Buffer.from(header, "ascii"), body]);
+        return new Promise((resolve, reject) => {
+            this.stream.write(message, error => error ? reject(error) : resolve());
+        });
+    }
+}
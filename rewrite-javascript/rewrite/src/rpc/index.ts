@@ -24,6 +24,7 @@ export * from "../reference";
 export {RewriteRpc} from "./rewrite-rpc";
 export {RpcRecipe, RpcVisitor} from "./recipe";
 export {prepareJavaRecipe} from "./java-recipe";
+export {FramingMessageWriter} from "./frame";
 
 RpcCodecs.registerCodec(TreeKind.Checksum, {
     async rpcReceive(before: Checksum, q: RpcReceiveQueue): Promise<Checksum> {
@@ -16,11 +16,17 @@
 import * as rpc from "vscode-jsonrpc/node";
 import {RpcObjectData, RpcObjectState, RpcSendQueue} from "../queue";
 import {ReferenceMap} from "../../reference";
-import {extractSourcePath, withMetrics} from "./metrics";
+import {extractSourcePath, withMetrics, withMetrics0} from "./metrics";
+import {encodeSmile, SMILE} from "../smile";
 
 export class GetObject {
+    /**
+     * @param encoding The encoding to return the batch in, one of those advertised by GetObjectEncodings.
+     * When it is Smile, the batch is written as a binary frame and the id of the frame is returned instead.
+     */
     constructor(private readonly id: string,
-                private readonly sourceFileType?: string) {
+                private readonly sourceFileType?: string,
+                private readonly encoding?: string) {
     }
 
     static handle(
@@ -31,7 +37,22 @@ export class GetObject {
         batchSize: number,
         trace: () => boolean,
         metricsCsv?: string,
+        writeFrame?: (frame: Uint8Array) => number,
     ): void {
+        connection.onRequest(
+            new rpc.RequestType0<string[], Error>("GetObjectEncodings"),
+            withMetrics0<string[]>(
+                "GetObjectEncodings",
+                metricsCsv,
+                (context) => async () => {
+                    context.target = '';
+                    return writeFrame ? [SMILE] : [];
+                }
+            )
+        );
+
+        const encode = (batch: RpcObjectData[], encoding?: string) =>
+            writeFrame && encoding === SMILE ? writeFrame(encodeSmile(batch)) : batch;
         const pendingData = new Map<string, RpcObjectData[]>();
 
         connection.onRequest(
@@ -43,10 +64,10 @@ export class GetObject {
                     const objId = request.id;
                     if (!localObjects.has(objId)) {
                         context.target = '';
-                        return [
+                        return encode([
                             {state: RpcObjectState.DELETE},
                             {state: RpcObjectState.END_OF_OBJECT}
-                        ];
+                        ], request.encoding);
                     }
 
                     const objectOrGenerator = localObjects.get(objId)!;
@@ -86,7 +107,7 @@ export class GetObject {
                         pendingData.delete(objId);
                     }
 
-                    return batch;
+                    return encode(batch, request.encoding);
                 }
             )
         );
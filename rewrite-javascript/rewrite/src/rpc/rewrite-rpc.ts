@@ -85,7 +85,12 @@ export class RewriteRpc {
                     marketplace?: RecipeMarketplace,
                     logger?: rpc.Logger,
                     metricsCsv?: string,
-                    recipeInstallDir?: string
+                    recipeInstallDir?: string,
+                    /**
+                     * Writes binary frames on the connection's output, so that GetObject batches
+                     * can be returned in Smile. Batches are only returned as JSON without it.
+                     */
+                    writeFrame?: (frame: Uint8Array) => number
                 }) {
         // Initialize metrics CSV file if configured
         initializeMetricsCsv(options.metricsCsv, options.logger);
@@ -105,7 +110,7 @@ export class RewriteRpc {
         BatchVisit.handle(this.connection, this.localObjects, preparedRecipes, recipeCursors, getObject, getCursor, options.metricsCsv);
         Generate.handle(this.connection, this.localObjects, preparedRecipes, recipeCursors, getObject, options.metricsCsv);
         GetObject.handle(this.connection, this.remoteObjects, this.localObjects,
-            this.localRefs, options?.batchSize || 1000, traceGetObject, options.metricsCsv);
+            this.localRefs, options?.batchSize || 1000, traceGetObject, options.metricsCsv, options.writeFrame);
         GetMarketplace.handle(this.connection, marketplace, options.metricsCsv);
         GetLanguages.handle(this.connection, options.metricsCsv);
         PrepareRecipe.handle(this.connection, marketplace, preparedRecipes, options.metricsCsv);
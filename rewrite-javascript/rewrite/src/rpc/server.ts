@@ -16,6 +16,7 @@
  */
 import * as rpc from "vscode-jsonrpc/node";
 import {RewriteRpc} from "./rewrite-rpc";
+import {FramingMessageWriter} from "./frame";
 import * as fs from "fs";
 import {Command} from 'commander';
 import {dir} from 'tmp-promise';
@@ -139,10 +140,12 @@ async function main() {
 
     pyroscope = initPyroscope(logger);
 
-    // Create the connection with the custom logger
+    // Create the connection with the custom logger, and a writer that can also write
+    // GetObject batches as binary frames
+    const writer = new FramingMessageWriter(process.stdout);
     const connection = rpc.createMessageConnection(
         new rpc.StreamMessageReader(process.stdin),
-        new rpc.StreamMessageWriter(process.stdout),
+        writer,
         logger
     );
 
@@ -178,7 +181,8 @@ async function main() {
         batchSize: options.batchSize,
         logger: logger,
         metricsCsv: options.metricsCsv,
-        recipeInstallDir: recipeInstallDir
+        recipeInstallDir: recipeInstallDir,
+        writeFrame: frame => writer.writeFrame(frame)
     });
 }
 
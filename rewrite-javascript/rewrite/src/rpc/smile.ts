@@ -0,0 +1,395 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Encodes JSON values in the binary <a href="https://github.com/FasterXML/smile-format-specification">Smile</a>
+ * format, which a peer can ask for GetObject batches to be returned in.
+ *
+ * Tree data repeats the same short strings over and over: value types, whitespace, and the names
+ * of the {@link RpcObjectData} fields themselves. Smile writes each of them in full once per frame
+ * and afterward as a one or two byte back reference.
+ *
+ * A value is encoded to what `JSON.stringify` would write it as, so `toJSON()` is honored, and
+ * properties that are undefined or functions are left out.
+ */
+export const SMILE = "smile";
+
+// ':)\n' followed by version 0 with shared property names and shared string values enabled
+const HEADER = [0x3A, 0x29, 0x0A, 0x03];
+
+const MAX_SHARED = 1024;
+
+const INT32_MIN = -(2 ** 31);
+const INT32_MAX = 2 ** 31 - 1;
+
+export function encodeSmile(value: any): Uint8Array {
+    const encoder = new SmileEncoder();
+    encoder.writeValue(value, "");
+    return encoder.bytes();
+}
+
+class SmileEncoder {
+    private buf = new Uint8Array(8192);
+    private length = 0;
+
+    private readonly names = new Map<string, number>();
+    private nameCount = 0;
+    private readonly values = new Map<string, number>();
+    private valueCount = 0;
+
+    constructor() {
+        for (const b of HEADER) {
+            this.push(b);
+        }
+    }
+
+    bytes(): Uint8Array {
+        return this.buf.subarray(0, this.length);
+    }
+
+    writeValue(value: any, key: string): void {
+        if (value !== null && typeof value === "object" && typeof value.toJSON === "function") {
+            value = value.toJSON(key);
+        }
+        if (value instanceof Number || value instanceof String || value instanceof Boolean) {
+            value = value.valueOf();
+        }
+        switch (typeof value) {
+            case "string":
+                this.writeString(value);
+                return;
+            case "number":
+                if (!isFinite(value)) {
+                    this.push(0x21);
+                } else if (Number.isInteger(value) && Math.abs(value) < 1e21) {
+                    this.writeInteger(value);
+                } else {
+                    this.writeDouble(value);
+                }
+                return;
+            case "boolean":
+                this.push(value ? 0x23 : 0x22);
+                return;
+            case "bigint":
+                throw new TypeError("Do not know how to serialize a BigInt");
+            case "object":
+                break;
+            default:
+                // undefined, functions, and symbols, which JSON.stringify writes as null in arrays
+                this.push(0x21);
+                return;
+        }
+        if (value === null) {
+            this.push(0x21);
+        } else if (Array.isArray(value)) {
+            this.push(0xF8);
+            for (let i = 0; i < value.length; i++) {
+                this.writeValue(value[i], String(i));
+            }
+            this.push(0xF9);
+        } else {
+            this.push(0xFA);
+            for (const k of Object.keys(value)) {
+                let v = value[k];
+                if (v !== null && typeof v === "object" && typeof v.toJSON === "function") {
+                    v = v.toJSON(k);
+                }
+                if (v === undefined || typeof v === "function" || typeof v === "symbol") {
+                    continue;
+                }
+                this.writeName(k);
+                this.writeValue(v, k);
+            }
+            this.push(0xFB);
+        }
+    }
+
+    private writeInteger(value: number): void {
+        if (value >= INT32_MIN && value <= INT32_MAX) {
+            // zigzag, with the sign moved to the lowest bit
+            const zigzag = value < 0 ? -2 * value - 1 : 2 * value;
+            if (zigzag <= 0x1F) {
+                this.push(0xC0 + zigzag);
+            } else {
+                this.push(0x24);
+                this.writeVInt(unsignedBytes(zigzag));
+            }
+            return;
+        }
+        const magnitude = unsignedBytes(Math.abs(value));
+        if (bitLength(magnitude) < 64) {
+            this.push(0x25);
+            const zigzag = shiftLeft(magnitude);
+            if (value < 0) {
+                decrement(zigzag);
+            }
+            this.writeVInt(zigzag);
+        } else {
+            this.push(0x26);
+            const data = twosComplement(magnitude, value < 0);
+            this.writeVInt(unsignedBytes(data.length));
+            this.write7Bit(data);
+        }
+    }
+
+    private writeDouble(value: number): void {
+        const view = new DataView(new ArrayBuffer(8));
+        view.setFloat64(0, value);
+        const bytes: number[] = [];
+        for (let i = 0; i < 8; i++) {
+            bytes.push(view.getUint8(i));
+        }
+        this.push(0x29);
+        for (let i = 9; i >= 0; i--) {
+            this.push(bitsOf(bytes, 7 * i, 7));
+        }
+    }
+
+    /**
+     * A non-negative number in 7 bit groups, most significant first, where the last
+     * byte has its high bit set and holds 6 bits.
+     */
+    private writeVInt(value: number[]): void {
+        const groups = [0x80 | bitsOf(value, 0, 6)];
+        for (let from = 6; from < bitLength(value); from += 7) {
+            groups.push(bitsOf(value, from, 7));
+        }
+        for (let i = groups.length - 1; i >= 0; i--) {
+            this.push(groups[i]);
+        }
+    }
+
+    /**
+     * Raw bytes with 7 bits to a byte, in chunks of 7 bytes to 8.
+     */
+    private write7Bit(data: number[]): void {
+        for (let start = 0; start < data.length; start += 7) {
+            const chunk = data.slice(start, start + 7);
+            const n = chunk.length;
+            for (let k = 1; k <= n; k++) {
+                this.push(bitsOf(chunk, 8 * n - 7 * k, 7));
+            }
+            this.push(bitsOf(chunk, 0, n));
+        }
+    }
+
+    private writeString(text: string): void {
+        if (text.length === 0) {
+            this.push(0x20);
+            return;
+        }
+        const index = this.values.get(text);
+        if (index !== undefined) {
+            if (index < 31) {
+                this.push(0x01 + index);
+            } else {
+                this.push(0xEC | (index >> 8));
+                this.push(index & 0xFF);
+            }
+            return;
+        }
+        const data = Buffer.from(text, "utf8");
+        const n = data.length;
+        if (n === text.length) {
+            if (n <= 32) {
+                this.push(0x40 + n - 1);
+            } else if (n <= 64) {
+                this.push(0x60 + n - 33);
+            } else {
+                this.push(0xE0);
+                this.pushAll(data);
+                this.push(0xFC);
+                return;
+            }
+        } else if (n <= 33) {
+            this.push(0x80 + n - 2);
+        } else if (n <= 65) {
+            this.push(0xA0 + n - 34);
+        } else {
+            this.push(0xE4);
+            this.pushAll(data);
+            this.push(0xFC);
+            return;
+        }
+        this.pushAll(data);
+        // every short string is remembered by the decoder, so the indexes must be counted alike
+        if (this.valueCount === MAX_SHARED) {
+            this.values.clear();
+            this.valueCount = 0;
+        }
+        if (isValidBackReference(this.valueCount)) {
+            this.values.set(text, this.valueCount);
+        }
+        this.valueCount++;
+    }
+
+    private writeName(name: string): void {
+        if (name.length === 0) {
+            this.push(0x20);
+            return;
+        }
+        const index = this.names.get(name);
+        if (index !== undefined) {
+            if (index < 64) {
+                this.push(0x40 + index);
+            } else {
+                this.push(0x30 | (index >> 8));
+                this.push(index & 0xFF);
+            }
+            return;
+        }
+        const data = Buffer.from(name, "utf8");
+        const n = data.length;
+        if (n === name.length && n <= 64) {
+            this.push(0x80 + n - 1);
+            this.pushAll(data);
+        } else if (n !== name.length && n <= 57) {
+            this.push(0xC0 + n - 2);
+            this.pushAll(data);
+        } else {
+            this.push(0x34);
+            this.pushAll(data);
+            this.push(0xFC);
+        }
+        if (this.nameCount === MAX_SHARED) {
+            this.names.clear();
+            this.nameCount = 0;
+        }
+        if (isValidBackReference(this.nameCount)) {
+            this.names.set(name, this.nameCount);
+        }
+        this.nameCount++;
+    }
+
+    private push(b: number): void {
+        if (this.length === this.buf.length) {
+            this.grow(1);
+        }
+        this.buf[this.length++] = b;
+    }
+
+    private pushAll(data: Uint8Array): void {
+        if (this.length + data.length > this.buf.length) {
+            this.grow(data.length);
+        }
+        this.buf.set(data, this.length);
+        this.length += data.length;
+    }
+
+    private grow(needed: number): void {
+        const grown = new Uint8Array(Math.max(this.buf.length * 2, this.length + needed));
+        grown.set(this.buf.subarray(0, this.length));
+        this.buf = grown;
+    }
+}
+
+/**
+ * The low byte of a two byte reference can't be 0xFE or 0xFF, which Smile reserves.
+ */
+function isValidBackReference(index: number): boolean {
+    return (index & 0xFF) < 0xFE;
+}
+
+/**
+ * The big-endian bytes of a non-negative integer. Beyond the safe integers, that is the integer
+ * `JSON.stringify` writes, which is the shortest decimal that reads back as the same double.
+ */
+function unsignedBytes(value: number): number[] {
+    const bytes: number[] = [];
+    if (value <= Number.MAX_SAFE_INTEGER) {
+        do {
+            bytes.unshift(value % 256);
+            value = Math.floor(value / 256);
+        } while (value > 0);
+        return bytes;
+    }
+    let digits = String(value).split("").map(Number);
+    while (digits.length > 0) {
+        // long division of the decimal digits by 256
+        const quotient: number[] = [];
+        let remainder = 0;
+        for (const digit of digits) {
+            remainder = remainder * 10 + digit;
+            if (quotient.length > 0 || remainder >= 256) {
+                quotient.push(Math.floor(remainder / 256));
+            }
+            remainder %= 256;
+        }
+        bytes.unshift(remainder);
+        digits = quotient;
+    }
+    return bytes;
+}
+
+/**
+ * The shortest big-endian two's complement bytes of an integer, from its magnitude.
+ */
+function twosComplement(magnitude: number[], negative: boolean): number[] {
+    const bytes = [0, ...magnitude];
+    if (negative) {
+        let carry = 1;
+        for (let i = bytes.length - 1; i >= 0; i--) {
+            const b = (~bytes[i] & 0xFF) + carry;
+            bytes[i] = b & 0xFF;
+            carry = b >> 8;
+        }
+    }
+    // drop leading bytes that only repeat the sign of the next one
+    while (bytes.length > 1 && (bytes[0] === 0 && (bytes[1] & 0x80) === 0 ||
+        bytes[0] === 0xFF && (bytes[1] & 0x80) !== 0)) {
+        bytes.shift();
+    }
+    return bytes;
+}
+
+function shiftLeft(bytes: number[]): number[] {
+    const shifted = [0, ...bytes];
+    for (let i = 0; i < shifted.length; i++) {
+        shifted[i] = ((shifted[i] << 1) | (i + 1 < shifted.length ? shifted[i + 1] >> 7 : 0)) & 0xFF;
+    }
+    return shifted;
+}
+
+function decrement(bytes: number[]): void {
+    for (let i = bytes.length - 1; i >= 0; i--) {
+        if (bytes[i] > 0) {
+            bytes[i]--;
+            return;
+        }
+        bytes[i] = 0xFF;
+    }
+}
+
+function bitLength(bytes: number[]): number {
+    for (let i = 0; i < bytes.length; i++) {
+        if (bytes[i] !== 0) {
+            return 8 * (bytes.length - i) - Math.clz32(bytes[i]) + 24;
+        }
+    }
+    return 0;
+}
+
+/**
+ * The bits of a big-endian number from a bit position, counted from the least significant bit.
+ */
+function bitsOf(bytes: number[], from: number, count: number): number {
+    let bits = 0;
+    for (let i = from + count - 1; i >= from; i--) {
+        const index = bytes.length - 1 - (i >> 3);
+        bits = (bits << 1) | (index >= 0 ? (bytes[index] >> (i & 7)) & 1 : 0);
+    }
+    return bits;
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Moderne Source Available License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://docs.moderne.io/licensing/moderne-source-available-license
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import {PassThrough} from "node:stream";
+import {encodeSmile} from "../../src/rpc/smile";
+import {FramingMessageWriter} from "../../src/rpc/frame";
+
+// The same batch is decoded by RewriteRpcTest on the Java side, and Jackson encodes it to these same bytes
+const goldenBatch = [
+    {state: "ADD", valueType: "org.openrewrite.text.PlainText", value: "Hello"},
+    {state: "CHANGE", value: -100, ref: 3},
+    {state: "ADD", value: "Hello"},
+    {state: "NO_CHANGE"},
+    {state: "END_OF_OBJECT"},
+];
+const goldenSmile = Buffer.from(
+    "3a290a03f8fa847374617465424144448876616c7565547970655d6f72672e6f70656e726577726974652e746578742e506c61696e" +
+    "546578748476616c75654448656c6c6ffbfa40454348414e47454224038782726566c6fbfa40014203fbfa40484e4f5f4348414e" +
+    "4745fbfa404c454e445f4f465f4f424a454354fbf9", "hex");
+
+describe("Smile", () => {
+
+    test("encodes golden batch", () => {
+        expect(Buffer.from(encodeSmile(goldenBatch))).toEqual(goldenSmile);
+    });
+
+    test("encodes what JSON.stringify writes", () => {
+        const value = {
+            skipped: undefined,
+            fn: () => 1,
+            date: new Date(0),
+            list: [undefined, NaN, 1]
+        };
+        expect(encodeSmile(value)).toEqual(encodeSmile(JSON.parse(JSON.stringify(value))));
+    });
+
+    test("shares repeated names and values", () => {
+        const batch = Array(100).fill({state: "ADD", valueType: "org.openrewrite.java.tree.J$Identifier"});
+        const text = Buffer.from(encodeSmile(batch)).toString("latin1");
+        expect(text.split("valueType").length - 1).toBe(1);
+        expect(text.split("J$Identifier").length - 1).toBe(1);
+    });
+
+    test("frame is written whole between messages", async () => {
+        const out = new PassThrough();
+        const chunks: Buffer[] = [];
+        out.on("data", chunk => chunks.push(chunk));
+        const writer = new FramingMessageWriter(out);
+
+        const response = writer.write({jsonrpc: "2.0", id: 1, result: 1} as any);
+        const id = writer.writeFrame(goldenSmile);
+        await response;
+        await writer.write({jsonrpc: "2.0", id: 2, result: id} as any);
+
+        const body = '{"jsonrpc":"2.0","id":1,"result":1}';
+        expect(Buffer.concat(chunks).toString("latin1")).toEqual(
+            `Content-Length: ${body.length}\r\n\r\n${body}` +
+            `Content-Length: ${goldenSmile.length}\r\nRewrite-Frame: ${id}\r\n\r\n${goldenSmile.toString("latin1")}` +
+            `Content-Length: 35\r\n\r\n{"jsonrpc":"2.0","id":2,"result":1}`
+        );
+    });
+});
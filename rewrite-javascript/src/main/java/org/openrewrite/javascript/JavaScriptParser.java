@@ -24,6 +24,7 @@
 import org.openrewrite.javascript.internal.rpc.JavaScriptValidator;
 import org.openrewrite.javascript.rpc.JavaScriptRewriteRpc;
 import org.openrewrite.javascript.tree.JS;
+import org.openrewrite.rpc.RewriteRpcProcessPool;
 import org.openrewrite.text.PlainTextParser;
 import org.openrewrite.tree.ParseError;
 
@@ -68,8 +69,13 @@ public Stream<SourceFile> parseInputs(Iterable<Input> sources, @Nullable Path re
         Stream<SourceFile> smallFileStream = Stream.empty();
         if (!smallFiles.isEmpty()) {
             JavaScriptValidator<Integer> validator = new JavaScriptValidator<>();
-            smallFileStream = JavaScriptRewriteRpc.getOrStart().parse(smallFiles, relativeTo, this,
-                    JS.CompilationUnit.class.getName(), ctx).map(source -> {
+            RewriteRpcProcessPool<JavaScriptRewriteRpc> pool = JavaScriptRewriteRpc.getPool();
+            Stream<SourceFile> parsed = pool == null ?
+                    JavaScriptRewriteRpc.getOrStart().parse(smallFiles, relativeTo, this,
+                            JS.CompilationUnit.class.getName(), ctx) :
+                    pool.parse(smallFiles, (rpc, run) -> rpc.parse(run, relativeTo, this,
+                            JS.CompilationUnit.class.getName(), ctx));
+            smallFileStream = parsed.map(source -> {
                 try {
                     validator.visit(source, 0);
                     return source;
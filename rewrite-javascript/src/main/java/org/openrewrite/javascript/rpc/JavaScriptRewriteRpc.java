@@ -32,6 +32,7 @@
 import org.openrewrite.rpc.RewriteRpc;
 import org.openrewrite.rpc.RewriteRpcProcess;
 import org.openrewrite.rpc.RewriteRpcProcessManager;
+import org.openrewrite.rpc.RewriteRpcProcessPool;
 import org.openrewrite.tree.ParsingEventListener;
 import org.openrewrite.tree.ParsingExecutionContextView;
 
@@ -70,6 +71,7 @@ public class JavaScriptRewriteRpc extends RewriteRpc {
         this.command = command;
         this.commandEnv = commandEnv;
         this.process = process;
+        binaryFrames(process.getBinaryFrames());
     }
 
     public static @Nullable JavaScriptRewriteRpc get() {
@@ -84,6 +86,24 @@ public static void setFactory(Builder builder) {
         MANAGER.setFactory(builder);
     }
 
+    /**
+     * A pool of RPC processes started with the factory of the calling thread.
+     */
+    public static RewriteRpcProcessPool<JavaScriptRewriteRpc> pool(int size) {
+        return MANAGER.pool(size);
+    }
+
+    public static @Nullable RewriteRpcProcessPool<JavaScriptRewriteRpc> getPool() {
+        return MANAGER.getPool();
+    }
+
+    /**
+     * Parse on the pool, from every thread, rather than on the process of the calling thread, or stop when null.
+     */
+    public static void setPool(@Nullable RewriteRpcProcessPool<JavaScriptRewriteRpc> pool) {
+        MANAGER.setPool(pool);
+    }
+
     @Override
     public void shutdown() {
         super.shutdown();
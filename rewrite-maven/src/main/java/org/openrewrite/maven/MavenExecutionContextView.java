@@ -32,6 +32,8 @@
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
@@ -54,6 +56,8 @@ public class MavenExecutionContextView extends DelegatingExecutionContext {
     private static final String MAVEN_ARTIFACT_CACHE = "org.openrewrite.maven.artifactCache";
     private static final String MAVEN_RESOLUTION_LISTENER = "org.openrewrite.maven.resolutionListener";
     private static final String MAVEN_RESOLUTION_TIME = "org.openrewrite.maven.resolutionTime";
+    private static final String MAVEN_POM_DOWNLOAD_PARALLELISM = "org.openrewrite.maven.pomDownloadParallelism";
+    private static final String MAVEN_POM_DOWNLOAD_EXECUTOR = "org.openrewrite.maven.pomDownloadExecutor";
 
     public MavenExecutionContextView(ExecutionContext delegate) {
         super(delegate);
@@ -67,13 +71,14 @@ public static MavenExecutionContextView view(ExecutionContext ctx) {
     }
 
     public MavenExecutionContextView recordResolutionTime(Duration time) {
-        //noinspection DataFlowIssue
-        this.computeMessage(MAVEN_RESOLUTION_TIME, time.toMillis(), () -> 0L, Long::sum);
+        // stored once and added to atomically, since POMs may be downloaded on several threads
+        this.<LongAdder>computeMessageIfAbsent(MAVEN_RESOLUTION_TIME, k -> new LongAdder()).add(time.toMillis());
         return this;
     }
 
     public Duration getResolutionTime() {
-        return Duration.ofMillis(getMessage(MAVEN_RESOLUTION_TIME, 0L));
+        LongAdder resolutionTime = getMessage(MAVEN_RESOLUTION_TIME);
+        return Duration.ofMillis(resolutionTime == null ? 0L : resolutionTime.sum());
     }
 
     public MavenExecutionContextView setResolutionListener(ResolutionEventListener listener) {
@@ -85,6 +90,28 @@ public ResolutionEventListener getResolutionListener() {
         return getMessage(MAVEN_RESOLUTION_LISTENER, ResolutionEventListener.NOOP);
     }
 
+    /**
+     * Download the POMs at each depth of a dependency graph concurrently, ahead of dependency resolution.
+     * POMs are downloaded one at a time unless an executor is supplied.
+     *
+     * @param executor    The executor that downloads the POMs. It is owned by the caller, which shuts it down.
+     * @param parallelism The number of POMs at the same depth of a dependency graph that may be downloaded
+     *                    concurrently during dependency resolution. {@code 1} downloads them one at a time.
+     */
+    public MavenExecutionContextView setPomDownloadExecutor(@Nullable ExecutorService executor, int parallelism) {
+        putMessage(MAVEN_POM_DOWNLOAD_EXECUTOR, executor);
+        putMessage(MAVEN_POM_DOWNLOAD_PARALLELISM, parallelism);
+        return this;
+    }
+
+    public @Nullable ExecutorService getPomDownloadExecutor() {
+        return getMessage(MAVEN_POM_DOWNLOAD_EXECUTOR);
+    }
+
+    public int getPomDownloadParallelism() {
+        return getPomDownloadExecutor() == null ? 1 : getMessage(MAVEN_POM_DOWNLOAD_PARALLELISM, 1);
+    }
+
     public MavenExecutionContextView setMirrors(@Nullable Collection<MavenRepositoryMirror> mirrors) {
         putMessage(MAVEN_MIRRORS, mirrors);
         return this;
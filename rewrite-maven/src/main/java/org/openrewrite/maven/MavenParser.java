@@ -24,6 +24,7 @@
 import org.openrewrite.maven.tree.MavenResolutionResult;
 import org.openrewrite.maven.tree.Parent;
 import org.openrewrite.maven.tree.Pom;
+import org.openrewrite.maven.tree.ResolutionEventListener;
 import org.openrewrite.maven.tree.ResolvedPom;
 import org.openrewrite.tree.ParseError;
 import org.openrewrite.xml.XmlParser;
@@ -32,6 +33,10 @@
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 
 import static java.util.Collections.*;
@@ -44,6 +49,7 @@ public class MavenParser implements Parser {
     private final Collection<String> activeProfiles;
     private final Map<String, String> properties;
     private final boolean skipDependencyResolution;
+    private final int reactorParallelism;
 
     @Override
     public Stream<SourceFile> parse(@Language("xml") String... sources) {
@@ -105,43 +111,18 @@ public Stream<SourceFile> parseInputs(Iterable<Input> sources, @Nullable Path re
                 .withServers(null);
         List<String> effectivelyActiveProfiles = Stream.concat(mavenCtx.getActiveProfiles().stream(), activeProfiles.stream()).collect(toList());
 
-        for (Map.Entry<Xml.Document, Pom> docToPom : projectPoms.entrySet()) {
-            try {
-                ResolvedPom resolvedPom = docToPom.getValue().resolve(effectivelyActiveProfiles, downloader, ctx);
-                MavenResolutionResult model = new MavenResolutionResult(randomId(),
-                        null,
-                        resolvedPom,
-                        emptyList(),
-                        null,
-                        emptyMap(),
-                        sanitizedSettings,
-                        effectivelyActiveProfiles,
-                        properties);
-                if (!skipDependencyResolution) {
-                    model = model.resolveDependencies(downloader, ctx);
-                }
-                parsed.add(docToPom.getKey().withMarkers(docToPom.getKey().getMarkers().compute(model, (old, n) -> n)));
-            } catch (MavenDownloadingExceptions e) {
-                if (e.getExceptions().size() == 1) {
-                    // If there is only a single MavenDownloadingException, report just that as no additional debugging value is gleaned from its wrapper
-                    MavenDownloadingException e2 = e.getExceptions().get(0);
-                    String message = e2.warn(docToPom.getKey()).printAll(); // Shows any underlying MavenDownloadingException
-                    parsed.add(docToPom.getKey().withMarkers(docToPom.getKey().getMarkers().add(ParseExceptionResult.build(this, e2, message))));
-                    ctx.getOnError().accept(e2);
-                } else {
-                    String message = e.warn(docToPom.getKey()).printAll(); // Shows any underlying MavenDownloadingException
-                    parsed.add(docToPom.getKey().withMarkers(docToPom.getKey().getMarkers().add(ParseExceptionResult.build(this, e, message))));
-                    ctx.getOnError().accept(e);
-                }
-            } catch (MavenDownloadingException e) {
-                String message = e.warn(docToPom.getKey()).printAll(); // Shows any underlying MavenDownloadingException
-                parsed.add(docToPom.getKey().withMarkers(docToPom.getKey().getMarkers().add(ParseExceptionResult.build(this, e, message))));
-                ctx.getOnError().accept(e);
-            } catch (UncheckedIOException e) {
-                parsed.add(docToPom.getKey().withMarkers(docToPom.getKey().getMarkers().add(ParseExceptionResult.build(this, e))));
-                ctx.getOnError().accept(e);
+        List<Map.Entry<Xml.Document, Pom>> docsToPoms = new ArrayList<>(projectPoms.entrySet());
+        SourceFile[] resolved = new SourceFile[docsToPoms.size()];
+        if (reactorParallelism > 1 && docsToPoms.size() > 1 &&
+            mavenCtx.getResolutionListener() == ResolutionEventListener.NOOP) {
+            resolveReactor(docsToPoms, resolved, effectivelyActiveProfiles, sanitizedSettings, downloader, ctx);
+        } else {
+            for (int i = 0; i < docsToPoms.size(); i++) {
+                resolved[i] = resolve(docsToPoms.get(i).getKey(), docsToPoms.get(i).getValue(),
+                        effectivelyActiveProfiles, sanitizedSettings, downloader, ctx);
             }
         }
+        addAll(parsed, resolved);
 
         for (int i = 0; i < parsed.size(); i++) {
             SourceFile maven = parsed.get(i);
@@ -178,6 +159,124 @@ public Stream<SourceFile> parseInputs(Iterable<Input> sources, @Nullable Path re
         return parsed.stream();
     }
 
+    private SourceFile resolve(Xml.Document doc, Pom pom, List<String> effectivelyActiveProfiles,
+                               @Nullable MavenSettings sanitizedSettings, MavenPomDownloader downloader,
+                               ExecutionContext ctx) {
+        try {
+            ResolvedPom resolvedPom = pom.resolve(effectivelyActiveProfiles, downloader, ctx);
+            MavenResolutionResult model = new MavenResolutionResult(randomId(),
+                    null,
+                    resolvedPom,
+                    emptyList(),
+                    null,
+                    emptyMap(),
+                    sanitizedSettings,
+                    effectivelyActiveProfiles,
+                    properties);
+            if (!skipDependencyResolution) {
+                model = model.resolveDependencies(downloader, ctx);
+            }
+            return doc.withMarkers(doc.getMarkers().compute(model, (old, n) -> n));
+        } catch (MavenDownloadingExceptions e) {
+            if (e.getExceptions().size() == 1) {
+                // If there is only a single MavenDownloadingException, report just that as no additional debugging value is gleaned from its wrapper
+                MavenDownloadingException e2 = e.getExceptions().get(0);
+                String message = e2.warn(doc).printAll(); // Shows any underlying MavenDownloadingException
+                ctx.getOnError().accept(e2);
+                return doc.withMarkers(doc.getMarkers().add(ParseExceptionResult.build(this, e2, message)));
+            } else {
+                String message = e.warn(doc).printAll(); // Shows any underlying MavenDownloadingException
+                ctx.getOnError().accept(e);
+                return doc.withMarkers(doc.getMarkers().add(ParseExceptionResult.build(this, e, message)));
+            }
+        } catch (MavenDownloadingException e) {
+            String message = e.warn(doc).printAll(); // Shows any underlying MavenDownloadingException
+            ctx.getOnError().accept(e);
+            return doc.withMarkers(doc.getMarkers().add(ParseExceptionResult.build(this, e, message)));
+        } catch (UncheckedIOException e) {
+            ctx.getOnError().accept(e);
+            return doc.withMarkers(doc.getMarkers().add(ParseExceptionResult.build(this, e)));
+        }
+    }
+
+    /**
+     * Resolves the modules of a reactor on several threads. Modules are resolved in waves, parents before the
+     * modules that inherit from them, so that BOMs imported by a parent are already resolved (and remembered by
+     * the shared {@link MavenPomDownloader}) by the time its modules need them. Results are placed by index, so
+     * the order of the parsed documents is the same as when resolving sequentially.
+     */
+    private void resolveReactor(List<Map.Entry<Xml.Document, Pom>> docsToPoms, SourceFile[] resolved,
+                                List<String> effectivelyActiveProfiles, @Nullable MavenSettings sanitizedSettings,
+                                MavenPomDownloader downloader, ExecutionContext ctx) {
+        List<List<Integer>> waves = new ArrayList<>();
+        int[] depths = reactorDepths(docsToPoms);
+        for (int i = 0; i < depths.length; i++) {
+            while (waves.size() <= depths[i]) {
+                waves.add(new ArrayList<>());
+            }
+            waves.get(depths[i]).add(i);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(reactorParallelism, docsToPoms.size()), r -> {
+            Thread t = new Thread(r, "rewrite-maven-parser");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            for (List<Integer> wave : waves) {
+                List<Future<?>> futures = new ArrayList<>(wave.size());
+                for (int i : wave) {
+                    futures.add(pool.submit(() -> {
+                        resolved[i] = resolve(docsToPoms.get(i).getKey(), docsToPoms.get(i).getValue(),
+                                effectivelyActiveProfiles, sanitizedSettings, downloader, ctx);
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while resolving Maven modules", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * @return For each POM, the number of its ancestors that are also part of the reactor.
+     */
+    private static int[] reactorDepths(List<Map.Entry<Xml.Document, Pom>> docsToPoms) {
+        Map<String, Integer> indexByGa = new HashMap<>();
+        for (int i = 0; i < docsToPoms.size(); i++) {
+            Pom pom = docsToPoms.get(i).getValue();
+            indexByGa.putIfAbsent(pom.getGroupId() + ":" + pom.getArtifactId(), i);
+        }
+
+        int[] depths = new int[docsToPoms.size()];
+        for (int i = 0; i < depths.length; i++) {
+            Pom pom = docsToPoms.get(i).getValue();
+            while (pom.getParent() != null) {
+                Integer parent = indexByGa.get(pom.getParent().getGroupId() + ":" + pom.getParent().getArtifactId());
+                // an ancestry longer than the reactor can only be a cycle
+                if (parent == null || depths[i] >= depths.length) {
+                    break;
+                }
+                depths[i]++;
+                pom = docsToPoms.get(parent).getValue();
+            }
+        }
+        return depths;
+    }
+
     @Override
     public boolean accept(Path path) {
         return "pom.xml".equals(path.toString()) || path.toString().endsWith(".pom");
@@ -191,6 +290,7 @@ public static class Builder extends Parser.Builder {
         private final Collection<String> activeProfiles = new HashSet<>();
         private final Map<String, String> properties = new HashMap<>();
         private boolean skipDependencyResolution;
+        private int reactorParallelism = 1;
 
         public Builder() {
             super(Xml.Document.class);
@@ -201,6 +301,18 @@ public Builder skipDependencyResolution(boolean skip) {
             return this;
         }
 
+        /**
+         * Resolve the modules of a reactor concurrently, parents before the modules that inherit from them.
+         * Resolution is sequential when a {@link ResolutionEventListener} is registered, so that it observes
+         * events in the same order as before.
+         *
+         * @param parallelism The number of modules to resolve at the same time.
+         */
+        public Builder reactorParallelism(int parallelism) {
+            reactorParallelism = parallelism;
+            return this;
+        }
+
         public Builder activeProfiles(@Nullable String... profiles) {
             //noinspection ConstantConditions
             if (profiles != null) {
@@ -219,7 +331,7 @@ public Builder property(@Nullable String key, @Nullable String value) {
 
         @Override
         public MavenParser build() {
-            return new MavenParser(activeProfiles, properties, skipDependencyResolution);
+            return new MavenParser(activeProfiles, properties, skipDependencyResolution, reactorParallelism);
         }
 
         @Override
@@ -24,6 +24,7 @@
 import org.openrewrite.maven.tree.*;
 import org.openrewrite.xml.ChangeTagValueVisitor;
 import org.openrewrite.xml.XPathMatcher;
+import org.openrewrite.xml.XPathMatcherSet;
 import org.openrewrite.xml.XmlVisitor;
 import org.openrewrite.xml.tree.Xml;
 
@@ -50,6 +51,38 @@
     static final XPathMatcher PARENT_MATCHER = new XPathMatcher("/project/parent");
     static final XPathMatcher PROJECT_MATCHER = new XPathMatcher("/project");
 
+    /**
+     * The same expressions as the matchers above, evaluated together as the visitor descends through the POM.
+     */
+    private static final XPathMatcherSet TAG_MATCHERS = new XPathMatcherSet(
+            "/project/dependencies/dependency",
+            "/project/profiles/profile/dependencies/dependency",
+            "//plugins/plugin/dependencies/dependency",
+            "/project/profiles/profile/build/plugins/plugin/dependencies/dependency",
+            "/project/dependencyManagement/dependencies/dependency",
+            "/project/profiles/profile/dependencyManagement/dependencies/dependency",
+            "/project/properties/*",
+            "/project/profiles/profile/properties/*",
+            "//plugins/plugin",
+            "//annotationProcessorPaths/path",
+            "//pluginManagement/plugins/plugin",
+            "/project/parent",
+            "/project"
+    );
+    private static final int DEPENDENCY = 0;
+    private static final int PROFILE_DEPENDENCY = 1;
+    private static final int PLUGIN_DEPENDENCY = 2;
+    private static final int PROFILE_PLUGIN_DEPENDENCY = 3;
+    private static final int MANAGED_DEPENDENCY = 4;
+    private static final int PROFILE_MANAGED_DEPENDENCY = 5;
+    private static final int PROPERTY = 6;
+    private static final int PROFILE_PROPERTY = 7;
+    private static final int PLUGIN = 8;
+    private static final int ANNOTATION_PROCESSORS_PATH = 9;
+    private static final int MANAGED_PLUGIN = 10;
+    private static final int PARENT = 11;
+    private static final int PROJECT = 12;
+
     // there are several implicitly defined version properties that we should never attempt to update
     private static final Set<String> IMPLICITLY_DEFINED_VERSION_PROPERTIES = new HashSet<>(Arrays.asList(
             "${version}",
@@ -99,15 +132,15 @@ protected MavenResolutionResult getResolutionResult() {
     }
 
     public boolean isPropertyTag() {
-        return PROPERTY_MATCHER.matches(getCursor());
+        return TAG_MATCHERS.matches(getCursor(), PROPERTY);
     }
 
     public boolean isProfilePropertyTag() {
-        return PROFILE_PROPERTY_MATCHER.matches(getCursor());
+        return TAG_MATCHERS.matches(getCursor(), PROFILE_PROPERTY);
     }
 
     public boolean isDependencyTag() {
-        return isTag("dependency") && DEPENDENCY_MATCHER.matches(getCursor());
+        return isTag("dependency") && TAG_MATCHERS.matches(getCursor(), DEPENDENCY);
     }
 
     /**
@@ -119,7 +152,7 @@ public boolean isDependencyTag() {
      */
     public boolean isDependencyTag(String groupId, String artifactId) {
         if (!isDependencyTag()) {
-            if (isTag("dependency") && PROFILE_DEPENDENCY_MATCHER.matches(getCursor())) {
+            if (isTag("dependency") && TAG_MATCHERS.matches(getCursor(), PROFILE_DEPENDENCY)) {
                 Xml.Tag tag = getCursor().getValue();
                 return matchesGlob(tag.getChildValue("groupId").orElse(null), groupId) &&
                         matchesGlob(tag.getChildValue("artifactId").orElse(null), artifactId);
@@ -165,8 +198,8 @@ public boolean isDependencyTag(String groupId, String artifactId) {
 
     public boolean isPluginDependencyTag(String groupId, String artifactId) {
         if (!isTag("dependency") ||
-                !PLUGIN_DEPENDENCY_MATCHER.matches(getCursor()) &&
-                        !PROFILE_PLUGIN_DEPENDENCY_MATCHER.matches(getCursor())) {
+                !TAG_MATCHERS.matches(getCursor(), PLUGIN_DEPENDENCY) &&
+                        !TAG_MATCHERS.matches(getCursor(), PROFILE_PLUGIN_DEPENDENCY)) {
             return false;
         }
         Xml.Tag tag = getCursor().getValue();
@@ -175,7 +208,7 @@ public boolean isPluginDependencyTag(String groupId, String artifactId) {
     }
 
     public boolean isManagedDependencyTag() {
-        return isTag("dependency") && MANAGED_DEPENDENCY_MATCHER.matches(getCursor());
+        return isTag("dependency") && TAG_MATCHERS.matches(getCursor(), MANAGED_DEPENDENCY);
     }
 
     /**
@@ -187,7 +220,7 @@ public boolean isManagedDependencyTag() {
      */
     public boolean isManagedDependencyTag(String groupId, String artifactId) {
         if (!isManagedDependencyTag()) {
-            if (isTag("dependency") && PROFILE_MANAGED_DEPENDENCY_MATCHER.matches(getCursor())) {
+            if (isTag("dependency") && TAG_MATCHERS.matches(getCursor(), PROFILE_MANAGED_DEPENDENCY)) {
                 Xml.Tag tag = getCursor().getValue();
                 return matchesGlob(tag.getChildValue("groupId").orElse(null), groupId) &&
                         matchesGlob(tag.getChildValue("artifactId").orElse(null), artifactId);
@@ -229,7 +262,7 @@ public boolean isManagedDependencyImportTag(String groupId, String artifactId) {
     }
 
     public boolean isAnnotationProcessorPathTag(String groupId, String artifactId) {
-        if (!isTag("path") || !ANNOTATION_PROCESSORS_PATH_MATCHER.matches(getCursor())) {
+        if (!isTag("path") || !TAG_MATCHERS.matches(getCursor(), ANNOTATION_PROCESSORS_PATH)) {
             return false;
         }
         Xml.Tag tag = getCursor().getValue();
@@ -247,7 +280,7 @@ public void maybeUpdateModel() {
     }
 
     public boolean isPluginTag() {
-        return isTag("plugin") && PLUGIN_MATCHER.matches(getCursor());
+        return isTag("plugin") && TAG_MATCHERS.matches(getCursor(), PLUGIN);
     }
 
     public boolean isPluginTag(String groupId, @Nullable String artifactId) {
@@ -255,7 +288,7 @@ public boolean isPluginTag(String groupId, @Nullable String artifactId) {
     }
 
     public boolean isManagedPluginTag() {
-        return isTag("plugin") && MANAGED_PLUGIN_MATCHER.matches(getCursor());
+        return isTag("plugin") && TAG_MATCHERS.matches(getCursor(), MANAGED_PLUGIN);
     }
 
     private boolean hasPluginGroupId(String groupId) {
@@ -288,11 +321,11 @@ private boolean hasPluginArtifactId(@Nullable String artifactId) {
 
 
     public boolean isParentTag() {
-        return isTag("parent") && PARENT_MATCHER.matches(getCursor());
+        return isTag("parent") && TAG_MATCHERS.matches(getCursor(), PARENT);
     }
 
     public boolean isProjectTag() {
-        return isTag("project") && PROJECT_MATCHER.matches(getCursor());
+        return isTag("project") && TAG_MATCHERS.matches(getCursor(), PROJECT);
     }
 
     protected boolean isTag(String name) {
@@ -0,0 +1,489 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.maven.cache;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.ConstructorDetector;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import lombok.Value;
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Incubating;
+import org.openrewrite.maven.tree.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent maven cache in pure Java. Entries are encoded with Jackson's binary Smile format and appended to a
+ * single memory-mapped file. Things to know about this cache implementation:
+ * <p>
+ * <li> The file is append-only. A later entry for the same key shadows an earlier one, so the file only grows. Once it
+ * reaches 2GB, new entries are no longer written.</li>
+ * <li> Several processes may share the same file. Appends are serialized with an exclusive file lock, while reads
+ * never lock and pick up entries appended by other processes the first time a key is missing from the in-memory
+ * index.</li>
+ * <li> Every entry carries a checksum, so a record torn by a crashed writer is never read and is padded over by the
+ * next writer.</li>
+ * <li> Maven metadata and "not found" POM results change over time and expire after a configurable time-to-live.</li>
+ * <li> Normalized repositories with credentials are not stored, because credentials are never serialized.</li>
+ * <li> Entries are kept in a file next to the given one that is named after the file format and
+ * {@link Pom#getModelVersion() model version}, so caches of different versions never share, nor reset, a file that
+ * another process may have mapped.</li>
+ * <li> Every read deserializes the entry, so this cache is best placed behind an {@link InMemoryMavenPomCache}
+ * with a {@link CompositeMavenPomCache}.</li>
+ * <li> Caches of the same file share its channel and mapping, which are released when the last of them is
+ * {@link #close() closed}.</li>
+ */
+@Incubating(since = "8.85.0")
+public class MappedFileMavenPomCache implements MavenPomCache, AutoCloseable {
+
+    static final ObjectMapper mapper;
+
+    //Files are shared by all caches in this JVM, because file locks are held by the JVM rather than by a channel.
+    private static final Map<Path, Store> stores = new HashMap<>();
+
+    static {
+        SmileFactory f = new SmileFactory();
+        f.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true);
+        ObjectMapper m = JsonMapper.builder(f)
+                .constructorDetector(ConstructorDetector.USE_PROPERTIES_BASED)
+                .build()
+                .registerModule(new ParameterNamesModule())
+                .registerModule(new Jdk8Module())
+                .registerModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper = m.setVisibility(m.getSerializationConfig().getDefaultVisibilityChecker()
+                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withCreatorVisibility(JsonAutoDetect.Visibility.PUBLIC_ONLY));
+    }
+
+    static synchronized Store acquireStore(Path cacheFile) {
+        Store store = stores.computeIfAbsent(cacheFile.toAbsolutePath().normalize(), Store::new);
+        store.references++;
+        return store;
+    }
+
+    static synchronized void releaseStore(Store store) {
+        if (--store.references == 0) {
+            stores.values().remove(store);
+            store.close();
+        }
+    }
+
+    /**
+     * Close the file regardless of how many caches still use it.
+     */
+    static synchronized void closeStore(Path cacheFile) {
+        Store store = stores.remove(cacheFile.toAbsolutePath().normalize());
+        if (store != null) {
+            store.references = 0;
+            store.close();
+        }
+    }
+
+    private static final byte POM = 1;
+    private static final byte METADATA = 2;
+    private static final byte REPOSITORY = 3;
+    private static final byte RESOLVED_DEPENDENCY = 4;
+
+    private final Store store;
+    private final long metadataTtlMillis;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    public MappedFileMavenPomCache(Path cacheFile) {
+        this(cacheFile, Duration.ofHours(1));
+    }
+
+    /**
+     * @param cacheFile   The file to store entries in, created if it does not exist.
+     * @param metadataTtl How long Maven metadata and "not found" POM results are served from the cache.
+     */
+    public MappedFileMavenPomCache(Path cacheFile, Duration metadataTtl) {
+        this.store = acquireStore(cacheFile);
+        this.metadataTtlMillis = metadataTtl.toMillis();
+    }
+
+    /**
+     * Release this cache's use of the file. The file is unmapped and its channel closed once every cache of the
+     * same file has been closed. The cache must not be used afterward.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            releaseStore(store);
+        }
+    }
+
+    @Override
+    public @Nullable ResolvedPom getResolvedDependencyPom(ResolvedGroupArtifactVersion dependency) {
+        Optional<ResolvedPom> resolved = get(RESOLVED_DEPENDENCY, dependency.toString(), ResolvedPom.class, false);
+        //noinspection OptionalAssignedToNull
+        return resolved == null ? null : resolved.orElse(null);
+    }
+
+    @Override
+    public void putResolvedDependencyPom(ResolvedGroupArtifactVersion dependency, ResolvedPom resolved) {
+        put(RESOLVED_DEPENDENCY, dependency.toString(), resolved);
+    }
+
+    @Override
+    public @Nullable Optional<MavenMetadata> getMavenMetadata(URI repo, GroupArtifactVersion gav) {
+        return get(METADATA, repo + " " + gav, MavenMetadata.class, true);
+    }
+
+    @Override
+    public void putMavenMetadata(URI repo, GroupArtifactVersion gav, @Nullable MavenMetadata metadata) {
+        put(METADATA, repo + " " + gav, metadata);
+    }
+
+    @Override
+    public @Nullable Optional<Pom> getPom(ResolvedGroupArtifactVersion gav) {
+        return get(POM, gav.toString(), Pom.class, false);
+    }
+
+    @Override
+    public void putPom(ResolvedGroupArtifactVersion gav, @Nullable Pom pom) {
+        put(POM, gav.toString(), pom);
+    }
+
+    @Override
+    public @Nullable Optional<MavenRepository> getNormalizedRepository(MavenRepository repository) {
+        return get(REPOSITORY, repositoryKey(repository), MavenRepository.class, false);
+    }
+
+    @Override
+    public void putNormalizedRepository(MavenRepository repository, MavenRepository normalized) {
+        if (repository.getUsername() == null && repository.getPassword() == null &&
+            (normalized == null || normalized.getUsername() == null && normalized.getPassword() == null)) {
+            put(REPOSITORY, repositoryKey(repository), normalized);
+        }
+    }
+
+    private static String repositoryKey(MavenRepository repository) {
+        return repository.getId() + " " + repository.getUri() + " " + repository.getReleases() + " " +
+               repository.getSnapshots() + " " + repository.isKnownToExist();
+    }
+
+    @SuppressWarnings("OptionalAssignedToNull")
+    private <T> @Nullable Optional<T> get(byte kind, String key, Class<T> type, boolean expires) {
+        ensureOpen();
+        byte[] value = store.get(kind, key, expires ? metadataTtlMillis : -1, metadataTtlMillis);
+        if (value == null) {
+            return null;
+        } else if (value.length == 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(mapper.readValue(value, type));
+        } catch (IOException e) {
+            // An entry written by an incompatible version of a model class is treated as a miss
+            return null;
+        }
+    }
+
+    private void put(byte kind, String key, @Nullable Object value) {
+        ensureOpen();
+        try {
+            store.append(kind, key, value == null ? new byte[0] : mapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to serialize object to byte array.", e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("This maven pom cache has been closed");
+        }
+    }
+
+    /**
+     * The append-only file. It starts with a header of the magic number, the format version and the model version,
+     * followed by records of
+     * <pre>
+     * int payloadLength, int crc32(payload), payload = [byte kind, long writtenAt, int keyLength, key, value]
+     * </pre>
+     * A record with an empty payload is padding over bytes torn by a crashed writer. An empty value records that
+     * the entry is absent.
+     */
+    static class Store implements AutoCloseable {
+        private static final int MAGIC = 0x52574d50; // RWMP
+        private static final int FORMAT_VERSION = 1;
+        private static final int HEADER_SIZE = 12;
+        private static final int RECORD_HEADER_SIZE = 8;
+        private static final int PAYLOAD_HEADER_SIZE = 13;
+        private static final long MAX_FILE_SIZE = Integer.MAX_VALUE;
+
+        private final FileChannel channel;
+        private final Map<String, Location> index = new ConcurrentHashMap<>();
+
+        /**
+         * The offset up to which records have been read into the index.
+         */
+        private volatile long end;
+
+        private volatile @Nullable MappedByteBuffer mapped;
+
+        /**
+         * The number of caches using this store, guarded by the {@link MappedFileMavenPomCache} class.
+         */
+        int references;
+
+        Store(Path cacheFile) {
+            Path file = file(cacheFile);
+            boolean headerMatches;
+            try {
+                Path parent = file.getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                try (FileLock ignored = channel.lock()) {
+                    if (channel.size() < HEADER_SIZE) {
+                        // a new file, or one whose header was torn, which is too short for anyone to have mapped
+                        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(Pom.getModelVersion()).flip();
+                        write(header, 0);
+                    }
+                    headerMatches = headerMatches();
+                    if (headerMatches) {
+                        end = HEADER_SIZE;
+                        refresh();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to open maven pom cache at " + file, e);
+            }
+            if (!headerMatches) {
+                // never truncated, since another process may have it mapped
+                close();
+                throw new IllegalStateException("Unable to open maven pom cache at " + file +
+                                                ", which was not written by this cache");
+            }
+        }
+
+        /**
+         * @return The file entries are kept in, named after the file format and model version, so that a file of
+         * another version is left alone rather than reset under processes that may have it mapped.
+         */
+        static Path file(Path cacheFile) {
+            return cacheFile.resolveSibling(cacheFile.getFileName() + "." + FORMAT_VERSION + "." + Pom.getModelVersion());
+        }
+
+        private boolean headerMatches() throws IOException {
+            if (channel.size() < HEADER_SIZE) {
+                return false;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // keep reading
+            }
+            header.flip();
+            return header.getInt() == MAGIC && header.getInt() == FORMAT_VERSION &&
+                   header.getInt() == Pom.getModelVersion();
+        }
+
+        /**
+         * @return The value of the entry, an empty array when the entry records an absent value, or
+         * {@code null} when there is no entry or it has expired.
+         */
+        byte @Nullable [] get(byte kind, String key, long ttlMillis, long absentTtlMillis) {
+            String indexKey = kind + key;
+            Location location = index.get(indexKey);
+            if (location == null) {
+                try {
+                    if (channel.size() > end) {
+                        // another process may have appended the entry
+                        refresh();
+                        location = index.get(indexKey);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (location == null) {
+                    return null;
+                }
+            }
+
+            long ttl = location.getLength() == 0 ? absentTtlMillis : ttlMillis;
+            if (ttl >= 0 && System.currentTimeMillis() - location.getWrittenAt() > ttl) {
+                return null;
+            }
+
+            byte[] value = new byte[location.getLength()];
+            ByteBuffer buffer = mapping(location.getOffset() + location.getLength()).duplicate();
+            buffer.position((int) location.getOffset());
+            buffer.get(value);
+            return value;
+        }
+
+        synchronized void append(byte kind, String key, byte[] value) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            int payloadLength = PAYLOAD_HEADER_SIZE + keyBytes.length + value.length;
+            long writtenAt = System.currentTimeMillis();
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadLength);
+            record.position(RECORD_HEADER_SIZE);
+            record.put(kind).putLong(writtenAt).putInt(keyBytes.length).put(keyBytes).put(value);
+            record.putInt(0, payloadLength).putInt(4, crc(record.array(), RECORD_HEADER_SIZE, payloadLength));
+            record.rewind();
+
+            try (FileLock ignored = channel.lock()) {
+                refresh();
+                long size = channel.size();
+                if (size > end) {
+                    // bytes past the last readable record were left behind by a writer that did not complete
+                    padTornRecord(size);
+                }
+                if (end + record.capacity() > MAX_FILE_SIZE) {
+                    return;
+                }
+                long offset = end;
+                write(record, offset);
+                index.put(kind + key, new Location(offset + RECORD_HEADER_SIZE + PAYLOAD_HEADER_SIZE + keyBytes.length,
+                        value.length, writtenAt));
+                end = offset + record.capacity();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void padTornRecord(long size) throws IOException {
+            int padding = (int) Math.max(0, size - end - RECORD_HEADER_SIZE);
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + padding);
+            record.putInt(0, padding).putInt(4, crc(record.array(), RECORD_HEADER_SIZE, padding));
+            write(record, end);
+            end += record.capacity();
+        }
+
+        /**
+         * Read records appended since the last refresh into the index, stopping at the first record that is not
+         * yet completely written.
+         */
+        private synchronized void refresh() throws IOException {
+            long size = Math.min(channel.size(), MAX_FILE_SIZE);
+            if (size <= end) {
+                return;
+            }
+            ByteBuffer buffer = mapping(size).duplicate();
+            int pos = (int) end;
+            while (pos + RECORD_HEADER_SIZE <= size) {
+                int payloadLength = buffer.getInt(pos);
+                int crc = buffer.getInt(pos + 4);
+                int payloadStart = pos + RECORD_HEADER_SIZE;
+                if (payloadLength < 0 || payloadStart + (long) payloadLength > size ||
+                    (payloadLength > 0 && payloadLength < PAYLOAD_HEADER_SIZE)) {
+                    break;
+                }
+                byte[] payload = new byte[payloadLength];
+                buffer.position(payloadStart);
+                buffer.get(payload);
+                if (crc(payload, 0, payloadLength) != crc) {
+                    break;
+                }
+                if (payloadLength > 0) {
+                    ByteBuffer p = ByteBuffer.wrap(payload);
+                    byte kind = p.get();
+                    long writtenAt = p.getLong();
+                    int keyLength = p.getInt();
+                    String key = new String(payload, PAYLOAD_HEADER_SIZE, keyLength, StandardCharsets.UTF_8);
+                    int valueOffset = PAYLOAD_HEADER_SIZE + keyLength;
+                    index.put(kind + key, new Location(payloadStart + valueOffset,
+                            payloadLength - valueOffset, writtenAt));
+                }
+                pos = payloadStart + payloadLength;
+            }
+            end = pos;
+        }
+
+        private MappedByteBuffer mapping(long limit) {
+            MappedByteBuffer m = mapped;
+            if (m == null || m.capacity() < limit) {
+                synchronized (this) {
+                    m = mapped;
+                    if (m == null || m.capacity() < limit) {
+                        try {
+                            m = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), MAX_FILE_SIZE));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        mapped = m;
+                    }
+                }
+            }
+            return m;
+        }
+
+        private void write(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+
+        private static int crc(byte[] bytes, int offset, int length) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes, offset, length);
+            return (int) crc.getValue();
+        }
+
+        @Override
+        public void close() {
+            // the mapping is released once it is no longer reachable
+            mapped = null;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // nothing to flush, every append is written through
+            }
+        }
+    }
+
+    @Value
+    static class Location {
+        long offset;
+        int length;
+        long writtenAt;
+    }
+}
@@ -46,6 +46,9 @@
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -78,6 +81,24 @@ public class MavenPomDownloader {
     private final MavenExecutionContextView ctx;
     private final HttpSender httpSender;
 
+    /**
+     * Imported BOMs resolved by this downloader. A downloader is created for each parse of a reactor,
+     * so a BOM shared by many modules is resolved once for the reactor rather than once per module.
+     */
+    private final Map<ResolvedBomKey, ResolvedPom> resolvedBoms = new ConcurrentHashMap<>();
+
+    /**
+     * Requests to a repository that are currently being sent, so that callers asking for the same
+     * URI at the same time share a single request rather than each sending their own.
+     */
+    private final Map<String, CompletableFuture<byte[]>> inFlightRequests = new ConcurrentHashMap<>();
+
+    /**
+     * Requests that a repository answered with a client-side error that is unlikely to change, like a 404.
+     * These are not sent again for the life of this downloader.
+     */
+    private final Map<String, HttpSenderResponseException> clientErrors = new ConcurrentHashMap<>();
+
     @Nullable
     private MavenSettings mavenSettings;
 
@@ -752,6 +773,48 @@ public Pom download(GroupArtifactVersion gav,
         }
     }
 
+    /**
+     * Download and resolve a BOM imported into the dependency management of {@code containingPom}.
+     * Resolutions are remembered for the life of this downloader, unless a resolution listener is
+     * registered, which then observes every resolution as before.
+     */
+    public ResolvedPom resolveBom(GroupArtifactVersion gav,
+                                  ResolvedPom containingPom,
+                                  List<MavenRepository> repositories,
+                                  Iterable<String> activeProfiles,
+                                  List<MavenRepository> initialRepositories,
+                                  ExecutionContext ctx) throws MavenDownloadingException {
+        Pom bom = download(gav, null, containingPom, repositories);
+        if (this.ctx.getResolutionListener() != ResolutionEventListener.NOOP) {
+            return bom.resolve(activeProfiles, this, initialRepositories, ctx);
+        }
+
+        List<String> profiles = new ArrayList<>();
+        activeProfiles.forEach(profiles::add);
+        ResolvedBomKey key = new ResolvedBomKey(bom.getGav(), bom.getSourcePath(), profiles, initialRepositories);
+        ResolvedPom resolved = resolvedBoms.get(key);
+        if (resolved == null) {
+            // not computeIfAbsent, since resolving the BOM may import further BOMs
+            resolved = bom.resolve(activeProfiles, this, initialRepositories, ctx);
+            ResolvedPom existing = resolvedBoms.putIfAbsent(key, resolved);
+            if (existing != null) {
+                resolved = existing;
+            }
+        }
+        return resolved;
+    }
+
+    @Value
+    private static class ResolvedBomKey {
+        ResolvedGroupArtifactVersion gav;
+
+        @Nullable
+        Path sourcePath;
+
+        List<String> activeProfiles;
+        List<MavenRepository> initialRepositories;
+    }
+
     private RawPom rawPomFromGav(GroupArtifactVersion gav) {
         return new RawPom(null, null, gav.getGroupId(), gav.getArtifactId(), gav.getVersion(), null,
                 null, null, null, "jar", null, null, null,
@@ -1092,9 +1155,61 @@ private boolean jarExistsForPomUri(MavenRepository repo, String pomUrl) {
 
 
     /**
-     * Replicates Apache Maven's behavior to attempt anonymous download if repository credentials prove invalid
+     * Replicates Apache Maven's behavior to attempt anonymous download if repository credentials prove invalid.
+     * Concurrent requests for the same URI share one request, and client-side errors are remembered.
      */
     private byte[] requestAsAuthenticatedOrAnonymous(MavenRepository repo, String uriString) throws HttpSenderResponseException, IOException {
+        String requestKey = hasCredentials(repo) ? repo.getUsername() + '@' + uriString : uriString;
+        HttpSenderResponseException clientError = clientErrors.get(requestKey);
+        if (clientError != null) {
+            throw clientError.copy();
+        }
+
+        CompletableFuture<byte[]> request = new CompletableFuture<>();
+        CompletableFuture<byte[]> inFlight = inFlightRequests.putIfAbsent(requestKey, request);
+        if (inFlight != null) {
+            return awaitResponse(inFlight, uriString);
+        }
+        try {
+            byte[] body = sendAsAuthenticatedOrAnonymous(repo, uriString);
+            request.complete(body);
+            return body;
+        } catch (HttpSenderResponseException e) {
+            if (e.isClientSideException()) {
+                clientErrors.put(requestKey, e);
+            }
+            request.completeExceptionally(e);
+            throw e;
+        } catch (Throwable t) {
+            // including errors, so that no waiter is left blocked
+            request.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlightRequests.remove(requestKey, request);
+        }
+    }
+
+    /**
+     * Every waiter gets an exception of its own, with its own stack trace, rather than sharing one instance that
+     * any of them could add suppressed exceptions to or otherwise change.
+     */
+    private static byte[] awaitResponse(CompletableFuture<byte[]> request, String uriString) throws HttpSenderResponseException, IOException {
+        try {
+            return request.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof HttpSenderResponseException) {
+                throw ((HttpSenderResponseException) cause).copy();
+            } else if (cause instanceof IOException) {
+                throw new IOException(cause.getMessage(), cause);
+            } else if (cause instanceof UncheckedIOException) {
+                throw new UncheckedIOException(cause.getMessage(), ((UncheckedIOException) cause).getCause());
+            }
+            throw new IllegalStateException("Request to " + uriString + " failed", cause);
+        }
+    }
+
+    private byte[] sendAsAuthenticatedOrAnonymous(MavenRepository repo, String uriString) throws HttpSenderResponseException, IOException {
         try {
             HttpSender.Request.Builder request = httpSender.get(uriString);
             return sendRequest(applyAuthenticationAndTimeoutToRequest(repo, request).build());
@@ -1178,6 +1293,16 @@ public HttpSenderResponseException(@Nullable Throwable cause, @Nullable Integer
             this.body = body;
         }
 
+        /**
+         * @return An exception for the same response, thrown from the caller's stack, for the callers that share
+         * one request or the remembered failure of an earlier one.
+         */
+        private HttpSenderResponseException copy() {
+            HttpSenderResponseException copy = new HttpSenderResponseException(getCause(), responseCode, body);
+            copy.addSuppressed(this);
+            return copy;
+        }
+
         /**
          * All 400s are considered client-side exceptions, but we only want to cache ones that are unlikely to change
          * if requested again in order to save on time spent making HTTP calls.
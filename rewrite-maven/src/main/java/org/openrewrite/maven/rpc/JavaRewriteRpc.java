@@ -42,6 +42,7 @@
 import org.openrewrite.maven.utilities.MavenArtifactDownloader;
 import org.openrewrite.Parser;
 import org.openrewrite.rpc.RewriteRpc;
+import org.openrewrite.rpc.RpcBinaryFrames;
 import org.openrewrite.xml.XmlParser;
 
 import java.io.IOException;
@@ -190,7 +191,8 @@ private static void run(@Nullable Path marketplaceCsv, boolean trace, @Nullable
         module.addDeserializer(Path.class, new PathDeserializer());
 
         JsonMessageFormatter formatter = new JsonMessageFormatter(module, new ParameterNamesModule());
-        MessageHandler handler = new HeaderDelimitedMessageHandler(formatter, System.in, System.out);
+        RpcBinaryFrames frames = new RpcBinaryFrames();
+        MessageHandler handler = new HeaderDelimitedMessageHandler(formatter, frames.in(System.in), frames.out(System.out));
 
         if (trace) {
             handler = new TraceMessageHandler("server", handler);
@@ -199,7 +201,8 @@ private static void run(@Nullable Path marketplaceCsv, boolean trace, @Nullable
         JsonRpc jsonRpc = new JsonRpc(handler);
 
         // Create the RPC server with the marketplace and resolvers
-        RewriteRpc server = new RewriteRpc(jsonRpc, marketplace, resolvers);
+        RewriteRpc server = new RewriteRpc(jsonRpc, marketplace, resolvers)
+                .binaryFrames(frames);
 
         // FIXME replace reflective parser discovery with ServiceLoader-based
         //  discovery (e.g. make Parser.Builder a service interface) so that any
@@ -38,6 +38,10 @@
 import org.openrewrite.maven.tree.Plugin.Execution;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
@@ -933,8 +937,8 @@ private void mergeDependencyManagement(
                     if (isAlreadyResolved(groupArtifactVersion, pomAncestry)) {
                         continue;
                     }
-                    ResolvedPom bom = downloader.download(groupArtifactVersion, null, ResolvedPom.this, repositories)
-                            .resolve(activeProfiles, downloader, initialRepositories, ctx);
+                    ResolvedPom bom = downloader.resolveBom(groupArtifactVersion, ResolvedPom.this, repositories,
+                            activeProfiles, initialRepositories, ctx);
                     MavenExecutionContextView.view(ctx)
                             .getResolutionListener()
                             .bomImport(bom.getGav(), pom);
@@ -1034,6 +1038,7 @@ private List<ResolvedDependency> doResolveDependencies(Scope scope, Map<GroupArt
         int depth = 0;
         Collection<DependencyAndDependent> dependenciesAtDepth = rootDependencies.values();
         while (!dependenciesAtDepth.isEmpty()) {
+            prefetchDependencyPoms(dependenciesAtDepth, depth, requirements, downloader, ctx);
             Map<GroupArtifactClassifierType, DependencyAndDependent> dependenciesAtNextDepthMap = new LinkedHashMap<>();
 
             for (DependencyAndDependent dd : dependenciesAtDepth) {
@@ -1050,7 +1055,7 @@ private List<ResolvedDependency> doResolveDependencies(Scope scope, Map<GroupArt
                                 (d.getScope() == null ? "" : ":" + d.getScope());
                         throw new MavenDownloadingException("No version provided for direct dependency " + coordinates, null, dd.getDependency().getGav());
                     }
-                    if (d.getVersion() == null || (d.getType() != null && (!"jar".equals(d.getType()) && !"ejb".equals(d.getType()) && !"pom".equals(d.getType()) && !"zip".equals(d.getType()) && !"bom".equals(d.getType()) && !"tgz".equals(d.getType())))) {
+                    if (d.getVersion() == null || !isResolvableType(d.getType())) {
                         continue;
                     }
 
@@ -1097,26 +1102,7 @@ private List<ResolvedDependency> doResolveDependencies(Scope scope, Map<GroupArt
                     }
 
                     Pom dPom = downloader.download(d.getGav(), null, dd.definedIn, getRepositories());
-
-                    MavenPomCache cache = MavenExecutionContextView.view(ctx).getPomCache();
-                    ResolvedPom resolvedPom = cache.getResolvedDependencyPom(dPom.getGav());
-                    if (resolvedPom == null) {
-                        resolvedPom = new ResolvedPom(
-                                dPom,
-                                getActiveProfiles(),
-                                emptyMap(),
-                                emptyList(),
-                                true,
-                                initialRepositories,
-                                emptyList(),
-                                emptyList(),
-                                emptyList(),
-                                emptyList(),
-                                emptyList(),
-                                emptyList());
-                        resolvedPom.resolver(ctx, downloader).resolveParentsRecursively(dPom);
-                        cache.putResolvedDependencyPom(dPom.getGav(), resolvedPom);
-                    }
+                    ResolvedPom resolvedPom = resolveDependencyPom(dPom, downloader, ctx);
 
                     ResolvedDependency resolved = new ResolvedDependency(
                             dPom.getRepository(),
@@ -1223,6 +1209,99 @@ private List<ResolvedDependency> doResolveDependencies(Scope scope, Map<GroupArt
         return dependencies;
     }
 
+    private ResolvedPom resolveDependencyPom(Pom dPom, MavenPomDownloader downloader, ExecutionContext ctx) throws MavenDownloadingException {
+        MavenPomCache cache = MavenExecutionContextView.view(ctx).getPomCache();
+        ResolvedPom resolvedPom = cache.getResolvedDependencyPom(dPom.getGav());
+        if (resolvedPom == null) {
+            resolvedPom = new ResolvedPom(
+                    dPom,
+                    getActiveProfiles(),
+                    emptyMap(),
+                    emptyList(),
+                    true,
+                    initialRepositories,
+                    emptyList(),
+                    emptyList(),
+                    emptyList(),
+                    emptyList(),
+                    emptyList(),
+                    emptyList());
+            resolvedPom.resolver(ctx, downloader).resolveParentsRecursively(dPom);
+            cache.putResolvedDependencyPom(dPom.getGav(), resolvedPom);
+        }
+        return resolvedPom;
+    }
+
+    /**
+     * Downloads the POMs of one depth of the dependency graph, along with their parents and imported BOMs,
+     * on several threads ahead of the walk in {@link #doResolveDependencies}. The walk itself stays sequential
+     * and finds everything it needs in the {@link MavenPomCache}, so the resolution result doesn't depend on the
+     * order in which downloads complete.
+     * <p>
+     * Dependencies whose version still has to be reconciled with other requirements are left to the walk. So is
+     * everything when a resolution listener is registered, so that it observes events in walk order.
+     * <p>
+     * Only done when the caller supplied an executor through {@link MavenExecutionContextView#setPomDownloadExecutor}.
+     */
+    private void prefetchDependencyPoms(Collection<DependencyAndDependent> dependenciesAtDepth, int depth,
+                                        Map<GroupArtifact, VersionRequirement> requirements,
+                                        MavenPomDownloader downloader, ExecutionContext ctx) {
+        MavenExecutionContextView mctx = MavenExecutionContextView.view(ctx);
+        ExecutorService executor = mctx.getPomDownloadExecutor();
+        int parallelism = mctx.getPomDownloadParallelism();
+        if (executor == null || parallelism <= 1 || dependenciesAtDepth.size() <= 1 || mctx.getResolutionListener() != ResolutionEventListener.NOOP) {
+            return;
+        }
+
+        Queue<DependencyAndDependent> pending = new ConcurrentLinkedQueue<>();
+        for (DependencyAndDependent dd : dependenciesAtDepth) {
+            Dependency d;
+            try {
+                d = getValues(dd.getDefinedIn().getValues(dd.getDependency(), 0), depth);
+            } catch (IllegalStateException e) {
+                // reported by the walk
+                continue;
+            }
+            String version = d.getVersion();
+            if (version == null || !isResolvableType(d.getType()) || version.contains("${") || version.contains(",") ||
+                    version.startsWith("[") || version.startsWith("(") ||
+                    requirements.containsKey(new GroupArtifact(d.getGroupId() == null ? "" : d.getGroupId(), d.getArtifactId()))) {
+                continue;
+            }
+            pending.add(new DependencyAndDependent(d, dd.getScope(), dd.getDependent(), dd.getRootDependent(), dd.getDefinedIn()));
+        }
+
+        List<Future<?>> workers = new ArrayList<>(parallelism);
+        for (int i = 0; i < Math.min(parallelism, pending.size()); i++) {
+            workers.add(executor.submit(() -> {
+                DependencyAndDependent dd;
+                while ((dd = pending.poll()) != null) {
+                    try {
+                        Pom dPom = downloader.download(dd.getDependency().getGav(), null, dd.getDefinedIn(), getRepositories());
+                        resolveDependencyPom(dPom, downloader, ctx);
+                    } catch (MavenDownloadingException | RuntimeException e) {
+                        // the walk downloads this dependency again and reports the failure in context
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                // failures are left to the walk
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static boolean isResolvableType(@Nullable String type) {
+        return type == null || "jar".equals(type) || "ejb".equals(type) || "pom".equals(type) ||
+                "zip".equals(type) || "bom".equals(type) || "tgz".equals(type);
+    }
+
     private boolean contains(List<ResolvedDependency> dependencies, GroupArtifact ga, @Nullable String classifier) {
         for (ResolvedDependency it : dependencies) {
             if (it.getGroupId().equals(ga.getGroupId()) && it.getArtifactId().equals(ga.getArtifactId()) &&
@@ -22,6 +22,12 @@
 import org.openrewrite.maven.cache.MavenArtifactCache;
 
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -56,4 +62,24 @@ void artifactCacheIsSharedBetweenViewsOverSameDelegate() {
 
         assertThat(fromFirstView).isSameAs(fromSecondView);
     }
+
+    @Test
+    void resolutionTimeRecordedConcurrentlyIsNotLost() throws Exception {
+        MavenExecutionContextView ctx = MavenExecutionContextView.view(new InMemoryExecutionContext());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                futures.add(executor.submit(() -> ctx.recordResolutionTime(Duration.ofMillis(1))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ctx.getResolutionTime()).isEqualTo(Duration.ofMillis(1000));
+    }
 }
@@ -40,6 +40,7 @@
 import org.openrewrite.test.RewriteTest;
 import org.openrewrite.test.TypeValidation;
 import org.openrewrite.tree.ParseError;
+import org.openrewrite.xml.tree.Xml;
 
 import java.net.InetAddress;
 import java.nio.file.Path;
@@ -3570,6 +3571,89 @@ void projectVersionPropertyOverriddenByBuilderProperty() {
         );
     }
 
+    @Test
+    void reactorParallelism() {
+        rewriteRun(
+          spec -> spec.parser(MavenParser.builder().reactorParallelism(4)),
+          mavenProject("root",
+            pomXml(
+              """
+                <project>
+                    <groupId>com.example</groupId>
+                    <artifactId>root</artifactId>
+                    <version>1.0</version>
+                    <packaging>pom</packaging>
+                    <modules>
+                        <module>bom</module>
+                        <module>a</module>
+                        <module>b</module>
+                    </modules>
+                </project>
+                """,
+              spec -> spec.afterRecipe(pomXml -> assertThat(
+                pomXml.getMarkers().findFirst(MavenResolutionResult.class).orElseThrow()
+                  .getModules()).hasSize(3))
+            ),
+            mavenProject("bom",
+              pomXml(
+                """
+                  <project>
+                      <parent>
+                          <groupId>com.example</groupId>
+                          <artifactId>root</artifactId>
+                          <version>1.0</version>
+                      </parent>
+                      <artifactId>bom</artifactId>
+                      <packaging>pom</packaging>
+                      <dependencyManagement>
+                          <dependencies>
+                              <dependency>
+                                  <groupId>com.example</groupId>
+                                  <artifactId>some-lib</artifactId>
+                                  <version>2.0</version>
+                              </dependency>
+                          </dependencies>
+                      </dependencyManagement>
+                  </project>
+                  """
+              )
+            ),
+            mavenProject("a", pomXml(importingBom("a"), spec -> spec.afterRecipe(MavenParserTest::assertManagedByBom))),
+            mavenProject("b", pomXml(importingBom("b"), spec -> spec.afterRecipe(MavenParserTest::assertManagedByBom)))
+          )
+        );
+    }
+
+    private static String importingBom(String artifactId) {
+        return """
+          <project>
+              <parent>
+                  <groupId>com.example</groupId>
+                  <artifactId>root</artifactId>
+                  <version>1.0</version>
+              </parent>
+              <artifactId>%s</artifactId>
+              <dependencyManagement>
+                  <dependencies>
+                      <dependency>
+                          <groupId>com.example</groupId>
+                          <artifactId>bom</artifactId>
+                          <version>1.0</version>
+                          <type>pom</type>
+                          <scope>import</scope>
+                      </dependency>
+                  </dependencies>
+              </dependencyManagement>
+          </project>
+          """.formatted(artifactId);
+    }
+
+    private static void assertManagedByBom(Xml.Document pomXml) {
+        MavenResolutionResult result = pomXml.getMarkers().findFirst(MavenResolutionResult.class).orElseThrow();
+        assertThat(result.getPom().getManagedVersion("com.example", "some-lib", null, null)).isEqualTo("2.0");
+        assertThat(result.getParent()).isNotNull();
+    }
+
     @Issue("https://github.com/openrewrite/rewrite/issues/4319")
     @Test
     void multiModulePropertyVersionShouldAddModules() {
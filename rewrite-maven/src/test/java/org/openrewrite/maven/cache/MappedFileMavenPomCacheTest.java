@@ -0,0 +1,225 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.maven.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openrewrite.ExecutionContext;
+import org.openrewrite.InMemoryExecutionContext;
+import org.openrewrite.maven.internal.MavenPomDownloader;
+import org.openrewrite.maven.internal.RawPom;
+import org.openrewrite.maven.tree.GroupArtifactVersion;
+import org.openrewrite.maven.tree.MavenMetadata;
+import org.openrewrite.maven.tree.Pom;
+import org.openrewrite.maven.tree.ResolvedPom;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedFileMavenPomCacheTest {
+
+    @Test
+    void entryPersistedInExistingFile(@TempDir Path tempDir) {
+        Path cacheFile = tempDir.resolve("poms.bin");
+        Pom pom = parsePomXml("1.0.0");
+        try (MappedFileMavenPomCache mavenCache = new MappedFileMavenPomCache(cacheFile)) {
+            mavenCache.putPom(pom.getGav(), pom);
+        }
+
+        try (MappedFileMavenPomCache mavenCache = new MappedFileMavenPomCache(cacheFile)) {
+            Optional<Pom> cached = mavenCache.getPom(pom.getGav());
+            assertThat(cached).isPresent();
+            assertThat(cached.get().getGav()).isEqualTo(pom.getGav());
+        }
+    }
+
+    @Test
+    void resolvedPomRoundTrips(@TempDir Path tempDir) throws Exception {
+        Path cacheFile = tempDir.resolve("poms.bin");
+        ExecutionContext ctx = new InMemoryExecutionContext(Throwable::printStackTrace);
+        //language=xml
+        String xml = """
+          <project>
+              <modelVersion>4.0.0</modelVersion>
+              <groupId>com.foo</groupId>
+              <artifactId>test</artifactId>
+              <version>1.0.0</version>
+              <properties>
+                  <bar.version>2.0.0</bar.version>
+              </properties>
+              <dependencyManagement>
+                  <dependencies>
+                      <dependency>
+                          <groupId>com.foo</groupId>
+                          <artifactId>bar</artifactId>
+                          <version>${bar.version}</version>
+                      </dependency>
+                  </dependencies>
+              </dependencyManagement>
+              <dependencies>
+                  <dependency>
+                      <groupId>com.foo</groupId>
+                      <artifactId>bar</artifactId>
+                      <scope>test</scope>
+                  </dependency>
+              </dependencies>
+          </project>
+          """;
+        Pom pom = RawPom.parse(new ByteArrayInputStream(xml.getBytes()), null).toPom(null, null);
+        ResolvedPom resolved = new ResolvedPom(pom, List.of("a-profile")).resolve(ctx, new MavenPomDownloader(ctx));
+        try (MappedFileMavenPomCache mavenCache = new MappedFileMavenPomCache(cacheFile)) {
+            mavenCache.putResolvedDependencyPom(pom.getGav(), resolved);
+        }
+
+        try (MappedFileMavenPomCache mavenCache = new MappedFileMavenPomCache(cacheFile)) {
+            ResolvedPom cached = mavenCache.getResolvedDependencyPom(pom.getGav());
+            assertThat(cached).isNotNull();
+            assertThat(cached.getGav()).isEqualTo(resolved.getGav());
+            assertThat(cached.getActiveProfiles()).containsExactly("a-profile");
+            assertThat(cached.getProperties()).isEqualTo(resolved.getProperties());
+            assertThat(cached.getRepositories()).isEqualTo(resolved.getRepositories());
+            assertThat(cached.getDependencyManagement()).hasSize(1);
+            assertThat(cached.getManagedVersion("com.foo", "bar", null, null)).isEqualTo("2.0.0");
+            assertThat(cached.getRequestedDependencies()).isEqualTo(resolved.getRequestedDependencies());
+            assertThat(cached.getRequested().getGav()).isEqualTo(pom.getGav());
+        }
+    }
+
+    @Test
+    void fileIsReleasedWhenItsLastCacheIsClosed(@TempDir Path tempDir) {
+        Path cacheFile = tempDir.resolve("poms.bin");
+        Pom pom = parsePomXml("1.0.0");
+        MappedFileMavenPomCache first = new MappedFileMavenPomCache(cacheFile);
+        MappedFileMavenPomCache second = new MappedFileMavenPomCache(cacheFile);
+        first.putPom(pom.getGav(), pom);
+
+        first.close();
+        first.close();
+        assertThatThrownBy(() -> first.getPom(pom.getGav())).isInstanceOf(IllegalStateException.class);
+        // the file stays open for the cache still using it
+        assertThat(second.getPom(pom.getGav())).isPresent();
+
+        second.close();
+        try (MappedFileMavenPomCache reopened = new MappedFileMavenPomCache(cacheFile)) {
+            assertThat(reopened.getPom(pom.getGav())).isPresent();
+        }
+    }
+
+    @Test
+    void readsEntriesAppendedByAnotherProcess(@TempDir Path tempDir) {
+        Path cacheFile = tempDir.resolve("poms.bin");
+        // each store has its own channel, just like a cache in another JVM would
+        try (MappedFileMavenPomCache.Store first = new MappedFileMavenPomCache.Store(cacheFile);
+             MappedFileMavenPomCache.Store second = new MappedFileMavenPomCache.Store(cacheFile)) {
+            first.append((byte) 1, "com.foo:test:1.0.0", new byte[]{1, 2, 3});
+            assertThat(second.get((byte) 1, "com.foo:test:1.0.0", -1, -1)).containsExactly(1, 2, 3);
+
+            second.append((byte) 1, "com.foo:test:1.0.0", new byte[]{4});
+            first.append((byte) 1, "com.foo:test:2.0.0", new byte[0]);
+            assertThat(second.get((byte) 1, "com.foo:test:2.0.0", -1, -1)).isEmpty();
+            // the later entry shadows the earlier one
+            assertThat(first.get((byte) 1, "com.foo:test:1.0.0", -1, -1)).containsExactly(4);
+            try (MappedFileMavenPomCache.Store third = new MappedFileMavenPomCache.Store(cacheFile)) {
+                assertThat(third.get((byte) 1, "com.foo:test:1.0.0", -1, -1)).containsExactly(4);
+            }
+        }
+    }
+
+    @Test
+    void recoversFromTornRecord(@TempDir Path tempDir) throws Exception {
+        Path cacheFile = tempDir.resolve("poms.bin");
+        try (MappedFileMavenPomCache.Store store = new MappedFileMavenPomCache.Store(cacheFile)) {
+            store.append((byte) 1, "a", new byte[]{1});
+        }
+        Files.write(MappedFileMavenPomCache.Store.file(cacheFile), new byte[]{0, 0, 0, 42, 7}, StandardOpenOption.APPEND);
+
+        try (MappedFileMavenPomCache.Store store = new MappedFileMavenPomCache.Store(cacheFile)) {
+            assertThat(store.get((byte) 1, "a", -1, -1)).containsExactly(1);
+            store.append((byte) 1, "b", new byte[]{2});
+        }
+
+        try (MappedFileMavenPomCache.Store reopened = new MappedFileMavenPomCache.Store(cacheFile)) {
+            assertThat(reopened.get((byte) 1, "a", -1, -1)).containsExactly(1);
+            assertThat(reopened.get((byte) 1, "b", -1, -1)).containsExactly(2);
+        }
+    }
+
+    @Test
+    void neverResetsAnotherFile(@TempDir Path tempDir) throws Exception {
+        Path cacheFile = tempDir.resolve("poms.bin");
+        byte[] foreign = new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+        Files.write(cacheFile, foreign);
+
+        // a file of another version is left as it is
+        try (MappedFileMavenPomCache.Store store = new MappedFileMavenPomCache.Store(cacheFile)) {
+            store.append((byte) 1, "a", new byte[]{1});
+        }
+        assertThat(Files.readAllBytes(cacheFile)).containsExactly(foreign);
+
+        // as is a file that wasn't written by this cache at all
+        Path versioned = MappedFileMavenPomCache.Store.file(tempDir.resolve("other.bin"));
+        Files.write(versioned, foreign);
+        assertThatThrownBy(() -> new MappedFileMavenPomCache.Store(tempDir.resolve("other.bin")))
+          .isInstanceOf(IllegalStateException.class);
+        assertThat(Files.readAllBytes(versioned)).containsExactly(foreign);
+    }
+
+    @Test
+    void metadataExpires(@TempDir Path tempDir) throws Exception {
+        Path cacheFile = tempDir.resolve("poms.bin");
+        URI repo = URI.create("https://repo.maven.apache.org/maven2");
+        GroupArtifactVersion gav = new GroupArtifactVersion("com.foo", "test", null);
+        MavenMetadata metadata = new MavenMetadata(new MavenMetadata.Versioning(List.of("1.0.0", "1.0.1"),
+          emptyList(), null, null, "1.0.1", "1.0.1"));
+
+        try (MappedFileMavenPomCache mavenCache = new MappedFileMavenPomCache(cacheFile)) {
+            mavenCache.putMavenMetadata(repo, gav, metadata);
+        }
+        try (MappedFileMavenPomCache mavenCache = new MappedFileMavenPomCache(cacheFile, Duration.ofHours(1))) {
+            assertThat(mavenCache.getMavenMetadata(repo, gav))
+              .hasValueSatisfying(m -> assertThat(m.getVersioning().getVersions()).containsExactly("1.0.0", "1.0.1"));
+        }
+
+        Thread.sleep(10);
+        try (MappedFileMavenPomCache mavenCache = new MappedFileMavenPomCache(cacheFile, Duration.ofMillis(1))) {
+            assertThat(mavenCache.getMavenMetadata(repo, gav)).isNull();
+        }
+    }
+
+    private Pom parsePomXml(String version) {
+        //language=xml
+        String pom = """
+          <project>
+              <modelVersion>4.0.0</modelVersion>
+              <groupId>com.foo</groupId>
+              <artifactId>test</artifactId>
+              <version>%s</version>
+              <name>test</name>
+          </project>
+          """.formatted(version);
+        return RawPom.parse(new ByteArrayInputStream(pom.getBytes()), null).toPom(null, null);
+    }
+}
@@ -36,6 +36,7 @@
 import org.openrewrite.maven.MavenExecutionContextView;
 import org.openrewrite.maven.MavenParser;
 import org.openrewrite.maven.MavenSettings;
+import org.openrewrite.maven.cache.InMemoryMavenPomCache;
 import org.openrewrite.maven.http.OkHttpSender;
 import org.openrewrite.maven.tree.*;
 import org.openrewrite.test.RewriteTest;
@@ -51,6 +52,11 @@
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.StreamSupport;
@@ -1589,6 +1595,138 @@ public MockResponse dispatch(RecordedRequest recordedRequest) {
                   .hasMessageContaining("Illegal processing instruction target (\"xml\")");
             }
         }
+
+        @Test
+        void concurrentDownloadsShareOneRequest() throws Exception {
+            var pomRequests = new AtomicInteger();
+            try (MockWebServer mockRepo = getMockServer()) {
+                mockRepo.setDispatcher(new Dispatcher() {
+                    @Override
+                    public MockResponse dispatch(RecordedRequest recordedRequest) {
+                        assert recordedRequest.getPath() != null;
+                        if (recordedRequest.getPath().endsWith("fred/fred/1/fred-1.pom")) {
+                            pomRequests.incrementAndGet();
+                            return new MockResponse().setResponseCode(200)
+                              .setHeadersDelay(100, TimeUnit.MILLISECONDS)
+                              .setBody(
+                                //language=xml
+                                """
+                                  <project>
+                                      <groupId>fred</groupId>
+                                      <artifactId>fred</artifactId>
+                                      <version>1</version>
+                                  </project>
+                                  """);
+                        }
+                        return new MockResponse().setResponseCode(200).setBody("");
+                    }
+                });
+                mockRepo.start();
+                var repositories = List.of(MavenRepository.builder()
+                  .id("id")
+                  .uri("http://%s:%d/maven".formatted(mockRepo.getHostName(), mockRepo.getPort()))
+                  .build());
+
+                var gav = new GroupArtifactVersion("fred", "fred", "1");
+                var downloader = new MavenPomDownloader(emptyMap(), ctx);
+                ExecutorService executor = Executors.newFixedThreadPool(4);
+                try {
+                    List<Future<Pom>> downloads = new ArrayList<>();
+                    for (int i = 0; i < 4; i++) {
+                        downloads.add(executor.submit(() -> downloader.download(gav, null, null, repositories)));
+                    }
+                    for (Future<Pom> download : downloads) {
+                        assertThat(download.get().getGav().getArtifactId()).isEqualTo("fred");
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+                assertThat(pomRequests.get()).isEqualTo(1);
+            }
+        }
+
+        @Test
+        void clientErrorsAreNotRequestedAgain() throws Exception {
+            var pomRequests = new AtomicInteger();
+            try (MockWebServer mockRepo = getMockServer()) {
+                mockRepo.setDispatcher(new Dispatcher() {
+                    @Override
+                    public MockResponse dispatch(RecordedRequest recordedRequest) {
+                        assert recordedRequest.getPath() != null;
+                        if (recordedRequest.getPath().endsWith("fred/fred/1/fred-1.pom")) {
+                            pomRequests.incrementAndGet();
+                        }
+                        return new MockResponse().setResponseCode(404).setBody("");
+                    }
+                });
+                mockRepo.start();
+                var repositories = List.of(MavenRepository.builder()
+                  .id("id")
+                  .uri("http://%s:%d/maven".formatted(mockRepo.getHostName(), mockRepo.getPort()))
+                  .build());
+
+                // a cache that does not remember missing POMs
+                MavenExecutionContextView.view(ctx).setPomCache(new InMemoryMavenPomCache() {
+                    @Override
+                    public void putPom(ResolvedGroupArtifactVersion gav, @Nullable Pom pom) {
+                        if (pom != null) {
+                            super.putPom(gav, pom);
+                        }
+                    }
+                });
+                var gav = new GroupArtifactVersion("fred", "fred", "1");
+                var downloader = new MavenPomDownloader(emptyMap(), ctx);
+                assertThrows(MavenDownloadingException.class, () -> downloader.download(gav, null, null, repositories));
+                assertThrows(MavenDownloadingException.class, () -> downloader.download(gav, null, null, repositories));
+                assertThat(pomRequests.get()).isEqualTo(1);
+            }
+        }
+
+        @Test
+        void errorsDoNotLeaveWaitersBlocked() throws Exception {
+            try (MockWebServer mockRepo = getMockServer()) {
+                mockRepo.setDispatcher(new Dispatcher() {
+                    @Override
+                    public MockResponse dispatch(RecordedRequest recordedRequest) {
+                        return new MockResponse().setResponseCode(200).setBody("");
+                    }
+                });
+                mockRepo.start();
+                var repositories = List.of(MavenRepository.builder()
+                  .id("id")
+                  .uri("http://%s:%d/maven".formatted(mockRepo.getHostName(), mockRepo.getPort()))
+                  .build());
+
+                HttpSender delegate = new HttpUrlConnectionSender(Duration.ofMillis(250), Duration.ofMillis(250));
+                HttpSenderExecutionContextView.view(ctx).setHttpSender(request -> {
+                    if (request.getUrl().getPath().endsWith("fred/fred/1/fred-1.pom")) {
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new AssertionError("not an exception");
+                    }
+                    return delegate.send(request);
+                });
+                var gav = new GroupArtifactVersion("fred", "fred", "1");
+                var downloader = new MavenPomDownloader(emptyMap(), ctx);
+                ExecutorService executor = Executors.newFixedThreadPool(4);
+                try {
+                    List<Future<Pom>> downloads = new ArrayList<>();
+                    for (int i = 0; i < 4; i++) {
+                        downloads.add(executor.submit(() -> downloader.download(gav, null, null, repositories)));
+                    }
+                    List<Throwable> failures = new ArrayList<>();
+                    for (Future<Pom> download : downloads) {
+                        failures.add(assertThrows(ExecutionException.class, () -> download.get(10, TimeUnit.SECONDS)).getCause());
+                    }
+                    assertThat(failures).doesNotHaveDuplicates();
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+        }
     }
 
     @Test
@@ -25,6 +25,7 @@
 import org.openrewrite.Issue;
 import org.openrewrite.maven.MavenDownloadingException;
 import org.openrewrite.maven.MavenExecutionContextView;
+import org.openrewrite.maven.MavenParser;
 import org.openrewrite.test.RewriteTest;
 
 import java.io.IOException;
@@ -32,6 +33,8 @@
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -910,6 +913,75 @@ void siblingDependencyWithTgzPackagingAndSnapshot() {
         );
     }
 
+    @Test
+    void concurrentPomDownloadsResolveSameGraph(@TempDir Path localRepository) throws Exception {
+        MavenRepository mavenLocal = createMavenRepository(localRepository, "local");
+        createArtifact(localRepository, "shared", "");
+        for (String artifactId : List.of("a", "b", "c", "d")) {
+            createArtifact(localRepository, artifactId, """
+              <dependencies>
+                <dependency>
+                  <groupId>com.some</groupId>
+                  <artifactId>shared</artifactId>
+                  <version>1</version>
+                </dependency>
+              </dependencies>
+              """);
+        }
+
+        List<String> sequential = resolveCompileDependencies(mavenLocal, 1);
+        List<String> concurrent = resolveCompileDependencies(mavenLocal, 8);
+        assertThat(concurrent)
+          .isEqualTo(sequential)
+          .containsExactly("com.some:a:1@0", "com.some:b:1@0", "com.some:c:1@0", "com.some:d:1@0", "com.some:shared:1@1");
+    }
+
+    private static List<String> resolveCompileDependencies(MavenRepository repository, int parallelism) {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            return resolveCompileDependencies(repository, executor, parallelism);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> resolveCompileDependencies(MavenRepository repository, ExecutorService executor, int parallelism) {
+        MavenExecutionContextView ctx = MavenExecutionContextView.view(new InMemoryExecutionContext(Throwable::printStackTrace))
+          .setRepositories(List.of(repository))
+          .setPomDownloadExecutor(executor, parallelism);
+        //language=xml
+        String pom = """
+          <project>
+            <groupId>com.example</groupId>
+            <artifactId>app</artifactId>
+            <version>1</version>
+            <dependencies>
+              <dependency><groupId>com.some</groupId><artifactId>a</artifactId><version>1</version></dependency>
+              <dependency><groupId>com.some</groupId><artifactId>b</artifactId><version>1</version></dependency>
+              <dependency><groupId>com.some</groupId><artifactId>c</artifactId><version>1</version></dependency>
+              <dependency><groupId>com.some</groupId><artifactId>d</artifactId><version>1</version></dependency>
+            </dependencies>
+          </project>
+          """;
+        MavenResolutionResult result = MavenParser.builder().build().parse(ctx, pom).findFirst().orElseThrow()
+          .getMarkers().findFirst(MavenResolutionResult.class).orElseThrow();
+        return result.getDependencies().get(Scope.Compile).stream()
+          .map(d -> d.getGav() + "@" + d.getDepth())
+          .toList();
+    }
+
+    private static void createArtifact(Path localRepository, String artifactId, @Language("xml") String dependencies) throws IOException {
+        createJarFile(localRepository, "com.some", artifactId, "1");
+        Files.writeString(localRepository.resolve("com/some/%s/1/%s-1.pom".formatted(artifactId, artifactId)), """
+          <project>
+            <groupId>com.some</groupId>
+            <artifactId>%s</artifactId>
+            <version>1</version>
+            %s
+          </project>
+          """.formatted(artifactId, dependencies));
+    }
+
     private static MavenRepository createMavenRepository(Path localRepository, String name) {
         return MavenRepository.builder()
           .id(name)
@@ -37,6 +37,7 @@ from typing import Dict, Any, Optional, List, Callable, Set
 from uuid import uuid4
 
 from rewrite.discovery import RecipeAttribution, RecipeName
+from rewrite.rpc.smile import SMILE, encode as smile_encode
 
 # Deeply nested LST nodes (e.g., 256 implicitly concatenated strings) can
 # overflow the default recursion limit (1000) during RPC serialization.
@@ -554,10 +555,26 @@ def handle_parse_project(params: dict) -> List[dict]:
     return results
 
 
-def handle_get_object(params: dict) -> List[dict]:
+def handle_get_object(params: dict) -> Any:
     """Handle a GetObject RPC request.
 
-    This serializes an object for RPC transfer as RpcObjectData[].
+    When the request asks for the batch in Smile, it is written as a binary
+    frame and the id of the frame is returned instead of the batch.
+    """
+    batch = _get_object_batch(params)
+    if params.get('encoding') == SMILE:
+        return write_frame(smile_encode(batch))
+    return batch
+
+
+def handle_get_object_encodings(params: dict) -> List[str]:
+    """Handle a GetObjectEncodings RPC request, with the encodings GetObject can return batches in."""
+    return [SMILE]
+
+
+def _get_object_batch(params: dict) -> List[dict]:
+    """Serialize an object for RPC transfer as RpcObjectData[].
+
     Returns list of RpcObjectData objects that Java can deserialize.
 
     After sending, we update remote_objects to track that the remote (Java)
@@ -1766,12 +1783,23 @@ def handle_generate(params: dict) -> dict:
     return {'ids': [], 'sourceFileTypes': []}
 
 
+class MethodNotFoundError(Exception):
+    """Raised for a request for a method this server doesn't have, which peers check for by its error code
+    to tell a server that predates a method apart from one that failed to handle it."""
+
+    code = -32601
+
+    def __init__(self, method: str):
+        super().__init__(f"Method not found: {method}")
+
+
 def handle_request(method: str, params: dict) -> Any:
     """Handle an RPC request."""
     handlers = {
         'Parse': handle_parse,
         'ParseProject': handle_parse_project,
         'GetObject': handle_get_object,
+        'GetObjectEncodings': handle_get_object_encodings,
         'GetLanguages': handle_get_languages,
         'Print': handle_print,
         'Reset': handle_reset,
@@ -1787,7 +1815,7 @@ def handle_request(method: str, params: dict) -> Any:
     if handler:
         return handler(params)
     else:
-        raise ValueError(f"Unknown method: {method}")
+        raise MethodNotFoundError(method)
 
 
 class _StdinBuffer:
@@ -1955,7 +1983,30 @@ def write_message(response: dict):
     """
     content_bytes = json.dumps(response).encode('utf-8')
     header = f"Content-Length: {len(content_bytes)}\r\n\r\n".encode('utf-8')
-    os.write(sys.stdout.fileno(), header + content_bytes)
+    _write_fully(header + content_bytes)
+
+
+_next_frame_id = 0
+
+
+def write_frame(data: bytes) -> int:
+    """Write a binary frame to stdout, to be followed by the response that refers to it by its id.
+
+    A frame is a message with a Rewrite-Frame header, which the Java side takes
+    out of the stream before its JSON-RPC transport reads it.
+    """
+    global _next_frame_id
+    _next_frame_id += 1
+    header = f"Content-Length: {len(data)}\r\nRewrite-Frame: {_next_frame_id}\r\n\r\n".encode('ascii')
+    _write_fully(header + data)
+    return _next_frame_id
+
+
+def _write_fully(data: bytes):
+    fd = sys.stdout.fileno()
+    view = memoryview(data)
+    while view:
+        view = view[os.write(fd, view):]
 
 
 def _init_pyroscope() -> None:
@@ -2037,6 +2088,16 @@ def main():
                     'id': request_id,
                     'result': result
                 }
+            except MethodNotFoundError as e:
+                logger.warning(str(e))
+                response = {
+                    'jsonrpc': '2.0',
+                    'id': request_id,
+                    'error': {
+                        'code': MethodNotFoundError.code,
+                        'message': str(e)
+                    }
+                }
             except Exception as e:
                 logger.exception(f"Error handling request: {e}")
                 # Include full stack trace in error response for debugging
@@ -0,0 +1,208 @@
+"""
+Encodes JSON values in the binary Smile format (https://github.com/FasterXML/smile-format-specification).
+
+GetObject batches are sent to a peer in Smile when it asks for them in that encoding, as a binary
+frame next to the JSON-RPC messages rather than as the JSON array of the response. Tree data repeats
+the same short strings over and over: value types, whitespace, and the names of the RpcObjectData
+fields themselves. Smile writes each of them in full once per frame and afterward as a one or two
+byte back reference.
+
+The encoder accepts what json.dumps() does with its default settings, and encodes it to the same value.
+"""
+import struct
+from typing import Any, Dict
+
+SMILE = 'smile'
+
+# ':)\n' followed by version 0 with shared property names and shared string values enabled
+_HEADER = b':)\n\x03'
+
+_MAX_SHARED = 1024
+
+_INT32_MIN = -(1 << 31)
+_INT32_MAX = (1 << 31) - 1
+_INT64_MIN = -(1 << 63)
+_INT64_MAX = (1 << 63) - 1
+
+
+def encode(value: Any) -> bytes:
+    """Encode a JSON value as a Smile document."""
+    encoder = _Encoder()
+    encoder.write_value(value)
+    return bytes(encoder.out)
+
+
+class _Encoder:
+    def __init__(self):
+        self.out = bytearray(_HEADER)
+        self.names: Dict[str, int] = {}
+        self.name_count = 0
+        self.values: Dict[str, int] = {}
+        self.value_count = 0
+
+    def write_value(self, value: Any) -> None:
+        out = self.out
+        if value is None:
+            out.append(0x21)
+        elif value is True:
+            out.append(0x23)
+        elif value is False:
+            out.append(0x22)
+        elif isinstance(value, str):
+            self._write_string(str.__str__(value))
+        elif isinstance(value, int):
+            self._write_int(int(value))
+        elif isinstance(value, float):
+            out.append(0x29)
+            bits = struct.unpack('>Q', struct.pack('>d', value))[0]
+            for i in range(9, -1, -1):
+                out.append((bits >> (7 * i)) & 0x7F)
+        elif isinstance(value, dict):
+            out.append(0xFA)
+            for key, item in value.items():
+                self._write_name(_key(key))
+                self.write_value(item)
+            out.append(0xFB)
+        elif isinstance(value, (list, tuple)):
+            out.append(0xF8)
+            for item in value:
+                self.write_value(item)
+            out.append(0xF9)
+        else:
+            raise TypeError(f'Object of type {type(value).__name__} is not JSON serializable')
+
+    def _write_int(self, value: int) -> None:
+        out = self.out
+        if _INT32_MIN <= value <= _INT32_MAX:
+            zigzag = (value << 1) ^ (value >> 31)
+            if zigzag <= 0x1F:
+                out.append(0xC0 + zigzag)
+            else:
+                out.append(0x24)
+                self._write_vint(zigzag)
+        elif _INT64_MIN <= value <= _INT64_MAX:
+            out.append(0x25)
+            self._write_vint((value << 1) ^ (value >> 63))
+        else:
+            out.append(0x26)
+            data = value.to_bytes(((value if value >= 0 else ~value).bit_length() + 8) // 8, 'big', signed=True)
+            self._write_vint(len(data))
+            self._write_7bit(data)
+
+    def _write_vint(self, value: int) -> None:
+        """A non-negative number in 7 bit groups, most significant first, where the last byte
+        has its high bit set and holds 6 bits."""
+        groups = [0x80 | (value & 0x3F)]
+        value >>= 6
+        while value:
+            groups.append(value & 0x7F)
+            value >>= 7
+        self.out.extend(reversed(groups))
+
+    def _write_7bit(self, data: bytes) -> None:
+        """Raw bytes with 7 bits to a byte, in chunks of 7 bytes to 8."""
+        for start in range(0, len(data), 7):
+            chunk = data[start:start + 7]
+            n = len(chunk)
+            bits = int.from_bytes(chunk, 'big')
+            for k in range(n):
+                self.out.append((bits >> (8 * n - 7 * (k + 1))) & 0x7F)
+            self.out.append(bits & ((1 << n) - 1))
+
+    def _write_string(self, text: str) -> None:
+        out = self.out
+        if not text:
+            out.append(0x20)
+            return
+        index = self.values.get(text)
+        if index is not None:
+            if index < 31:
+                out.append(0x01 + index)
+            else:
+                out.append(0xEC | (index >> 8))
+                out.append(index & 0xFF)
+            return
+        data = text.encode('utf-8', 'surrogatepass')
+        n = len(data)
+        if n == len(text):
+            if n <= 32:
+                out.append(0x40 + n - 1)
+            elif n <= 64:
+                out.append(0x60 + n - 33)
+            else:
+                out.append(0xE0)
+                out.extend(data)
+                out.append(0xFC)
+                return
+        else:
+            if n <= 33:
+                out.append(0x80 + n - 2)
+            elif n <= 65:
+                out.append(0xA0 + n - 34)
+            else:
+                out.append(0xE4)
+                out.extend(data)
+                out.append(0xFC)
+                return
+        out.extend(data)
+        # every short string is remembered by the decoder, so the indexes must be counted alike
+        if self.value_count == _MAX_SHARED:
+            self.values.clear()
+            self.value_count = 0
+        if _is_valid_back_reference(self.value_count):
+            self.values[text] = self.value_count
+        self.value_count += 1
+
+    def _write_name(self, name: str) -> None:
+        out = self.out
+        if not name:
+            out.append(0x20)
+            return
+        index = self.names.get(name)
+        if index is not None:
+            if index < 64:
+                out.append(0x40 + index)
+            else:
+                out.append(0x30 | (index >> 8))
+                out.append(index & 0xFF)
+            return
+        data = name.encode('utf-8', 'surrogatepass')
+        n = len(data)
+        if n == len(name) and n <= 64:
+            out.append(0x80 + n - 1)
+            out.extend(data)
+        elif n != len(name) and n <= 57:
+            out.append(0xC0 + n - 2)
+            out.extend(data)
+        else:
+            out.append(0x34)
+            out.extend(data)
+            out.append(0xFC)
+        if self.name_count == _MAX_SHARED:
+            self.names.clear()
+            self.name_count = 0
+        if _is_valid_back_reference(self.name_count):
+            self.names[name] = self.name_count
+        self.name_count += 1
+
+
+def _is_valid_back_reference(index: int) -> bool:
+    # the low byte of a two byte reference can't be 0xFE or 0xFF, which Smile reserves
+    return (index & 0xFF) < 0xFE
+
+
+def _key(key: Any) -> str:
+    """Object keys as json.dumps() writes them."""
+    if isinstance(key, str):
+        return str.__str__(key)
+    if key is True:
+        return 'true'
+    if key is False:
+        return 'false'
+    if key is None:
+        return 'null'
+    if isinstance(key, int):
+        return int.__repr__(key)
+    if isinstance(key, float):
+        return float.__repr__(key)
+    raise TypeError(f'keys must be str, int, float, bool or None, not {type(key).__name__}')
@@ -133,3 +133,14 @@ def test_recipe_descriptor_to_dict_emits_all_collection_keys():
                 "dataTables", "maintainers", "contributors", "examples"):
         assert key in result, f"missing key: {key}"
         assert result[key] == [], f"{key} should be empty list, got {result[key]!r}"
+
+
+def test_unknown_method_is_method_not_found():
+    """Peers fall back to older methods only on the JSON-RPC method not found error,
+    so an unknown method must not surface as an internal error."""
+    import pytest
+    from rewrite.rpc.server import MethodNotFoundError, handle_request
+
+    with pytest.raises(MethodNotFoundError, match="Method not found: GetObjects") as e:
+        handle_request("GetObjects", {})
+    assert e.value.code == -32601
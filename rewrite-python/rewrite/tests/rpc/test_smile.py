@@ -0,0 +1,76 @@
+import os
+
+from rewrite.rpc.smile import encode
+
+# The same batch is decoded by RewriteRpcTest on the Java side, and Jackson encodes it to these same bytes
+GOLDEN_BATCH = [
+    {'state': 'ADD', 'valueType': 'org.openrewrite.text.PlainText', 'value': 'Hello'},
+    {'state': 'CHANGE', 'value': -100, 'ref': 3},
+    {'state': 'ADD', 'value': 'Hello'},
+    {'state': 'NO_CHANGE'},
+    {'state': 'END_OF_OBJECT'},
+]
+GOLDEN_SMILE = bytes.fromhex(
+    '3a290a03f8fa847374617465424144448876616c7565547970655d6f72672e6f70656e726577726974652e746578742e506c61696e'
+    '546578748476616c75654448656c6c6ffbfa40454348414e47454224038782726566c6fbfa40014203fbfa40484e4f5f4348414e'
+    '4745fbfa404c454e445f4f465f4f424a454354fbf9'
+)
+
+
+def test_encodes_golden_batch():
+    assert encode(GOLDEN_BATCH) == GOLDEN_SMILE
+
+
+def test_shares_repeated_names_and_values():
+    batch = [{'state': 'ADD', 'valueType': 'org.openrewrite.java.tree.J$Identifier'}] * 100
+    data = encode(batch)
+    assert data.count(b'valueType') == 1
+    assert data.count(b'J$Identifier') == 1
+
+
+def test_scalars():
+    assert encode(None) == b':)\n\x03\x21'
+    assert encode(True) == b':)\n\x03\x23'
+    assert encode(False) == b':)\n\x03\x22'
+    assert encode('') == b':)\n\x03\x20'
+    assert encode(0) == b':)\n\x03\xc0'
+    assert encode(-1) == b':)\n\x03\xc1'
+    assert encode(15) == b':)\n\x03\xde'
+    # 16 zigzags to 32, which no longer fits in a small int
+    assert encode(16) == b':)\n\x03\x24\xa0'
+
+
+def test_enum_values_are_written_as_their_value():
+    from enum import Enum
+
+    class State(str, Enum):
+        ADD = 'ADD'
+
+    assert encode([State.ADD]) == encode(['ADD'])
+
+
+def test_frame_is_written_with_its_id(monkeypatch):
+    import rewrite.rpc.server as server
+
+    read_fd, write_fd = os.pipe()
+
+    class Stdout:
+        def fileno(self):
+            return write_fd
+
+    monkeypatch.setattr(server.sys, 'stdout', Stdout())
+    monkeypatch.setattr(server, '_get_object_batch', lambda params: GOLDEN_BATCH)
+    try:
+        frame_id = server.handle_get_object({'id': 'x', 'encoding': 'smile'})
+        os.close(write_fd)
+        with os.fdopen(read_fd, 'rb') as r:
+            written = r.read()
+    finally:
+        try:
+            os.close(write_fd)
+        except OSError:
+            pass
+
+    header = f'Content-Length: {len(GOLDEN_SMILE)}\r\nRewrite-Frame: {frame_id}\r\n\r\n'.encode('ascii')
+    assert written == header + GOLDEN_SMILE
+    assert server.handle_get_object_encodings({}) == ['smile']
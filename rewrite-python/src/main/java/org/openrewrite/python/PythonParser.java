@@ -23,6 +23,7 @@
 import org.openrewrite.python.internal.rpc.PythonValidator;
 import org.openrewrite.python.rpc.PythonRewriteRpc;
 import org.openrewrite.python.tree.Py;
+import org.openrewrite.rpc.RewriteRpcProcessPool;
 import org.openrewrite.text.PlainTextParser;
 import org.openrewrite.tree.ParseError;
 
@@ -82,8 +83,13 @@ public Stream<SourceFile> parseInputs(Iterable<Input> sources, @Nullable Path re
             Map<String, String> options = languageLevel != null
                     ? Collections.singletonMap("languageLevel", languageLevel.version())
                     : null;
-            smallFileStream = PythonRewriteRpc.getOrStart().parse(smallFiles, relativeTo, this,
-                    Py.CompilationUnit.class.getName(), ctx, options).map(source -> {
+            RewriteRpcProcessPool<PythonRewriteRpc> pool = PythonRewriteRpc.getPool();
+            Stream<SourceFile> parsed = pool == null ?
+                    PythonRewriteRpc.getOrStart().parse(smallFiles, relativeTo, this,
+                            Py.CompilationUnit.class.getName(), ctx, options) :
+                    pool.parse(smallFiles, (rpc, run) -> rpc.parse(run, relativeTo, this,
+                            Py.CompilationUnit.class.getName(), ctx, options));
+            smallFileStream = parsed.map(source -> {
                 try {
                     validator.visit(source, 0);
                     return source;
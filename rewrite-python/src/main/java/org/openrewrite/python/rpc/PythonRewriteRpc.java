@@ -32,6 +32,7 @@
 import org.openrewrite.rpc.RewriteRpc;
 import org.openrewrite.rpc.RewriteRpcProcess;
 import org.openrewrite.rpc.RewriteRpcProcessManager;
+import org.openrewrite.rpc.RewriteRpcProcessPool;
 import org.openrewrite.toml.TomlParser;
 import org.openrewrite.tree.ParseError;
 import org.openrewrite.tree.ParsingEventListener;
@@ -67,6 +68,7 @@ public class PythonRewriteRpc extends RewriteRpc {
         this.command = command;
         this.commandEnv = commandEnv;
         this.process = process;
+        binaryFrames(process.getBinaryFrames());
     }
 
     public static @Nullable PythonRewriteRpc get() {
@@ -81,6 +83,24 @@ public static void setFactory(Builder builder) {
         MANAGER.setFactory(builder);
     }
 
+    /**
+     * A pool of RPC processes started with the factory of the calling thread.
+     */
+    public static RewriteRpcProcessPool<PythonRewriteRpc> pool(int size) {
+        return MANAGER.pool(size);
+    }
+
+    public static @Nullable RewriteRpcProcessPool<PythonRewriteRpc> getPool() {
+        return MANAGER.getPool();
+    }
+
+    /**
+     * Parse on the pool, from every thread, rather than on the process of the calling thread, or stop when null.
+     */
+    public static void setPool(@Nullable RewriteRpcProcessPool<PythonRewriteRpc> pool) {
+        MANAGER.setPool(pool);
+    }
+
     @Override
     public void shutdown() {
         super.shutdown();
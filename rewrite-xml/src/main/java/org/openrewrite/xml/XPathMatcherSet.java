@@ -0,0 +1,310 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.xml;
+
+import org.jspecify.annotations.Nullable;
+import org.openrewrite.Cursor;
+import org.openrewrite.Incubating;
+import org.openrewrite.xml.XPathCompiler.CompiledStep;
+import org.openrewrite.xml.XPathCompiler.CompiledXPath;
+import org.openrewrite.xml.XPathCompiler.StepType;
+import org.openrewrite.xml.tree.Xml;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Matches a cursor against many XPath expressions at once.
+ * <p>
+ * Expressions made only of element name steps, like {@code /project/dependencies/dependency} or
+ * {@code //plugins/plugin}, are compiled into one automaton over tag names. The automaton states that are live at
+ * a tag are computed from those of its parent tag and kept on the tag's cursor, so as a visitor descends through a
+ * document, testing every expression at a tag costs time proportional to the number of live states rather than to
+ * the number of expressions times the depth of the tag.
+ * <p>
+ * Any other expression, for example one with predicates, attributes or axes, is matched with an {@link XPathMatcher}.
+ */
+@Incubating(since = "8.85.0")
+public class XPathMatcherSet {
+    private static final AtomicLong ids = new AtomicLong();
+
+    private final List<String> expressions;
+
+    /**
+     * The key of the live states on a tag's cursor, distinct for each set so that several sets can be used in the
+     * same visit.
+     */
+    private final String liveStatesKey = XPathMatcherSet.class.getName() + ".LIVE_STATES." + ids.incrementAndGet();
+
+    /**
+     * Indexed by expression, null for expressions compiled into the automaton.
+     */
+    private final @Nullable XPathMatcher[] fallbacks;
+
+    /**
+     * States are numbered globally. State {@code start[e] + k} means the first {@code k} steps of expression
+     * {@code e} have been matched, the last of them at the current tag.
+     */
+    private final int[] stateExpression;
+    private final int[] stateStep;
+    private final CompiledStep @Nullable [][] steps;
+
+    /**
+     * States that may advance on a tag at any depth, for expressions that are not anchored at the root.
+     */
+    private final Transitions floatingStarts = new Transitions();
+
+    /**
+     * States that may only advance on the root tag, for absolute expressions.
+     */
+    private final Transitions rootStarts = new Transitions();
+
+    public XPathMatcherSet(String... expressions) {
+        this(Arrays.asList(expressions));
+    }
+
+    public XPathMatcherSet(Collection<String> expressions) {
+        this.expressions = new ArrayList<>(expressions);
+        int n = this.expressions.size();
+        this.fallbacks = new XPathMatcher[n];
+        this.steps = new CompiledStep[n][];
+
+        List<Integer> stateExpressions = new ArrayList<>();
+        List<Integer> stateSteps = new ArrayList<>();
+        for (int e = 0; e < n; e++) {
+            CompiledXPath compiled = XPathCompiler.compile(this.expressions.get(e));
+            if (!isElementPath(compiled)) {
+                fallbacks[e] = new XPathMatcher(this.expressions.get(e));
+                continue;
+            }
+            steps[e] = compiled.steps;
+            int start = stateExpressions.size();
+            for (int k = 0; k <= compiled.steps.length; k++) {
+                stateExpressions.add(e);
+                stateSteps.add(k);
+            }
+            if (compiled.hasAbsolutePath()) {
+                rootStarts.add(compiled.steps[0].name, start);
+            } else {
+                floatingStarts.add(compiled.steps[0].name, start);
+            }
+        }
+        this.stateExpression = new int[stateExpressions.size()];
+        this.stateStep = new int[stateSteps.size()];
+        for (int i = 0; i < stateExpression.length; i++) {
+            stateExpression[i] = stateExpressions.get(i);
+            stateStep[i] = stateSteps.get(i);
+        }
+    }
+
+    private static boolean isElementPath(CompiledXPath compiled) {
+        if (!compiled.isPathExpression() || compiled.steps.length == 0) {
+            return false;
+        }
+        for (CompiledStep step : compiled.steps) {
+            if (step.type != StepType.NODE_TEST ||
+                (step.strategy != CompiledStep.STRATEGY_NAME_ONLY && step.strategy != CompiledStep.STRATEGY_WILDCARD)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return expressions.size();
+    }
+
+    public String getExpression(int index) {
+        return expressions.get(index);
+    }
+
+    /**
+     * @param cursor The cursor to match.
+     * @param index  The index of the expression, in the order the expressions were given.
+     * @return Whether the expression at {@code index} matches the cursor.
+     */
+    public boolean matches(Cursor cursor, int index) {
+        XPathMatcher fallback = fallbacks[index];
+        if (fallback != null) {
+            return fallback.matches(cursor);
+        }
+        LiveStates live = liveStates(cursor);
+        return live != null && live.accepts(index);
+    }
+
+    public boolean matchesAny(Cursor cursor) {
+        LiveStates live = liveStates(cursor);
+        if (live != null && live.accepted.length > 0) {
+            return true;
+        }
+        for (XPathMatcher fallback : fallbacks) {
+            if (fallback != null && fallback.matches(cursor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The indexes of all expressions that match the cursor.
+     */
+    public BitSet matching(Cursor cursor) {
+        BitSet matching = new BitSet(expressions.size());
+        LiveStates live = liveStates(cursor);
+        if (live != null) {
+            for (int e : live.accepted) {
+                matching.set(e);
+            }
+        }
+        for (int e = 0; e < fallbacks.length; e++) {
+            XPathMatcher fallback = fallbacks[e];
+            if (fallback != null && fallback.matches(cursor)) {
+                matching.set(e);
+            }
+        }
+        return matching;
+    }
+
+    private @Nullable LiveStates liveStates(Cursor cursor) {
+        if (!(cursor.getValue() instanceof Xml.Tag)) {
+            return null;
+        }
+        LiveStates live = cursor.getMessage(liveStatesKey);
+        if (live == null) {
+            Cursor parent = parentTagCursor(cursor);
+            live = advance(parent == null ? null : liveStates(parent), cursor.<Xml.Tag>getValue().getName());
+            cursor.putMessage(liveStatesKey, live);
+        }
+        return live;
+    }
+
+    /**
+     * Like {@link XPathMatcher}, a tag's parent is its nearest enclosing tag within the same document.
+     */
+    private static @Nullable Cursor parentTagCursor(Cursor cursor) {
+        for (Cursor parent = cursor.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent.getValue() instanceof Xml.Tag) {
+                return parent;
+            } else if (parent.getValue() instanceof Xml.Document) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private LiveStates advance(@Nullable LiveStates parent, String tagName) {
+        Set<Integer> exact = new LinkedHashSet<>();
+        floatingStarts.advance(tagName, exact);
+        if (parent == null) {
+            rootStarts.advance(tagName, exact);
+        } else {
+            for (int state : parent.exact) {
+                advance(state, tagName, exact);
+            }
+            for (int state : parent.descendant) {
+                advance(state, tagName, exact);
+            }
+        }
+
+        // States whose next step is preceded by `//` stay live for every descendant of this tag.
+        Set<Integer> descendant = new LinkedHashSet<>();
+        if (parent != null) {
+            for (int state : parent.descendant) {
+                descendant.add(state);
+            }
+        }
+        Set<Integer> accepted = new TreeSet<>();
+        for (int state : exact) {
+            CompiledStep[] expressionSteps = steps[stateExpression[state]];
+            //noinspection DataFlowIssue
+            if (stateStep[state] == expressionSteps.length) {
+                accepted.add(stateExpression[state]);
+            } else if (expressionSteps[stateStep[state]].isDescendant) {
+                descendant.add(state);
+            }
+        }
+        return new LiveStates(toArray(exact), toArray(descendant), toArray(accepted));
+    }
+
+    private void advance(int state, String tagName, Set<Integer> into) {
+        CompiledStep[] expressionSteps = steps[stateExpression[state]];
+        int k = stateStep[state];
+        //noinspection DataFlowIssue
+        if (k < expressionSteps.length && matchesName(expressionSteps[k].name, tagName)) {
+            into.add(state + 1);
+        }
+    }
+
+    private static boolean matchesName(@Nullable String pattern, String name) {
+        return pattern == null || "*".equals(pattern) || pattern.equals(name);
+    }
+
+    private static int[] toArray(Collection<Integer> states) {
+        int[] array = new int[states.size()];
+        int i = 0;
+        for (Integer state : states) {
+            array[i++] = state;
+        }
+        return array;
+    }
+
+    private static class LiveStates {
+        final int[] exact;
+        final int[] descendant;
+
+        /**
+         * Sorted indexes of the expressions that match at this tag.
+         */
+        final int[] accepted;
+
+        LiveStates(int[] exact, int[] descendant, int[] accepted) {
+            this.exact = exact;
+            this.descendant = descendant;
+            this.accepted = accepted;
+        }
+
+        boolean accepts(int expression) {
+            return Arrays.binarySearch(accepted, expression) >= 0;
+        }
+    }
+
+    /**
+     * Start states indexed by the name of the first step, so that only those that can advance on a tag are visited.
+     */
+    private static class Transitions {
+        final Map<String, List<Integer>> byName = new HashMap<>();
+        final List<Integer> wildcard = new ArrayList<>();
+
+        void add(@Nullable String name, int state) {
+            if (name == null || "*".equals(name)) {
+                wildcard.add(state);
+            } else {
+                byName.computeIfAbsent(name, n -> new ArrayList<>()).add(state);
+            }
+        }
+
+        void advance(String tagName, Set<Integer> into) {
+            for (Integer state : byName.getOrDefault(tagName, emptyList())) {
+                into.add(state + 1);
+            }
+            for (Integer state : wildcard) {
+                into.add(state + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025 the original author or authors.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openrewrite.xml;
+
+import org.junit.jupiter.api.Test;
+import org.openrewrite.SourceFile;
+import org.openrewrite.xml.tree.Xml;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XPathMatcherSetTest {
+
+    private final SourceFile pomXml = new XmlParser().parse(
+      """
+        <project>
+          <groupId>com.mycompany.app</groupId>
+          <artifactId>my-app</artifactId>
+          <properties>
+            <java.version>17</java.version>
+          </properties>
+          <dependencies>
+            <dependency>
+              <groupId>org.openrewrite</groupId>
+              <artifactId scope="compile">rewrite-xml</artifactId>
+            </dependency>
+          </dependencies>
+          <build>
+            <plugins>
+              <plugin>
+                <artifactId>maven-compiler-plugin</artifactId>
+                <dependencies>
+                  <dependency>
+                    <artifactId>plexus-compiler</artifactId>
+                  </dependency>
+                </dependencies>
+                <configuration>
+                  <plugins>
+                    <plugin>
+                      <artifactId>nested</artifactId>
+                    </plugin>
+                  </plugins>
+                </configuration>
+              </plugin>
+            </plugins>
+          </build>
+        </project>
+        """
+    ).toList().getFirst();
+
+    private final List<String> expressions = List.of(
+      "/project/dependencies/dependency",
+      "//plugins/plugin",
+      "//plugins/plugin/dependencies/dependency",
+      "/project/properties/*",
+      "/project//artifactId",
+      "dependency/artifactId",
+      "/dependencies/dependency",
+      "//dependency/artifactId[text()='rewrite-xml']",
+      "//artifactId/@scope",
+      "/*/build//plugin//artifactId"
+    );
+
+    @Test
+    void agreesWithIndividualMatchers() {
+        XPathMatcherSet matchers = new XPathMatcherSet(expressions);
+        List<XPathMatcher> individual = new ArrayList<>();
+        for (String expression : expressions) {
+            individual.add(new XPathMatcher(expression));
+        }
+
+        BitSet matchedAnywhere = new BitSet();
+        new XmlVisitor<Integer>() {
+            @Override
+            public Xml visitTag(Xml.Tag tag, Integer p) {
+                check();
+                return super.visitTag(tag, p);
+            }
+
+            @Override
+            public Xml visitAttribute(Xml.Attribute attribute, Integer p) {
+                check();
+                return super.visitAttribute(attribute, p);
+            }
+
+            private void check() {
+                BitSet matching = matchers.matching(getCursor());
+                for (int i = 0; i < expressions.size(); i++) {
+                    boolean expected = individual.get(i).matches(getCursor());
+                    assertThat(matchers.matches(getCursor(), i))
+                      .as("%s at %s", expressions.get(i), getCursor())
+                      .isEqualTo(expected)
+                      .isEqualTo(matching.get(i));
+                }
+                assertThat(matchers.matchesAny(getCursor())).isEqualTo(!matching.isEmpty());
+                matchedAnywhere.or(matching);
+            }
+        }.visit(pomXml, 0);
+
+        // every expression but the one anchored at a root named dependencies matches somewhere
+        assertThat(matchedAnywhere.cardinality()).isEqualTo(expressions.size() - 1);
+        assertThat(matchedAnywhere.get(6)).isFalse();
+    }
+}
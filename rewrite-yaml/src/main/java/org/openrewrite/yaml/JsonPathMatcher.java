@@ -16,6 +16,7 @@
 package org.openrewrite.yaml;
 
 import lombok.EqualsAndHashCode;
+import lombok.Value;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.ParserRuleContext;
@@ -49,9 +50,14 @@
 @EqualsAndHashCode
 public class JsonPathMatcher {
 
+    static final String RESOLVED_DOCUMENT = "org.openrewrite.yaml.JsonPathMatcher.RESOLVED_DOCUMENT";
+
     private final String jsonPath;
     private JsonPathParser.@Nullable JsonPathContext parsed;
 
+    @EqualsAndHashCode.Exclude
+    private @Nullable KeyConstraints keyConstraints;
+
     public JsonPathMatcher(String jsonPath) {
         this.jsonPath = jsonPath;
     }
@@ -103,6 +109,9 @@ private <T> Optional<T> find0(Cursor cursor, List<Tree> cursorPath) {
     }
 
     public boolean matches(Cursor cursor) {
+        if (!mayMatch(cursor)) {
+            return false;
+        }
         List<Tree> cursorPath = resolvedAncestors(cursor);
         Object cursorValue = cursorPath.get(cursorPath.size() - 1);
         return find0(cursor, cursorPath).map(o -> {
@@ -116,43 +125,154 @@ public boolean matches(Cursor cursor) {
         }).orElse(false);
     }
 
+    /**
+     * Rule out a cursor by the keys of the entries on its path, without interpreting the path. This costs time
+     * proportional to the depth of the cursor, where a full match costs time proportional to the size of the
+     * document. Aliases are only resolved when the outermost key does not match, because an aliased mapping shares
+     * its entries with the anchored one and so puts them under other top-level keys too.
+     */
+    private boolean mayMatch(Cursor cursor) {
+        KeyConstraints constraints = keyConstraints();
+        if (constraints.lastKey == null) {
+            return true;
+        }
+        Object value = cursor.getValue();
+        if (!(value instanceof Yaml.Mapping.Entry) || !hasKey((Yaml.Mapping.Entry) value, constraints.lastKey)) {
+            return false;
+        }
+        if (constraints.firstKey == null) {
+            return true;
+        }
+        Yaml.Mapping.Entry outermost = null;
+        for (Cursor c = cursor; c != null; c = c.getParent()) {
+            if (c.getValue() instanceof Yaml.Mapping.Entry) {
+                outermost = c.getValue();
+            } else if (c.getValue() instanceof Yaml.Document) {
+                return outermost != null && hasKey(outermost, constraints.firstKey) ||
+                       !resolveAliases(c).getReplacements().isEmpty();
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasKey(Yaml.Mapping.Entry entry, String key) {
+        // the key of an alias is only known once it is resolved
+        return !(entry.getKey() instanceof Yaml.Scalar) || key.equals(entry.getKey().getValue());
+    }
+
+    private KeyConstraints keyConstraints() {
+        if (keyConstraints == null) {
+            List<JsonPathParser.ExpressionContext> expressions = parse().expression();
+            String lastKey = null;
+            String firstKey = null;
+            if (!expressions.isEmpty()) {
+                // Any match of a path ending in a property is an entry with that key.
+                lastKey = propertyName(expressions.get(expressions.size() - 1));
+                if (parse().ROOT() != null) {
+                    // Any match of `$.a.b.c` is nested in an entry `a` of the document.
+                    firstKey = propertyName(expressions.get(0));
+                    for (JsonPathParser.ExpressionContext expression : expressions) {
+                        if (expression.DOT() == null || expression.dotOperator().property() == null) {
+                            firstKey = null;
+                            break;
+                        }
+                    }
+                }
+            }
+            keyConstraints = new KeyConstraints(firstKey, lastKey);
+        }
+        return keyConstraints;
+    }
+
+    private static @Nullable String propertyName(JsonPathParser.ExpressionContext expression) {
+        JsonPathParser.DotOperatorContext dotOperator = expression.dotOperator() != null ? expression.dotOperator() :
+                expression.recursiveDecent() != null ? expression.recursiveDecent().dotOperator() : null;
+        JsonPathParser.BracketOperatorContext bracketOperator = dotOperator != null ? dotOperator.bracketOperator() :
+                expression.bracketOperator();
+        JsonPathParser.PropertyContext property = dotOperator != null && dotOperator.property() != null ?
+                dotOperator.property() :
+                bracketOperator != null && bracketOperator.property().size() == 1 ? bracketOperator.property(0) : null;
+        if (property == null) {
+            return null;
+        }
+        return property.StringLiteral() != null ?
+                JsonPathYamlVisitor.unquoteStringLiteral(property.StringLiteral().getText()) :
+                property.Identifier().getText();
+    }
+
+    @Value
+    private static class KeyConstraints {
+        @Nullable
+        String firstKey;
+
+        @Nullable
+        String lastKey;
+    }
+
     private static List<Tree> resolvedAncestors(Cursor cursor) {
         ArrayDeque<Tree> deque = new ArrayDeque<>();
-        Map<Tree, Tree> resolved = new IdentityHashMap<>();
-        for (Iterator<Object> it = cursor.getPath(Tree.class::isInstance); it.hasNext(); ) {
-            Tree tree = (Tree) it.next();
+        ResolvedDocument resolved = null;
+        for (Cursor c = cursor; c != null; c = c.getParent()) {
+            if (!(c.getValue() instanceof Tree)) {
+                continue;
+            }
+            Tree tree = c.getValue();
             if (tree instanceof Yaml.Document) {
-                tree = new ReplaceAliasWithAnchorValueVisitor<Integer>() {
-                    @Override
-                    public @Nullable Yaml visit(@Nullable Tree tree, Integer p) {
-                        // NOTE: not calling `super.visit()` for performance reasons
-                        if (tree instanceof Yaml) {
-                            Yaml updated = ((Yaml) tree).acceptYaml(this, p);
-                            if (updated != tree) {
-                                resolved.put(tree, updated);
-                            }
-                            return updated;
-                        }
-                        return (Yaml) tree;
-                    }
-                }.visitNonNull(tree, 0);
-                deque.addFirst(tree);
+                resolved = resolveAliases(c);
+                deque.addFirst(resolved.getDocument());
                 break;
             }
             deque.addFirst(tree);
         }
         ArrayList<Tree> list = new ArrayList<>(deque);
-        if (!resolved.isEmpty()) {
+        if (resolved != null && !resolved.getReplacements().isEmpty()) {
             for (int i = 0; i < list.size(); i++) {
                 Tree tree = list.get(i);
-                if (resolved.containsKey(tree)) {
-                    list.set(i, resolved.get(tree));
+                if (resolved.getReplacements().containsKey(tree)) {
+                    list.set(i, resolved.getReplacements().get(tree));
                 }
             }
         }
         return list;
     }
 
+    /**
+     * Resolving the aliases of a document visits all of it, so the result is kept on the cursor of the document
+     * for as long as the visit of that document lasts.
+     */
+    private static ResolvedDocument resolveAliases(Cursor documentCursor) {
+        Yaml.Document document = documentCursor.getValue();
+        ResolvedDocument cached = documentCursor.getMessage(RESOLVED_DOCUMENT);
+        if (cached != null && cached.getOriginal() == document) {
+            return cached;
+        }
+        Map<Tree, Tree> replacements = new IdentityHashMap<>();
+        Yaml.Document resolved = (Yaml.Document) new ReplaceAliasWithAnchorValueVisitor<Integer>() {
+            @Override
+            public @Nullable Yaml visit(@Nullable Tree tree, Integer p) {
+                // NOTE: not calling `super.visit()` for performance reasons
+                if (tree instanceof Yaml) {
+                    Yaml updated = ((Yaml) tree).acceptYaml(this, p);
+                    if (updated != tree) {
+                        replacements.put(tree, updated);
+                    }
+                    return updated;
+                }
+                return (Yaml) tree;
+            }
+        }.visitNonNull(document, 0);
+        ResolvedDocument result = new ResolvedDocument(document, resolved, replacements);
+        documentCursor.putMessage(RESOLVED_DOCUMENT, result);
+        return result;
+    }
+
+    @Value
+    private static class ResolvedDocument {
+        Yaml.Document original;
+        Yaml.Document document;
+        Map<Tree, Tree> replacements;
+    }
+
     private JsonPathParser.JsonPathContext parse() {
         if (parsed == null) {
             // "$" is a special case meaning "root" - handle like "$"
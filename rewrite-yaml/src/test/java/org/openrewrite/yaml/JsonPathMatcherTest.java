@@ -22,7 +22,10 @@
 import org.openrewrite.yaml.tree.Yaml;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -1070,6 +1073,97 @@ void returnResultsWithVisitDocument() {
 //            assertThat(results).hasSize(1);
     }
 
+    @Test
+    void resolvesAliasesOncePerDocument() {
+        var resolutions = Collections.newSetFromMap(new IdentityHashMap<>());
+        //language=yaml
+        var matches = matchedEntries("$..yo", """
+          bar:
+            &abc yo: friend
+          baz:
+            *abc: friendly
+          """, resolutions);
+
+        // both the anchored and the aliased key are candidates, but the document is only resolved once
+        assertThat(matches).containsExactly("&abc yo: friend", "*abc: friendly");
+        assertThat(resolutions).hasSize(1);
+    }
+
+    @Test
+    void ruledOutByKeys() {
+        //language=yaml
+        var yaml = """
+          bar:
+            yo: friend
+          baz:
+            hi: friendly
+          """;
+        for (var jsonPath : List.of("$.bar.nope", "$..nope", "$.nope")) {
+            var resolutions = Collections.newSetFromMap(new IdentityHashMap<>());
+            assertThat(matchedEntries(jsonPath, yaml, resolutions)).as(jsonPath).isEmpty();
+            // no entry has the last key of the path, so the document is never resolved
+            assertThat(resolutions).as(jsonPath).isEmpty();
+        }
+        for (var jsonPath : List.of("$.bar.hi", "$.baz.yo", "$.nope.yo")) {
+            var resolutions = Collections.newSetFromMap(new IdentityHashMap<>());
+            assertThat(matchedEntries(jsonPath, yaml, resolutions)).as(jsonPath).isEmpty();
+            // the document is resolved once to learn that it has no aliases, and then every entry under
+            // another top-level key is ruled out without interpreting the path
+            assertThat(resolutions).as(jsonPath).hasSize(1);
+        }
+    }
+
+    @Test
+    void matchesOnlyThroughAliasedKey() {
+        var resolutions = Collections.newSetFromMap(new IdentityHashMap<>());
+        //language=yaml
+        var matches = matchedEntries("$.baz.yo", """
+          bar:
+            &abc yo: friend
+          baz:
+            *abc: friendly
+          """, resolutions);
+
+        assertThat(matches).containsExactly("*abc: friendly");
+        assertThat(resolutions).hasSize(1);
+    }
+
+    @Test
+    void matchesOnlyThroughAliasedMapping() {
+        var resolutions = Collections.newSetFromMap(new IdentityHashMap<>());
+        //language=yaml
+        var matches = matchedEntries("$.baz.yo", """
+          bar: &abc
+            yo: friend
+          baz: *abc
+          """, resolutions);
+
+        // the entry is written under `bar` only, but the alias puts it under `baz` as well
+        assertThat(matches).containsExactly("yo: friend");
+        assertThat(resolutions).hasSize(1);
+    }
+
+    private List<String> matchedEntries(@Language("jsonpath") String jsonPath, @Language("yaml") String yaml,
+                                        Set<Object> resolutions) {
+        var matcher = new JsonPathMatcher(jsonPath);
+        var matches = new ArrayList<String>();
+        new YamlParser().parse(yaml).findFirst().ifPresent(doc -> new YamlIsoVisitor<Integer>() {
+            @Override
+            public Yaml.Mapping.Entry visitMappingEntry(Yaml.Mapping.Entry entry, Integer p) {
+                if (matcher.matches(getCursor())) {
+                    matches.add(entry.withPrefix("").printTrimmed(getCursor().getParentOrThrow()));
+                }
+                Object resolved = getCursor().dropParentUntil(Yaml.Document.class::isInstance)
+                  .getMessage(JsonPathMatcher.RESOLVED_DOCUMENT);
+                if (resolved != null) {
+                    resolutions.add(resolved);
+                }
+                return super.visitMappingEntry(entry, p);
+            }
+        }.visit(doc, 0));
+        return matches;
+    }
+
     private void assertNotMatched(@Language("jsonpath") String jsonPath, List<String> before) {
         var results = visit(before, jsonPath, false);
         assertThat(results).hasSize(0);